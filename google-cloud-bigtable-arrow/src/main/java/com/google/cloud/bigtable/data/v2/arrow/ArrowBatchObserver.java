@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import com.google.api.core.BetaApi;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.StructReader;
+import com.google.common.base.Preconditions;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+/**
+ * A {@link ResponseObserver} for {@code BigtableDataClient#executeQueryAsync} that collects the
+ * rows of the results into Arrow batches of up to {@code maxBatchRows} rows.
+ *
+ * <p>The observer requests rows a batch at a time, so the results are read no faster than the
+ * batches are consumed. Every batch is passed to {@link Listener#onBatch(VectorSchemaRoot)} as soon
+ * as it is full, and the last partial batch when the results complete.
+ *
+ * <p>Sample code:
+ *
+ * <pre>{@code
+ * try (BufferAllocator allocator = new RootAllocator()) {
+ *   CountDownLatch done = new CountDownLatch(1);
+ *   client.executeQueryAsync(
+ *       boundStatement,
+ *       new ArrowBatchObserver(allocator, 4096, new ArrowBatchObserver.Listener() {
+ *         public void onBatch(VectorSchemaRoot batch) {
+ *           // Process or copy the batch, it is reused once this returns
+ *         }
+ *         public void onComplete() {
+ *           done.countDown();
+ *         }
+ *         public void onError(Throwable t) {
+ *           done.countDown();
+ *         }
+ *       }));
+ *   // executeQueryAsync returns immediately, so wait for the results before closing the allocator
+ *   done.await();
+ * }
+ * }</pre>
+ */
+@BetaApi("This feature is currently experimental and can change in the future")
+public final class ArrowBatchObserver implements ResponseObserver<StructReader> {
+
+  /** Receives the batches of the results. The calls are never concurrent. */
+  public interface Listener {
+    /**
+     * Called with every batch of the results. The batch is only valid until this returns, after
+     * which it is cleared to hold the next batch.
+     */
+    void onBatch(VectorSchemaRoot batch);
+
+    /** Called after the last batch, once all the results were received. */
+    void onComplete();
+
+    /** Called if the query fails, or if {@link #onBatch} throws. */
+    void onError(Throwable t);
+  }
+
+  private final BufferAllocator allocator;
+  private final int maxBatchRows;
+  private final Listener listener;
+
+  private StreamController controller;
+  // Created from the metadata of the first row
+  private ArrowBatchWriter writer;
+  private Throwable listenerError;
+
+  /**
+   * @param allocator allocates the memory of the batches. It must stay open until the listener
+   *     completes.
+   * @param maxBatchRows the maximum number of rows in a batch
+   * @param listener receives the batches
+   */
+  public ArrowBatchObserver(BufferAllocator allocator, int maxBatchRows, Listener listener) {
+    Preconditions.checkArgument(maxBatchRows > 0, "maxBatchRows must be positive");
+    this.allocator = allocator;
+    this.maxBatchRows = maxBatchRows;
+    this.listener = listener;
+  }
+
+  @Override
+  public void onStart(StreamController controller) {
+    this.controller = controller;
+    controller.disableAutoInboundFlowControl();
+    controller.request(maxBatchRows);
+  }
+
+  @Override
+  public void onResponse(StructReader row) {
+    if (listenerError != null) {
+      // The stream is being cancelled
+      return;
+    }
+    try {
+      if (writer == null) {
+        Preconditions.checkArgument(
+            row instanceof ProtoSqlRow, "Unsupported row type: %s", row.getClass().getName());
+        writer = new ArrowBatchWriter(((ProtoSqlRow) row).metadata(), allocator);
+      }
+      writer.write(row);
+      if (writer.getRowCount() == maxBatchRows) {
+        flush();
+        controller.request(maxBatchRows);
+      }
+    } catch (RuntimeException e) {
+      listenerError = e;
+      controller.cancel();
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    closeWriter();
+    // Report why the stream was cancelled, rather than the cancellation
+    listener.onError(listenerError != null ? listenerError : t);
+  }
+
+  @Override
+  public void onComplete() {
+    try {
+      if (writer != null && writer.getRowCount() > 0) {
+        flush();
+      }
+    } catch (RuntimeException e) {
+      closeWriter();
+      listener.onError(e);
+      return;
+    }
+    closeWriter();
+    listener.onComplete();
+  }
+
+  private void flush() {
+    listener.onBatch(writer.getRoot());
+    writer.reset();
+  }
+
+  private void closeWriter() {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+}
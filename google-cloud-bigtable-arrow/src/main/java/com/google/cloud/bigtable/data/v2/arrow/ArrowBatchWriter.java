@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import com.google.api.core.BetaApi;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.ColumnMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.StructReader;
+import com.google.common.base.Preconditions;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+/**
+ * Writes the rows of SQL results into an Arrow {@link VectorSchemaRoot}, column by column.
+ *
+ * <p>The values are copied straight from the row protos into the vectors, without going through the
+ * typed getters of {@link StructReader}. The root is reused across batches: consume or copy it,
+ * then call {@link #reset()} before writing the next batch.
+ *
+ * <p>This class is not thread safe.
+ */
+@BetaApi("This feature is currently experimental and can change in the future")
+public final class ArrowBatchWriter implements AutoCloseable {
+  private final ResultSetMetadata metadata;
+  private final VectorSchemaRoot root;
+  private final ValueWriter[] columnWriters;
+  private int rowCount;
+
+  /**
+   * Creates a writer for results with the given metadata, with vectors allocated from the given
+   * allocator. The schema of the root is {@link ArrowSchemaConverter#toSchema(ResultSetMetadata)}.
+   */
+  public ArrowBatchWriter(ResultSetMetadata metadata, BufferAllocator allocator) {
+    this.metadata = metadata;
+    this.root = VectorSchemaRoot.create(ArrowSchemaConverter.toSchema(metadata), allocator);
+    List<ColumnMetadata> columns = metadata.getColumns();
+    this.columnWriters = new ValueWriter[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      columnWriters[i] = ValueWriter.create(root.getVector(i), columns.get(i).type());
+    }
+    root.allocateNew();
+  }
+
+  /**
+   * Appends a row to the batch.
+   *
+   * @param row a row of the results, as delivered by {@code BigtableDataClient#executeQueryAsync}
+   * @throws IllegalArgumentException if the row doesn't belong to results with this writer's
+   *     metadata
+   */
+  public void write(StructReader row) {
+    Preconditions.checkArgument(
+        row instanceof ProtoSqlRow, "Unsupported row type: %s", row.getClass().getName());
+    ProtoSqlRow protoRow = (ProtoSqlRow) row;
+    // Rows of the same results share the metadata instance, so this rarely compares the columns
+    Preconditions.checkArgument(
+        protoRow.metadata() == metadata || protoRow.metadata().equals(metadata),
+        "Row doesn't match the metadata of the writer");
+    List<Value> values = protoRow.values();
+    for (int i = 0; i < columnWriters.length; i++) {
+      columnWriters[i].write(rowCount, values.get(i));
+    }
+    rowCount++;
+    root.setRowCount(rowCount);
+  }
+
+  /** Returns the number of rows written since the last {@link #reset()}. */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /** Returns the root holding the rows written since the last {@link #reset()}. */
+  public VectorSchemaRoot getRoot() {
+    return root;
+  }
+
+  /** Clears the root, so that it can be filled with the next batch. */
+  public void reset() {
+    root.clear();
+    root.allocateNew();
+    rowCount = 0;
+  }
+
+  /** Releases the memory of the root. */
+  @Override
+  public void close() {
+    root.close();
+  }
+}
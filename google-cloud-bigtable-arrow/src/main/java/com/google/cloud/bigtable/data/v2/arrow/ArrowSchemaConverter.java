@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.bigtable.data.v2.models.sql.ColumnMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Maps the schema of SQL results to an Arrow {@link Schema}.
+ *
+ * <p>The types map as follows:
+ *
+ * <ul>
+ *   <li>{@code BYTES} and {@code PROTO} to {@code Binary}. Protos are kept serialized.
+ *   <li>{@code STRING} to {@code Utf8}
+ *   <li>{@code INT64} to a signed 64 bit {@code Int}
+ *   <li>{@code FLOAT32} and {@code FLOAT64} to a single and double precision {@code FloatingPoint}
+ *   <li>{@code BOOL} to {@code Bool}
+ *   <li>{@code TIMESTAMP} to a microsecond {@code Timestamp} in UTC
+ *   <li>{@code DATE} to a {@code Date} in days
+ *   <li>{@code ENUM} to a signed 32 bit {@code Int} holding the enum number
+ *   <li>{@code ARRAY} to {@code List}, {@code STRUCT} to {@code Struct} and {@code MAP} to {@code
+ *       Map}
+ * </ul>
+ *
+ * <p>Arrow requires the fields of a struct to have unique names, so struct fields that are unnamed
+ * or that repeat the name of an earlier field are named {@code _<index>}.
+ */
+@BetaApi("This feature is currently experimental and can change in the future")
+public final class ArrowSchemaConverter {
+  private ArrowSchemaConverter() {}
+
+  /** Creates the Arrow {@link Schema} with a field for every column of the results. */
+  public static Schema toSchema(ResultSetMetadata metadata) {
+    List<Field> fields = new ArrayList<>(metadata.getColumns().size());
+    for (ColumnMetadata column : metadata.getColumns()) {
+      fields.add(toField(column.name(), column.type()));
+    }
+    return new Schema(fields);
+  }
+
+  /** Creates the nullable Arrow {@link Field} for a value of the given type. */
+  public static Field toField(String name, SqlType<?> type) {
+    switch (type.getCode()) {
+      case ARRAY:
+        SqlType.Array<?> arrayType = (SqlType.Array<?>) type;
+        return new Field(
+            name,
+            FieldType.nullable(ArrowType.List.INSTANCE),
+            Collections.singletonList(toField("element", arrayType.getElementType())));
+      case STRUCT:
+        List<? extends SqlType.Struct.Field> structFields = ((SqlType.Struct) type).getFields();
+        List<Field> children = new ArrayList<>(structFields.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < structFields.size(); i++) {
+          String fieldName = structFields.get(i).name();
+          if (fieldName.isEmpty() || !names.add(fieldName)) {
+            fieldName = "_" + i;
+            names.add(fieldName);
+          }
+          children.add(toField(fieldName, structFields.get(i).type()));
+        }
+        return new Field(name, FieldType.nullable(ArrowType.Struct.INSTANCE), children);
+      case MAP:
+        SqlType.Map<?, ?> mapType = (SqlType.Map<?, ?>) type;
+        // Arrow maps are lists of non null entries with a non null key
+        Field key = toField("key", mapType.getKeyType());
+        Field entries =
+            new Field(
+                "entries",
+                FieldType.notNullable(ArrowType.Struct.INSTANCE),
+                Arrays.asList(
+                    new Field("key", FieldType.notNullable(key.getType()), key.getChildren()),
+                    toField("value", mapType.getValueType())));
+        return new Field(
+            name, FieldType.nullable(new ArrowType.Map(false)), Collections.singletonList(entries));
+      default:
+        return new Field(name, FieldType.nullable(toScalarType(type)), null);
+    }
+  }
+
+  private static ArrowType toScalarType(SqlType<?> type) {
+    switch (type.getCode()) {
+      case BYTES:
+      case PROTO:
+        return ArrowType.Binary.INSTANCE;
+      case STRING:
+        return ArrowType.Utf8.INSTANCE;
+      case INT64:
+        return new ArrowType.Int(64, true);
+      case FLOAT32:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+      case FLOAT64:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+      case BOOL:
+        return ArrowType.Bool.INSTANCE;
+      case TIMESTAMP:
+        return new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+      case DATE:
+        return new ArrowType.Date(DateUnit.DAY);
+      case ENUM:
+        return new ArrowType.Int(32, true);
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+}
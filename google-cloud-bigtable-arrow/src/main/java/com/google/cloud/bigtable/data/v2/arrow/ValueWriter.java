@@ -0,0 +1,307 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import com.google.bigtable.v2.ArrayValue;
+import com.google.bigtable.v2.Value;
+import com.google.bigtable.v2.Value.KindCase;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+
+/**
+ * Writes {@link Value}s of a single SQL type into an Arrow vector.
+ *
+ * <p>The writer for a column is picked once from its type, so writing a value doesn't switch on the
+ * type. Nested types get a writer per child vector.
+ */
+abstract class ValueWriter {
+  private final FieldVector vector;
+
+  private ValueWriter(FieldVector vector) {
+    this.vector = vector;
+  }
+
+  /** Creates the writer for values of the given type, into a vector created from its field. */
+  static ValueWriter create(FieldVector vector, SqlType<?> type) {
+    switch (type.getCode()) {
+      case BYTES:
+      case PROTO:
+        return new BytesWriter((VarBinaryVector) vector);
+      case STRING:
+        return new StringWriter((VarCharVector) vector);
+      case INT64:
+        return new Int64Writer((BigIntVector) vector);
+      case FLOAT32:
+        return new Float32Writer((Float4Vector) vector);
+      case FLOAT64:
+        return new Float64Writer((Float8Vector) vector);
+      case BOOL:
+        return new BoolWriter((BitVector) vector);
+      case TIMESTAMP:
+        return new TimestampWriter((TimeStampMicroTZVector) vector);
+      case DATE:
+        return new DateWriter((DateDayVector) vector);
+      case ENUM:
+        return new EnumWriter((IntVector) vector);
+      case ARRAY:
+        return new ArrayWriter((ListVector) vector, ((SqlType.Array<?>) type).getElementType());
+      case STRUCT:
+        return new StructWriter((StructVector) vector, (SqlType.Struct) type);
+      case MAP:
+        return new MapWriter((MapVector) vector, (SqlType.Map<?, ?>) type);
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  /** Writes the value at the given index of the vector, growing the vector as needed. */
+  void write(int index, Value value) {
+    if (value.getKindCase() == KindCase.KIND_NOT_SET) {
+      vector.setNull(index);
+    } else {
+      writeNonNull(index, value);
+    }
+  }
+
+  abstract void writeNonNull(int index, Value value);
+
+  private static final class BytesWriter extends ValueWriter {
+    private final VarBinaryVector vector;
+
+    BytesWriter(VarBinaryVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      ByteString bytes = value.getBytesValue();
+      vector.setSafe(index, bytes.asReadOnlyByteBuffer(), 0, bytes.size());
+    }
+  }
+
+  private static final class StringWriter extends ValueWriter {
+    private final VarCharVector vector;
+
+    StringWriter(VarCharVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      // The string value is held as UTF-8 bytes until it is first read as a String
+      ByteString bytes = value.getStringValueBytes();
+      vector.setSafe(index, bytes.asReadOnlyByteBuffer(), 0, bytes.size());
+    }
+  }
+
+  private static final class Int64Writer extends ValueWriter {
+    private final BigIntVector vector;
+
+    Int64Writer(BigIntVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      vector.setSafe(index, value.getIntValue());
+    }
+  }
+
+  private static final class Float32Writer extends ValueWriter {
+    private final Float4Vector vector;
+
+    Float32Writer(Float4Vector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      vector.setSafe(index, (float) value.getFloatValue());
+    }
+  }
+
+  private static final class Float64Writer extends ValueWriter {
+    private final Float8Vector vector;
+
+    Float64Writer(Float8Vector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      vector.setSafe(index, value.getFloatValue());
+    }
+  }
+
+  private static final class BoolWriter extends ValueWriter {
+    private final BitVector vector;
+
+    BoolWriter(BitVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      vector.setSafe(index, value.getBoolValue() ? 1 : 0);
+    }
+  }
+
+  private static final class TimestampWriter extends ValueWriter {
+    private final TimeStampMicroTZVector vector;
+
+    TimestampWriter(TimeStampMicroTZVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      Timestamp timestamp = value.getTimestampValue();
+      vector.setSafe(
+          index,
+          TimeUnit.SECONDS.toMicros(timestamp.getSeconds())
+              + TimeUnit.NANOSECONDS.toMicros(timestamp.getNanos()));
+    }
+  }
+
+  private static final class DateWriter extends ValueWriter {
+    private final DateDayVector vector;
+
+    DateWriter(DateDayVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      com.google.type.Date date = value.getDateValue();
+      vector.setSafe(
+          index, (int) LocalDate.of(date.getYear(), date.getMonth(), date.getDay()).toEpochDay());
+    }
+  }
+
+  private static final class EnumWriter extends ValueWriter {
+    private final IntVector vector;
+
+    EnumWriter(IntVector vector) {
+      super(vector);
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      vector.setSafe(index, (int) value.getIntValue());
+    }
+  }
+
+  private static final class ArrayWriter extends ValueWriter {
+    private final ListVector vector;
+    private final ValueWriter elementWriter;
+
+    ArrayWriter(ListVector vector, SqlType<?> elementType) {
+      super(vector);
+      this.vector = vector;
+      this.elementWriter = create(vector.getDataVector(), elementType);
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      List<Value> elements = value.getArrayValue().getValuesList();
+      int start = vector.startNewValue(index);
+      for (int i = 0; i < elements.size(); i++) {
+        elementWriter.write(start + i, elements.get(i));
+      }
+      vector.endValue(index, elements.size());
+    }
+  }
+
+  private static final class StructWriter extends ValueWriter {
+    private final StructVector vector;
+    private final ValueWriter[] fieldWriters;
+
+    StructWriter(StructVector vector, SqlType.Struct type) {
+      super(vector);
+      this.vector = vector;
+      List<? extends SqlType.Struct.Field> fields = type.getFields();
+      this.fieldWriters = new ValueWriter[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        fieldWriters[i] = create((FieldVector) vector.getChildByOrdinal(i), fields.get(i).type());
+      }
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      // A struct value is represented as an array of its field values
+      ArrayValue fields = value.getArrayValue();
+      vector.setIndexDefined(index);
+      for (int i = 0; i < fieldWriters.length; i++) {
+        fieldWriters[i].write(index, fields.getValues(i));
+      }
+    }
+  }
+
+  private static final class MapWriter extends ValueWriter {
+    private final MapVector vector;
+    private final StructVector entries;
+    private final ValueWriter keyWriter;
+    private final ValueWriter valueWriter;
+
+    MapWriter(MapVector vector, SqlType.Map<?, ?> type) {
+      super(vector);
+      this.vector = vector;
+      this.entries = (StructVector) vector.getDataVector();
+      this.keyWriter = create((FieldVector) entries.getChildByOrdinal(0), type.getKeyType());
+      this.valueWriter = create((FieldVector) entries.getChildByOrdinal(1), type.getValueType());
+    }
+
+    @Override
+    void writeNonNull(int index, Value value) {
+      // A map value is represented as an array of k, v tuples where the tuple is a nested array
+      List<Value> mapEntries = value.getArrayValue().getValuesList();
+      int start = vector.startNewValue(index);
+      for (int i = 0; i < mapEntries.size(); i++) {
+        ArrayValue entry = mapEntries.get(i).getArrayValue();
+        entries.setIndexDefined(start + i);
+        keyWriter.write(start + i, entry.getValues(0));
+        valueWriter.write(start + i, entry.getValues(1));
+      }
+      vector.endValue(index, mapEntries.size());
+    }
+  }
+}
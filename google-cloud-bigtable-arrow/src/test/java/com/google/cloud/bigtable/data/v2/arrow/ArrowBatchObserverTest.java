@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.gax.rpc.StreamController;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ColumnMetadataImpl;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ArrowBatchObserverTest {
+  private static final ResultSetMetadata METADATA =
+      ProtoResultSetMetadata.create(
+          ImmutableList.of(ColumnMetadataImpl.create("int64", SqlType.int64())));
+
+  private BufferAllocator allocator;
+  private FakeStreamController controller;
+  private RecordingListener listener;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator();
+    controller = new FakeStreamController();
+    listener = new RecordingListener();
+  }
+
+  @After
+  public void tearDown() {
+    // Fails if the observer leaked a batch
+    allocator.close();
+  }
+
+  @Test
+  public void batchesAreFlushedWhenFullTest() {
+    ArrowBatchObserver observer = new ArrowBatchObserver(allocator, 2, listener);
+    observer.onStart(controller);
+    assertThat(controller.autoFlowControl).isFalse();
+    assertThat(controller.requested).isEqualTo(2);
+
+    for (int i = 0; i < 5; i++) {
+      observer.onResponse(row(i));
+    }
+    assertThat(listener.batches)
+        .containsExactly(ImmutableList.of(0L, 1L), ImmutableList.of(2L, 3L))
+        .inOrder();
+    // Two full batches, each followed by a request for the next one
+    assertThat(controller.requested).isEqualTo(6);
+
+    observer.onComplete();
+    assertThat(listener.batches).hasSize(3);
+    assertThat(listener.batches.get(2)).containsExactly(4L);
+    assertThat(listener.completed).isTrue();
+  }
+
+  @Test
+  public void emptyResultsTest() {
+    ArrowBatchObserver observer = new ArrowBatchObserver(allocator, 2, listener);
+    observer.onStart(controller);
+    observer.onComplete();
+
+    assertThat(listener.batches).isEmpty();
+    assertThat(listener.completed).isTrue();
+  }
+
+  @Test
+  public void listenerErrorCancelsTheStreamTest() {
+    RuntimeException listenerError = new RuntimeException("fake error");
+    listener.batchError = listenerError;
+    ArrowBatchObserver observer = new ArrowBatchObserver(allocator, 1, listener);
+    observer.onStart(controller);
+
+    observer.onResponse(row(0));
+    assertThat(controller.cancelled).isTrue();
+    // Rows received while the stream is being cancelled are dropped
+    observer.onResponse(row(1));
+
+    observer.onError(new RuntimeException("cancelled"));
+    assertThat(listener.error).isSameInstanceAs(listenerError);
+    assertThat(listener.completed).isFalse();
+  }
+
+  @Test
+  public void queryErrorTest() {
+    ArrowBatchObserver observer = new ArrowBatchObserver(allocator, 2, listener);
+    observer.onStart(controller);
+    observer.onResponse(row(0));
+
+    RuntimeException error = new RuntimeException("fake error");
+    observer.onError(error);
+    assertThat(listener.batches).isEmpty();
+    assertThat(listener.error).isSameInstanceAs(error);
+  }
+
+  private static ProtoSqlRow row(long value) {
+    return ProtoSqlRow.create(
+        METADATA, ImmutableList.of(Value.newBuilder().setIntValue(value).build()));
+  }
+
+  private static class FakeStreamController implements StreamController {
+    private boolean autoFlowControl = true;
+    private int requested;
+    private boolean cancelled;
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {
+      autoFlowControl = false;
+    }
+
+    @Override
+    public void request(int count) {
+      requested += count;
+    }
+  }
+
+  private static class RecordingListener implements ArrowBatchObserver.Listener {
+    private final List<List<Long>> batches = new ArrayList<>();
+    private RuntimeException batchError;
+    private boolean completed;
+    private Throwable error;
+
+    @Override
+    public void onBatch(VectorSchemaRoot batch) {
+      if (batchError != null) {
+        throw batchError;
+      }
+      BigIntVector vector = (BigIntVector) batch.getVector(0);
+      List<Long> values = new ArrayList<>();
+      for (int i = 0; i < batch.getRowCount(); i++) {
+        values.add(vector.get(i));
+      }
+      batches.add(values);
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      error = t;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.bigtable.v2.ArrayValue;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ColumnMetadataImpl;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import java.time.LocalDate;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.util.JsonStringArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ArrowBatchWriterTest {
+  private BufferAllocator allocator;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator();
+  }
+
+  @After
+  public void tearDown() {
+    // Fails if any of the batches leaked memory
+    allocator.close();
+  }
+
+  @Test
+  public void scalarValuesTest() {
+    ResultSetMetadata metadata =
+        ProtoResultSetMetadata.create(
+            ImmutableList.of(
+                ColumnMetadataImpl.create("bytes", SqlType.bytes()),
+                ColumnMetadataImpl.create("string", SqlType.string()),
+                ColumnMetadataImpl.create("int64", SqlType.int64()),
+                ColumnMetadataImpl.create("float32", SqlType.float32()),
+                ColumnMetadataImpl.create("float64", SqlType.float64()),
+                ColumnMetadataImpl.create("bool", SqlType.bool()),
+                ColumnMetadataImpl.create("timestamp", SqlType.timestamp()),
+                ColumnMetadataImpl.create("date", SqlType.date())));
+
+    try (ArrowBatchWriter writer = new ArrowBatchWriter(metadata, allocator)) {
+      writer.write(
+          ProtoSqlRow.create(
+              metadata,
+              ImmutableList.of(
+                  Value.newBuilder().setBytesValue(ByteString.copyFromUtf8("bytes")).build(),
+                  Value.newBuilder().setStringValue("string").build(),
+                  Value.newBuilder().setIntValue(64).build(),
+                  Value.newBuilder().setFloatValue(1.5).build(),
+                  Value.newBuilder().setFloatValue(2.5).build(),
+                  Value.newBuilder().setBoolValue(true).build(),
+                  Value.newBuilder()
+                      .setTimestampValue(Timestamp.newBuilder().setSeconds(10).setNanos(5000))
+                      .build(),
+                  Value.newBuilder()
+                      .setDateValue(
+                          com.google.type.Date.newBuilder().setYear(2024).setMonth(2).setDay(29))
+                      .build())));
+      // A row of nulls
+      ImmutableList.Builder<Value> nulls = ImmutableList.builder();
+      for (int i = 0; i < metadata.getColumns().size(); i++) {
+        nulls.add(Value.getDefaultInstance());
+      }
+      writer.write(ProtoSqlRow.create(metadata, nulls.build()));
+
+      VectorSchemaRoot root = writer.getRoot();
+      assertThat(root.getRowCount()).isEqualTo(2);
+      assertThat(((VarBinaryVector) root.getVector("bytes")).get(0)).isEqualTo("bytes".getBytes());
+      assertThat(((VarCharVector) root.getVector("string")).getObject(0).toString())
+          .isEqualTo("string");
+      assertThat(((BigIntVector) root.getVector("int64")).get(0)).isEqualTo(64);
+      assertThat(((Float4Vector) root.getVector("float32")).get(0)).isEqualTo(1.5f);
+      assertThat(((Float8Vector) root.getVector("float64")).get(0)).isEqualTo(2.5);
+      assertThat(((BitVector) root.getVector("bool")).get(0)).isEqualTo(1);
+      assertThat(((TimeStampMicroTZVector) root.getVector("timestamp")).get(0))
+          .isEqualTo(10_000_005L);
+      assertThat(((DateDayVector) root.getVector("date")).get(0))
+          .isEqualTo((int) LocalDate.of(2024, 2, 29).toEpochDay());
+      for (int i = 0; i < metadata.getColumns().size(); i++) {
+        assertThat(root.getVector(i).isNull(0)).isFalse();
+        assertThat(root.getVector(i).isNull(1)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void nestedValuesTest() {
+    ResultSetMetadata metadata =
+        ProtoResultSetMetadata.create(
+            ImmutableList.of(
+                ColumnMetadataImpl.create("array", SqlType.arrayOf(SqlType.int64())),
+                ColumnMetadataImpl.create(
+                    "map", SqlType.mapOf(SqlType.string(), SqlType.int64()))));
+
+    try (ArrowBatchWriter writer = new ArrowBatchWriter(metadata, allocator)) {
+      writer.write(
+          ProtoSqlRow.create(
+              metadata,
+              ImmutableList.of(
+                  arrayValue(int64Value(1), Value.getDefaultInstance(), int64Value(3)),
+                  arrayValue(
+                      arrayValue(stringValue("a"), int64Value(1)),
+                      arrayValue(stringValue("b"), int64Value(2))))));
+      writer.write(
+          ProtoSqlRow.create(metadata, ImmutableList.of(arrayValue(), Value.getDefaultInstance())));
+
+      VectorSchemaRoot root = writer.getRoot();
+      ListVector array = (ListVector) root.getVector("array");
+      assertThat(array.getObject(0)).containsExactly(1L, null, 3L).inOrder();
+      assertThat(array.getObject(1)).isEmpty();
+
+      MapVector map = (MapVector) root.getVector("map");
+      JsonStringArrayList<?> entries = (JsonStringArrayList<?>) map.getObject(0);
+      assertThat(entries).hasSize(2);
+      assertThat(entries.get(0).toString()).isEqualTo("{\"key\":\"a\",\"value\":1}");
+      assertThat(entries.get(1).toString()).isEqualTo("{\"key\":\"b\",\"value\":2}");
+      assertThat(map.isNull(1)).isTrue();
+    }
+  }
+
+  @Test
+  public void resetClearsTheBatchTest() {
+    ResultSetMetadata metadata =
+        ProtoResultSetMetadata.create(
+            ImmutableList.of(ColumnMetadataImpl.create("int64", SqlType.int64())));
+
+    try (ArrowBatchWriter writer = new ArrowBatchWriter(metadata, allocator)) {
+      for (int i = 0; i < 1000; i++) {
+        writer.write(ProtoSqlRow.create(metadata, ImmutableList.of(int64Value(i))));
+      }
+      assertThat(writer.getRowCount()).isEqualTo(1000);
+      assertThat(((BigIntVector) writer.getRoot().getVector(0)).get(999)).isEqualTo(999);
+
+      writer.reset();
+      assertThat(writer.getRowCount()).isEqualTo(0);
+      assertThat(writer.getRoot().getRowCount()).isEqualTo(0);
+
+      writer.write(ProtoSqlRow.create(metadata, ImmutableList.of(int64Value(5))));
+      assertThat(((BigIntVector) writer.getRoot().getVector(0)).get(0)).isEqualTo(5);
+    }
+  }
+
+  @Test
+  public void rejectsRowsOfOtherResultsTest() {
+    ResultSetMetadata metadata =
+        ProtoResultSetMetadata.create(
+            ImmutableList.of(ColumnMetadataImpl.create("int64", SqlType.int64())));
+    ResultSetMetadata otherMetadata =
+        ProtoResultSetMetadata.create(
+            ImmutableList.of(ColumnMetadataImpl.create("string", SqlType.string())));
+
+    try (ArrowBatchWriter writer = new ArrowBatchWriter(metadata, allocator)) {
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              writer.write(
+                  ProtoSqlRow.create(otherMetadata, ImmutableList.of(stringValue("value")))));
+    }
+  }
+
+  static Value int64Value(long value) {
+    return Value.newBuilder().setIntValue(value).build();
+  }
+
+  static Value stringValue(String value) {
+    return Value.newBuilder().setStringValue(value).build();
+  }
+
+  static Value arrayValue(Value... values) {
+    return Value.newBuilder()
+        .setArrayValue(ArrayValue.newBuilder().addAllValues(ImmutableList.copyOf(values)))
+        .build();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.arrow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.bigtable.v2.Type;
+import com.google.cloud.bigtable.data.v2.internal.ColumnMetadataImpl;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.common.collect.ImmutableList;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ArrowSchemaConverterTest {
+
+  @Test
+  public void scalarTypesTest() {
+    Schema schema =
+        ArrowSchemaConverter.toSchema(
+            ProtoResultSetMetadata.create(
+                ImmutableList.of(
+                    ColumnMetadataImpl.create("bytes", SqlType.bytes()),
+                    ColumnMetadataImpl.create("string", SqlType.string()),
+                    ColumnMetadataImpl.create("int64", SqlType.int64()),
+                    ColumnMetadataImpl.create("float32", SqlType.float32()),
+                    ColumnMetadataImpl.create("float64", SqlType.float64()),
+                    ColumnMetadataImpl.create("bool", SqlType.bool()),
+                    ColumnMetadataImpl.create("timestamp", SqlType.timestamp()),
+                    ColumnMetadataImpl.create("date", SqlType.date()))));
+
+    assertThat(schema.getFields())
+        .containsExactly(
+            Field.nullable("bytes", ArrowType.Binary.INSTANCE),
+            Field.nullable("string", ArrowType.Utf8.INSTANCE),
+            Field.nullable("int64", new ArrowType.Int(64, true)),
+            Field.nullable("float32", new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE)),
+            Field.nullable("float64", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("bool", ArrowType.Bool.INSTANCE),
+            Field.nullable("timestamp", new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC")),
+            Field.nullable("date", new ArrowType.Date(DateUnit.DAY)))
+        .inOrder();
+  }
+
+  @Test
+  public void arrayTest() {
+    Field field = ArrowSchemaConverter.toField("array", SqlType.arrayOf(SqlType.string()));
+
+    assertThat(field.getType()).isEqualTo(ArrowType.List.INSTANCE);
+    assertThat(field.getChildren())
+        .containsExactly(Field.nullable("element", ArrowType.Utf8.INSTANCE));
+  }
+
+  @Test
+  public void mapTest() {
+    Field field =
+        ArrowSchemaConverter.toField("map", SqlType.mapOf(SqlType.bytes(), SqlType.int64()));
+
+    assertThat(field.getType()).isEqualTo(new ArrowType.Map(false));
+    Field entries = field.getChildren().get(0);
+    assertThat(entries.isNullable()).isFalse();
+    assertThat(entries.getChildren())
+        .containsExactly(
+            Field.notNullable("key", ArrowType.Binary.INSTANCE),
+            Field.nullable("value", new ArrowType.Int(64, true)))
+        .inOrder();
+  }
+
+  @Test
+  public void structFieldsGetUniqueNamesTest() {
+    SqlType<?> structType =
+        SqlType.fromProto(
+            Type.newBuilder()
+                .setStructType(
+                    Type.Struct.newBuilder()
+                        .addFields(field("a", Type.Int64.getDefaultInstance()))
+                        .addFields(field("", Type.Int64.getDefaultInstance()))
+                        .addFields(field("a", Type.Int64.getDefaultInstance())))
+                .build());
+
+    Field field = ArrowSchemaConverter.toField("struct", structType);
+
+    assertThat(field.getType()).isEqualTo(ArrowType.Struct.INSTANCE);
+    assertThat(field.getChildren())
+        .containsExactly(
+            Field.nullable("a", new ArrowType.Int(64, true)),
+            Field.nullable("_1", new ArrowType.Int(64, true)),
+            Field.nullable("_2", new ArrowType.Int(64, true)))
+        .inOrder();
+  }
+
+  private static Type.Struct.Field field(String name, Type.Int64 type) {
+    return Type.Struct.Field.newBuilder()
+        .setFieldName(name)
+        .setType(Type.newBuilder().setInt64Type(type))
+        .build();
+  }
+}
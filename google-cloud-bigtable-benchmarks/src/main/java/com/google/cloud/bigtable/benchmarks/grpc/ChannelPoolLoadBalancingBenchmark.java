@@ -0,0 +1,250 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.grpc;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.bigtable.v2.PingAndWarmResponse;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPool;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPoolSettings;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPoolSettings.LoadBalancingStrategy;
+import com.google.cloud.bigtable.gaxx.grpc.ChannelPrimer;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the load balancing strategies of {@link BigtableChannelPool} on a pool where one of the
+ * channels responds 10 times slower than the others, like a channel whose connection degraded
+ * without failing. Every benchmark thread sends one unary RPC at a time and waits for its response,
+ * so the reported time is the latency an application would see.
+ *
+ * <p>The channels are fakes that respond after a fixed delay, so the results don't depend on the
+ * network.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ChannelPoolLoadBalancingBenchmark {
+  private static final int CHANNEL_COUNT = 4;
+  private static final long FAST_LATENCY_MICROS = 500;
+  private static final long SLOW_LATENCY_MICROS = 5_000;
+
+  private static final MethodDescriptor<String, String> METHOD =
+      MethodDescriptor.<String, String>newBuilder()
+          .setType(MethodDescriptor.MethodType.UNARY)
+          .setFullMethodName(MethodDescriptor.generateFullMethodName("bigtable", "MutateRow"))
+          .setRequestMarshaller(StringMarshaller.INSTANCE)
+          .setResponseMarshaller(StringMarshaller.INSTANCE)
+          .build();
+
+  @Param({
+    "ROUND_ROBIN",
+    "LEAST_IN_FLIGHT",
+    "POWER_OF_TWO_LEAST_IN_FLIGHT",
+    "POWER_OF_TWO_PEAK_EWMA"
+  })
+  LoadBalancingStrategy strategy;
+
+  private ScheduledExecutorService responseExecutor;
+  private BigtableChannelPool pool;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    responseExecutor = Executors.newScheduledThreadPool(4);
+    AtomicInteger channelCount = new AtomicInteger();
+    pool =
+        BigtableChannelPool.create(
+            BigtableChannelPoolSettings.staticallySized(CHANNEL_COUNT).toBuilder()
+                .setLoadBalancingStrategy(strategy)
+                .build(),
+            () ->
+                new FakeChannel(
+                    channelCount.getAndIncrement() == 0 ? SLOW_LATENCY_MICROS : FAST_LATENCY_MICROS,
+                    responseExecutor),
+            NoopChannelPrimer.INSTANCE);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    pool.shutdownNow();
+    responseExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  public String unaryCall() throws Exception {
+    ClientCall<String, String> call = pool.newCall(METHOD, CallOptions.DEFAULT);
+    CompletableFuture<String> response = new CompletableFuture<>();
+    call.start(
+        new ClientCall.Listener<String>() {
+          private String message;
+
+          @Override
+          public void onMessage(String message) {
+            this.message = message;
+          }
+
+          @Override
+          public void onClose(Status status, Metadata trailers) {
+            response.complete(message);
+          }
+        },
+        new Metadata());
+    call.sendMessage("request");
+    call.halfClose();
+    call.request(1);
+    return response.get();
+  }
+
+  /** A channel whose calls respond after a fixed delay. */
+  private static class FakeChannel extends ManagedChannel {
+    private final long latencyMicros;
+    private final ScheduledExecutorService executor;
+    private volatile boolean shutdown;
+
+    FakeChannel(long latencyMicros, ScheduledExecutorService executor) {
+      this.latencyMicros = latencyMicros;
+      this.executor = executor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+        MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+      return (ClientCall<ReqT, RespT>) new FakeCall(latencyMicros, executor);
+    }
+
+    @Override
+    public String authority() {
+      return "fake";
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+      shutdown = true;
+      return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+      return shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return shutdown;
+    }
+  }
+
+  private static class FakeCall extends ClientCall<String, String> {
+    private final long latencyMicros;
+    private final ScheduledExecutorService executor;
+
+    FakeCall(long latencyMicros, ScheduledExecutorService executor) {
+      this.latencyMicros = latencyMicros;
+      this.executor = executor;
+    }
+
+    @Override
+    public void start(Listener<String> listener, Metadata headers) {
+      executor.schedule(
+          () -> {
+            listener.onHeaders(new Metadata());
+            listener.onMessage("response");
+            listener.onClose(Status.OK, new Metadata());
+          },
+          latencyMicros,
+          TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void request(int numMessages) {}
+
+    @Override
+    public void cancel(@Nullable String message, @Nullable Throwable cause) {}
+
+    @Override
+    public void halfClose() {}
+
+    @Override
+    public void sendMessage(String message) {}
+  }
+
+  private static class NoopChannelPrimer implements ChannelPrimer {
+    private static final NoopChannelPrimer INSTANCE = new NoopChannelPrimer();
+
+    @Override
+    public void primeChannel(ManagedChannel channel) {}
+
+    @Override
+    public ApiFuture<PingAndWarmResponse> sendPrimeRequestsAsync(ManagedChannel channel) {
+      return ApiFutures.immediateFuture(PingAndWarmResponse.getDefaultInstance());
+    }
+  }
+
+  private static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+    private static final StringMarshaller INSTANCE = new StringMarshaller();
+
+    @Override
+    public InputStream stream(String value) {
+      return new ByteArrayInputStream(value.getBytes());
+    }
+
+    @Override
+    public String parse(InputStream stream) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.grpc;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.bigtable.v2.PingAndWarmResponse;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPool;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPoolSettings;
+import com.google.cloud.bigtable.gaxx.grpc.BigtableChannelPoolSettings.LoadBalancingStrategy;
+import com.google.cloud.bigtable.gaxx.grpc.ChannelPrimer;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of picking a channel from {@link BigtableChannelPool}, with several
+ * threads creating calls concurrently. Every operation creates a call, which picks and retains a
+ * channel, and starts it. The fake channels close calls as soon as they start, which releases the
+ * channel, so the benchmark is dominated by the pool's bookkeeping.
+ *
+ * <p>Use {@code -t} to change the number of threads.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ChannelPoolPickBenchmark {
+  private static final MethodDescriptor<Void, Void> METHOD =
+      MethodDescriptor.<Void, Void>newBuilder()
+          .setType(MethodDescriptor.MethodType.UNARY)
+          .setFullMethodName(MethodDescriptor.generateFullMethodName("bigtable", "MutateRow"))
+          .setRequestMarshaller(VoidMarshaller.INSTANCE)
+          .setResponseMarshaller(VoidMarshaller.INSTANCE)
+          .build();
+
+  private static final ClientCall.Listener<Void> NOOP_LISTENER = new ClientCall.Listener<Void>() {};
+
+  @Param({"ROUND_ROBIN", "LEAST_IN_FLIGHT", "POWER_OF_TWO_LEAST_IN_FLIGHT"})
+  LoadBalancingStrategy strategy;
+
+  @Param({"8"})
+  int channelCount;
+
+  private BigtableChannelPool pool;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    pool =
+        BigtableChannelPool.create(
+            BigtableChannelPoolSettings.staticallySized(channelCount).toBuilder()
+                .setLoadBalancingStrategy(strategy)
+                .build(),
+            ClosingChannel::new,
+            NoopChannelPrimer.INSTANCE);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    pool.shutdownNow();
+  }
+
+  @Benchmark
+  public void newCall() {
+    pool.newCall(METHOD, CallOptions.DEFAULT).start(NOOP_LISTENER, new Metadata());
+  }
+
+  /** A channel whose calls close as soon as they start. */
+  private static class ClosingChannel extends ManagedChannel {
+    private volatile boolean shutdown;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+        MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+      return (ClientCall<ReqT, RespT>) new ClosingCall();
+    }
+
+    @Override
+    public String authority() {
+      return "fake";
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+      shutdown = true;
+      return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+      return shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return shutdown;
+    }
+  }
+
+  private static class ClosingCall extends ClientCall<Void, Void> {
+    @Override
+    public void start(Listener<Void> listener, Metadata headers) {
+      listener.onClose(Status.OK, headers);
+    }
+
+    @Override
+    public void request(int numMessages) {}
+
+    @Override
+    public void cancel(@Nullable String message, @Nullable Throwable cause) {}
+
+    @Override
+    public void halfClose() {}
+
+    @Override
+    public void sendMessage(Void message) {}
+  }
+
+  private static class NoopChannelPrimer implements ChannelPrimer {
+    private static final NoopChannelPrimer INSTANCE = new NoopChannelPrimer();
+
+    @Override
+    public void primeChannel(ManagedChannel channel) {}
+
+    @Override
+    public ApiFuture<PingAndWarmResponse> sendPrimeRequestsAsync(ManagedChannel channel) {
+      return ApiFutures.immediateFuture(PingAndWarmResponse.getDefaultInstance());
+    }
+  }
+
+  private static class VoidMarshaller implements MethodDescriptor.Marshaller<Void> {
+    private static final VoidMarshaller INSTANCE = new VoidMarshaller();
+
+    @Override
+    public InputStream stream(Void value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Void parse(InputStream stream) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
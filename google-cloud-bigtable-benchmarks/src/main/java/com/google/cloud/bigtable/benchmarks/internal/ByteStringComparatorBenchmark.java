@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.internal;
+
+import com.google.cloud.bigtable.data.v2.internal.ByteStringComparator;
+import com.google.protobuf.ByteString;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link ByteStringComparator} with a byte at a time comparison and with protobuf's {@link
+ * ByteString#unsignedLexicographicalComparator()} on row key sized {@link ByteString}s.
+ *
+ * <p>With {@code sharedPrefix}, every pair of keys only differs in its last byte, which is the
+ * worst case for all comparators and is common for keys that share a long prefix. Otherwise the
+ * keys are random and most comparisons end within the first few bytes.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ByteStringComparatorBenchmark {
+  private static final int PAIR_COUNT = 1024;
+
+  @Param({"16", "64", "200"})
+  int keySize;
+
+  @Param({"true", "false"})
+  boolean sharedPrefix;
+
+  private ByteString[] left;
+  private ByteString[] right;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(0);
+    left = new ByteString[PAIR_COUNT];
+    right = new ByteString[PAIR_COUNT];
+
+    for (int i = 0; i < PAIR_COUNT; i++) {
+      byte[] a = new byte[keySize];
+      byte[] b = new byte[keySize];
+      random.nextBytes(a);
+      if (sharedPrefix) {
+        System.arraycopy(a, 0, b, 0, keySize);
+        b[keySize - 1] = (byte) (a[keySize - 1] ^ 0x80);
+      } else {
+        random.nextBytes(b);
+      }
+      left[i] = ByteString.copyFrom(a);
+      right[i] = ByteString.copyFrom(b);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIR_COUNT)
+  public void wordAtATime(Blackhole bh) {
+    run(ByteStringComparator.INSTANCE, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIR_COUNT)
+  public void byteAtATime(Blackhole bh) {
+    run(ByteAtATimeComparator.INSTANCE, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIR_COUNT)
+  public void protobufUnsignedLexicographical(Blackhole bh) {
+    run(ByteString.unsignedLexicographicalComparator(), bh);
+  }
+
+  private void run(Comparator<ByteString> comparator, Blackhole bh) {
+    for (int i = 0; i < PAIR_COUNT; i++) {
+      bh.consume(comparator.compare(left[i], right[i]));
+    }
+  }
+
+  /** The original implementation of {@link ByteStringComparator}, kept as a baseline. */
+  private static final class ByteAtATimeComparator implements Comparator<ByteString> {
+    private static final ByteAtATimeComparator INSTANCE = new ByteAtATimeComparator();
+
+    @Override
+    public int compare(ByteString o1, ByteString o2) {
+      int sizeA = o1.size();
+      int sizeB = o2.size();
+      int shortestSize = Math.min(sizeA, sizeB);
+      for (int i = 0; i < shortestSize; i++) {
+        int byteA = o1.byteAt(i) & 0xff;
+        int byteB = o2.byteAt(i) & 0xff;
+
+        if (byteA != byteB) {
+          return byteA < byteB ? -1 : 1;
+        }
+      }
+      if (sizeA == sizeB) {
+        return 0;
+      }
+      return sizeA < sizeB ? -1 : 1;
+    }
+  }
+}
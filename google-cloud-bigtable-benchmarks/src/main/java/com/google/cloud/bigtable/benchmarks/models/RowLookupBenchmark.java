@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.models;
+
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowCell;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures looking up every column of a freshly read {@link Row} with {@link Row#getCells(String,
+ * ByteString)} and {@link Row#getLatestCell(String, ByteString)}. This includes the cost of
+ * building the row's lookup index on first access.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RowLookupBenchmark {
+  @Param({"10", "100", "1000"})
+  int columnCount;
+
+  @Param({"1", "3"})
+  int familyCount;
+
+  /** How many times each column is looked up in the same row. */
+  @Param({"1", "10"})
+  int lookupsPerColumn;
+
+  private ImmutableList<RowCell> cells;
+  private String[] families;
+  private ByteString[] qualifiers;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ImmutableList.Builder<RowCell> builder = ImmutableList.builder();
+    families = new String[columnCount];
+    qualifiers = new ByteString[columnCount];
+
+    int columnsPerFamily = (columnCount + familyCount - 1) / familyCount;
+    for (int i = 0; i < columnCount; i++) {
+      families[i] = String.format("cf%d", i / columnsPerFamily);
+      qualifiers[i] = ByteString.copyFromUtf8(String.format("col-%06d", i));
+      builder.add(
+          RowCell.create(
+              families[i], qualifiers[i], 1_000, ImmutableList.<String>of(), ByteString.EMPTY));
+    }
+    cells = builder.build();
+  }
+
+  @Benchmark
+  public void getCells(Blackhole bh) {
+    // A new row per invocation, just like rows coming off a scan
+    Row row = Row.create(ByteString.copyFromUtf8("key"), cells);
+    for (int n = 0; n < lookupsPerColumn; n++) {
+      for (int i = 0; i < columnCount; i++) {
+        bh.consume(row.getCells(families[i], qualifiers[i]));
+      }
+    }
+  }
+
+  @Benchmark
+  public void getLatestCell(Blackhole bh) {
+    Row row = Row.create(ByteString.copyFromUtf8("key"), cells);
+    for (int n = 0; n < lookupsPerColumn; n++) {
+      for (int i = 0; i < columnCount; i++) {
+        bh.consume(row.getLatestCell(families[i], qualifiers[i]));
+      }
+    }
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.mutaterows;
+
+import com.google.api.core.NanoClock;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.retrying.ExponentialRetryAlgorithm;
+import com.google.api.gax.retrying.RetryAlgorithm;
+import com.google.api.gax.retrying.RetrySettings;
+import com.google.api.gax.retrying.ScheduledRetryingExecutor;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.api.gax.rpc.StreamController;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.bigtable.v2.MutateRowsResponse;
+import com.google.bigtable.v2.Mutation;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsAttemptResult;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsPartialErrorRetryAlgorithm;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsRetryingCallable;
+import com.google.cloud.bigtable.gaxx.retrying.ApiResultRetryAlgorithm;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the client side bookkeeping of a retried MutateRows batch through {@link
+ * MutateRowsRetryingCallable}: classifying the entry statuses of the response, building the retry
+ * request and reporting the failed entries.
+ *
+ * <p>A batch of 10,000 entries is sent against a fake callable that fails {@code failurePercent} of
+ * the entries with UNAVAILABLE on the first attempt and accepts all the entries of the retry.
+ * Retries are run without delay on the benchmark thread, so that {@code -prof gc} reports all the
+ * bytes allocated per batch in {@code gc.alloc.rate.norm}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MutateRowsRetryBenchmark {
+  private static final int ENTRIES = 10_000;
+
+  @Param({"10", "30", "50"})
+  int failurePercent;
+
+  private MutateRowsRequest request;
+  private MutateRowsRetryingCallable callable;
+  private ApiCallContext callContext;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MutateRowsRequest.Builder requestBuilder =
+        MutateRowsRequest.newBuilder().setTableName("projects/p/instances/i/tables/t");
+    MutateRowsResponse.Builder firstResponse = MutateRowsResponse.newBuilder();
+    int failures = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      requestBuilder.addEntries(
+          MutateRowsRequest.Entry.newBuilder()
+              .setRowKey(ByteString.copyFromUtf8(String.format("row-%08d", i)))
+              .addMutations(
+                  Mutation.newBuilder()
+                      .setSetCell(
+                          Mutation.SetCell.newBuilder()
+                              .setFamilyName("f")
+                              .setColumnQualifier(ByteString.copyFromUtf8("q"))
+                              .setTimestampMicros(1_000)
+                              .setValue(ByteString.copyFrom(new byte[100])))));
+      // Spread the failures evenly over the batch
+      boolean failed = (i + 1) * failurePercent / 100 > i * failurePercent / 100;
+      Status.Builder status = Status.newBuilder().setCode(Code.OK_VALUE);
+      if (failed) {
+        status.setCode(Code.UNAVAILABLE_VALUE).setMessage("fake unavailable");
+        failures++;
+      }
+      firstResponse.addEntries(MutateRowsResponse.Entry.newBuilder().setIndex(i).setStatus(status));
+    }
+    request = requestBuilder.build();
+
+    MutateRowsResponse.Builder retryResponse = MutateRowsResponse.newBuilder();
+    for (int i = 0; i < failures; i++) {
+      retryResponse.addEntries(
+          MutateRowsResponse.Entry.newBuilder()
+              .setIndex(i)
+              .setStatus(Status.newBuilder().setCode(Code.OK_VALUE)));
+    }
+
+    RetrySettings retrySettings =
+        RetrySettings.newBuilder()
+            .setInitialRetryDelayDuration(Duration.ZERO)
+            .setMaxRetryDelayDuration(Duration.ZERO)
+            .setRetryDelayMultiplier(1)
+            .setInitialRpcTimeoutDuration(Duration.ofMinutes(1))
+            .setMaxRpcTimeoutDuration(Duration.ofMinutes(1))
+            .setRpcTimeoutMultiplier(1)
+            .setTotalTimeoutDuration(Duration.ofMinutes(10))
+            .setMaxAttempts(2)
+            .build();
+    RetryAlgorithm<MutateRowsAttemptResult> retryAlgorithm =
+        new RetryAlgorithm<>(
+            new MutateRowsPartialErrorRetryAlgorithm(new ApiResultRetryAlgorithm<>()),
+            new ExponentialRetryAlgorithm(retrySettings, NanoClock.getDefaultClock()));
+    callable =
+        new MutateRowsRetryingCallable(
+            GrpcCallContext.createDefault(),
+            new FakeMutateRowsCallable(firstResponse.build(), retryResponse.build()),
+            new ScheduledRetryingExecutor<>(retryAlgorithm, new DirectScheduledExecutorService()),
+            ImmutableSet.of(StatusCode.Code.UNAVAILABLE),
+            retryAlgorithm);
+    callContext = GrpcCallContext.createDefault();
+  }
+
+  @Benchmark
+  public MutateRowsAttemptResult retryBatch() throws Exception {
+    return callable.futureCall(request, callContext).get();
+  }
+
+  /** Responds to the full batch with the first response, and to retries with the second. */
+  private static class FakeMutateRowsCallable
+      extends ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> {
+    private final MutateRowsResponse firstResponse;
+    private final MutateRowsResponse retryResponse;
+
+    FakeMutateRowsCallable(MutateRowsResponse firstResponse, MutateRowsResponse retryResponse) {
+      this.firstResponse = firstResponse;
+      this.retryResponse = retryResponse;
+    }
+
+    @Override
+    public void call(
+        MutateRowsRequest request,
+        ResponseObserver<MutateRowsResponse> responseObserver,
+        ApiCallContext context) {
+      responseObserver.onStart(
+          new StreamController() {
+            @Override
+            public void cancel() {}
+
+            @Override
+            public void disableAutoInboundFlowControl() {}
+
+            @Override
+            public void request(int count) {}
+          });
+      responseObserver.onResponse(
+          request.getEntriesCount() == ENTRIES ? firstResponse : retryResponse);
+      responseObserver.onComplete();
+    }
+  }
+
+  /** Runs every task immediately on the calling thread, ignoring the delay. */
+  private static class DirectScheduledExecutorService extends AbstractExecutorService
+      implements ScheduledExecutorService {
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      return schedule(Executors.callable(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+      DirectScheduledFuture<V> future = new DirectScheduledFuture<>(callable);
+      future.run();
+      return future;
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(
+        Runnable command, long initialDelay, long period, TimeUnit unit) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        Runnable command, long initialDelay, long delay, TimeUnit unit) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return false;
+    }
+  }
+
+  private static class DirectScheduledFuture<V> extends FutureTask<V>
+      implements ScheduledFuture<V> {
+    DirectScheduledFuture(Callable<V> callable) {
+      super(callable);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(0, other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.mutaterows;
+
+import com.google.api.gax.batching.BatchingRequestBuilder;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.BulkMutation;
+import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsBatchingDescriptor;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the client side encoding of bulk mutations: building {@link RowMutationEntry}s with
+ * {@code setCell}, accounting them the way the bulk mutation batcher does with {@link
+ * MutateRowsBatchingDescriptor}, building the {@link MutateRowsRequest} of the batch and writing it
+ * to a buffer the way the gRPC marshaller does.
+ *
+ * <p>Every invocation encodes a batch of 100 entries of {@code cellsPerEntry} 100 byte cells. Run
+ * it with {@code -prof gc} for the bytes allocated per batch.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MutationEncodingBenchmark {
+  private static final int ENTRIES = 100;
+
+  @Param({"1", "10"})
+  private int cellsPerEntry;
+
+  private final MutateRowsBatchingDescriptor descriptor = new MutateRowsBatchingDescriptor();
+  private final BulkMutation prototype = BulkMutation.create("fake-table");
+  private final RequestContext requestContext =
+      RequestContext.create("fake-project", "fake-instance", "fake-profile");
+  private ByteString[] keys;
+  private ByteString[] qualifiers;
+  private ByteString value;
+  private byte[] buffer;
+
+  @Setup
+  public void setUp() {
+    keys = new ByteString[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = ByteString.copyFromUtf8(String.format("user%010d", i));
+    }
+    qualifiers = new ByteString[cellsPerEntry];
+    for (int i = 0; i < cellsPerEntry; i++) {
+      qualifiers[i] = ByteString.copyFromUtf8("field" + i);
+    }
+    value = ByteString.copyFrom(new byte[100]);
+    buffer = new byte[ENTRIES * cellsPerEntry * 256];
+  }
+
+  @Benchmark
+  public int encodeBatch() throws IOException {
+    BatchingRequestBuilder<RowMutationEntry, BulkMutation> builder =
+        descriptor.newRequestBuilder(prototype);
+    long bytes = 0;
+    for (ByteString key : keys) {
+      RowMutationEntry entry = RowMutationEntry.create(key);
+      for (ByteString qualifier : qualifiers) {
+        entry.setCell("cf", qualifier, 1_000L, value);
+      }
+      // The batcher accounts every entry for its batch and for flow control before adding it
+      bytes += descriptor.countBytes(entry);
+      bytes += descriptor.createResource(entry).getByteCount();
+      builder.add(entry);
+    }
+    MutateRowsRequest request = builder.build().toProto(requestContext);
+    CodedOutputStream output = CodedOutputStream.newInstance(buffer);
+    request.writeTo(output);
+    return output.getTotalBytesWritten() + (int) bytes;
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.readrows;
+
+import com.google.bigtable.v2.ReadRowsResponse;
+import com.google.cloud.bigtable.data.v2.models.ColumnarRowAdapter;
+import com.google.cloud.bigtable.data.v2.models.DefaultRowAdapter;
+import com.google.cloud.bigtable.data.v2.models.RowAdapter;
+import com.google.cloud.bigtable.data.v2.stub.readrows.RowMerger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the ReadRows merge path: {@link ReadRowsResponse}s are fed through a {@link RowMerger},
+ * which drives the chunk merging state machine and builds rows with a {@link RowAdapter}.
+ *
+ * <p>{@link #mergeRow} merges a single row per invocation and is run in both throughput and sample
+ * time modes, so that the report includes rows per second and the per-row latency percentiles (p99,
+ * p99.9, ...). {@link #mergeStream} merges a whole scan per invocation, which also accounts for the
+ * cost of walking multi-row responses; its {@code rows} secondary result reports the row
+ * throughput.
+ *
+ * <p>The {@code adapter} parameter selects the {@link RowAdapter}: {@code default} builds {@link
+ * com.google.cloud.bigtable.data.v2.models.Row}s with the {@link DefaultRowAdapter} and {@code
+ * columnar} builds {@link com.google.cloud.bigtable.data.v2.models.ColumnarRow}s with the {@link
+ * ColumnarRowAdapter}.
+ *
+ * <p>Run with {@code -prof gc} to get the allocation rate ({@code gc.alloc.rate.norm} is the number
+ * of bytes allocated per operation).
+ */
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadRowsMergeBenchmark {
+
+  /** Shape of the synthetic rows, shared by all of the benchmarks. */
+  @State(Scope.Benchmark)
+  public static class RowShape {
+    @Param({"1", "10", "100"})
+    int cellsPerRow;
+
+    @Param({"1"})
+    int familyCount;
+
+    @Param({"16", "1024"})
+    int valueSize;
+
+    @Param({"1", "4"})
+    int chunksPerValue;
+
+    @Param({"false", "true"})
+    boolean reversed;
+
+    @Param({"default", "columnar"})
+    String adapter;
+
+    RowAdapter<?> rowAdapter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      switch (adapter) {
+        case "default":
+          rowAdapter = new DefaultRowAdapter();
+          break;
+        case "columnar":
+          rowAdapter = new ColumnarRowAdapter();
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown adapter: " + adapter);
+      }
+    }
+
+    RowMerger<?> newMerger() {
+      return newMerger(rowAdapter);
+    }
+
+    private <RowT> RowMerger<RowT> newMerger(RowAdapter<RowT> rowAdapter) {
+      return new RowMerger<>(rowAdapter.createRowBuilder(), reversed);
+    }
+
+    SyntheticReadRowsStream newStream(int rowCount) {
+      return new SyntheticReadRowsStream(
+          rowCount, cellsPerRow, familyCount, valueSize, chunksPerValue, reversed);
+    }
+  }
+
+  /** A ring of single row responses that are fed one at a time into a long lived merger. */
+  @State(Scope.Thread)
+  public static class SingleRowState {
+    // Enough rows to not have the whole data set fit in the L1 cache
+    private static final int ROW_COUNT = 1_000;
+
+    private RowShape shape;
+    private List<ReadRowsResponse> responses;
+    private RowMerger<?> merger;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup(RowShape shape) {
+      this.shape = shape;
+      this.responses = shape.newStream(ROW_COUNT).responsePerRow();
+      newMerger();
+    }
+
+    ReadRowsResponse nextResponse() {
+      // The merger rejects row keys that go backwards, so start a new scan after wrapping around.
+      if (next == responses.size()) {
+        newMerger();
+      }
+      return responses.get(next++);
+    }
+
+    private void newMerger() {
+      merger = shape.newMerger();
+      next = 0;
+    }
+  }
+
+  /** A complete scan packed into multi-row responses. */
+  @State(Scope.Thread)
+  public static class StreamState {
+    @Param({"1000"})
+    int rowCount;
+
+    @Param({"100"})
+    int rowsPerResponse;
+
+    List<ReadRowsResponse> responses;
+
+    @Setup(Level.Trial)
+    public void setup(RowShape shape) {
+      responses = shape.newStream(rowCount).responses(rowsPerResponse);
+    }
+  }
+
+  /** Counts the rows produced by {@link #mergeStream}, reported as a secondary throughput. */
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class RowCounter {
+    public long rows;
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object mergeRow(SingleRowState state) {
+    ReadRowsResponse response = state.nextResponse();
+    RowMerger<?> merger = state.merger;
+    merger.push(response);
+    return merger.pop();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void mergeStream(RowShape shape, StreamState state, RowCounter counter, Blackhole bh) {
+    RowMerger<?> merger = shape.newMerger();
+
+    for (ReadRowsResponse response : state.responses) {
+      merger.push(response);
+      while (merger.hasFullFrame()) {
+        bh.consume(merger.pop());
+        counter.rows++;
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.readrows;
+
+import com.google.bigtable.v2.ReadRowsResponse;
+import com.google.bigtable.v2.ReadRowsResponse.CellChunk;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.google.protobuf.StringValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic {@link ReadRowsResponse} streams that mimic what the server sends for a table
+ * scan.
+ *
+ * <p>Every row has the same shape: {@code cellsPerRow} cells spread evenly across {@code
+ * familyCount} families, each with a value of {@code valueSize} random bytes. When {@code
+ * chunksPerValue} is greater than 1, every value is split across that many {@link CellChunk}s the
+ * same way the server splits large cells. Row keys are zero padded so that their lexicographic
+ * order matches their numeric order, and are emitted in descending order for reversed scans.
+ */
+final class SyntheticReadRowsStream {
+  private final int rowCount;
+  private final int cellsPerRow;
+  private final int familyCount;
+  private final int valueSize;
+  private final int chunksPerValue;
+  private final boolean reversed;
+
+  SyntheticReadRowsStream(
+      int rowCount,
+      int cellsPerRow,
+      int familyCount,
+      int valueSize,
+      int chunksPerValue,
+      boolean reversed) {
+    Preconditions.checkArgument(rowCount > 0, "rowCount must be positive");
+    Preconditions.checkArgument(cellsPerRow > 0, "cellsPerRow must be positive");
+    Preconditions.checkArgument(familyCount > 0, "familyCount must be positive");
+    Preconditions.checkArgument(
+        familyCount <= cellsPerRow, "familyCount can't be greater than cellsPerRow");
+    Preconditions.checkArgument(chunksPerValue > 0, "chunksPerValue must be positive");
+    Preconditions.checkArgument(
+        valueSize >= chunksPerValue, "valueSize must be at least chunksPerValue bytes");
+
+    this.rowCount = rowCount;
+    this.cellsPerRow = cellsPerRow;
+    this.familyCount = familyCount;
+    this.valueSize = valueSize;
+    this.chunksPerValue = chunksPerValue;
+    this.reversed = reversed;
+  }
+
+  /**
+   * Builds one {@link ReadRowsResponse} per row. Each response contains all of the chunks of a
+   * single row, ending with a commit.
+   */
+  List<ReadRowsResponse> responsePerRow() {
+    List<ReadRowsResponse> responses = new ArrayList<>(rowCount);
+    for (List<CellChunk> rowChunks : chunksByRow()) {
+      responses.add(ReadRowsResponse.newBuilder().addAllChunks(rowChunks).build());
+    }
+    return responses;
+  }
+
+  /**
+   * Builds a stream where each {@link ReadRowsResponse} packs up to {@code rowsPerResponse} rows.
+   */
+  List<ReadRowsResponse> responses(int rowsPerResponse) {
+    Preconditions.checkArgument(rowsPerResponse > 0, "rowsPerResponse must be positive");
+
+    List<ReadRowsResponse> responses = new ArrayList<>();
+    ReadRowsResponse.Builder current = ReadRowsResponse.newBuilder();
+    int rowsInCurrent = 0;
+
+    for (List<CellChunk> rowChunks : chunksByRow()) {
+      current.addAllChunks(rowChunks);
+      if (++rowsInCurrent == rowsPerResponse) {
+        responses.add(current.build());
+        current = ReadRowsResponse.newBuilder();
+        rowsInCurrent = 0;
+      }
+    }
+    if (rowsInCurrent > 0) {
+      responses.add(current.build());
+    }
+    return responses;
+  }
+
+  private List<List<CellChunk>> chunksByRow() {
+    // Use a fixed seed so that every fork of a benchmark sees the same data.
+    Random random = new Random(0);
+    List<List<CellChunk>> rows = new ArrayList<>(rowCount);
+
+    for (int i = 0; i < rowCount; i++) {
+      int keyIndex = reversed ? rowCount - i - 1 : i;
+      rows.add(buildRow(ByteString.copyFromUtf8(String.format("row-%010d", keyIndex)), random));
+    }
+    return rows;
+  }
+
+  private List<CellChunk> buildRow(ByteString rowKey, Random random) {
+    ImmutableList.Builder<CellChunk> chunks = ImmutableList.builder();
+    int cellsPerFamily = cellsPerRow / familyCount;
+
+    for (int cell = 0; cell < cellsPerRow; cell++) {
+      // Spread the remainder over the last family so that the total cell count is exact.
+      int family = Math.min(cell / cellsPerFamily, familyCount - 1);
+      boolean isFirstCell = cell == 0;
+      boolean isLastCell = cell == cellsPerRow - 1;
+
+      byte[] valueBytes = new byte[valueSize];
+      random.nextBytes(valueBytes);
+      ByteString value = ByteString.copyFrom(valueBytes);
+
+      CellChunk.Builder first =
+          CellChunk.newBuilder()
+              .setFamilyName(StringValue.of(String.format("cf%d", family)))
+              .setQualifier(BytesValue.of(ByteString.copyFromUtf8(String.format("col-%06d", cell))))
+              .setTimestampMicros(1_000L * (cellsPerRow - cell));
+      if (isFirstCell) {
+        first.setRowKey(rowKey);
+      }
+
+      if (chunksPerValue == 1) {
+        chunks.add(first.setValue(value).setCommitRow(isLastCell).build());
+        continue;
+      }
+
+      int pieceSize = valueSize / chunksPerValue;
+      for (int piece = 0; piece < chunksPerValue; piece++) {
+        boolean isLastPiece = piece == chunksPerValue - 1;
+        int start = piece * pieceSize;
+        int end = isLastPiece ? valueSize : start + pieceSize;
+
+        CellChunk.Builder chunk = piece == 0 ? first : CellChunk.newBuilder();
+        chunk.setValue(value.substring(start, end));
+        if (isLastPiece) {
+          chunk.setCommitRow(isLastCell);
+        } else {
+          chunk.setValueSize(valueSize);
+        }
+        chunks.add(chunk.build());
+      }
+    }
+    return chunks.build();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.sql;
+
+import com.google.bigtable.v2.ColumnMetadata;
+import com.google.bigtable.v2.ProtoSchema;
+import com.google.bigtable.v2.Type;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.ColumnAccessor;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.StructReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reading every column of 10,000 SQL rows by column name, by column index and through
+ * {@link ColumnAccessor}s resolved once from the metadata.
+ *
+ * <p>The rows have an INT64, a FLOAT64, a BOOL and a STRING column, so the time is dominated by
+ * resolving the columns and checking their types rather than by decoding the values.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ColumnAccessorBenchmark {
+  private static final int ROW_COUNT = 10_000;
+
+  private ResultSetMetadata metadata;
+  private List<StructReader> rows;
+
+  private ColumnAccessor.Int64 count;
+  private ColumnAccessor.Float64 score;
+  private ColumnAccessor.Bool enabled;
+  private ColumnAccessor<String> name;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    metadata =
+        ProtoResultSetMetadata.fromProto(
+            com.google.bigtable.v2.ResultSetMetadata.newBuilder()
+                .setProtoSchema(
+                    ProtoSchema.newBuilder()
+                        .addColumns(
+                            column(
+                                "count",
+                                Type.newBuilder().setInt64Type(Type.Int64.getDefaultInstance())))
+                        .addColumns(
+                            column(
+                                "score",
+                                Type.newBuilder()
+                                    .setFloat64Type(Type.Float64.getDefaultInstance())))
+                        .addColumns(
+                            column(
+                                "enabled",
+                                Type.newBuilder().setBoolType(Type.Bool.getDefaultInstance())))
+                        .addColumns(
+                            column(
+                                "name",
+                                Type.newBuilder().setStringType(Type.String.getDefaultInstance()))))
+                .build());
+
+    rows = new ArrayList<>(ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      rows.add(
+          ProtoSqlRow.create(
+              metadata,
+              Arrays.asList(
+                  Value.newBuilder().setIntValue(i).build(),
+                  Value.newBuilder().setFloatValue(i / 2.0).build(),
+                  Value.newBuilder().setBoolValue(i % 2 == 0).build(),
+                  Value.newBuilder().setStringValue("name-" + i).build())));
+    }
+
+    count = ColumnAccessor.int64(metadata, "count");
+    score = ColumnAccessor.float64(metadata, "score");
+    enabled = ColumnAccessor.bool(metadata, "enabled");
+    name = ColumnAccessor.string(metadata, "name");
+  }
+
+  @Benchmark
+  public void byName(Blackhole blackhole) {
+    for (StructReader row : rows) {
+      blackhole.consume(row.getLong("count"));
+      blackhole.consume(row.getDouble("score"));
+      blackhole.consume(row.getBoolean("enabled"));
+      blackhole.consume(row.getString("name"));
+    }
+  }
+
+  @Benchmark
+  public void byIndex(Blackhole blackhole) {
+    for (StructReader row : rows) {
+      blackhole.consume(row.getLong(0));
+      blackhole.consume(row.getDouble(1));
+      blackhole.consume(row.getBoolean(2));
+      blackhole.consume(row.getString(3));
+    }
+  }
+
+  @Benchmark
+  public void byAccessor(Blackhole blackhole) {
+    for (StructReader row : rows) {
+      blackhole.consume(count.getLong(row));
+      blackhole.consume(score.getDouble(row));
+      blackhole.consume(enabled.getBoolean(row));
+      blackhole.consume(name.get(row));
+    }
+  }
+
+  private static ColumnMetadata column(String name, Type.Builder type) {
+    return ColumnMetadata.newBuilder().setName(name).setType(type).build();
+  }
+}
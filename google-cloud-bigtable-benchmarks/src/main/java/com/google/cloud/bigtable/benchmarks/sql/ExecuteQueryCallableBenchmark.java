@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.sql;
+
+import com.google.bigtable.v2.BigtableGrpc;
+import com.google.bigtable.v2.ColumnMetadata;
+import com.google.bigtable.v2.ExecuteQueryRequest;
+import com.google.bigtable.v2.ExecuteQueryResponse;
+import com.google.bigtable.v2.PartialResultSet;
+import com.google.bigtable.v2.PrepareQueryRequest;
+import com.google.bigtable.v2.PrepareQueryResponse;
+import com.google.bigtable.v2.ProtoRows;
+import com.google.bigtable.v2.ProtoRowsBatch;
+import com.google.bigtable.v2.ProtoSchema;
+import com.google.bigtable.v2.ResultSetMetadata;
+import com.google.bigtable.v2.Type;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.BigtableDataSettings;
+import com.google.cloud.bigtable.data.v2.internal.PrepareResponse;
+import com.google.cloud.bigtable.data.v2.internal.PreparedStatementImpl;
+import com.google.cloud.bigtable.data.v2.internal.SqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStub;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlServerStream;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the client side cost of a point lookup ExecuteQuery that returns a single row, through
+ * the callable chain that the stub shares across queries and through a chain that is built for the
+ * query, like {@code BigtableDataClient#executeQuery} used to do. Run it with {@code -prof gc} to
+ * compare the allocations per query.
+ *
+ * <p>The queries are served by a fake Bigtable service on localhost, so the results include the
+ * gRPC transport but don't depend on the network.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExecuteQueryCallableBenchmark {
+  private static final String QUERY = "SELECT value FROM table WHERE _key = @key";
+
+  private Server server;
+  private EnhancedBigtableStub stub;
+  private BoundStatement boundStatement;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    server = ServerBuilder.forPort(0).addService(new FakeBigtableService()).build().start();
+    stub =
+        EnhancedBigtableStub.create(
+            BigtableDataSettings.newBuilderForEmulator(server.getPort())
+                .setProjectId("fake-project")
+                .setInstanceId("fake-instance")
+                .build()
+                .getStubSettings());
+
+    Map<String, SqlType<?>> paramTypes = new HashMap<>();
+    paramTypes.put("key", SqlType.string());
+    com.google.cloud.bigtable.data.v2.internal.PrepareQueryRequest request =
+        com.google.cloud.bigtable.data.v2.internal.PrepareQueryRequest.create(QUERY, paramTypes);
+    PrepareResponse response = stub.prepareQueryCallable().call(request);
+    boundStatement =
+        PreparedStatementImpl.create(response, paramTypes, request, stub)
+            .bind()
+            .setStringParam("key", "row-key")
+            .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    stub.close();
+    server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public void sharedCallable(Blackhole blackhole) {
+    consume(stub.executeQueryCallable().call(boundStatement), blackhole);
+  }
+
+  @Benchmark
+  public void newCallablePerQuery(Blackhole blackhole) {
+    consume(stub.createExecuteQueryCallable().call(boundStatement), blackhole);
+  }
+
+  private static void consume(SqlServerStream stream, Blackhole blackhole) {
+    for (SqlRow row : stream.rows()) {
+      blackhole.consume(row);
+    }
+  }
+
+  /** Prepares any query and answers every ExecuteQuery with the same single row. */
+  private static class FakeBigtableService extends BigtableGrpc.BigtableImplBase {
+    private static final ResultSetMetadata METADATA =
+        ResultSetMetadata.newBuilder()
+            .setProtoSchema(
+                ProtoSchema.newBuilder()
+                    .addColumns(
+                        ColumnMetadata.newBuilder()
+                            .setName("value")
+                            .setType(
+                                Type.newBuilder().setBytesType(Type.Bytes.getDefaultInstance()))))
+            .build();
+
+    private final ExecuteQueryResponse row;
+
+    FakeBigtableService() {
+      ByteString batchData =
+          ProtoRows.newBuilder()
+              .addValues(Value.newBuilder().setBytesValue(ByteString.copyFromUtf8("value")))
+              .build()
+              .toByteString();
+      row =
+          ExecuteQueryResponse.newBuilder()
+              .setResults(
+                  PartialResultSet.newBuilder()
+                      .setProtoRowsBatch(ProtoRowsBatch.newBuilder().setBatchData(batchData))
+                      .setBatchChecksum(Hashing.crc32c().hashBytes(batchData.toByteArray()).asInt())
+                      .setResumeToken(ByteString.copyFromUtf8("token"))
+                      .setReset(true))
+              .build();
+    }
+
+    @Override
+    public void prepareQuery(
+        PrepareQueryRequest request, StreamObserver<PrepareQueryResponse> responseObserver) {
+      responseObserver.onNext(
+          PrepareQueryResponse.newBuilder()
+              .setMetadata(METADATA)
+              .setPreparedQuery(ByteString.copyFromUtf8("plan"))
+              .setValidUntil(
+                  Timestamp.newBuilder()
+                      .setSeconds(
+                          TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())
+                              + TimeUnit.DAYS.toSeconds(1)))
+              .build());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void executeQuery(
+        ExecuteQueryRequest request, StreamObserver<ExecuteQueryResponse> responseObserver) {
+      responseObserver.onNext(row);
+      responseObserver.onCompleted();
+    }
+  }
+}
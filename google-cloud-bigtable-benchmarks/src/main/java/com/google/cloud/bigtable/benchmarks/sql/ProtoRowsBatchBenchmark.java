@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.sql;
+
+import com.google.bigtable.v2.ColumnMetadata;
+import com.google.bigtable.v2.ExecuteQueryResponse;
+import com.google.bigtable.v2.PartialResultSet;
+import com.google.bigtable.v2.ProtoRows;
+import com.google.bigtable.v2.ProtoRowsBatch;
+import com.google.bigtable.v2.ProtoSchema;
+import com.google.bigtable.v2.Type;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlRowMerger;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures merging a single large ExecuteQuery {@code ProtoRowsBatch} into rows through {@link
+ * SqlRowMerger}, which validates the crc32c checksum of the batch and parses it.
+ *
+ * <p>The batch is split into 1MB chunks, like the server splits it across responses. Every row has
+ * a single 4KB bytes column, so the time is dominated by the passes over the batch bytes rather
+ * than by building rows.
+ */
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ProtoRowsBatchBenchmark {
+  private static final int CHUNK_SIZE = 1024 * 1024;
+  private static final int VALUE_SIZE = 4 * 1024;
+
+  @Param({"1", "16", "64"})
+  int batchSizeMb;
+
+  private ResultSetMetadata metadata;
+  private List<ExecuteQueryResponse> responses;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    metadata =
+        ProtoResultSetMetadata.fromProto(
+            com.google.bigtable.v2.ResultSetMetadata.newBuilder()
+                .setProtoSchema(
+                    ProtoSchema.newBuilder()
+                        .addColumns(
+                            ColumnMetadata.newBuilder()
+                                .setName("value")
+                                .setType(
+                                    Type.newBuilder()
+                                        .setBytesType(Type.Bytes.getDefaultInstance()))))
+                .build());
+
+    Random random = new Random(0);
+    ProtoRows.Builder rows = ProtoRows.newBuilder();
+    byte[] bytes = new byte[VALUE_SIZE];
+    for (long size = 0; size < batchSizeMb * 1024L * 1024L; size += VALUE_SIZE) {
+      random.nextBytes(bytes);
+      rows.addValues(Value.newBuilder().setBytesValue(ByteString.copyFrom(bytes)));
+    }
+    ByteString batchData = rows.build().toByteString();
+    int checksum = Hashing.crc32c().hashBytes(batchData.toByteArray()).asInt();
+
+    responses = new ArrayList<>();
+    for (int start = 0; start < batchData.size(); start += CHUNK_SIZE) {
+      int end = Math.min(start + CHUNK_SIZE, batchData.size());
+      // Copy every chunk, like the responses parsed off the wire
+      PartialResultSet.Builder results =
+          PartialResultSet.newBuilder()
+              .setProtoRowsBatch(
+                  ProtoRowsBatch.newBuilder()
+                      .setBatchData(
+                          ByteString.copyFrom(batchData.substring(start, end).toByteArray())));
+      if (end == batchData.size()) {
+        results.setBatchChecksum(checksum).setResumeToken(ByteString.copyFromUtf8("token"));
+      }
+      responses.add(ExecuteQueryResponse.newBuilder().setResults(results).build());
+    }
+  }
+
+  @Benchmark
+  public void mergeBatch(Blackhole blackhole) {
+    SqlRowMerger merger = new SqlRowMerger(() -> metadata);
+    for (ExecuteQueryResponse response : responses) {
+      merger.push(response);
+    }
+    while (merger.hasFullFrame()) {
+      blackhole.consume(merger.pop());
+    }
+  }
+}
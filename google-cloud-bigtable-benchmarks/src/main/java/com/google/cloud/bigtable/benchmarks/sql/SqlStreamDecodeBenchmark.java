@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.benchmarks.sql;
+
+import com.google.bigtable.v2.ColumnMetadata;
+import com.google.bigtable.v2.ExecuteQueryResponse;
+import com.google.bigtable.v2.PartialResultSet;
+import com.google.bigtable.v2.ProtoRows;
+import com.google.bigtable.v2.ProtoRowsBatch;
+import com.google.bigtable.v2.ProtoSchema;
+import com.google.bigtable.v2.Type;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlRowMerger;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures decoding a long running ExecuteQuery stream of many small {@code ProtoRowsBatch}es into
+ * rows through a single {@link SqlRowMerger}, the way the rows of one stream are merged.
+ *
+ * <p>Every row has an INT64, a STRING and a 64 byte BYTES column, and every batch holds 100 rows.
+ * The time and allocations are reported per row, run it with {@code -prof gc} and look at {@code
+ * gc.alloc.rate.norm} for the bytes allocated per row.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SqlStreamDecodeBenchmark {
+  private static final int BATCHES = 100;
+  private static final int ROWS_PER_BATCH = 100;
+
+  /** The number of responses every batch is split across. */
+  @Param({"1", "4"})
+  int chunksPerBatch;
+
+  private ResultSetMetadata metadata;
+  private List<ExecuteQueryResponse> responses;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    metadata =
+        ProtoResultSetMetadata.fromProto(
+            com.google.bigtable.v2.ResultSetMetadata.newBuilder()
+                .setProtoSchema(
+                    ProtoSchema.newBuilder()
+                        .addColumns(
+                            column(
+                                "id",
+                                Type.newBuilder().setInt64Type(Type.Int64.getDefaultInstance())))
+                        .addColumns(
+                            column(
+                                "name",
+                                Type.newBuilder().setStringType(Type.String.getDefaultInstance())))
+                        .addColumns(
+                            column(
+                                "payload",
+                                Type.newBuilder().setBytesType(Type.Bytes.getDefaultInstance()))))
+                .build());
+
+    responses = new ArrayList<>();
+    byte[] payload = new byte[64];
+    for (int batch = 0; batch < BATCHES; batch++) {
+      ProtoRows.Builder rows = ProtoRows.newBuilder();
+      for (int row = 0; row < ROWS_PER_BATCH; row++) {
+        int id = batch * ROWS_PER_BATCH + row;
+        rows.addValues(Value.newBuilder().setIntValue(id))
+            .addValues(Value.newBuilder().setStringValue("name-" + id))
+            .addValues(Value.newBuilder().setBytesValue(ByteString.copyFrom(payload)));
+      }
+      ByteString batchData = rows.build().toByteString();
+      int checksum = Hashing.crc32c().hashBytes(batchData.toByteArray()).asInt();
+      int chunkSize = (batchData.size() + chunksPerBatch - 1) / chunksPerBatch;
+      for (int start = 0; start < batchData.size(); start += chunkSize) {
+        int end = Math.min(start + chunkSize, batchData.size());
+        // Copy every chunk, like the responses parsed off the wire
+        PartialResultSet.Builder results =
+            PartialResultSet.newBuilder()
+                .setProtoRowsBatch(
+                    ProtoRowsBatch.newBuilder()
+                        .setBatchData(
+                            ByteString.copyFrom(batchData.substring(start, end).toByteArray())));
+        if (end == batchData.size()) {
+          results
+              .setBatchChecksum(checksum)
+              .setResumeToken(ByteString.copyFromUtf8("token-" + batch));
+        }
+        responses.add(ExecuteQueryResponse.newBuilder().setResults(results).build());
+      }
+    }
+  }
+
+  private static ColumnMetadata.Builder column(String name, Type.Builder type) {
+    return ColumnMetadata.newBuilder().setName(name).setType(type);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCHES * ROWS_PER_BATCH)
+  public void decodeStream(Blackhole blackhole) {
+    SqlRowMerger merger = new SqlRowMerger(() -> metadata);
+    for (ExecuteQueryResponse response : responses) {
+      merger.push(response);
+      while (merger.hasFullFrame()) {
+        blackhole.consume(merger.pop());
+      }
+    }
+  }
+}
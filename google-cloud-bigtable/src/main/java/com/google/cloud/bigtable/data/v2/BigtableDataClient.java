@@ -32,6 +32,7 @@ import com.google.api.gax.rpc.ServerStreamingCallable;
 import com.google.api.gax.rpc.UnaryCallable;
 import com.google.cloud.bigtable.data.v2.internal.PrepareQueryRequest;
 import com.google.cloud.bigtable.data.v2.internal.PrepareResponse;
+import com.google.cloud.bigtable.data.v2.internal.PreparedStatementCache;
 import com.google.cloud.bigtable.data.v2.internal.PreparedStatementImpl;
 import com.google.cloud.bigtable.data.v2.internal.ResultSetImpl;
 import com.google.cloud.bigtable.data.v2.models.BulkMutation;
@@ -52,9 +53,12 @@ import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
 import com.google.cloud.bigtable.data.v2.models.TableId;
 import com.google.cloud.bigtable.data.v2.models.TargetId;
 import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.PartitionedQuery;
 import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
 import com.google.cloud.bigtable.data.v2.models.sql.ResultSet;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.cloud.bigtable.data.v2.models.sql.StructReader;
 import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStub;
 import com.google.cloud.bigtable.data.v2.stub.sql.SqlServerStream;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -2739,7 +2743,109 @@ public class BigtableDataClient implements AutoCloseable {
    */
   public ResultSet executeQuery(BoundStatement boundStatement) {
     boundStatement.assertUsingSameStub(stub);
-    SqlServerStream stream = stub.createExecuteQueryCallable().call(boundStatement);
+    SqlServerStream stream = stub.executeQueryCallable().call(boundStatement);
+    return ResultSetImpl.create(stream);
+  }
+
+  /**
+   * Asynchronously executes a SQL Query and streams its rows to the given observer. Unlike {@link
+   * #executeQuery(BoundStatement)}, this never blocks the calling thread, including while the
+   * {@link PreparedStatement} refreshes its plan, so many queries can be in flight without a thread
+   * each.
+   *
+   * <p>Rows are delivered as the observer requests them, when it disables automatic flow control on
+   * the {@link com.google.api.gax.rpc.StreamController} it receives in {@link
+   * ResponseObserver#onStart}. The returned future resolves to the {@link ResultSetMetadata} of the
+   * results, or fails with the error of the query if it fails before the metadata is known.
+   *
+   * <p>The {@link BoundStatement} must be built from a {@link PreparedStatement} created using the
+   * same instance and app profile.
+   *
+   * <p>Sample code:
+   *
+   * <pre>{@code
+   * try (BigtableDataClient bigtableDataClient = BigtableDataClient.create("[PROJECT]", "[INSTANCE]")) {
+   *   String query = "SELECT CAST(cf['stringCol'] AS STRING) FROM [TABLE]";
+   *   PreparedStatement preparedStatement =
+   *       bigtableDataClient.prepareStatement(query, new HashMap<>());
+   *   BoundStatement boundStatement = preparedStatement.bind().build();
+   *
+   *   bigtableDataClient.executeQueryAsync(boundStatement, new ResponseObserver<StructReader>() {
+   *     StreamController controller;
+   *
+   *     public void onStart(StreamController controller) {
+   *       this.controller = controller;
+   *       controller.disableAutoInboundFlowControl();
+   *       controller.request(1);
+   *     }
+   *     public void onResponse(StructReader row) {
+   *       String s = row.getString("stringCol");
+   *       // do something with data, then ask for the next row
+   *       controller.request(1);
+   *     }
+   *     public void onError(Throwable t) {
+   *       // Handle error before the stream completes
+   *     }
+   *     public void onComplete() {
+   *       // Handle stream completion
+   *     }
+   *   });
+   * }
+   * }</pre>
+   *
+   * @see {@link PreparedStatement} & {@link BoundStatement} for query options.
+   */
+  public ApiFuture<ResultSetMetadata> executeQueryAsync(
+      BoundStatement boundStatement, ResponseObserver<StructReader> observer) {
+    boundStatement.assertUsingSameStub(stub);
+    return stub.executeQueryCallable().call(boundStatement, observer);
+  }
+
+  /**
+   * Executes a SQL Query as several concurrent streams, each scanning a row key range of the table,
+   * and returns a ResultSet to iterate over the merged results. The returned ResultSet instance is
+   * not threadsafe, it can only be used from single thread.
+   *
+   * <p>The range of the query is split at the row keys sampled from the table, and at most {@link
+   * PartitionedQuery#parallelism(int)} partitions are executed at once. Rows are returned in any
+   * order unless {@link PartitionedQuery#ordered(boolean)} is set. See {@link PartitionedQuery} for
+   * the requirements on the statement.
+   *
+   * <p>Sample code:
+   *
+   * <pre>{@code
+   * try (BigtableDataClient bigtableDataClient = BigtableDataClient.create("[PROJECT]", "[INSTANCE]")) {
+   *   String query =
+   *       "SELECT _key, CAST(cf['stringCol'] AS STRING) AS stringCol FROM [TABLE] "
+   *           + "WHERE _key >= @start AND (@end IS NULL OR _key < @end)";
+   *   Map<String, SqlType<?>> paramTypes = new HashMap<>();
+   *   paramTypes.put("start", SqlType.bytes());
+   *   paramTypes.put("end", SqlType.bytes());
+   *   PreparedStatement preparedStatement = bigtableDataClient.prepareStatement(query, paramTypes);
+   *   BoundStatement boundStatement = preparedStatement.bind()
+   *      .setBytesParam("start", ByteString.EMPTY)
+   *      .setBytesParam("end", null)
+   *      .build();
+   *   PartitionedQuery partitionedQuery =
+   *       PartitionedQuery.create(TableId.of("[TABLE]"), boundStatement, "start", "end")
+   *           .parallelism(8);
+   *   try (ResultSet resultSet = bigtableDataClient.executeQuery(partitionedQuery)) {
+   *       while (resultSet.next()) {
+   *           String s = resultSet.getString("stringCol");
+   *            // do something with data
+   *       }
+   *    } catch (RuntimeException e) {
+   *        e.printStackTrace();
+   *   }
+   * }
+   * }</pre>
+   *
+   * @see PartitionedQuery for partitioning options.
+   */
+  @BetaApi("This feature is currently experimental and can change in the future")
+  public ResultSet executeQuery(PartitionedQuery query) {
+    query.getStatement().assertUsingSameStub(stub);
+    SqlServerStream stream = stub.partitionedExecuteQueryCallable().call(query);
     return ResultSetImpl.create(stream);
   }
 
@@ -2758,9 +2864,16 @@ public class BigtableDataClient implements AutoCloseable {
    * @param query sql query string to prepare
    * @param paramTypes a Map of the parameter names and the corresponding {@link SqlType} for all
    *     query parameters in 'query'
+   *     <p>If {@link BigtableDataSettings.Builder#setPreparedStatementCacheSize(int)} is set, the
+   *     PreparedStatement of a query that was already prepared with the same parameter types is
+   *     returned from the cache, without an RPC.
    * @return {@link PreparedStatement} which is used to create {@link BoundStatement}s to execute
    */
   public PreparedStatement prepareStatement(String query, Map<String, SqlType<?>> paramTypes) {
+    PreparedStatementCache cache = stub.getPreparedStatementCache();
+    if (cache != null) {
+      return cache.prepare(query, paramTypes);
+    }
     PrepareQueryRequest request = PrepareQueryRequest.create(query, paramTypes);
     PrepareResponse response = stub.prepareQueryCallable().call(request);
     return PreparedStatementImpl.create(response, paramTypes, request, stub);
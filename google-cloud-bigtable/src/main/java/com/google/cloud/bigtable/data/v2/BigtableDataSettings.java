@@ -29,6 +29,7 @@ import com.google.cloud.bigtable.data.v2.models.Query;
 import com.google.cloud.bigtable.data.v2.models.Row;
 import com.google.cloud.bigtable.data.v2.stub.BigtableBatchingCallSettings;
 import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStubSettings;
+import com.google.cloud.bigtable.data.v2.stub.RowCacheSettings;
 import com.google.cloud.bigtable.data.v2.stub.metrics.MetricsProvider;
 import com.google.cloud.bigtable.data.v2.stub.metrics.NoopMetricsProvider;
 import com.google.common.base.MoreObjects;
@@ -293,6 +294,26 @@ public final class BigtableDataSettings {
     return stubSettings.bulkMutateRowsSettings().isServerInitiatedFlowControlEnabled();
   }
 
+  /**
+   * Gets the settings of the client side cache for {@link BigtableDataClient#readRow(String,
+   * String)} and {@link BigtableDataClient#newBulkReadRowsBatcher(String)}.
+   */
+  @BetaApi("The row cache is not yet stable and may change in the future")
+  public RowCacheSettings getRowCacheSettings() {
+    return stubSettings.getRowCacheSettings();
+  }
+
+  /**
+   * Gets the maximum number of {@link
+   * com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement}s cached by {@link
+   * BigtableDataClient#prepareStatement(String, java.util.Map)}. 0 means that the cache is
+   * disabled.
+   */
+  @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+  public int getPreparedStatementCacheSize() {
+    return stubSettings.getPreparedStatementCacheSize();
+  }
+
   /** Gets the {@link MetricsProvider}. * */
   public MetricsProvider getMetricsProvider() {
     return stubSettings.getMetricsProvider();
@@ -553,6 +574,50 @@ public final class BigtableDataSettings {
       return stubSettings.bulkMutateRowsSettings().isServerInitiatedFlowControlEnabled();
     }
 
+    /**
+     * Configures a client side cache for point reads made with {@link
+     * BigtableDataClient#readRow(String, String)} and {@link
+     * BigtableDataClient#newBulkReadRowsBatcher(String)}.
+     *
+     * <p>Cached rows are invalidated by the writes made through the same client, but writes made by
+     * other clients are only visible once the cached rows expire. See {@link RowCacheSettings}.
+     */
+    @BetaApi("The row cache is not yet stable and may change in the future")
+    public Builder setRowCacheSettings(@Nonnull RowCacheSettings rowCacheSettings) {
+      stubSettings.setRowCacheSettings(rowCacheSettings);
+      return this;
+    }
+
+    /** Gets the settings of the client side row cache. */
+    @BetaApi("The row cache is not yet stable and may change in the future")
+    public RowCacheSettings getRowCacheSettings() {
+      return stubSettings.getRowCacheSettings();
+    }
+
+    /**
+     * Configures a client side cache of the {@link
+     * com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement}s returned by {@link
+     * BigtableDataClient#prepareStatement(String, java.util.Map)}, keyed by the query and its
+     * parameter types.
+     *
+     * <p>When enabled, preparing a query that is already cached returns the cached
+     * PreparedStatement instead of issuing a PrepareQuery RPC, and concurrent calls preparing the
+     * same query share a single RPC. Cached statements keep refreshing their query plan while they
+     * are used, and are dropped if their plan expired before they were used again. Set to 0 to
+     * disable the cache, which is the default.
+     */
+    @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+    public Builder setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+      stubSettings.setPreparedStatementCacheSize(preparedStatementCacheSize);
+      return this;
+    }
+
+    /** Gets the maximum number of PreparedStatements cached by prepareStatement. */
+    @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+    public int getPreparedStatementCacheSize() {
+      return stubSettings.getPreparedStatementCacheSize();
+    }
+
     /**
      * Sets the {@link MetricsProvider}.
      *
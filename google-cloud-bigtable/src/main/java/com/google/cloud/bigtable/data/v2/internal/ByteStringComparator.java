@@ -17,29 +17,101 @@ package com.google.cloud.bigtable.data.v2.internal;
 
 import com.google.api.core.InternalApi;
 import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Comparator;
+import javax.annotation.Nullable;
 
-/** Compares {@link ByteString}s as unsigned byte arrays. */
+/**
+ * Compares {@link ByteString}s as unsigned byte arrays.
+ *
+ * <p>Flat {@link ByteString}s (the ones backed by a single array or buffer) are compared 8 bytes at
+ * a time through a read only view of their content. Ropes, which are produced by concatenating
+ * large {@link ByteString}s, don't have a single backing buffer and are compared byte by byte.
+ */
 @InternalApi
 public class ByteStringComparator implements Comparator<ByteString> {
   public static final ByteStringComparator INSTANCE = new ByteStringComparator();
 
+  // Below this size, the cost of creating the buffer views outweighs the word comparisons
+  private static final int MIN_WORD_COMPARE_SIZE = Long.BYTES;
+
+  // RopeByteString is package private, so it can only be identified by name. Derive the name from
+  // ByteString so that it survives shading.
+  @Nullable private static final Class<?> ROPE_CLASS = findRopeClass();
+
   @Override
   public int compare(ByteString o1, ByteString o2) {
     int sizeA = o1.size();
     int sizeB = o2.size();
     int shortestSize = Math.min(sizeA, sizeB);
-    for (int i = 0; i < shortestSize; i++) {
-      int byteA = o1.byteAt(i) & 0xff;
-      int byteB = o2.byteAt(i) & 0xff;
 
-      if (byteA != byteB) {
-        return byteA < byteB ? -1 : 1;
-      }
+    int c;
+    if (shortestSize >= MIN_WORD_COMPARE_SIZE && isFlat(o1) && isFlat(o2)) {
+      c = compareWords(o1.asReadOnlyByteBuffer(), o2.asReadOnlyByteBuffer(), shortestSize);
+    } else {
+      c = compareBytes(o1, o2, shortestSize);
+    }
+    if (c != 0) {
+      return c;
     }
     if (sizeA == sizeB) {
       return 0;
     }
     return sizeA < sizeB ? -1 : 1;
   }
+
+  private static int compareWords(ByteBuffer a, ByteBuffer b, int length) {
+    // Big endian, so that comparing the words as unsigned longs matches comparing their bytes
+    a.order(ByteOrder.BIG_ENDIAN);
+    b.order(ByteOrder.BIG_ENDIAN);
+    int offsetA = a.position();
+    int offsetB = b.position();
+
+    int i = 0;
+    for (; i <= length - Long.BYTES; i += Long.BYTES) {
+      long wordA = a.getLong(offsetA + i);
+      long wordB = b.getLong(offsetB + i);
+      if (wordA != wordB) {
+        return Long.compareUnsigned(wordA, wordB) < 0 ? -1 : 1;
+      }
+    }
+    for (; i < length; i++) {
+      int byteA = a.get(offsetA + i) & 0xff;
+      int byteB = b.get(offsetB + i) & 0xff;
+      if (byteA != byteB) {
+        return byteA < byteB ? -1 : 1;
+      }
+    }
+    return 0;
+  }
+
+  private static int compareBytes(ByteString a, ByteString b, int length) {
+    for (int i = 0; i < length; i++) {
+      int byteA = a.byteAt(i) & 0xff;
+      int byteB = b.byteAt(i) & 0xff;
+
+      if (byteA != byteB) {
+        return byteA < byteB ? -1 : 1;
+      }
+    }
+    return 0;
+  }
+
+  private static boolean isFlat(ByteString byteString) {
+    // If the rope class can't be found, assume the worst and treat every ByteString as a rope
+    return ROPE_CLASS != null && byteString.getClass() != ROPE_CLASS;
+  }
+
+  @Nullable
+  private static Class<?> findRopeClass() {
+    String byteStringName = ByteString.class.getName();
+    String ropeName =
+        byteStringName.substring(0, byteStringName.lastIndexOf('.') + 1) + "RopeByteString";
+    try {
+      return Class.forName(ropeName, false, ByteString.class.getClassLoader());
+    } catch (ClassNotFoundException | RuntimeException e) {
+      return null;
+    }
+  }
 }
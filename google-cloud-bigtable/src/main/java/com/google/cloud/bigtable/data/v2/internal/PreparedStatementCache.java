@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.internal;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiExceptions;
+import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStub;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size bounded cache of {@link PreparedStatementImpl}s, keyed by the query and its parameter
+ * types.
+ *
+ * <p>Concurrent calls preparing the same query share a single PrepareQuery RPC, and a failed
+ * PrepareQuery is not cached. Cached statements keep refreshing their plan in the background while
+ * they are prepared or executed, see {@link PreparedStatementImpl}. A statement that wasn't used
+ * until its plan expired is dropped and prepared again, rather than returning a statement that will
+ * fail its next attempt. When the cache is full, the least recently prepared statement is evicted.
+ *
+ * <p>This is considered an internal implementation detail and should not be used by applications.
+ */
+@InternalApi("For internal use only")
+public class PreparedStatementCache {
+  private final int maxSize;
+  private final EnhancedBigtableStub stub;
+
+  // In access order, the least recently used entry first. Guarded by this.
+  private final LinkedHashMap<PrepareQueryRequest, ApiFuture<PreparedStatementImpl>> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  public PreparedStatementCache(int maxSize, EnhancedBigtableStub stub) {
+    Preconditions.checkArgument(maxSize > 0, "maxSize must be positive");
+    this.maxSize = maxSize;
+    this.stub = stub;
+  }
+
+  /**
+   * Returns the cached PreparedStatement of the query, or prepares it if it's not cached. This
+   * blocks while the query is being prepared, by this call or by a concurrent one.
+   */
+  public PreparedStatement prepare(String query, Map<String, SqlType<?>> paramTypes) {
+    // Copy the param types, so that changes to the caller's map don't affect the cached key
+    PrepareQueryRequest request =
+        PrepareQueryRequest.create(query, ImmutableMap.copyOf(paramTypes));
+
+    ApiFuture<PreparedStatementImpl> cached;
+    SettableApiFuture<PreparedStatementImpl> prepareFuture = null;
+    synchronized (this) {
+      cached = entries.get(request);
+      if (cached == null || isExpired(cached)) {
+        prepareFuture = SettableApiFuture.create();
+        entries.put(request, prepareFuture);
+        evictIfNeeded();
+      }
+    }
+    if (prepareFuture == null) {
+      return awaitCached(cached);
+    }
+
+    try {
+      PrepareResponse response = stub.prepareQueryCallable().call(request);
+      PreparedStatementImpl statement =
+          new PreparedStatementImpl(response, request.paramTypes(), request, stub);
+      prepareFuture.set(statement);
+      return statement;
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        entries.remove(request, prepareFuture);
+      }
+      prepareFuture.setException(e);
+      throw e;
+    }
+  }
+
+  private static PreparedStatement awaitCached(ApiFuture<PreparedStatementImpl> cached) {
+    PreparedStatementImpl statement = ApiExceptions.callAndTranslateApiException(cached);
+    // Keep the plan of frequently prepared statements fresh, even if they are rarely executed
+    statement.backgroundRefreshIfNeeded();
+    return statement;
+  }
+
+  /** The number of cached statements, including the ones that are being prepared. */
+  @VisibleForTesting
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private static boolean isExpired(ApiFuture<PreparedStatementImpl> cached) {
+    // Statements that are still being prepared are not expired, and failed ones are never cached
+    if (!cached.isDone()) {
+      return false;
+    }
+    return Futures.getUnchecked(cached).isExpired(Instant.now());
+  }
+
+  private void evictIfNeeded() {
+    Iterator<ApiFuture<PreparedStatementImpl>> it = entries.values().iterator();
+    while (entries.size() > maxSize && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+}
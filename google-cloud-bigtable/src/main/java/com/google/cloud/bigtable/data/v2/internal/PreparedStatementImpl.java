@@ -180,6 +180,27 @@ public class PreparedStatementImpl implements PreparedStatement {
     }
   }
 
+  /**
+   * Returns true if the plan of the latest PrepareQuery response expired at {@code now}, and no
+   * refresh was started to replace it. Unlike {@link #getLatestPrepareResponse()}, this never
+   * starts a refresh.
+   */
+  boolean isExpired(Instant now) {
+    PrepareQueryState localState = currentState.get();
+    if (localState.maybeBackgroundRefresh().isPresent()) {
+      return false;
+    }
+    ApiFuture<PrepareResponse> currentPlanFuture = localState.current().prepareFuture();
+    if (!currentPlanFuture.isDone()) {
+      return false;
+    }
+    try {
+      return !now.isBefore(Futures.getDone(currentPlanFuture).validUntil());
+    } catch (ExecutionException | CancellationException e) {
+      return true;
+    }
+  }
+
   /**
    * Returns the most recently refreshed PreparedQueryData. It may still be refreshing if the
    * previous plan has expired.
@@ -35,8 +35,18 @@ public abstract class ProtoSqlRow extends AbstractProtoStructReader implements S
     return new AutoValue_ProtoSqlRow(values, metadata);
   }
 
+  /**
+   * The values of the row, in column order.
+   *
+   * <p>This is public so that converters, like the Arrow converter, can read the values directly.
+   */
+  @InternalApi("For internal use only")
+  @Override
+  public abstract List<Value> values();
+
   /** {@link ResultSetMetadata} describing the schema of the row. */
-  abstract ResultSetMetadata metadata();
+  @InternalApi("For internal use only")
+  public abstract ResultSetMetadata metadata();
 
   @Override
   public int getColumnIndex(String columnName) {
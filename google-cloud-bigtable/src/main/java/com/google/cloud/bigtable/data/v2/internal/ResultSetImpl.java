@@ -64,7 +64,13 @@ public class ResultSetImpl implements ResultSet, StructReader {
     this.consumed = false;
   }
 
-  private SqlRow getCurrentRow() {
+  /**
+   * Returns the row at the current position.
+   *
+   * <p>This is considered an internal implementation detail and should not be used by applications.
+   */
+  @InternalApi("For internal use only")
+  public SqlRow getCurrentRow() {
     Preconditions.checkState(!consumed, "Attempted to access data from closed ResultSet");
     Preconditions.checkState(currentRow != null, "Attempted to access data before calling next()");
     return currentRow;
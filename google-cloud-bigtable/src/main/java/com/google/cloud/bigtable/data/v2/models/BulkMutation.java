@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.List;
 import javax.annotation.Nonnull;
 
 /**
@@ -124,10 +125,30 @@ public final class BulkMutation implements Serializable, Cloneable {
     return this;
   }
 
+  /** Adds an entry that was already built, such as an entry of another bulk mutation. */
+  @InternalApi
+  public BulkMutation add(@Nonnull MutateRowsRequest.Entry entry) {
+    Preconditions.checkNotNull(entry, "Row mutation entry can't be null");
+    builder.addEntries(entry);
+    return this;
+  }
+
   public int getEntryCount() {
     return builder.getEntriesCount();
   }
 
+  /** Returns the target of the mutations. */
+  @InternalApi
+  public TargetId getTargetId() {
+    return targetId;
+  }
+
+  /** Returns a read only view of the entries added so far, without building the request. */
+  @InternalApi
+  public List<MutateRowsRequest.Entry> getEntries() {
+    return builder.getEntriesList();
+  }
+
   @InternalApi
   public MutateRowsRequest toProto(RequestContext requestContext) {
     String resourceName =
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models;
+
+import com.google.api.core.InternalApi;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A logical row that stores its cells in flat parallel arrays instead of one {@link RowCell} per
+ * cell. It is produced by {@link ColumnarRowAdapter} and is intended for high volume scans where
+ * allocating an object per cell dominates the cost of reading.
+ *
+ * <p>Cells are addressed by their index in the row, from {@code 0} to {@link #getCellCount()} - 1,
+ * and are sorted in the same native order as {@link Row#getCells()}. Please see {@link
+ * RowCell#compareByNative()} for details. Cell values are not copied: they share the buffers of the
+ * {@link ByteString}s that were received from the server.
+ *
+ * <p>{@link RowCell}s are only created when they are explicitly requested via {@link
+ * #getCell(int)}, {@link #getCells()} or {@link #toRow()}.
+ */
+public final class ColumnarRow implements Serializable {
+  private static final long serialVersionUID = 4287364958717221456L;
+
+  private final ByteString key;
+  // The distinct families of the row in sorted order
+  private final String[] families;
+  // familyStarts[i] is the index of the first cell of families[i]. The last element is the number
+  // of cells, so that the cells of families[i] are [familyStarts[i], familyStarts[i + 1])
+  private final int[] familyStarts;
+  private final int[] familyIndexes;
+  private final ByteString[] qualifiers;
+  private final long[] timestamps;
+  private final ByteString[] values;
+  // Labels are rare, so they are only tracked when at least one cell has them
+  @Nullable private final List<List<String>> labels;
+
+  ColumnarRow(
+      ByteString key,
+      String[] families,
+      int[] familyStarts,
+      int[] familyIndexes,
+      ByteString[] qualifiers,
+      long[] timestamps,
+      ByteString[] values,
+      @Nullable List<List<String>> labels) {
+    this.key = key;
+    this.families = families;
+    this.familyStarts = familyStarts;
+    this.familyIndexes = familyIndexes;
+    this.qualifiers = qualifiers;
+    this.timestamps = timestamps;
+    this.values = values;
+    this.labels = labels;
+  }
+
+  /** Creates a new instance of a row without any cells. */
+  @InternalApi
+  public static ColumnarRow createEmpty(@Nonnull ByteString key) {
+    Preconditions.checkNotNull(key, "key");
+    return new ColumnarRow(
+        key,
+        new String[0],
+        new int[] {0},
+        new int[0],
+        new ByteString[0],
+        new long[0],
+        new ByteString[0],
+        null);
+  }
+
+  /** Returns the row key */
+  @Nonnull
+  public ByteString getKey() {
+    return key;
+  }
+
+  /** Returns the number of cells in this row. */
+  public int getCellCount() {
+    return values.length;
+  }
+
+  /** Returns the family of the cell at the given index. */
+  public String getFamily(int cellIndex) {
+    return families[familyIndexes[cellIndex]];
+  }
+
+  /** Returns the qualifier of the cell at the given index. */
+  public ByteString getQualifier(int cellIndex) {
+    return qualifiers[cellIndex];
+  }
+
+  /** Returns the timestamp of the cell at the given index. */
+  public long getTimestamp(int cellIndex) {
+    return timestamps[cellIndex];
+  }
+
+  /** Returns the value of the cell at the given index. */
+  public ByteString getValue(int cellIndex) {
+    return values[cellIndex];
+  }
+
+  /**
+   * Returns the labels of the cell at the given index. Labels are only set when the cell was
+   * returned by a {@link Filters#label(String)} filter.
+   */
+  public List<String> getLabels(int cellIndex) {
+    Preconditions.checkElementIndex(cellIndex, values.length);
+    if (labels == null) {
+      return ImmutableList.of();
+    }
+    return labels.get(cellIndex);
+  }
+
+  /** Returns the distinct families in this row, in sorted order. */
+  public List<String> getFamilies() {
+    return ImmutableList.copyOf(families);
+  }
+
+  /**
+   * Returns the index of the first cell in the specified family, or -1 if the row doesn't contain
+   * the family. The cells of a family are contiguous, the index of the last one is {@link
+   * #getFamilyEndIndex(String)} - 1.
+   */
+  public int getFamilyStartIndex(@Nonnull String family) {
+    int i = findFamily(family);
+    return i < 0 ? -1 : familyStarts[i];
+  }
+
+  /**
+   * Returns the index after the last cell in the specified family, or -1 if the row doesn't contain
+   * the family.
+   */
+  public int getFamilyEndIndex(@Nonnull String family) {
+    int i = findFamily(family);
+    return i < 0 ? -1 : familyStarts[i + 1];
+  }
+
+  private int findFamily(@Nonnull String family) {
+    Preconditions.checkNotNull(family, "family");
+    int i = Arrays.binarySearch(families, family);
+    return i < 0 ? -1 : i;
+  }
+
+  /** Materializes the cell at the given index. */
+  public RowCell getCell(int cellIndex) {
+    return RowCell.create(
+        getFamily(cellIndex),
+        qualifiers[cellIndex],
+        timestamps[cellIndex],
+        getLabels(cellIndex),
+        values[cellIndex]);
+  }
+
+  /**
+   * Returns a view of the cells in this row. The cells are materialized every time they are
+   * accessed.
+   *
+   * @see RowCell#compareByNative() For details about the ordering.
+   */
+  public List<RowCell> getCells() {
+    return new CellView();
+  }
+
+  /** Copies the content of this row into a {@link Row}. */
+  public Row toRow() {
+    return Row.create(key, ImmutableList.copyOf(getCells()));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ColumnarRow)) {
+      return false;
+    }
+    ColumnarRow that = (ColumnarRow) o;
+    return key.equals(that.key) && getCells().equals(that.getCells());
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(key, getCells());
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("key", key).add("cells", getCells()).toString();
+  }
+
+  private final class CellView extends AbstractList<RowCell> implements RandomAccess {
+    @Override
+    public RowCell get(int index) {
+      Preconditions.checkElementIndex(index, values.length);
+      return getCell(index);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+  }
+}
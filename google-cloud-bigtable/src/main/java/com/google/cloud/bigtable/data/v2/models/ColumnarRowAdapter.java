@@ -0,0 +1,272 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models;
+
+import com.google.api.core.InternalApi;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link RowAdapter} that uses {@link ColumnarRow}s to represent logical rows.
+ *
+ * <p>Compared to the {@link DefaultRowAdapter}, it doesn't allocate any objects per cell while
+ * merging a row: the cells are accumulated in arrays that are reused across rows and the finished
+ * row only allocates a handful of arrays that are sized to fit. This makes it a good fit for large
+ * scans that only look at a few attributes of each cell.
+ *
+ * <p>Sample code:
+ *
+ * <pre>{@code
+ * Query query = Query.create("[TABLE]");
+ * for (ColumnarRow row : client.readRows(query, new ColumnarRowAdapter())) {
+ *   for (int i = 0; i < row.getCellCount(); i++) {
+ *     System.out.println(row.getQualifier(i).toStringUtf8() + "=" + row.getValue(i).size());
+ *   }
+ * }
+ * }</pre>
+ */
+public class ColumnarRowAdapter implements RowAdapter<ColumnarRow> {
+  /** {@inheritDoc} */
+  @Override
+  public boolean isScanMarkerRow(ColumnarRow row) {
+    return row.getCellCount() == 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RowBuilder<ColumnarRow> createRowBuilder() {
+    return new ColumnarRowBuilder();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ByteString getKey(ColumnarRow row) {
+    return row.getKey();
+  }
+
+  /** Internal implementation detail for {@link ColumnarRowAdapter}. */
+  @InternalApi
+  public static class ColumnarRowBuilder implements RowBuilder<ColumnarRow> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ByteString currentKey;
+
+    // Per family group state, a group being a run of cells of the same family. The server usually
+    // sends the cells of a family contiguously, but it doesn't necessarily order the families, and
+    // a family can show up in several groups.
+    private int groupCount;
+    private String[] groupFamilies = new String[INITIAL_CAPACITY];
+    private int[] groupStarts = new int[INITIAL_CAPACITY];
+    private boolean groupsSorted;
+
+    // Per cell state, reused across rows
+    private int cellCount;
+    private ByteString[] qualifiers = new ByteString[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private ByteString[] values = new ByteString[INITIAL_CAPACITY];
+    private List<String>[] labels = newLabelsArray(INITIAL_CAPACITY);
+    private boolean hasLabels;
+
+    // Current cell
+    private String family;
+    private ByteString qualifier;
+    private List<String> cellLabels;
+    private long timestamp;
+    private ByteString value;
+
+    public ColumnarRowBuilder() {
+      reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ColumnarRow createScanMarkerRow(ByteString key) {
+      return ColumnarRow.createEmpty(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void startRow(ByteString key) {
+      currentKey = key;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void startCell(
+        String family, ByteString qualifier, long timestamp, List<String> labels, long size) {
+      this.family = family;
+      this.qualifier = qualifier;
+      this.timestamp = timestamp;
+      this.cellLabels = labels;
+      this.value = ByteString.EMPTY;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void cellValue(ByteString value) {
+      this.value = this.value.concat(value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void finishCell() {
+      if (groupCount == 0 || !groupFamilies[groupCount - 1].equals(family)) {
+        if (groupCount > 0 && groupFamilies[groupCount - 1].compareTo(family) > 0) {
+          groupsSorted = false;
+        }
+        if (groupCount == groupStarts.length) {
+          groupFamilies = Arrays.copyOf(groupFamilies, groupCount * 2);
+          groupStarts = Arrays.copyOf(groupStarts, groupCount * 2);
+        }
+        groupFamilies[groupCount] = family;
+        groupStarts[groupCount] = cellCount;
+        groupCount++;
+      }
+
+      if (cellCount == values.length) {
+        grow();
+      }
+      qualifiers[cellCount] = qualifier;
+      timestamps[cellCount] = timestamp;
+      values[cellCount] = value;
+      labels[cellCount] = cellLabels;
+      hasLabels |= !cellLabels.isEmpty();
+      cellCount++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ColumnarRow finishRow() {
+      if (cellCount == 0) {
+        return ColumnarRow.createEmpty(currentKey);
+      }
+
+      int[] groupOrder = groupsSorted ? null : sortGroups();
+      int familyCount = groupCount;
+      if (groupOrder != null) {
+        for (int i = 1; i < groupCount; i++) {
+          if (groupFamilies[groupOrder[i]].equals(groupFamilies[groupOrder[i - 1]])) {
+            familyCount--;
+          }
+        }
+      }
+
+      String[] sortedFamilies = new String[familyCount];
+      int[] sortedFamilyStarts = new int[familyCount + 1];
+      int[] sortedFamilyIndexes = new int[cellCount];
+      ByteString[] sortedQualifiers = new ByteString[cellCount];
+      long[] sortedTimestamps = new long[cellCount];
+      ByteString[] sortedValues = new ByteString[cellCount];
+      ImmutableList.Builder<List<String>> sortedLabels = hasLabels ? ImmutableList.builder() : null;
+
+      // Copy the family groups in family order, merging the groups of the same family in the order
+      // they were received. When the families were received in order, this is a straight copy of
+      // each array.
+      int dst = 0;
+      int familyIndex = -1;
+      for (int i = 0; i < groupCount; i++) {
+        int group = groupOrder == null ? i : groupOrder[i];
+        int start = groupStarts[group];
+        int end = group + 1 < groupCount ? groupStarts[group + 1] : cellCount;
+        int length = end - start;
+
+        if (familyIndex < 0 || !sortedFamilies[familyIndex].equals(groupFamilies[group])) {
+          familyIndex++;
+          sortedFamilies[familyIndex] = groupFamilies[group];
+          sortedFamilyStarts[familyIndex] = dst;
+        }
+        Arrays.fill(sortedFamilyIndexes, dst, dst + length, familyIndex);
+        System.arraycopy(qualifiers, start, sortedQualifiers, dst, length);
+        System.arraycopy(timestamps, start, sortedTimestamps, dst, length);
+        System.arraycopy(values, start, sortedValues, dst, length);
+        if (sortedLabels != null) {
+          for (int j = start; j < end; j++) {
+            sortedLabels.add(ImmutableList.copyOf(labels[j]));
+          }
+        }
+        dst += length;
+      }
+      sortedFamilyStarts[familyCount] = cellCount;
+
+      return new ColumnarRow(
+          currentKey,
+          sortedFamilies,
+          sortedFamilyStarts,
+          sortedFamilyIndexes,
+          sortedQualifiers,
+          sortedTimestamps,
+          sortedValues,
+          sortedLabels == null ? null : sortedLabels.build());
+    }
+
+    /**
+     * Returns the indexes of the groups sorted by family. The sort is stable, so the groups of a
+     * family stay in the order they were received. Rows only have a few groups, so an insertion
+     * sort of the primitive indexes is enough.
+     */
+    private int[] sortGroups() {
+      int[] order = new int[groupCount];
+      for (int i = 0; i < groupCount; i++) {
+        int group = i;
+        int j = i;
+        while (j > 0 && groupFamilies[order[j - 1]].compareTo(groupFamilies[group]) > 0) {
+          order[j] = order[j - 1];
+          j--;
+        }
+        order[j] = group;
+      }
+      return order;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset() {
+      currentKey = null;
+
+      Arrays.fill(groupFamilies, 0, groupCount, null);
+      groupCount = 0;
+      groupsSorted = true;
+
+      // Release the references to the previous row's data, but keep the arrays for the next row
+      Arrays.fill(qualifiers, 0, cellCount, null);
+      Arrays.fill(values, 0, cellCount, null);
+      Arrays.fill(labels, 0, cellCount, null);
+      cellCount = 0;
+      hasLabels = false;
+
+      family = null;
+      qualifier = null;
+      cellLabels = null;
+      timestamp = 0;
+      value = null;
+    }
+
+    private void grow() {
+      int newCapacity = values.length * 2;
+      qualifiers = Arrays.copyOf(qualifiers, newCapacity);
+      timestamps = Arrays.copyOf(timestamps, newCapacity);
+      values = Arrays.copyOf(values, newCapacity);
+      labels = Arrays.copyOf(labels, newCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newLabelsArray(int capacity) {
+      return (List<String>[]) new List<?>[capacity];
+    }
+  }
+}
@@ -34,6 +34,7 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * The concrete implementation of {@link MutationApi} that can be used to create and represent a
@@ -57,6 +58,10 @@ public final class Mutation implements MutationApi<Mutation>, Serializable {
   private transient ImmutableList.Builder<com.google.bigtable.v2.Mutation> mutations =
       ImmutableList.builder();
 
+  // The list built from mutations, until the next mutation is added. Entries compare it by identity
+  // to tell if the mutation changed since they were encoded.
+  @Nullable private transient ImmutableList<com.google.bigtable.v2.Mutation> builtMutations;
+
   private int numMutations;
   private long byteSize;
 
@@ -337,6 +342,7 @@ public final class Mutation implements MutationApi<Mutation>, Serializable {
     byteSize += mutation.getSerializedSize();
 
     mutations.add(mutation);
+    builtMutations = null;
   }
 
   private static ByteString wrapByteString(String str) {
@@ -347,8 +353,14 @@ public final class Mutation implements MutationApi<Mutation>, Serializable {
     }
   }
 
-  /** Returns the mutation protos. */
+  /**
+   * Returns the mutation protos. The same list is returned until a mutation is added, so that
+   * callers don't copy the mutations every time.
+   */
   List<com.google.bigtable.v2.Mutation> getMutations() {
-    return mutations.build();
+    if (builtMutations == null) {
+      builtMutations = mutations.build();
+    }
+    return builtMutations;
   }
 }
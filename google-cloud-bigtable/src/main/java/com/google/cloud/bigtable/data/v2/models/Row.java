@@ -24,7 +24,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
 import java.io.Serializable;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -50,6 +52,9 @@ public abstract class Row implements Serializable {
     };
   }
 
+  // Lazily built on the first family or qualifier lookup, see getCellIndex()
+  @Nullable private transient volatile CellIndex cellIndex;
+
   /** Creates a new instance of the {@link Row}. */
   @InternalApi
   public static Row create(ByteString key, List<RowCell> cells) {
@@ -75,14 +80,11 @@ public abstract class Row implements Serializable {
   public List<RowCell> getCells(@Nonnull String family) {
     Preconditions.checkNotNull(family, "family");
 
-    int start = getFirst(family, null);
-    if (start < 0) {
+    CellIndex.Range range = getCellIndex().find(family);
+    if (range == null) {
       return ImmutableList.of();
     }
-
-    int end = getLast(family, null, start);
-
-    return getCells().subList(start, end + 1);
+    return getCells().subList(range.start, range.end);
   }
 
   /**
@@ -106,65 +108,114 @@ public abstract class Row implements Serializable {
     Preconditions.checkNotNull(family, "family");
     Preconditions.checkNotNull(qualifier, "qualifier");
 
-    int start = getFirst(family, qualifier);
-    if (start < 0) {
+    CellIndex.Range range = getCellIndex().find(family, qualifier);
+    if (range == null) {
       return ImmutableList.of();
     }
+    return getCells().subList(range.start, range.end);
+  }
 
-    int end = getLast(family, qualifier, start);
+  /**
+   * Returns the most recent cell of the specified family and qualifier, or null if the row doesn't
+   * contain that column.
+   */
+  @Nullable
+  public RowCell getLatestCell(@Nonnull String family, @Nonnull String qualifier) {
+    Preconditions.checkNotNull(family, "family");
+    Preconditions.checkNotNull(qualifier, "qualifier");
 
-    return getCells().subList(start, end + 1);
+    return getLatestCell(family, ByteString.copyFromUtf8(qualifier));
   }
 
-  private int getFirst(@Nonnull String family, @Nullable ByteString qualifier) {
-    int low = 0;
-    int high = getCells().size();
-    int index = -1;
-
-    while (low < high) {
-      int mid = (high + low) / 2;
-      RowCell midCell = getCells().get(mid);
+  /**
+   * Returns the most recent cell of the specified family and qualifier, or null if the row doesn't
+   * contain that column.
+   */
+  @Nullable
+  public RowCell getLatestCell(@Nonnull String family, @Nonnull ByteString qualifier) {
+    Preconditions.checkNotNull(family, "family");
+    Preconditions.checkNotNull(qualifier, "qualifier");
 
-      int c = midCell.getFamily().compareTo(family);
-      if (c == 0 && qualifier != null) {
-        c = ByteStringComparator.INSTANCE.compare(midCell.getQualifier(), qualifier);
-      }
+    CellIndex.Range range = getCellIndex().find(family, qualifier);
+    if (range == null) {
+      return null;
+    }
+    // Cells of a column are sorted in reverse chronological order
+    return getCells().get(range.start);
+  }
 
-      if (c < 0) {
-        low = mid + 1;
-      } else if (c == 0) {
-        index = mid;
-        high = mid;
-      } else {
-        high = mid;
-      }
+  /**
+   * Returns the index of the cells in this row, building it on first use. Concurrent callers might
+   * each build an index, but they are all identical so the race is benign.
+   */
+  private CellIndex getCellIndex() {
+    CellIndex index = cellIndex;
+    if (index == null) {
+      index = CellIndex.build(getCells());
+      cellIndex = index;
     }
     return index;
   }
 
-  private int getLast(@Nonnull String family, @Nullable ByteString qualifier, int startIndex) {
-    int low = startIndex;
-    int high = getCells().size();
-    int index = -1;
+  /**
+   * Maps each family and each family+qualifier pair of a row to the range of cells that they
+   * occupy. Relies on the cells being sorted natively, so that the cells of a family or a column
+   * are contiguous.
+   */
+  private static final class CellIndex {
+    private final Map<String, Range> families = new HashMap<>();
+    private final Map<String, Map<ByteString, Range>> columns = new HashMap<>();
+
+    private static CellIndex build(List<RowCell> cells) {
+      CellIndex index = new CellIndex();
+
+      String family = null;
+      ByteString qualifier = null;
+      Range familyRange = null;
+      Range columnRange = null;
+      Map<ByteString, Range> familyColumns = null;
+
+      for (int i = 0; i < cells.size(); i++) {
+        RowCell cell = cells.get(i);
+
+        if (!cell.getFamily().equals(family)) {
+          family = cell.getFamily();
+          familyRange = new Range(i);
+          index.families.put(family, familyRange);
+          familyColumns = new HashMap<>();
+          index.columns.put(family, familyColumns);
+          qualifier = null;
+        }
+        if (!cell.getQualifier().equals(qualifier)) {
+          qualifier = cell.getQualifier();
+          columnRange = new Range(i);
+          familyColumns.put(qualifier, columnRange);
+        }
+        familyRange.end = i + 1;
+        columnRange.end = i + 1;
+      }
+      return index;
+    }
+
+    @Nullable
+    Range find(String family) {
+      return families.get(family);
+    }
 
-    while (low < high) {
-      int mid = (high + low) / 2;
-      RowCell midCell = getCells().get(mid);
+    @Nullable
+    Range find(String family, ByteString qualifier) {
+      Map<ByteString, Range> familyColumns = columns.get(family);
+      return familyColumns == null ? null : familyColumns.get(qualifier);
+    }
 
-      int c = midCell.getFamily().compareTo(family);
-      if (c == 0 && qualifier != null) {
-        c = ByteStringComparator.INSTANCE.compare(midCell.getQualifier(), qualifier);
-      }
+    /** A half open range of cell indexes: [start, end). */
+    private static final class Range {
+      private final int start;
+      private int end;
 
-      if (c < 0) {
-        low = mid + 1;
-      } else if (c == 0) {
-        index = mid;
-        low = mid + 1;
-      } else {
-        high = mid;
+      private Range(int start) {
+        this.start = start;
       }
     }
-    return index;
   }
 }
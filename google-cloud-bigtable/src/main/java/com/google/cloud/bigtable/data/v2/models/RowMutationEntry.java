@@ -21,7 +21,9 @@ import com.google.bigtable.v2.MutateRowsRequest;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
 import java.io.Serializable;
+import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a list of mutations targeted at a single row. It is meant to be used as an parameter
@@ -38,6 +40,12 @@ public class RowMutationEntry implements MutationApi<RowMutationEntry>, Serializ
   private final ByteString key;
   private final Mutation mutation;
 
+  // The encoded entry and the mutation list it was encoded from. The batcher asks for the proto
+  // several times per entry, it is only rebuilt if mutations were added since. The proto is kept
+  // rather than its encoded bytes because retries, request routing and the spill log read it.
+  @Nullable private transient MutateRowsRequest.Entry proto;
+  @Nullable private transient List<com.google.bigtable.v2.Mutation> protoMutations;
+
   private RowMutationEntry(@Nonnull ByteString key, @Nonnull Mutation mutation) {
     Preconditions.checkNotNull(key, "Row key can't be null");
     Preconditions.checkNotNull(mutation, "Row mutation can't be null");
@@ -200,16 +208,25 @@ public class RowMutationEntry implements MutationApi<RowMutationEntry>, Serializ
     return this;
   }
 
+  /** Returns the row key of the entry, without building its protobuf. */
+  @InternalApi
+  public ByteString getKey() {
+    return key;
+  }
+
   @InternalApi
   public MutateRowsRequest.Entry toProto() {
+    List<com.google.bigtable.v2.Mutation> mutations = mutation.getMutations();
+    if (proto != null && protoMutations == mutations) {
+      return proto;
+    }
     Preconditions.checkArgument(
-        mutation.getMutations().size() <= MAX_MUTATION,
+        mutations.size() <= MAX_MUTATION,
         "Too many mutations, got %s, limit is %s",
-        mutation.getMutations().size(),
+        mutations.size(),
         MAX_MUTATION);
-    return MutateRowsRequest.Entry.newBuilder()
-        .setRowKey(key)
-        .addAllMutations(mutation.getMutations())
-        .build();
+    proto = MutateRowsRequest.Entry.newBuilder().setRowKey(key).addAllMutations(mutations).build();
+    protoMutations = mutations;
+    return proto;
   }
 }
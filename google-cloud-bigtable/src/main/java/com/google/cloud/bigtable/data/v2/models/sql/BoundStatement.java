@@ -380,6 +380,43 @@ public class BoundStatement {
     return requestBuilder.build();
   }
 
+  /**
+   * Returns the value bound to the BYTES param {@code paramName}, or null if it is bound to NULL.
+   *
+   * <p>This is considered an internal implementation detail and not meant to be used by
+   * applications.
+   */
+  @InternalApi("For internal use only")
+  @Nullable
+  public ByteString getBytesParam(String paramName) {
+    Value value = getBytesParamValue(paramName);
+    return value.getKindCase() == Value.KindCase.BYTES_VALUE ? value.getBytesValue() : null;
+  }
+
+  /**
+   * Returns a copy of this statement with the BYTES param {@code paramName} bound to {@code value},
+   * keeping every other param as is.
+   *
+   * <p>This is considered an internal implementation detail and not meant to be used by
+   * applications.
+   */
+  @InternalApi("For internal use only")
+  public BoundStatement withBytesParam(String paramName, @Nullable ByteString value) {
+    getBytesParamValue(paramName);
+    Map<String, Value> newParams = new HashMap<>(params);
+    newParams.put(paramName, Builder.bytesParamOf(value));
+    return new BoundStatement(preparedStatement, ImmutableMap.copyOf(newParams));
+  }
+
+  private Value getBytesParamValue(String paramName) {
+    Value value = params.get(paramName);
+    Preconditions.checkArgument(value != null, "No parameter named: " + paramName);
+    Preconditions.checkArgument(
+        value.getType().getKindCase() == Type.KindCase.BYTES_TYPE,
+        "Expected query param '" + paramName + "' to be BYTES, but it is: " + value.getType());
+    return value;
+  }
+
   @InternalApi("For internal use only")
   public PreparedQueryData markExpiredAndStartRefresh(
       PreparedQueryVersion expiredPreparedQueryVersion) {
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models.sql;
+
+import com.google.api.core.BetaApi;
+import com.google.bigtable.v2.Value;
+import com.google.bigtable.v2.Value.KindCase;
+import com.google.cloud.Date;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.internal.ResultSetImpl;
+import com.google.cloud.bigtable.data.v2.internal.TimestampUtil;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.AbstractMessage;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ProtocolMessageEnum;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Reads a column of the rows of a query. The column is resolved once, from the {@link
+ * ResultSetMetadata} of the query.
+ *
+ * <p>The getters of {@link StructReader} look up the column by name and check its type on every
+ * call. An accessor does both when it's created, so that reading a column in a loop over many rows
+ * only costs reading the value. The accessors of primitive columns, like {@link
+ * Int64#getLong(StructReader)}, also avoid boxing the value.
+ *
+ * <p>Accessors read the current row of a {@link ResultSet}, or the rows passed to the observer of
+ * {@code BigtableDataClient#executeQueryAsync}, which must have the metadata the accessor was
+ * created from. Accessors are immutable and can be shared by threads.
+ *
+ * <p>Sample code:
+ *
+ * <pre>{@code
+ * try (ResultSet resultSet = client.executeQuery(boundStatement)) {
+ *   ResultSetMetadata metadata = resultSet.getMetadata();
+ *   ColumnAccessor<String> name = ColumnAccessor.string(metadata, "name");
+ *   ColumnAccessor.Int64 count = ColumnAccessor.int64(metadata, "count");
+ *   while (resultSet.next()) {
+ *     total += count.getLong(resultSet);
+ *   }
+ * }
+ * }</pre>
+ */
+@BetaApi("This feature is currently experimental and can change in the future")
+public abstract class ColumnAccessor<T> {
+  private final ResultSetMetadata metadata;
+  private final String columnName;
+  private final int columnIndex;
+
+  private ColumnAccessor(ResultSetMetadata metadata, String columnName, SqlType<?> expectedType) {
+    this.metadata = metadata;
+    this.columnName = columnName;
+    this.columnIndex = metadata.getColumnIndex(columnName);
+    SqlType<?> actualType = metadata.getColumnType(columnIndex);
+    Preconditions.checkArgument(
+        SqlType.typesMatch(expectedType, actualType),
+        "Column %s is not of correct type: expected %s but was %s",
+        columnName,
+        expectedType,
+        actualType);
+  }
+
+  /**
+   * Creates an accessor for a column of the given type.
+   *
+   * @throws IllegalArgumentException if there is not exactly one column with the given name, or if
+   *     the column is not of the given type
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> ColumnAccessor<T> of(
+      ResultSetMetadata metadata, String columnName, SqlType<T> type) {
+    switch (type.getCode()) {
+      case BYTES:
+        return (ColumnAccessor<T>) bytes(metadata, columnName);
+      case STRING:
+        return (ColumnAccessor<T>) string(metadata, columnName);
+      case INT64:
+        return (ColumnAccessor<T>) int64(metadata, columnName);
+      case FLOAT64:
+        return (ColumnAccessor<T>) float64(metadata, columnName);
+      case FLOAT32:
+        return (ColumnAccessor<T>) float32(metadata, columnName);
+      case BOOL:
+        return (ColumnAccessor<T>) bool(metadata, columnName);
+      case TIMESTAMP:
+        return (ColumnAccessor<T>) timestamp(metadata, columnName);
+      case DATE:
+        return (ColumnAccessor<T>) date(metadata, columnName);
+      case PROTO:
+        // The metadata only has the name of the message, so parse it with the given type
+        return (ColumnAccessor<T>) protoMessage(metadata, columnName, (SqlType.Proto<?>) type);
+      case ENUM:
+        return (ColumnAccessor<T>) protoEnum(metadata, columnName, (SqlType.Enum<?>) type);
+      case STRUCT:
+      case ARRAY:
+      case MAP:
+        return new Delegating<>(metadata, columnName, type);
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  /** Creates an accessor for a {@link SqlType#int64()} column. */
+  public static Int64 int64(ResultSetMetadata metadata, String columnName) {
+    return new Int64(metadata, columnName);
+  }
+
+  /** Creates an accessor for a {@link SqlType#float64()} column. */
+  public static Float64 float64(ResultSetMetadata metadata, String columnName) {
+    return new Float64(metadata, columnName);
+  }
+
+  /** Creates an accessor for a {@link SqlType#float32()} column. */
+  public static Float32 float32(ResultSetMetadata metadata, String columnName) {
+    return new Float32(metadata, columnName);
+  }
+
+  /** Creates an accessor for a {@link SqlType#bool()} column. */
+  public static Bool bool(ResultSetMetadata metadata, String columnName) {
+    return new Bool(metadata, columnName);
+  }
+
+  /** Creates an accessor for a {@link SqlType#bytes()} column. */
+  public static ColumnAccessor<ByteString> bytes(ResultSetMetadata metadata, String columnName) {
+    return new Decoding<>(metadata, columnName, SqlType.bytes(), Value::getBytesValue);
+  }
+
+  /** Creates an accessor for a {@link SqlType#string()} column. */
+  public static ColumnAccessor<String> string(ResultSetMetadata metadata, String columnName) {
+    return new Decoding<>(metadata, columnName, SqlType.string(), Value::getStringValue);
+  }
+
+  /** Creates an accessor for a {@link SqlType#timestamp()} column. */
+  public static ColumnAccessor<Instant> timestamp(ResultSetMetadata metadata, String columnName) {
+    return new Decoding<>(
+        metadata,
+        columnName,
+        SqlType.timestamp(),
+        value -> TimestampUtil.toInstant(value.getTimestampValue()));
+  }
+
+  /** Creates an accessor for a {@link SqlType#date()} column. */
+  public static ColumnAccessor<Date> date(ResultSetMetadata metadata, String columnName) {
+    return new Decoding<>(
+        metadata,
+        columnName,
+        SqlType.date(),
+        value -> {
+          com.google.type.Date date = value.getDateValue();
+          return Date.fromYearMonthDay(date.getYear(), date.getMonth(), date.getDay());
+        });
+  }
+
+  private static <EnumType extends ProtocolMessageEnum> ColumnAccessor<EnumType> protoEnum(
+      ResultSetMetadata metadata, String columnName, SqlType.Enum<EnumType> type) {
+    return new Decoding<>(
+        metadata, columnName, type, value -> type.getForNumber().apply((int) value.getIntValue()));
+  }
+
+  private static <MsgType extends AbstractMessage> ColumnAccessor<MsgType> protoMessage(
+      ResultSetMetadata metadata, String columnName, SqlType.Proto<MsgType> type) {
+    return new Decoding<>(
+        metadata,
+        columnName,
+        type,
+        value -> {
+          try {
+            return type.getParserForType().parseFrom(value.getBytesValue());
+          } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Unable to parse value to proto " + type, e);
+          }
+        });
+  }
+
+  /**
+   * @return the index of the column
+   */
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+
+  /**
+   * @param row the current row of a {@link ResultSet} or a row of the results
+   * @return {@code true} if the column contains a {@code NULL} value
+   */
+  public boolean isNull(StructReader row) {
+    return valueOf(row).getKindCase() == KindCase.KIND_NOT_SET;
+  }
+
+  /**
+   * @param row the current row of a {@link ResultSet} or a row of the results
+   * @return the value of a non-{@code NULL} column
+   */
+  public abstract T get(StructReader row);
+
+  /** Returns the value of the column, after checking that it's not {@code NULL}. */
+  Value nonNullValueOf(StructReader row) {
+    Value value = valueOf(row);
+    if (value.getKindCase() == KindCase.KIND_NOT_SET) {
+      throw new NullPointerException("Column " + columnName + " contains NULL value");
+    }
+    return value;
+  }
+
+  private Value valueOf(StructReader row) {
+    return protoRowOf(row).values().get(columnIndex);
+  }
+
+  ProtoSqlRow protoRowOf(StructReader row) {
+    if (row instanceof ResultSetImpl) {
+      row = ((ResultSetImpl) row).getCurrentRow();
+    }
+    Preconditions.checkArgument(
+        row instanceof ProtoSqlRow, "Unsupported row type: %s", row.getClass().getName());
+    ProtoSqlRow protoRow = (ProtoSqlRow) row;
+    // Rows of the same query share their metadata, so the identity check is enough in the common
+    // case
+    ResultSetMetadata rowMetadata = protoRow.metadata();
+    Preconditions.checkArgument(
+        rowMetadata == metadata || metadata.equals(rowMetadata),
+        "The row doesn't have the metadata that the accessor of column %s was created from",
+        columnName);
+    return protoRow;
+  }
+
+  /** An accessor for a {@link SqlType#int64()} column. */
+  public static final class Int64 extends ColumnAccessor<Long> {
+    private Int64(ResultSetMetadata metadata, String columnName) {
+      super(metadata, columnName, SqlType.int64());
+    }
+
+    /**
+     * @param row the current row of a {@link ResultSet} or a row of the results
+     * @return the value of a non-{@code NULL} column
+     */
+    public long getLong(StructReader row) {
+      return nonNullValueOf(row).getIntValue();
+    }
+
+    @Override
+    public Long get(StructReader row) {
+      return getLong(row);
+    }
+  }
+
+  /** An accessor for a {@link SqlType#float64()} column. */
+  public static final class Float64 extends ColumnAccessor<Double> {
+    private Float64(ResultSetMetadata metadata, String columnName) {
+      super(metadata, columnName, SqlType.float64());
+    }
+
+    /**
+     * @param row the current row of a {@link ResultSet} or a row of the results
+     * @return the value of a non-{@code NULL} column
+     */
+    public double getDouble(StructReader row) {
+      return nonNullValueOf(row).getFloatValue();
+    }
+
+    @Override
+    public Double get(StructReader row) {
+      return getDouble(row);
+    }
+  }
+
+  /** An accessor for a {@link SqlType#float32()} column. */
+  public static final class Float32 extends ColumnAccessor<Float> {
+    private Float32(ResultSetMetadata metadata, String columnName) {
+      super(metadata, columnName, SqlType.float32());
+    }
+
+    /**
+     * @param row the current row of a {@link ResultSet} or a row of the results
+     * @return the value of a non-{@code NULL} column
+     */
+    public float getFloat(StructReader row) {
+      return (float) nonNullValueOf(row).getFloatValue();
+    }
+
+    @Override
+    public Float get(StructReader row) {
+      return getFloat(row);
+    }
+  }
+
+  /** An accessor for a {@link SqlType#bool()} column. */
+  public static final class Bool extends ColumnAccessor<Boolean> {
+    private Bool(ResultSetMetadata metadata, String columnName) {
+      super(metadata, columnName, SqlType.bool());
+    }
+
+    /**
+     * @param row the current row of a {@link ResultSet} or a row of the results
+     * @return the value of a non-{@code NULL} column
+     */
+    public boolean getBoolean(StructReader row) {
+      return nonNullValueOf(row).getBoolValue();
+    }
+
+    @Override
+    public Boolean get(StructReader row) {
+      return getBoolean(row);
+    }
+  }
+
+  /** Reads a column directly from its value. */
+  private static final class Decoding<T> extends ColumnAccessor<T> {
+    private final Function<Value, T> decoder;
+
+    private Decoding(
+        ResultSetMetadata metadata,
+        String columnName,
+        SqlType<T> type,
+        Function<Value, T> decoder) {
+      super(metadata, columnName, type);
+      this.decoder = decoder;
+    }
+
+    @Override
+    public T get(StructReader row) {
+      return decoder.apply(nonNullValueOf(row));
+    }
+  }
+
+  /**
+   * Reads a column of a nested type with the index based getters of the row, which decode the value
+   * with the schema from the metadata. Decoding these values costs much more than resolving the
+   * column.
+   */
+  private static final class Delegating<T> extends ColumnAccessor<T> {
+    private final SqlType<T> type;
+
+    private Delegating(ResultSetMetadata metadata, String columnName, SqlType<T> type) {
+      super(metadata, columnName, type);
+      this.type = type;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(StructReader row) {
+      ProtoSqlRow protoRow = protoRowOf(row);
+      int columnIndex = getColumnIndex();
+      switch (type.getCode()) {
+        case STRUCT:
+          return (T) protoRow.getStruct(columnIndex);
+        case ARRAY:
+          return (T) protoRow.getList(columnIndex, (SqlType.Array<?>) type);
+        case MAP:
+          return (T) protoRow.getMap(columnIndex, (SqlType.Map<?, ?>) type);
+        default:
+          throw new IllegalStateException("Unsupported type: " + type);
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models.sql;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.bigtable.data.v2.models.TargetId;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * A SQL query that is executed as several concurrent ExecuteQuery streams, each scanning its own
+ * row key range of the table. Use it with {@link
+ * com.google.cloud.bigtable.data.v2.BigtableDataClient#executeQuery(PartitionedQuery)} to scan
+ * large tables faster than a single stream can.
+ *
+ * <p>The range of the query is taken from two BYTES params of the statement, and the query must
+ * only return rows whose {@code _key} is in {@code [@startKeyParam, @endKeyParam)}. The client
+ * samples the row keys of the table, splits that range at the sampled keys, and executes the
+ * statement once per partition with the params rebound to the partition's range. The values bound
+ * to the template statement are used as is for the start of the first partition and the end of the
+ * last one, so a query that treats NULL as unbounded can still scan the whole table. For example:
+ *
+ * <pre>{@code
+ * PreparedStatement preparedStatement = client.prepareStatement(
+ *     "SELECT _key, cf FROM table WHERE _key >= @start AND (@end IS NULL OR _key < @end)",
+ *     ImmutableMap.of("start", SqlType.bytes(), "end", SqlType.bytes()));
+ * BoundStatement statement = preparedStatement.bind()
+ *     .setBytesParam("start", ByteString.EMPTY)
+ *     .setBytesParam("end", null)
+ *     .build();
+ * PartitionedQuery query = PartitionedQuery.create(TableId.of("table"), statement, "start", "end")
+ *     .maxPartitions(32)
+ *     .parallelism(8);
+ * }</pre>
+ */
+@BetaApi("This feature is currently experimental and can change in the future")
+public final class PartitionedQuery {
+  private static final int DEFAULT_MAX_PARTITIONS = 16;
+  private static final int DEFAULT_PARALLELISM = 4;
+
+  private final TargetId targetId;
+  private final BoundStatement statement;
+  private final String startKeyParam;
+  private final String endKeyParam;
+  private int maxPartitions = DEFAULT_MAX_PARTITIONS;
+  private int parallelism = DEFAULT_PARALLELISM;
+  private boolean ordered = false;
+
+  /**
+   * Creates a partitioned query that executes {@code statement} against the key ranges of the table
+   * identified by {@code targetId}.
+   *
+   * @param startKeyParam the BYTES param holding the inclusive start key of the scanned range
+   * @param endKeyParam the BYTES param holding the exclusive end key of the scanned range
+   */
+  public static PartitionedQuery create(
+      TargetId targetId, BoundStatement statement, String startKeyParam, String endKeyParam) {
+    Preconditions.checkNotNull(targetId, "targetId can't be null");
+    Preconditions.checkNotNull(statement, "statement can't be null");
+    // Fail fast if the params don't exist or aren't BYTES
+    statement.getBytesParam(startKeyParam);
+    statement.getBytesParam(endKeyParam);
+    return new PartitionedQuery(targetId, statement, startKeyParam, endKeyParam);
+  }
+
+  private PartitionedQuery(
+      TargetId targetId, BoundStatement statement, String startKeyParam, String endKeyParam) {
+    this.targetId = targetId;
+    this.statement = statement;
+    this.startKeyParam = startKeyParam;
+    this.endKeyParam = endKeyParam;
+  }
+
+  /**
+   * Sets the maximum number of partitions the range is split into. The actual number can be lower
+   * when the table has fewer sampled row keys in the range. Defaults to 16.
+   */
+  public PartitionedQuery maxPartitions(int maxPartitions) {
+    Preconditions.checkArgument(maxPartitions > 0, "maxPartitions must be positive");
+    this.maxPartitions = maxPartitions;
+    return this;
+  }
+
+  /** Sets the maximum number of partitions that are executed concurrently. Defaults to 4. */
+  public PartitionedQuery parallelism(int parallelism) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * Sets whether the rows are returned in row key order. By default rows are returned as soon as
+   * any partition produces them, which is faster but interleaves the partitions. Ordered results
+   * still execute partitions concurrently, but buffer the rows of later partitions until the
+   * earlier ones are done.
+   */
+  public PartitionedQuery ordered(boolean ordered) {
+    this.ordered = ordered;
+    return this;
+  }
+
+  public TargetId getTargetId() {
+    return targetId;
+  }
+
+  public BoundStatement getStatement() {
+    return statement;
+  }
+
+  public String getStartKeyParam() {
+    return startKeyParam;
+  }
+
+  public String getEndKeyParam() {
+    return endKeyParam;
+  }
+
+  public int getMaxPartitions() {
+    return maxPartitions;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("targetId", targetId)
+        .add("startKeyParam", startKeyParam)
+        .add("endKeyParam", endKeyParam)
+        .add("maxPartitions", maxPartitions)
+        .add("parallelism", parallelism)
+        .add("ordered", ordered)
+        .toString();
+  }
+}
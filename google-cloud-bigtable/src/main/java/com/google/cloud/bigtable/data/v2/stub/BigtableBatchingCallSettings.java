@@ -29,8 +29,11 @@ import com.google.api.gax.rpc.UnaryCallSettings;
 import com.google.cloud.bigtable.data.v2.models.BulkMutation;
 import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsAttemptResult;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsBatchingDescriptor;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -60,6 +63,10 @@ import javax.annotation.Nullable;
 @BetaApi("This surface is likely to change as the batching surface evolves.")
 public final class BigtableBatchingCallSettings
     extends UnaryCallSettings<BulkMutation, MutateRowsAttemptResult> {
+  private static final Duration DEFAULT_SPLIT_POINTS_REFRESH_INTERVAL = Duration.ofMinutes(5);
+  private static final int DEFAULT_MAX_KEY_RANGES = 32;
+  private static final long DEFAULT_PARALLEL_REQUEST_BYTES = 8L * 1024 * 1024;
+  private static final int DEFAULT_MAX_PARALLEL_REQUESTS = 8;
 
   // This settings is just a simple wrapper for BatchingCallSettings to allow us to add
   // additional functionality.
@@ -67,9 +74,19 @@ public final class BigtableBatchingCallSettings
       batchingCallSettings;
   private final boolean isLatencyBasedThrottlingEnabled;
   private final Long targetRpcLatencyMs;
+  private final Double targetRpcLatencyPercentile;
   private final DynamicFlowControlSettings dynamicFlowControlSettings;
 
   private final boolean isServerInitiatedFlowControlEnabled;
+  private final boolean isCongestionControlEnabled;
+  private final boolean isTabletAwareBatchingEnabled;
+  private final Duration splitPointsRefreshInterval;
+  private final int maxKeyRanges;
+  @Nullable private final Path spillDirectory;
+  private final long maxSpillBytes;
+  private final boolean isParallelBulkMutationEnabled;
+  private final long maxParallelRequestBytes;
+  private final int maxParallelRequests;
 
   private BigtableBatchingCallSettings(Builder builder) {
     super(builder);
@@ -81,8 +98,18 @@ public final class BigtableBatchingCallSettings
             .build();
     this.isLatencyBasedThrottlingEnabled = builder.isLatencyBasedThrottlingEnabled;
     this.targetRpcLatencyMs = builder.targetRpcLatencyMs;
+    this.targetRpcLatencyPercentile = builder.targetRpcLatencyPercentile;
     this.dynamicFlowControlSettings = builder.dynamicFlowControlSettings;
     this.isServerInitiatedFlowControlEnabled = builder.isServerInitiatedFlowControlEnabled;
+    this.isCongestionControlEnabled = builder.isCongestionControlEnabled;
+    this.isTabletAwareBatchingEnabled = builder.isTabletAwareBatchingEnabled;
+    this.splitPointsRefreshInterval = builder.splitPointsRefreshInterval;
+    this.maxKeyRanges = builder.maxKeyRanges;
+    this.spillDirectory = builder.spillDirectory;
+    this.maxSpillBytes = builder.maxSpillBytes;
+    this.isParallelBulkMutationEnabled = builder.isParallelBulkMutationEnabled;
+    this.maxParallelRequestBytes = builder.maxParallelRequestBytes;
+    this.maxParallelRequests = builder.maxParallelRequests;
   }
 
   /** Returns batching settings which contains multiple batch threshold levels. */
@@ -107,6 +134,16 @@ public final class BigtableBatchingCallSettings
     return targetRpcLatencyMs;
   }
 
+  /**
+   * Gets the percentile of the rpc latency that latency based throttling compares with the target
+   * rpc latency. Returns null if it compares the mean latency, or if latency based throttling is
+   * disabled.
+   */
+  @Nullable
+  public Double getTargetRpcLatencyPercentile() {
+    return targetRpcLatencyPercentile;
+  }
+
   /**
    * Gets {@link DynamicFlowControlSettings}.
    *
@@ -122,6 +159,69 @@ public final class BigtableBatchingCallSettings
     return isServerInitiatedFlowControlEnabled;
   }
 
+  /** Gets if congestion control is enabled. */
+  public boolean isCongestionControlEnabled() {
+    return isCongestionControlEnabled;
+  }
+
+  /** Gets if entries are batched per row key range. */
+  public boolean isTabletAwareBatchingEnabled() {
+    return isTabletAwareBatchingEnabled;
+  }
+
+  /** Gets how often the row key ranges are sampled again when tablet aware batching is enabled. */
+  public Duration getSplitPointsRefreshInterval() {
+    return splitPointsRefreshInterval;
+  }
+
+  /** Gets the maximum number of row key ranges that are batched separately. */
+  public int getMaxKeyRanges() {
+    return maxKeyRanges;
+  }
+
+  /** Gets if the entries of a batch that mutate the same row are merged into a single entry. */
+  public boolean isSameRowCoalescingEnabled() {
+    return isSameRowCoalescingEnabled(getBatchingDescriptor());
+  }
+
+  /** Gets if entries are spilled to disk when the in memory limits of the batcher are reached. */
+  public boolean isSpillToDiskEnabled() {
+    return spillDirectory != null;
+  }
+
+  /** Gets the directory that entries are spilled to, or null if spilling is disabled. */
+  @Nullable
+  public Path getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /** Gets the maximum number of bytes of disk used by the spilled entries of a batcher. */
+  public long getMaxSpillBytes() {
+    return maxSpillBytes;
+  }
+
+  /** Gets if large bulk mutations are split into requests that are sent concurrently. */
+  public boolean isParallelBulkMutationEnabled() {
+    return isParallelBulkMutationEnabled;
+  }
+
+  /** Gets the maximum size of the requests a large bulk mutation is split into. */
+  public long getMaxParallelRequestBytes() {
+    return maxParallelRequestBytes;
+  }
+
+  /** Gets the maximum number of requests of a single bulk mutation that are sent concurrently. */
+  public int getMaxParallelRequests() {
+    return maxParallelRequests;
+  }
+
+  private static boolean isSameRowCoalescingEnabled(
+      BatchingDescriptor<RowMutationEntry, Void, BulkMutation, MutateRowsAttemptResult>
+          batchingDescriptor) {
+    return batchingDescriptor instanceof MutateRowsBatchingDescriptor
+        && ((MutateRowsBatchingDescriptor) batchingDescriptor).isSameRowCoalescingEnabled();
+  }
+
   static Builder newBuilder(
       BatchingDescriptor<RowMutationEntry, Void, BulkMutation, MutateRowsAttemptResult>
           batchingDescriptor) {
@@ -143,8 +243,19 @@ public final class BigtableBatchingCallSettings
         .add("batchingCallSettings", batchingCallSettings)
         .add("isLatencyBasedThrottlingEnabled", isLatencyBasedThrottlingEnabled)
         .add("targetRpcLatency", targetRpcLatencyMs)
+        .add("targetRpcLatencyPercentile", targetRpcLatencyPercentile)
         .add("dynamicFlowControlSettings", dynamicFlowControlSettings)
         .add("isServerInitiatedFlowControlEnabled", isServerInitiatedFlowControlEnabled)
+        .add("isCongestionControlEnabled", isCongestionControlEnabled)
+        .add("isTabletAwareBatchingEnabled", isTabletAwareBatchingEnabled)
+        .add("splitPointsRefreshInterval", splitPointsRefreshInterval)
+        .add("maxKeyRanges", maxKeyRanges)
+        .add("isSameRowCoalescingEnabled", isSameRowCoalescingEnabled())
+        .add("spillDirectory", spillDirectory)
+        .add("maxSpillBytes", maxSpillBytes)
+        .add("isParallelBulkMutationEnabled", isParallelBulkMutationEnabled)
+        .add("maxParallelRequestBytes", maxParallelRequestBytes)
+        .add("maxParallelRequests", maxParallelRequests)
         .toString();
   }
 
@@ -160,9 +271,19 @@ public final class BigtableBatchingCallSettings
     private BatchingSettings batchingSettings;
     private boolean isLatencyBasedThrottlingEnabled;
     private Long targetRpcLatencyMs;
+    private Double targetRpcLatencyPercentile;
     private DynamicFlowControlSettings dynamicFlowControlSettings;
 
     private boolean isServerInitiatedFlowControlEnabled;
+    private boolean isCongestionControlEnabled;
+    private boolean isTabletAwareBatchingEnabled;
+    private Duration splitPointsRefreshInterval = DEFAULT_SPLIT_POINTS_REFRESH_INTERVAL;
+    private int maxKeyRanges = DEFAULT_MAX_KEY_RANGES;
+    @Nullable private Path spillDirectory;
+    private long maxSpillBytes;
+    private boolean isParallelBulkMutationEnabled;
+    private long maxParallelRequestBytes = DEFAULT_PARALLEL_REQUEST_BYTES;
+    private int maxParallelRequests = DEFAULT_MAX_PARALLEL_REQUESTS;
 
     private Builder(
         @Nonnull
@@ -178,8 +299,18 @@ public final class BigtableBatchingCallSettings
       this.batchingSettings = settings.getBatchingSettings();
       this.isLatencyBasedThrottlingEnabled = settings.isLatencyBasedThrottlingEnabled();
       this.targetRpcLatencyMs = settings.getTargetRpcLatencyMs();
+      this.targetRpcLatencyPercentile = settings.getTargetRpcLatencyPercentile();
       this.dynamicFlowControlSettings = settings.getDynamicFlowControlSettings();
       this.isServerInitiatedFlowControlEnabled = settings.isServerInitiatedFlowControlEnabled();
+      this.isCongestionControlEnabled = settings.isCongestionControlEnabled();
+      this.isTabletAwareBatchingEnabled = settings.isTabletAwareBatchingEnabled();
+      this.splitPointsRefreshInterval = settings.getSplitPointsRefreshInterval();
+      this.maxKeyRanges = settings.getMaxKeyRanges();
+      this.spillDirectory = settings.getSpillDirectory();
+      this.maxSpillBytes = settings.getMaxSpillBytes();
+      this.isParallelBulkMutationEnabled = settings.isParallelBulkMutationEnabled();
+      this.maxParallelRequestBytes = settings.getMaxParallelRequestBytes();
+      this.maxParallelRequests = settings.getMaxParallelRequests();
     }
 
     /** Sets the batching settings with various thresholds. */
@@ -224,6 +355,24 @@ public final class BigtableBatchingCallSettings
           targetRpcLatency > 0, "target RPC latency must be greater than 0");
       this.isLatencyBasedThrottlingEnabled = true;
       this.targetRpcLatencyMs = targetRpcLatency;
+      this.targetRpcLatencyPercentile = null;
+      return this;
+    }
+
+    /**
+     * Enable latency based throttling on a percentile of the rpc latency. The number of allowed
+     * in-flight requests will be adjusted so that {@code targetPercentile} percent of the rpcs in
+     * the past minute complete within the target rpc latency, for example 99 for the p99 latency.
+     *
+     * <p>Unlike the mean latency, a high percentile reacts to a few slow batches before they
+     * collapse throughput.
+     */
+    public Builder enableLatencyBasedThrottling(long targetRpcLatency, double targetPercentile) {
+      Preconditions.checkArgument(
+          targetPercentile > 0 && targetPercentile <= 100,
+          "target percentile must be greater than 0 and at most 100");
+      enableLatencyBasedThrottling(targetRpcLatency);
+      this.targetRpcLatencyPercentile = targetPercentile;
       return this;
     }
 
@@ -231,6 +380,7 @@ public final class BigtableBatchingCallSettings
     public Builder disableLatencyBasedThrottling() {
       this.isLatencyBasedThrottlingEnabled = false;
       this.targetRpcLatencyMs = null;
+      this.targetRpcLatencyPercentile = null;
       return this;
     }
 
@@ -240,6 +390,15 @@ public final class BigtableBatchingCallSettings
       return isLatencyBasedThrottlingEnabled ? targetRpcLatencyMs : null;
     }
 
+    /**
+     * Gets the percentile of the rpc latency that is compared with the target rpc latency. Returns
+     * null if the mean latency is compared, or if latency based throttling is disabled.
+     */
+    @Nullable
+    public Double getTargetRpcLatencyPercentile() {
+      return isLatencyBasedThrottlingEnabled ? targetRpcLatencyPercentile : null;
+    }
+
     /** Gets if latency based throttling is enabled. */
     public boolean isLatencyBasedThrottlingEnabled() {
       return this.isLatencyBasedThrottlingEnabled;
@@ -257,7 +416,9 @@ public final class BigtableBatchingCallSettings
      * requests are resolved.
      *
      * <p>If latency based throttling is enabled, number of entries allowed by {@link
-     * FlowController} will be adjusted to reach {@link Builder#getTargetRpcLatencyMs()}.
+     * FlowController} will be adjusted to reach {@link Builder#getTargetRpcLatencyMs()}. The mean
+     * latency is compared with the target, or the {@link Builder#getTargetRpcLatencyPercentile()
+     * percentile} if one is set.
      *
      * <ul>
      *   <li>{@link FlowController} will be set to allow Math.max({@link BatchingSettings.Builder
@@ -279,6 +440,10 @@ public final class BigtableBatchingCallSettings
      * <p>Latency based throttling only updates outstanding entries count. {@link FlowController}
      * will always allow {@link FlowControlSettings.Builder#setMaxOutstandingRequestBytes
      * accumulated size}.
+     *
+     * <p>If congestion control is enabled, both the entries count and the accumulated size start at
+     * a quarter of their maximum and are adjusted between 1% and 100% of it, but never below the
+     * batch thresholds.
      */
     DynamicFlowControlSettings getDynamicFlowControlSettings() {
       return this.dynamicFlowControlSettings;
@@ -297,6 +462,205 @@ public final class BigtableBatchingCallSettings
       return this.isServerInitiatedFlowControlEnabled;
     }
 
+    /**
+     * Enable congestion control. The number of entries and bytes allowed in flight will be adjusted
+     * from the latency of the bulk mutation rpcs, the rate limits pushed by the server and overload
+     * errors, all combined into a single limit.
+     *
+     * <p>Congestion control replaces latency based throttling and server initiated flow control, it
+     * can't be enabled together with either of them.
+     */
+    public Builder enableCongestionControl() {
+      this.isCongestionControlEnabled = true;
+      return this;
+    }
+
+    /** Disable congestion control. */
+    public Builder disableCongestionControl() {
+      this.isCongestionControlEnabled = false;
+      return this;
+    }
+
+    /** Gets if congestion control is enabled. */
+    public boolean isCongestionControlEnabled() {
+      return this.isCongestionControlEnabled;
+    }
+
+    /**
+     * Enable tablet aware batching with the default refresh interval of 5 minutes and at most 32
+     * row key ranges.
+     *
+     * @see #enableTabletAwareBatching(Duration, int)
+     */
+    public Builder enableTabletAwareBatching() {
+      return enableTabletAwareBatching(
+          DEFAULT_SPLIT_POINTS_REFRESH_INTERVAL, DEFAULT_MAX_KEY_RANGES);
+    }
+
+    /**
+     * Enable tablet aware batching. The row keys of the table are sampled to split it into at most
+     * {@code maxKeyRanges} row key ranges, and entries are batched separately for every range, each
+     * batch with its own thresholds. Most batches then only mutate the rows of a single tablet, so
+     * a slow tablet only delays its own batches. The ranges are sampled again every {@code
+     * splitPointsRefreshInterval}.
+     *
+     * <p>All the ranges share the flow control of the batcher.
+     */
+    public Builder enableTabletAwareBatching(
+        @Nonnull Duration splitPointsRefreshInterval, int maxKeyRanges) {
+      Preconditions.checkNotNull(splitPointsRefreshInterval, "refresh interval can't be null");
+      Preconditions.checkArgument(
+          !splitPointsRefreshInterval.isNegative() && !splitPointsRefreshInterval.isZero(),
+          "split points refresh interval must be positive");
+      Preconditions.checkArgument(maxKeyRanges > 0, "maxKeyRanges must be positive");
+      this.isTabletAwareBatchingEnabled = true;
+      this.splitPointsRefreshInterval = splitPointsRefreshInterval;
+      this.maxKeyRanges = maxKeyRanges;
+      return this;
+    }
+
+    /** Disable tablet aware batching. */
+    public Builder disableTabletAwareBatching() {
+      this.isTabletAwareBatchingEnabled = false;
+      return this;
+    }
+
+    /** Gets if tablet aware batching is enabled. */
+    public boolean isTabletAwareBatchingEnabled() {
+      return this.isTabletAwareBatchingEnabled;
+    }
+
+    /**
+     * Gets how often the row key ranges are sampled again when tablet aware batching is enabled.
+     */
+    public Duration getSplitPointsRefreshInterval() {
+      return this.splitPointsRefreshInterval;
+    }
+
+    /** Gets the maximum number of row key ranges that are batched separately. */
+    public int getMaxKeyRanges() {
+      return this.maxKeyRanges;
+    }
+
+    /**
+     * Enables or disables the merging of entries that mutate the same row. When enabled, the
+     * entries of a batch with the same row key are sent as a single entry, with the mutations in
+     * the order the entries were added. The merged mutations are applied atomically, and the
+     * futures of all the merged entries complete with the result of that single entry.
+     *
+     * <p>Coalescing is disabled by default, and is only supported by the {@link
+     * MutateRowsBatchingDescriptor}.
+     */
+    public Builder setSameRowCoalescingEnabled(boolean isSameRowCoalescingEnabled) {
+      Preconditions.checkState(
+          batchingDescriptor instanceof MutateRowsBatchingDescriptor,
+          "Same row coalescing requires a MutateRowsBatchingDescriptor");
+      this.batchingDescriptor = new MutateRowsBatchingDescriptor(isSameRowCoalescingEnabled);
+      return this;
+    }
+
+    /** Gets if the entries of a batch that mutate the same row are merged into a single entry. */
+    public boolean isSameRowCoalescingEnabled() {
+      return BigtableBatchingCallSettings.isSameRowCoalescingEnabled(batchingDescriptor);
+    }
+
+    /**
+     * Enable spilling entries to disk when the batcher reaches its in memory limits. Instead of
+     * blocking or failing, an entry added while the batcher has as many outstanding elements or
+     * bytes as its flow control settings allow is appended to a log of memory mapped segments in a
+     * subdirectory of {@code directory}. Spilled entries are sent in order as outstanding entries
+     * complete, and the entries added after them are spilled too until the log is drained.
+     *
+     * <p>The log of a batcher uses at most {@code maxSpillBytes} of disk. When it is full, entries
+     * are added to the batcher directly and are subject to its flow control again. Entries left in
+     * the log by a batcher that was closed before they were sent, or by a process that crashed, are
+     * sent by the next batcher of the same table that uses the directory, at least once.
+     */
+    @BetaApi("Spilling bulk mutations to disk is experimental and can change in the future")
+    public Builder enableSpillToDisk(@Nonnull Path directory, long maxSpillBytes) {
+      Preconditions.checkNotNull(directory, "spill directory can't be null");
+      Preconditions.checkArgument(maxSpillBytes > 0, "maxSpillBytes must be positive");
+      this.spillDirectory = directory;
+      this.maxSpillBytes = maxSpillBytes;
+      return this;
+    }
+
+    /** Disable spilling entries to disk. */
+    public Builder disableSpillToDisk() {
+      this.spillDirectory = null;
+      this.maxSpillBytes = 0;
+      return this;
+    }
+
+    /** Gets if entries are spilled to disk when the in memory limits are reached. */
+    public boolean isSpillToDiskEnabled() {
+      return spillDirectory != null;
+    }
+
+    /** Gets the directory that entries are spilled to, or null if spilling is disabled. */
+    @Nullable
+    public Path getSpillDirectory() {
+      return spillDirectory;
+    }
+
+    /** Gets the maximum number of bytes of disk used by the spilled entries of a batcher. */
+    public long getMaxSpillBytes() {
+      return maxSpillBytes;
+    }
+
+    /**
+     * Enable parallel bulk mutations with requests of at most 8MB, and at most 8 requests in flight
+     * per bulk mutation.
+     *
+     * @see #enableParallelBulkMutation(long, int)
+     */
+    public Builder enableParallelBulkMutation() {
+      return enableParallelBulkMutation(
+          DEFAULT_PARALLEL_REQUEST_BYTES, DEFAULT_MAX_PARALLEL_REQUESTS);
+    }
+
+    /**
+     * Enable splitting large bulk mutations into concurrent requests. A {@link BulkMutation} sent
+     * with {@link com.google.cloud.bigtable.data.v2.BigtableDataClient#bulkMutateRows} that is
+     * larger than {@code maxRequestBytes} is sorted by row key and split into requests of at most
+     * {@code maxRequestBytes}, so that every request mutates a single row key range. At most {@code
+     * maxParallelRequests} of them are sent at a time, each with its own retries.
+     *
+     * <p>The entries of a row are never split across requests. A failure reports the index of the
+     * entry in the original {@link BulkMutation}, as it would without splitting. This doesn't apply
+     * to the batches of a bulk mutation batcher, which are bounded by its batching thresholds.
+     */
+    @BetaApi("Parallel bulk mutations are experimental and can change in the future")
+    public Builder enableParallelBulkMutation(long maxRequestBytes, int maxParallelRequests) {
+      Preconditions.checkArgument(maxRequestBytes > 0, "maxRequestBytes must be positive");
+      Preconditions.checkArgument(maxParallelRequests > 0, "maxParallelRequests must be positive");
+      this.isParallelBulkMutationEnabled = true;
+      this.maxParallelRequestBytes = maxRequestBytes;
+      this.maxParallelRequests = maxParallelRequests;
+      return this;
+    }
+
+    /** Disable splitting large bulk mutations into concurrent requests. */
+    public Builder disableParallelBulkMutation() {
+      this.isParallelBulkMutationEnabled = false;
+      return this;
+    }
+
+    /** Gets if large bulk mutations are split into requests that are sent concurrently. */
+    public boolean isParallelBulkMutationEnabled() {
+      return isParallelBulkMutationEnabled;
+    }
+
+    /** Gets the maximum size of the requests a large bulk mutation is split into. */
+    public long getMaxParallelRequestBytes() {
+      return maxParallelRequestBytes;
+    }
+
+    /** Gets the maximum number of requests of a single bulk mutation that are sent concurrently. */
+    public int getMaxParallelRequests() {
+      return maxParallelRequests;
+    }
+
     /** Builds the {@link BigtableBatchingCallSettings} object with provided configuration. */
     @Override
     public BigtableBatchingCallSettings build() {
@@ -320,9 +684,43 @@ public final class BigtableBatchingCallSettings
                   > batchingSettings.getRequestByteThreshold(),
           "if batch requestByteThreshold is set in BatchingSettings, flow control"
               + " maxOutstandingRequestBytes must be > getRequestByteThreshold");
+      Preconditions.checkState(
+          !isCongestionControlEnabled
+              || !(isLatencyBasedThrottlingEnabled || isServerInitiatedFlowControlEnabled),
+          "congestion control can't be enabled together with latency based throttling or server"
+              + " initiated flow control");
       // Combine static FlowControlSettings with latency based throttling settings to create
       // DynamicFlowControlSettings.
-      if (isLatencyBasedThrottlingEnabled()) {
+      if (isCongestionControlEnabled) {
+        long maxElementCount = flowControlSettings.getMaxOutstandingElementCount();
+        long maxRequestBytes = flowControlSettings.getMaxOutstandingRequestBytes();
+        // Like latency based throttling, start at 25% of the maximum and never go below 1% or a
+        // batch, but scale the bytes with the entries.
+        long initialElementCount = maxElementCount / 4;
+        long minElementCount = maxElementCount / 100;
+        if (batchingSettings.getElementCountThreshold() != null) {
+          initialElementCount =
+              Math.max(initialElementCount, batchingSettings.getElementCountThreshold());
+          minElementCount = Math.max(minElementCount, batchingSettings.getElementCountThreshold());
+        }
+        long initialRequestBytes = maxRequestBytes / 4;
+        long minRequestBytes = maxRequestBytes / 100;
+        if (batchingSettings.getRequestByteThreshold() != null) {
+          initialRequestBytes =
+              Math.max(initialRequestBytes, batchingSettings.getRequestByteThreshold());
+          minRequestBytes = Math.max(minRequestBytes, batchingSettings.getRequestByteThreshold());
+        }
+        dynamicFlowControlSettings =
+            DynamicFlowControlSettings.newBuilder()
+                .setLimitExceededBehavior(flowControlSettings.getLimitExceededBehavior())
+                .setInitialOutstandingElementCount(initialElementCount)
+                .setMaxOutstandingElementCount(maxElementCount)
+                .setMinOutstandingElementCount(minElementCount)
+                .setInitialOutstandingRequestBytes(initialRequestBytes)
+                .setMinOutstandingRequestBytes(minRequestBytes)
+                .setMaxOutstandingRequestBytes(maxRequestBytes)
+                .build();
+      } else if (isLatencyBasedThrottlingEnabled()) {
         long maxThrottlingElementCount = flowControlSettings.getMaxOutstandingElementCount();
         long maxThrottlingRequestByteCount = flowControlSettings.getMaxOutstandingRequestBytes();
         //  The maximum in flight element count is pretty high. Set the initial parallelism to 25%
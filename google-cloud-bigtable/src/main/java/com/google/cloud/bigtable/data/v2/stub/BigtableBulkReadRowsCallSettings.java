@@ -56,9 +56,11 @@ import javax.annotation.Nonnull;
 public class BigtableBulkReadRowsCallSettings extends UnaryCallSettings<Query, List<Row>> {
 
   private final BatchingCallSettings<ByteString, Row, Query, List<Row>> batchingCallSettings;
+  private final boolean isCoalescingEnabled;
 
   private BigtableBulkReadRowsCallSettings(Builder builder) {
     super(builder);
+    isCoalescingEnabled = builder.isCoalescingEnabled;
     batchingCallSettings =
         BatchingCallSettings.newBuilder(builder.batchingDescriptor)
             .setBatchingSettings(builder.batchingSettings)
@@ -72,6 +74,14 @@ public class BigtableBulkReadRowsCallSettings extends UnaryCallSettings<Query, L
     return batchingCallSettings.getBatchingSettings();
   }
 
+  /**
+   * Returns true if adding a row key that is already being read by the batcher shares the result of
+   * that read instead of reading the row again.
+   */
+  public boolean isCoalescingEnabled() {
+    return isCoalescingEnabled;
+  }
+
   /** Returns an adapter that packs and unpacks batching elements. */
   BatchingDescriptor<ByteString, Row, Query, List<Row>> getBatchingDescriptor() {
     return batchingCallSettings.getBatchingDescriptor();
@@ -95,6 +105,7 @@ public class BigtableBulkReadRowsCallSettings extends UnaryCallSettings<Query, L
 
     private BatchingDescriptor<ByteString, Row, Query, List<Row>> batchingDescriptor;
     private BatchingSettings batchingSettings;
+    private boolean isCoalescingEnabled;
 
     private Builder(
         @Nonnull BatchingDescriptor<ByteString, Row, Query, List<Row>> batchingDescriptor) {
@@ -106,6 +117,7 @@ public class BigtableBulkReadRowsCallSettings extends UnaryCallSettings<Query, L
       super(settings);
       this.batchingDescriptor = settings.getBatchingDescriptor();
       this.batchingSettings = settings.getBatchingSettings();
+      this.isCoalescingEnabled = settings.isCoalescingEnabled();
     }
 
     /** Sets the batching settings with various thresholds. */
@@ -120,6 +132,25 @@ public class BigtableBulkReadRowsCallSettings extends UnaryCallSettings<Query, L
       return batchingSettings;
     }
 
+    /**
+     * Enables or disables the coalescing of row keys that are already being read. When enabled,
+     * adding a row key that was added to the batcher before and whose result is not available yet
+     * returns the result of the earlier read, even if that read was already sent. A row written
+     * after the earlier read was sent may then be returned without that write.
+     *
+     * <p>Duplicate row keys in the same batch are always read once. Coalescing is disabled by
+     * default.
+     */
+    public Builder setCoalescingEnabled(boolean isCoalescingEnabled) {
+      this.isCoalescingEnabled = isCoalescingEnabled;
+      return this;
+    }
+
+    /** Returns true if coalescing of row keys that are already being read is enabled. */
+    public boolean isCoalescingEnabled() {
+      return isCoalescingEnabled;
+    }
+
     /** Sets the rpc failure {@link StatusCode.Code code}, for which retries should be performed. */
     @Override
     public Builder setRetryableCodes(StatusCode.Code... codes) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import com.google.api.core.ApiClock;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.DeadlineExceededException;
+import com.google.api.gax.rpc.ResourceExhaustedException;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StreamController;
+import com.google.api.gax.rpc.UnavailableException;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.bigtable.v2.MutateRowsResponse;
+import com.google.bigtable.v2.RateLimitInfo;
+import com.google.cloud.bigtable.data.v2.stub.CongestionController.Outcome;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.util.Durations;
+import com.google.rpc.Code;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+
+/**
+ * A callable that reports the latency, RateLimitInfo and overload errors of every MutateRows
+ * attempt to a {@link CongestionController}.
+ *
+ * <p>It replaces {@link RateLimitingServerStreamingCallable} and {@link DynamicFlowControlCallable}
+ * when congestion control is enabled.
+ */
+final class CongestionControlServerStreamingCallable
+    extends ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> {
+
+  private final ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> innerCallable;
+  private final CongestionController controller;
+  private final ApiClock clock;
+
+  CongestionControlServerStreamingCallable(
+      @Nonnull ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> innerCallable,
+      @Nonnull CongestionController controller,
+      @Nonnull ApiClock clock) {
+    this.innerCallable = Preconditions.checkNotNull(innerCallable, "Inner callable must be set");
+    this.controller = Preconditions.checkNotNull(controller, "Controller must be set");
+    this.clock = Preconditions.checkNotNull(clock, "Clock must be set");
+  }
+
+  @Override
+  public void call(
+      MutateRowsRequest request,
+      ResponseObserver<MutateRowsResponse> responseObserver,
+      ApiCallContext context) {
+    int entryCount = request.getEntriesCount();
+    controller.onAttemptStarted(entryCount);
+    CongestionControlResponseObserver observer =
+        new CongestionControlResponseObserver(responseObserver, entryCount, clock.nanoTime());
+    try {
+      innerCallable.call(request, observer, context);
+    } catch (RuntimeException e) {
+      // The attempt never started, release its entries or the controller keeps them in flight
+      observer.finish(Outcome.FAILED);
+      throw e;
+    }
+  }
+
+  private class CongestionControlResponseObserver extends SafeResponseObserver<MutateRowsResponse> {
+
+    private final ResponseObserver<MutateRowsResponse> outerObserver;
+    private final int entryCount;
+    private final long startNanos;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private boolean hasRejectedEntries;
+
+    CongestionControlResponseObserver(
+        ResponseObserver<MutateRowsResponse> observer, int entryCount, long startNanos) {
+      super(observer);
+      this.outerObserver = observer;
+      this.entryCount = entryCount;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    protected void onStartImpl(StreamController controller) {
+      outerObserver.onStart(controller);
+    }
+
+    @Override
+    protected void onResponseImpl(MutateRowsResponse response) {
+      // RateLimitInfo always has presence in proto3, only a positive factor and period are valid
+      if (response.hasRateLimitInfo()) {
+        RateLimitInfo info = response.getRateLimitInfo();
+        long periodNanos = Durations.toNanos(info.getPeriod());
+        if (info.getFactor() > 0 && periodNanos > 0) {
+          controller.onRateLimitInfo(info.getFactor(), Duration.ofNanos(periodNanos));
+        }
+      }
+      for (MutateRowsResponse.Entry entry : response.getEntriesList()) {
+        if (entry.getStatus().getCode() == Code.RESOURCE_EXHAUSTED_VALUE) {
+          hasRejectedEntries = true;
+          break;
+        }
+      }
+      outerObserver.onResponse(response);
+    }
+
+    @Override
+    protected void onErrorImpl(Throwable t) {
+      // When server returns DEADLINE_EXCEEDED, UNAVAILABLE or RESOURCE_EXHAUSTED,
+      // assume cbt server is overloaded
+      Outcome outcome =
+          t instanceof DeadlineExceededException
+                  || t instanceof UnavailableException
+                  || t instanceof ResourceExhaustedException
+              ? Outcome.OVERLOADED
+              : Outcome.FAILED;
+      finish(outcome);
+      outerObserver.onError(t);
+    }
+
+    @Override
+    protected void onCompleteImpl() {
+      finish(hasRejectedEntries ? Outcome.OVERLOADED : Outcome.SUCCESS);
+      outerObserver.onComplete();
+    }
+
+    /** Reports the end of the attempt to the controller, only once. */
+    void finish(Outcome outcome) {
+      if (finished.compareAndSet(false, true)) {
+        controller.onAttemptFinished(entryCount, clock.nanoTime() - startNanos, outcome);
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import com.google.api.gax.batching.FlowController;
+import java.time.Duration;
+
+/**
+ * Decides how many entries and bytes the bulk mutation batcher may have in flight.
+ *
+ * <p>A controller receives every signal about the health of the server that is visible on a
+ * MutateRows attempt: its latency, the {@link com.google.bigtable.v2.RateLimitInfo} pushed by the
+ * server and overload errors. It turns them into a single limit which is applied to the {@link
+ * FlowController} of the batcher, so the signals can't work against each other.
+ */
+interface CongestionController {
+
+  /** The result of a MutateRows attempt. */
+  enum Outcome {
+    /** The attempt completed, possibly with failed entries that were not caused by overload. */
+    SUCCESS,
+    /**
+     * The server is overloaded: the attempt failed with DEADLINE_EXCEEDED, UNAVAILABLE or
+     * RESOURCE_EXHAUSTED, or some of its entries were rejected with RESOURCE_EXHAUSTED.
+     */
+    OVERLOADED,
+    /** The attempt failed for a reason that says nothing about the load of the server. */
+    FAILED
+  }
+
+  /** Called before a MutateRows attempt with {@code entryCount} entries is sent. */
+  void onAttemptStarted(int entryCount);
+
+  /** Called when the server asks the client to scale its load by {@code factor}. */
+  void onRateLimitInfo(double factor, Duration period);
+
+  /** Called once for every {@link #onAttemptStarted(int)} when the attempt is done. */
+  void onAttemptFinished(int entryCount, long latencyNanos, Outcome outcome);
+}
@@ -29,6 +29,7 @@ import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * A callable that records rpc latency and adjusts flow control thresholds for latency based
@@ -56,6 +57,7 @@ final class DynamicFlowControlCallable extends UnaryCallable {
   private final FlowController flowController;
   private final DynamicFlowControlStats dynamicFlowControlStats;
   private final long targetLatencyMs;
+  @Nullable private final Double targetPercentile;
   private final long adjustingIntervalMs;
   private final UnaryCallable innerCallable;
 
@@ -65,10 +67,25 @@ final class DynamicFlowControlCallable extends UnaryCallable {
       @Nonnull DynamicFlowControlStats stats,
       long targetLatencyMs,
       long adjustingIntervalMs) {
+    this(innerCallable, flowController, stats, targetLatencyMs, null, adjustingIntervalMs);
+  }
+
+  /**
+   * Creates a callable that compares a percentile of the rpc latency with {@code targetLatencyMs},
+   * or the mean latency if {@code targetPercentile} is null.
+   */
+  DynamicFlowControlCallable(
+      @Nonnull UnaryCallable innerCallable,
+      @Nonnull FlowController flowController,
+      @Nonnull DynamicFlowControlStats stats,
+      long targetLatencyMs,
+      @Nullable Double targetPercentile,
+      long adjustingIntervalMs) {
     this.innerCallable = innerCallable;
     this.flowController = flowController;
     this.dynamicFlowControlStats = stats;
     this.targetLatencyMs = targetLatencyMs;
+    this.targetPercentile = targetPercentile;
     this.adjustingIntervalMs = adjustingIntervalMs;
   }
 
@@ -115,26 +132,29 @@ final class DynamicFlowControlCallable extends UnaryCallable {
       if (now - lastAdjustedTimestamp < adjustingIntervalMs) {
         return;
       }
-      double meanLatency = dynamicFlowControlStats.getMeanLatency();
+      double latency =
+          targetPercentile == null
+              ? dynamicFlowControlStats.getMeanLatency()
+              : dynamicFlowControlStats.getLatencyPercentile(targetPercentile);
       FlowControlEvent flowControlEvent =
           flowController.getFlowControlEventStats().getLastFlowControlEvent();
       boolean wasRecentlyThrottled =
           flowControlEvent != null
               && (now - flowControlEvent.getTimestampMs() <= THROTTLING_EVENT_TIME_RANGE_MS);
       long maxElementLimit = flowController.getMaxElementCountLimit();
-      if (meanLatency > targetLatencyMs * VERY_HIGH_LATENCY_MULTIPLIER) {
+      if (latency > targetLatencyMs * VERY_HIGH_LATENCY_MULTIPLIER) {
         // Decrease at 30% of the maximum
         decrease(
             lastAdjustedTimestamp,
             now,
             round(maxElementLimit * VERY_HIGH_LATENCY_DECREASE_CONCURRENCY_RATE));
-      } else if (meanLatency > targetLatencyMs * HIGH_LATENCY_MULTIPLIER) {
+      } else if (latency > targetLatencyMs * HIGH_LATENCY_MULTIPLIER) {
         // Decrease at 10% of the maximum
         decrease(
             lastAdjustedTimestamp,
             now,
             round(maxElementLimit * HIGH_LATENCY_DECREASE_CONCURRENCY_RATE));
-      } else if (wasRecentlyThrottled && meanLatency < targetLatencyMs * LOW_LATENCY_MULTIPLIER) {
+      } else if (wasRecentlyThrottled && latency < targetLatencyMs * LOW_LATENCY_MULTIPLIER) {
         // If latency is low, and there was throttling, then increase the parallelism so that new
         // calls will not be throttled.
 
@@ -147,7 +167,7 @@ final class DynamicFlowControlCallable extends UnaryCallable {
       } else if (wasRecentlyThrottled
           && flowController.getCurrentElementCountLimit()
               < maxElementLimit * LOW_CONCURRENCY_MULTIPLIER
-          && meanLatency < targetLatencyMs * LOW_CONCURRENCY_LATENCY_MULTIPLIER) {
+          && latency < targetLatencyMs * LOW_CONCURRENCY_LATENCY_MULTIPLIER) {
         // When parallelism is reduced latency tends to be artificially higher.
         // Increase slowly to ensure that the system restabilizes.
         increase(
@@ -19,17 +19,29 @@ import com.google.api.core.ApiClock;
 import com.google.api.core.InternalApi;
 import com.google.api.core.NanoClock;
 import com.google.api.gax.batching.FlowController;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 
 /**
- * Records stats used in dynamic flow control, the decaying average of recorded latencies and the
- * last timestamp when the thresholds in {@link FlowController} are updated.
+ * Records stats used in dynamic flow control, the decaying average and the percentiles of recorded
+ * latencies and the last timestamp when the thresholds in {@link FlowController} are updated.
  *
  * <pre>Exponential decaying average = weightedSum / weightedCount, where
  *   weightedSum(n) = weight(n) * value(n) + weightedSum(n - 1)
  *   weightedCount(n) = weight(n) + weightedCount(n - 1),
  * and weight(n) grows exponentially over elapsed time. Biased to the past 5 minutes.
+ * </pre>
+ *
+ * <p>Percentiles are read from a histogram of the latencies recorded in the past minute, see {@link
+ * LatencyHistogram}.
+ *
+ * <p>When congestion control is enabled, it also holds the last state of the {@link
+ * CongestionController}.
  */
 final class DynamicFlowControlStats {
 
@@ -41,6 +53,9 @@ final class DynamicFlowControlStats {
 
   private final AtomicLong lastAdjustedTimestampMs;
   private final DecayingAverage meanLatency;
+  private final LatencyHistogram latencyHistogram;
+  private final AtomicReference<CongestionControlState> congestionControlState =
+      new AtomicReference<>();
 
   DynamicFlowControlStats() {
     this(DEFAULT_DECAY_CONSTANT, NanoClock.getDefaultClock());
@@ -50,10 +65,12 @@ final class DynamicFlowControlStats {
   DynamicFlowControlStats(double decayConstant, ApiClock clock) {
     this.lastAdjustedTimestampMs = new AtomicLong(0);
     this.meanLatency = new DecayingAverage(decayConstant, clock);
+    this.latencyHistogram = new LatencyHistogram(clock);
   }
 
   void updateLatency(long latency) {
     meanLatency.update(latency);
+    latencyHistogram.record(latency);
   }
 
   /** Return the mean calculated from the last update, will not decay over time. */
@@ -61,6 +78,14 @@ final class DynamicFlowControlStats {
     return meanLatency.getMean();
   }
 
+  /**
+   * Return the latency below which {@code percentile} percent of the latencies recorded in the past
+   * minute fall, or 0 if none were recorded. The result is within 12.5% of the exact percentile.
+   */
+  long getLatencyPercentile(double percentile) {
+    return latencyHistogram.getPercentile(percentile);
+  }
+
   public long getLastAdjustedTimestampMs() {
     return lastAdjustedTimestampMs.get();
   }
@@ -69,6 +94,54 @@ final class DynamicFlowControlStats {
     return lastAdjustedTimestampMs.compareAndSet(last, now);
   }
 
+  /** Returns the last state of the congestion controller, or null if it's not enabled. */
+  @Nullable
+  CongestionControlState getCongestionControlState() {
+    return congestionControlState.get();
+  }
+
+  void setCongestionControlState(CongestionControlState state) {
+    congestionControlState.set(state);
+  }
+
+  /** A snapshot of the limits of a {@link CongestionController} and the signals behind them. */
+  @AutoValue
+  abstract static class CongestionControlState {
+    static CongestionControlState create(
+        long elementCountLimit,
+        long requestBytesLimit,
+        long latencyNanos,
+        long longTermLatencyNanos,
+        double gradient,
+        boolean isServerRateLimited) {
+      return new AutoValue_DynamicFlowControlStats_CongestionControlState(
+          elementCountLimit,
+          requestBytesLimit,
+          latencyNanos,
+          longTermLatencyNanos,
+          gradient,
+          isServerRateLimited);
+    }
+
+    /** The number of entries allowed in flight. */
+    abstract long getElementCountLimit();
+
+    /** The number of bytes allowed in flight. */
+    abstract long getRequestBytesLimit();
+
+    /** The latency of the last successful attempt. */
+    abstract long getLatencyNanos();
+
+    /** The long term average of the attempt latency. */
+    abstract long getLongTermLatencyNanos();
+
+    /** The ratio of the long term latency to the last latency, capped to [0.5, 1]. */
+    abstract double getGradient();
+
+    /** Whether the server is currently managing the load with RateLimitInfo. */
+    abstract boolean isServerRateLimited();
+  }
+
   private class DecayingAverage {
     private double decayConstant;
     private double mean;
@@ -114,4 +187,123 @@ final class DynamicFlowControlStats {
       }
     }
   }
+
+  /**
+   * Counts latencies in log scaled buckets over a sliding window, in the style of HdrHistogram.
+   *
+   * <p>Every power of 2 is split into {@link #SUB_BUCKET_COUNT} buckets, so the memory is fixed and
+   * a bucket is never wider than 1/8th of the values it holds. The window is split into {@link
+   * #SLICE_COUNT} slices with their own counts, the slice that falls out of the window is cleared
+   * and reused for the current one. Recording doesn't lock: a latency recorded while its slice is
+   * being cleared may be lost, which doesn't matter to a percentile.
+   */
+  private static final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Latencies from 2^20 ms (about 17 minutes) are counted in the last bucket
+    private static final int MAX_EXPONENT = 20;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    // A window of 1 minute that slides every 10 seconds
+    private static final int SLICE_COUNT = 6;
+    private static final long SLICE_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final ApiClock clock;
+    private final Slice[] slices;
+
+    LatencyHistogram(ApiClock clock) {
+      this.clock = clock;
+      this.slices = new Slice[SLICE_COUNT];
+      for (int i = 0; i < SLICE_COUNT; i++) {
+        slices[i] = new Slice();
+      }
+    }
+
+    void record(long value) {
+      long tick = getTick();
+      Slice slice = slices[(int) (tick % SLICE_COUNT)];
+      long sliceTick = slice.tick.get();
+      if (sliceTick < tick && slice.tick.compareAndSet(sliceTick, tick)) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+          slice.counts.set(i, 0);
+        }
+      }
+      slice.counts.incrementAndGet(getBucketIndex(value));
+    }
+
+    long getPercentile(double percentile) {
+      Preconditions.checkArgument(
+          percentile > 0 && percentile <= 100, "percentile must be in (0, 100]");
+      long tick = getTick();
+      long total = 0;
+      for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+        total += getCount(bucket, tick);
+      }
+      if (total == 0) {
+        return 0;
+      }
+
+      long rank = (long) Math.ceil(total * percentile / 100);
+      long seen = 0;
+      int lastBucket = 0;
+      for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+        long count = getCount(bucket, tick);
+        if (count == 0) {
+          continue;
+        }
+        lastBucket = bucket;
+        seen += count;
+        if (seen >= rank) {
+          break;
+        }
+      }
+      // The counts may have changed since the total was summed, fall back to the largest bucket
+      return getHighestValue(lastBucket);
+    }
+
+    private long getCount(int bucket, long tick) {
+      long count = 0;
+      for (Slice slice : slices) {
+        if (slice.tick.get() > tick - SLICE_COUNT) {
+          count += slice.counts.get(bucket);
+        }
+      }
+      return count;
+    }
+
+    private long getTick() {
+      return clock.millisTime() / SLICE_MS;
+    }
+
+    static int getBucketIndex(long value) {
+      if (value < SUB_BUCKET_COUNT) {
+        return (int) Math.max(value, 0);
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      if (exponent > MAX_EXPONENT) {
+        return BUCKET_COUNT - 1;
+      }
+      return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT
+          + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT);
+    }
+
+    /** Returns the highest value counted in the bucket, so percentiles are never understated. */
+    static long getHighestValue(int bucket) {
+      return getLowestValue(bucket + 1) - 1;
+    }
+
+    private static long getLowestValue(int bucket) {
+      if (bucket < SUB_BUCKET_COUNT) {
+        return bucket;
+      }
+      int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+      long subBucket = bucket % SUB_BUCKET_COUNT;
+      return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static final class Slice {
+      private final AtomicLong tick = new AtomicLong(Long.MIN_VALUE);
+      private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    }
+  }
 }
@@ -26,6 +26,7 @@ import com.google.api.core.BetaApi;
 import com.google.api.core.InternalApi;
 import com.google.api.gax.batching.Batcher;
 import com.google.api.gax.batching.BatcherImpl;
+import com.google.api.gax.batching.FlowControlSettings;
 import com.google.api.gax.batching.FlowController;
 import com.google.api.gax.core.BackgroundResource;
 import com.google.api.gax.grpc.GaxGrpcProperties;
@@ -70,6 +71,7 @@ import com.google.cloud.bigtable.Version;
 import com.google.cloud.bigtable.data.v2.internal.NameUtil;
 import com.google.cloud.bigtable.data.v2.internal.PrepareQueryRequest;
 import com.google.cloud.bigtable.data.v2.internal.PrepareResponse;
+import com.google.cloud.bigtable.data.v2.internal.PreparedStatementCache;
 import com.google.cloud.bigtable.data.v2.internal.RequestContext;
 import com.google.cloud.bigtable.data.v2.internal.SqlRow;
 import com.google.cloud.bigtable.data.v2.models.BulkMutation;
@@ -99,17 +101,26 @@ import com.google.cloud.bigtable.data.v2.stub.changestream.ReadChangeStreamUserC
 import com.google.cloud.bigtable.data.v2.stub.metrics.BigtableTracerStreamingCallable;
 import com.google.cloud.bigtable.data.v2.stub.metrics.BigtableTracerUnaryCallable;
 import com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsTracerFactory;
+import com.google.cloud.bigtable.data.v2.stub.metrics.BulkMutationSpillMetrics;
+import com.google.cloud.bigtable.data.v2.stub.metrics.BulkReadRowsCoalescingMetrics;
 import com.google.cloud.bigtable.data.v2.stub.metrics.CompositeTracerFactory;
 import com.google.cloud.bigtable.data.v2.stub.metrics.MetricsTracerFactory;
+import com.google.cloud.bigtable.data.v2.stub.metrics.RowCacheMetrics;
 import com.google.cloud.bigtable.data.v2.stub.metrics.RpcMeasureConstants;
 import com.google.cloud.bigtable.data.v2.stub.metrics.StatsHeadersServerStreamingCallable;
 import com.google.cloud.bigtable.data.v2.stub.metrics.StatsHeadersUnaryCallable;
 import com.google.cloud.bigtable.data.v2.stub.metrics.TracedBatcherUnaryCallable;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.BulkMutateRowsUserFacingCallable;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.BulkMutationSpillStats;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsAttemptResult;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsBatchingDescriptor;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsPartialErrorRetryAlgorithm;
 import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsRetryingCallable;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.ParallelBulkMutateRowsCallable;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.SpillingMutateRowsBatcher;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.TabletAwareMutateRowsBatcher;
+import com.google.cloud.bigtable.data.v2.stub.readrows.BulkReadRowsCoalescingStats;
+import com.google.cloud.bigtable.data.v2.stub.readrows.CoalescingBulkReadRowsBatcher;
 import com.google.cloud.bigtable.data.v2.stub.readrows.FilterMarkerRowsCallable;
 import com.google.cloud.bigtable.data.v2.stub.readrows.LargeReadRowsResumptionStrategy;
 import com.google.cloud.bigtable.data.v2.stub.readrows.ReadRowsBatchingDescriptor;
@@ -118,10 +129,15 @@ import com.google.cloud.bigtable.data.v2.stub.readrows.ReadRowsResumptionStrateg
 import com.google.cloud.bigtable.data.v2.stub.readrows.ReadRowsRetryCompletedCallable;
 import com.google.cloud.bigtable.data.v2.stub.readrows.ReadRowsUserCallable;
 import com.google.cloud.bigtable.data.v2.stub.readrows.RowMergingCallable;
+import com.google.cloud.bigtable.data.v2.stub.rowcache.RowCache;
+import com.google.cloud.bigtable.data.v2.stub.rowcache.RowCacheBulkReadRowsCallable;
+import com.google.cloud.bigtable.data.v2.stub.rowcache.RowCacheInvalidatingCallable;
+import com.google.cloud.bigtable.data.v2.stub.rowcache.RowCacheReadRowCallable;
 import com.google.cloud.bigtable.data.v2.stub.sql.ExecuteQueryCallContext;
 import com.google.cloud.bigtable.data.v2.stub.sql.ExecuteQueryCallable;
 import com.google.cloud.bigtable.data.v2.stub.sql.ExecuteQueryResumptionStrategy;
 import com.google.cloud.bigtable.data.v2.stub.sql.MetadataErrorHandlingCallable;
+import com.google.cloud.bigtable.data.v2.stub.sql.PartitionedExecuteQueryCallable;
 import com.google.cloud.bigtable.data.v2.stub.sql.PlanRefreshingCallable;
 import com.google.cloud.bigtable.data.v2.stub.sql.SqlRowMergingCallable;
 import com.google.cloud.bigtable.gaxx.retrying.ApiResultRetryAlgorithm;
@@ -176,6 +192,13 @@ public class EnhancedBigtableStub implements AutoCloseable {
   private final RequestContext requestContext;
   private final FlowController bulkMutationFlowController;
   private final DynamicFlowControlStats bulkMutationDynamicFlowControlStats;
+  @Nullable private final RowCache rowCache;
+  @Nullable private final RowCacheMetrics rowCacheMetrics;
+  @Nullable private final PreparedStatementCache preparedStatementCache;
+  private final BulkReadRowsCoalescingStats bulkReadRowsCoalescingStats;
+  @Nullable private final BulkReadRowsCoalescingMetrics bulkReadRowsCoalescingMetrics;
+  private final BulkMutationSpillStats bulkMutationSpillStats;
+  @Nullable private final BulkMutationSpillMetrics bulkMutationSpillMetrics;
 
   private final ServerStreamingCallable<Query, Row> readRowsCallable;
 
@@ -199,6 +222,7 @@ public class EnhancedBigtableStub implements AutoCloseable {
       readChangeStreamCallable;
 
   private final ExecuteQueryCallable executeQueryCallable;
+  private final PartitionedExecuteQueryCallable partitionedExecuteQueryCallable;
   private final UnaryCallable<PrepareQueryRequest, PrepareResponse> prepareQueryCallable;
 
   public static EnhancedBigtableStub create(EnhancedBigtableStubSettings settings)
@@ -209,7 +233,7 @@ public class EnhancedBigtableStub implements AutoCloseable {
         bigtableClientContext.getClientContext().toBuilder()
             .setTracerFactory(createBigtableTracerFactory(settings, openTelemetry))
             .build();
-    return new EnhancedBigtableStub(settings, contextWithTracer);
+    return new EnhancedBigtableStub(settings, contextWithTracer, true, openTelemetry);
   }
 
   public static EnhancedBigtableStub createWithClientContext(
@@ -297,6 +321,14 @@ public class EnhancedBigtableStub implements AutoCloseable {
       EnhancedBigtableStubSettings settings,
       ClientContext clientContext,
       boolean closeClientContext) {
+    this(settings, clientContext, closeClientContext, null);
+  }
+
+  private EnhancedBigtableStub(
+      EnhancedBigtableStubSettings settings,
+      ClientContext clientContext,
+      boolean closeClientContext,
+      @Nullable OpenTelemetry openTelemetry) {
     this.settings = settings;
     this.clientContext = clientContext;
     this.closeClientContext = closeClientContext;
@@ -306,17 +338,43 @@ public class EnhancedBigtableStub implements AutoCloseable {
     this.bulkMutationFlowController =
         new FlowController(settings.bulkMutateRowsSettings().getDynamicFlowControlSettings());
     this.bulkMutationDynamicFlowControlStats = new DynamicFlowControlStats();
+    if (settings.getRowCacheSettings().isEnabled()) {
+      this.rowCache = new RowCache(settings.getRowCacheSettings(), clientContext.getClock());
+      this.rowCacheMetrics =
+          openTelemetry != null
+              ? RowCacheMetrics.register(openTelemetry, createBuiltinAttributes(settings), rowCache)
+              : null;
+    } else {
+      this.rowCache = null;
+      this.rowCacheMetrics = null;
+    }
+    this.preparedStatementCache =
+        settings.getPreparedStatementCacheSize() > 0
+            ? new PreparedStatementCache(settings.getPreparedStatementCacheSize(), this)
+            : null;
+    this.bulkReadRowsCoalescingStats = new BulkReadRowsCoalescingStats();
+    this.bulkReadRowsCoalescingMetrics =
+        openTelemetry != null && settings.bulkReadRowsSettings().isCoalescingEnabled()
+            ? BulkReadRowsCoalescingMetrics.register(
+                openTelemetry, createBuiltinAttributes(settings), bulkReadRowsCoalescingStats)
+            : null;
+    this.bulkMutationSpillStats = new BulkMutationSpillStats();
+    this.bulkMutationSpillMetrics =
+        openTelemetry != null && settings.bulkMutateRowsSettings().isSpillToDiskEnabled()
+            ? BulkMutationSpillMetrics.register(
+                openTelemetry, createBuiltinAttributes(settings), bulkMutationSpillStats)
+            : null;
 
     readRowsCallable = createReadRowsCallable(new DefaultRowAdapter());
     skipLargeRowsCallable = createSkipLargeRowsCallable(new DefaultRowAdapter());
-    readRowCallable = createReadRowCallable(new DefaultRowAdapter());
-    bulkReadRowsCallable = createBulkReadRowsCallable(new DefaultRowAdapter());
+    readRowCallable = cacheReadRow(createReadRowCallable(new DefaultRowAdapter()));
+    bulkReadRowsCallable = cacheBulkReadRows(createBulkReadRowsCallable(new DefaultRowAdapter()));
     sampleRowKeysCallable = createSampleRowKeysCallable();
     sampleRowKeysCallableWithRequest = createSampleRowKeysCallableWithRequest();
     mutateRowCallable = createMutateRowCallable();
     bulkMutateRowsCallable = createMutateRowsBaseCallable();
     externalBulkMutateRowsCallable =
-        new MutateRowsErrorConverterUnaryCallable(bulkMutateRowsCallable);
+        new MutateRowsErrorConverterUnaryCallable(createParallelBulkMutateRowsCallable());
     checkAndMutateRowCallable = createCheckAndMutateRowCallable();
     readModifyWriteRowCallable = createReadModifyWriteRowCallable();
     generateInitialChangeStreamPartitionsCallable =
@@ -324,11 +382,30 @@ public class EnhancedBigtableStub implements AutoCloseable {
     readChangeStreamCallable =
         createReadChangeStreamCallable(new DefaultChangeStreamRecordAdapter());
     executeQueryCallable = createExecuteQueryCallable();
+    partitionedExecuteQueryCallable =
+        new PartitionedExecuteQueryCallable(executeQueryCallable, sampleRowKeysCallableWithRequest);
     prepareQueryCallable = createPrepareQueryCallable();
   }
 
   // <editor-fold desc="Callable creators">
 
+  /** Serves the point reads of the callable from the row cache, if it's enabled. */
+  private UnaryCallable<Query, Row> cacheReadRow(UnaryCallable<Query, Row> readRowCallable) {
+    if (rowCache == null) {
+      return readRowCallable;
+    }
+    return new RowCacheReadRowCallable(readRowCallable, rowCache, requestContext);
+  }
+
+  /** Serves the keys of the bulk reads of the callable from the row cache, if it's enabled. */
+  private UnaryCallable<Query, List<Row>> cacheBulkReadRows(
+      UnaryCallable<Query, List<Row>> bulkReadRowsCallable) {
+    if (rowCache == null) {
+      return bulkReadRowsCallable;
+    }
+    return new RowCacheBulkReadRowsCallable(bulkReadRowsCallable, rowCache, requestContext);
+  }
+
   /**
    * Creates a callable chain to handle ReadRows RPCs. The chain will:
    *
@@ -731,14 +808,20 @@ public class EnhancedBigtableStub implements AutoCloseable {
    * </ul>
    */
   private UnaryCallable<RowMutation, Void> createMutateRowCallable() {
-    return createUnaryCallable(
-        BigtableGrpc.getMutateRowMethod(),
-        req ->
-            composeRequestParams(
-                req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
-        settings.mutateRowSettings(),
-        req -> req.toProto(requestContext),
-        resp -> null);
+    UnaryCallable<RowMutation, Void> callable =
+        createUnaryCallable(
+            BigtableGrpc.getMutateRowMethod(),
+            req ->
+                composeRequestParams(
+                    req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
+            settings.mutateRowSettings(),
+            req -> req.toProto(requestContext),
+            resp -> null);
+
+    if (rowCache != null) {
+      callable = RowCacheInvalidatingCallable.forMutateRow(callable, rowCache, requestContext);
+    }
+    return callable;
   }
 
   /**
@@ -774,7 +857,16 @@ public class EnhancedBigtableStub implements AutoCloseable {
     ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> callable =
         new StatsHeadersServerStreamingCallable<>(base);
 
-    if (settings.bulkMutateRowsSettings().isServerInitiatedFlowControlEnabled()) {
+    if (settings.bulkMutateRowsSettings().isCongestionControlEnabled()) {
+      callable =
+          new CongestionControlServerStreamingCallable(
+              callable,
+              new GradientCongestionController(
+                  bulkMutationFlowController,
+                  bulkMutationDynamicFlowControlStats,
+                  clientContext.getClock()),
+              clientContext.getClock());
+    } else if (settings.bulkMutateRowsSettings().isServerInitiatedFlowControlEnabled()) {
       callable = new RateLimitingServerStreamingCallable(callable);
     }
 
@@ -827,6 +919,7 @@ public class EnhancedBigtableStub implements AutoCloseable {
               bulkMutationFlowController,
               bulkMutationDynamicFlowControlStats,
               settings.bulkMutateRowsSettings().getTargetRpcLatencyMs(),
+              settings.bulkMutateRowsSettings().getTargetRpcLatencyPercentile(),
               FLOW_CONTROL_ADJUSTING_INTERVAL_MS);
     }
     UnaryCallable<BulkMutation, MutateRowsAttemptResult> userFacing =
@@ -842,10 +935,17 @@ public class EnhancedBigtableStub implements AutoCloseable {
         new TracedUnaryCallable<>(
             tracedBatcherUnaryCallable, clientContext.getTracerFactory(), spanName);
 
-    return traced.withDefaultCallContext(
-        clientContext
-            .getDefaultCallContext()
-            .withRetrySettings(settings.bulkMutateRowsSettings().getRetrySettings()));
+    UnaryCallable<BulkMutation, MutateRowsAttemptResult> withDefaultContext =
+        traced.withDefaultCallContext(
+            clientContext
+                .getDefaultCallContext()
+                .withRetrySettings(settings.bulkMutateRowsSettings().getRetrySettings()));
+
+    if (rowCache != null) {
+      return RowCacheInvalidatingCallable.forBulkMutateRows(
+          withDefaultContext, rowCache, requestContext);
+    }
+    return withDefaultContext;
   }
 
   /**
@@ -865,18 +965,17 @@ public class EnhancedBigtableStub implements AutoCloseable {
    *   <li>Wrap batch failures in a {@link
    *       com.google.cloud.bigtable.data.v2.models.MutateRowsException}.
    *   <li>Split the responses using {@link MutateRowsBatchingDescriptor}.
+   *   <li>If tablet aware batching is enabled in {@link
+   *       EnhancedBigtableStubSettings#bulkMutateRowsSettings()}, batch the entries of every row
+   *       key range separately using {@link TabletAwareMutateRowsBatcher}.
+   *   <li>If spilling to disk is enabled in {@link
+   *       EnhancedBigtableStubSettings#bulkMutateRowsSettings()}, entries that don't fit in the
+   *       flow control limits are spilled to disk using {@link SpillingMutateRowsBatcher}.
    * </ul>
    */
   public Batcher<RowMutationEntry, Void> newMutateRowsBatcher(
       @Nonnull String tableId, @Nullable GrpcCallContext ctx) {
-    return new BatcherImpl<>(
-        settings.bulkMutateRowsSettings().getBatchingDescriptor(),
-        bulkMutateRowsCallable,
-        BulkMutation.create(tableId),
-        settings.bulkMutateRowsSettings().getBatchingSettings(),
-        clientContext.getExecutor(),
-        bulkMutationFlowController,
-        MoreObjects.firstNonNull(ctx, clientContext.getDefaultCallContext()));
+    return newMutateRowsBatcher(TableId.of(tableId), ctx);
   }
 
   /**
@@ -896,10 +995,78 @@ public class EnhancedBigtableStub implements AutoCloseable {
    *   <li>Wrap batch failures in a {@link
    *       com.google.cloud.bigtable.data.v2.models.MutateRowsException}.
    *   <li>Split the responses using {@link MutateRowsBatchingDescriptor}.
+   *   <li>If tablet aware batching is enabled in {@link
+   *       EnhancedBigtableStubSettings#bulkMutateRowsSettings()}, batch the entries of every row
+   *       key range separately using {@link TabletAwareMutateRowsBatcher}.
+   *   <li>If spilling to disk is enabled in {@link
+   *       EnhancedBigtableStubSettings#bulkMutateRowsSettings()}, entries that don't fit in the
+   *       flow control limits are spilled to disk using {@link SpillingMutateRowsBatcher}.
    * </ul>
    */
   public Batcher<RowMutationEntry, Void> newMutateRowsBatcher(
       TargetId targetId, @Nullable GrpcCallContext ctx) {
+    final ApiCallContext callContext =
+        MoreObjects.firstNonNull(ctx, clientContext.getDefaultCallContext());
+    BigtableBatchingCallSettings batchingCallSettings = settings.bulkMutateRowsSettings();
+    Batcher<RowMutationEntry, Void> batcher;
+    if (!batchingCallSettings.isTabletAwareBatchingEnabled()) {
+      batcher = createMutateRowsBatcher(targetId, callContext);
+    } else {
+      // Every key range has its own batcher, but they all share the flow controller
+      batcher =
+          new TabletAwareMutateRowsBatcher(
+              () -> createMutateRowsBatcher(targetId, callContext),
+              sampleRowKeysCallableWithRequest,
+              SampleRowKeysRequest.create(targetId),
+              clientContext.getExecutor(),
+              batchingCallSettings.getSplitPointsRefreshInterval(),
+              batchingCallSettings.getMaxKeyRanges());
+    }
+    if (!batchingCallSettings.isSpillToDiskEnabled()) {
+      return batcher;
+    }
+    // Every target has its own spill log, so that a new batcher recovers the entries of its target
+    String name =
+        targetId
+            .toResourceName(settings.getProjectId(), settings.getInstanceId())
+            .replaceAll("[^A-Za-z0-9_.-]", "_");
+    FlowControlSettings flowControlSettings =
+        batchingCallSettings.getBatchingSettings().getFlowControlSettings();
+    try {
+      return SpillingMutateRowsBatcher.create(
+          batcher,
+          batchingCallSettings.getSpillDirectory(),
+          name,
+          batchingCallSettings.getMaxSpillBytes(),
+          flowControlSettings.getMaxOutstandingElementCount(),
+          flowControlSettings.getMaxOutstandingRequestBytes(),
+          bulkMutationSpillStats);
+    } catch (IOException e) {
+      batcher.closeAsync();
+      throw new IllegalStateException(
+          "Failed to open the spill log in " + batchingCallSettings.getSpillDirectory(), e);
+    }
+  }
+
+  /**
+   * Splits large bulk mutations into concurrent requests when it is enabled in {@link
+   * EnhancedBigtableStubSettings#bulkMutateRowsSettings()}. Every request goes through {@link
+   * #bulkMutateRowsCallable}, with its own retries. The bulk mutation batcher doesn't use it.
+   */
+  private UnaryCallable<BulkMutation, MutateRowsAttemptResult>
+      createParallelBulkMutateRowsCallable() {
+    BigtableBatchingCallSettings batchingCallSettings = settings.bulkMutateRowsSettings();
+    if (!batchingCallSettings.isParallelBulkMutationEnabled()) {
+      return bulkMutateRowsCallable;
+    }
+    return new ParallelBulkMutateRowsCallable(
+        bulkMutateRowsCallable,
+        batchingCallSettings.getMaxParallelRequestBytes(),
+        batchingCallSettings.getMaxParallelRequests());
+  }
+
+  private Batcher<RowMutationEntry, Void> createMutateRowsBatcher(
+      TargetId targetId, ApiCallContext callContext) {
     return new BatcherImpl<>(
         settings.bulkMutateRowsSettings().getBatchingDescriptor(),
         bulkMutateRowsCallable,
@@ -907,7 +1074,7 @@ public class EnhancedBigtableStub implements AutoCloseable {
         settings.bulkMutateRowsSettings().getBatchingSettings(),
         clientContext.getExecutor(),
         bulkMutationFlowController,
-        MoreObjects.firstNonNull(ctx, clientContext.getDefaultCallContext()));
+        callContext);
   }
 
   /**
@@ -923,19 +1090,26 @@ public class EnhancedBigtableStub implements AutoCloseable {
    *   <li>Schedule retries for retryable exceptions until there are no more entries or there are no
    *       more retry attempts left.
    *   <li>Split the responses using {@link ReadRowsBatchingDescriptor}.
+   *   <li>If coalescing is enabled in {@link EnhancedBigtableStubSettings#bulkReadRowsSettings()},
+   *       share the result of pending reads using {@link CoalescingBulkReadRowsBatcher}.
    * </ul>
    */
   public Batcher<ByteString, Row> newBulkReadRowsBatcher(
       @Nonnull Query query, @Nullable GrpcCallContext ctx) {
     Preconditions.checkNotNull(query, "query cannot be null");
-    return new BatcherImpl<>(
-        settings.bulkReadRowsSettings().getBatchingDescriptor(),
-        bulkReadRowsCallable,
-        query,
-        settings.bulkReadRowsSettings().getBatchingSettings(),
-        clientContext.getExecutor(),
-        null,
-        MoreObjects.firstNonNull(ctx, clientContext.getDefaultCallContext()));
+    Batcher<ByteString, Row> batcher =
+        new BatcherImpl<>(
+            settings.bulkReadRowsSettings().getBatchingDescriptor(),
+            bulkReadRowsCallable,
+            query,
+            settings.bulkReadRowsSettings().getBatchingSettings(),
+            clientContext.getExecutor(),
+            null,
+            MoreObjects.firstNonNull(ctx, clientContext.getDefaultCallContext()));
+    if (!settings.bulkReadRowsSettings().isCoalescingEnabled()) {
+      return batcher;
+    }
+    return new CoalescingBulkReadRowsBatcher(batcher, bulkReadRowsCoalescingStats);
   }
 
   /**
@@ -948,14 +1122,21 @@ public class EnhancedBigtableStub implements AutoCloseable {
    * </ul>
    */
   private UnaryCallable<ConditionalRowMutation, Boolean> createCheckAndMutateRowCallable() {
-    return createUnaryCallable(
-        BigtableGrpc.getCheckAndMutateRowMethod(),
-        req ->
-            composeRequestParams(
-                req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
-        settings.checkAndMutateRowSettings(),
-        req -> req.toProto(requestContext),
-        CheckAndMutateRowResponse::getPredicateMatched);
+    UnaryCallable<ConditionalRowMutation, Boolean> callable =
+        createUnaryCallable(
+            BigtableGrpc.getCheckAndMutateRowMethod(),
+            req ->
+                composeRequestParams(
+                    req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
+            settings.checkAndMutateRowSettings(),
+            req -> req.toProto(requestContext),
+            CheckAndMutateRowResponse::getPredicateMatched);
+
+    if (rowCache != null) {
+      callable =
+          RowCacheInvalidatingCallable.forCheckAndMutateRow(callable, rowCache, requestContext);
+    }
+    return callable;
   }
 
   /**
@@ -971,14 +1152,21 @@ public class EnhancedBigtableStub implements AutoCloseable {
   private UnaryCallable<ReadModifyWriteRow, Row> createReadModifyWriteRowCallable() {
     DefaultRowAdapter rowAdapter = new DefaultRowAdapter();
 
-    return createUnaryCallable(
-        BigtableGrpc.getReadModifyWriteRowMethod(),
-        req ->
-            composeRequestParams(
-                req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
-        settings.readModifyWriteRowSettings(),
-        req -> req.toProto(requestContext),
-        resp -> rowAdapter.createRowFromProto(resp.getRow()));
+    UnaryCallable<ReadModifyWriteRow, Row> callable =
+        createUnaryCallable(
+            BigtableGrpc.getReadModifyWriteRowMethod(),
+            req ->
+                composeRequestParams(
+                    req.getAppProfileId(), req.getTableName(), req.getAuthorizedViewName()),
+            settings.readModifyWriteRowSettings(),
+            req -> req.toProto(requestContext),
+            resp -> rowAdapter.createRowFromProto(resp.getRow()));
+
+    if (rowCache != null) {
+      callable =
+          RowCacheInvalidatingCallable.forReadModifyWriteRow(callable, rowCache, requestContext);
+    }
+    return callable;
   }
 
   /**
@@ -1148,6 +1336,9 @@ public class EnhancedBigtableStub implements AutoCloseable {
    *   <li>Wrap the metadata future & row stream into a {@link
    *       com.google.cloud.bigtable.data.v2.stub.sql.SqlServerStream}
    * </ul>
+   *
+   * <p>The chain doesn't hold any per query state, so the stub builds it once and shares it across
+   * queries through {@link #executeQueryCallable()}.
    */
   @InternalApi("For internal use only")
   public ExecuteQueryCallable createExecuteQueryCallable() {
@@ -1171,7 +1362,7 @@ public class EnhancedBigtableStub implements AutoCloseable {
         new StatsHeadersServerStreamingCallable<>(base);
 
     ServerStreamingCallable<ExecuteQueryCallContext, ExecuteQueryResponse> withPlanRefresh =
-        new PlanRefreshingCallable(withStatsHeaders, requestContext);
+        new PlanRefreshingCallable(withStatsHeaders, requestContext, clientContext.getExecutor());
 
     // Sometimes ExecuteQuery connections are disconnected via an RST frame. This error is transient
     // and should be treated similar to UNAVAILABLE. However, this exception has an INTERNAL error
@@ -1493,11 +1684,25 @@ public class EnhancedBigtableStub implements AutoCloseable {
     return executeQueryCallable;
   }
 
+  /**
+   * Returns a {@link com.google.cloud.bigtable.data.v2.stub.sql.PartitionedExecuteQueryCallable}
+   */
+  public PartitionedExecuteQueryCallable partitionedExecuteQueryCallable() {
+    return partitionedExecuteQueryCallable;
+  }
+
   @InternalApi
   public UnaryCallable<PrepareQueryRequest, PrepareResponse> prepareQueryCallable() {
     return prepareQueryCallable;
   }
 
+  /** Returns the cache of PreparedStatements, or null if it's disabled. */
+  @InternalApi
+  @Nullable
+  public PreparedStatementCache getPreparedStatementCache() {
+    return preparedStatementCache;
+  }
+
   // </editor-fold>
 
   private SpanName getSpanName(String methodName) {
@@ -1506,6 +1711,15 @@ public class EnhancedBigtableStub implements AutoCloseable {
 
   @Override
   public void close() {
+    if (rowCacheMetrics != null) {
+      rowCacheMetrics.close();
+    }
+    if (bulkReadRowsCoalescingMetrics != null) {
+      bulkReadRowsCoalescingMetrics.close();
+    }
+    if (bulkMutationSpillMetrics != null) {
+      bulkMutationSpillMetrics.close();
+    }
     if (closeClientContext) {
       for (BackgroundResource backgroundResource : clientContext.getBackgroundResources()) {
         try {
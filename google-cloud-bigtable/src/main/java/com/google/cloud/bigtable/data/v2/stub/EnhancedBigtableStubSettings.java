@@ -268,6 +268,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
   private final boolean enableRoutingCookie;
   private final boolean enableRetryInfo;
   private final boolean enableSkipTrailers;
+  private final RowCacheSettings rowCacheSettings;
+  private final int preparedStatementCacheSize;
 
   private final ServerStreamingCallSettings<Query, Row> readRowsSettings;
   private final UnaryCallSettings<Query, Row> readRowSettings;
@@ -318,6 +320,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
     enableRoutingCookie = builder.enableRoutingCookie;
     enableRetryInfo = builder.enableRetryInfo;
     enableSkipTrailers = builder.enableSkipTrailers;
+    rowCacheSettings = builder.rowCacheSettings;
+    preparedStatementCacheSize = builder.preparedStatementCacheSize;
     metricsProvider = builder.metricsProvider;
     metricsEndpoint = builder.metricsEndpoint;
     internalMetricsProvider = builder.internalMetricsProvider;
@@ -416,6 +420,24 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
     return enableSkipTrailers;
   }
 
+  /**
+   * Gets the settings of the client side row cache, which serves point reads from memory. The cache
+   * is disabled by default.
+   */
+  @BetaApi("The row cache is not yet stable and may change in the future")
+  public RowCacheSettings getRowCacheSettings() {
+    return rowCacheSettings;
+  }
+
+  /**
+   * Gets the maximum number of PreparedStatements that are cached by prepareStatement. 0 means that
+   * the cache is disabled, which is the default.
+   */
+  @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+  public int getPreparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
   /**
    * Gets the Google Cloud Monitoring endpoint for publishing client side metrics. If it's null,
    * client will publish metrics to the default monitoring endpoint.
@@ -769,6 +791,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
     private boolean enableRoutingCookie;
     private boolean enableRetryInfo;
     private boolean enableSkipTrailers;
+    private RowCacheSettings rowCacheSettings;
+    private int preparedStatementCacheSize;
 
     private final ServerStreamingCallSettings.Builder<Query, Row> readRowsSettings;
     private final UnaryCallSettings.Builder<Query, Row> readRowSettings;
@@ -810,6 +834,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
       this.enableRoutingCookie = true;
       this.enableRetryInfo = true;
       this.enableSkipTrailers = SKIP_TRAILERS;
+      this.rowCacheSettings = RowCacheSettings.disabled();
+      this.preparedStatementCacheSize = 0;
       metricsProvider = DefaultMetricsProvider.INSTANCE;
       this.internalMetricsProvider = DEFAULT_INTERNAL_OTEL_PROVIDER;
       this.jwtAudience = DEFAULT_DATA_JWT_AUDIENCE;
@@ -947,6 +973,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
       primedTableIds = settings.primedTableIds;
       enableRoutingCookie = settings.enableRoutingCookie;
       enableRetryInfo = settings.enableRetryInfo;
+      rowCacheSettings = settings.rowCacheSettings;
+      preparedStatementCacheSize = settings.preparedStatementCacheSize;
       metricsProvider = settings.metricsProvider;
       metricsEndpoint = settings.getMetricsEndpoint();
       internalMetricsProvider = settings.internalMetricsProvider;
@@ -1227,6 +1255,43 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
       return this;
     }
 
+    /**
+     * Sets the settings of the client side row cache. When enabled, point reads made with readRow
+     * and the bulk read batcher are served from memory, see {@link RowCacheSettings} for the
+     * consistency implications.
+     */
+    @BetaApi("The row cache is not yet stable and may change in the future")
+    public Builder setRowCacheSettings(@Nonnull RowCacheSettings rowCacheSettings) {
+      this.rowCacheSettings = Preconditions.checkNotNull(rowCacheSettings);
+      return this;
+    }
+
+    /** Gets the settings of the client side row cache. */
+    @BetaApi("The row cache is not yet stable and may change in the future")
+    public RowCacheSettings getRowCacheSettings() {
+      return rowCacheSettings;
+    }
+
+    /**
+     * Sets the maximum number of PreparedStatements cached by prepareStatement, keyed by the query
+     * and its parameter types. When the cache is enabled, preparing a query that is already cached
+     * returns the cached PreparedStatement without a PrepareQuery RPC. Set to 0 to disable the
+     * cache, which is the default.
+     */
+    @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+    public Builder setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+      Preconditions.checkArgument(
+          preparedStatementCacheSize >= 0, "preparedStatementCacheSize can't be negative");
+      this.preparedStatementCacheSize = preparedStatementCacheSize;
+      return this;
+    }
+
+    /** Gets the maximum number of PreparedStatements cached by prepareStatement. */
+    @BetaApi("The PreparedStatement cache is not yet stable and may change in the future")
+    public int getPreparedStatementCacheSize() {
+      return preparedStatementCacheSize;
+    }
+
     /** Returns the builder for the settings used for calls to readRows. */
     public ServerStreamingCallSettings.Builder<Query, Row> readRowsSettings() {
       return readRowsSettings;
@@ -1360,6 +1425,8 @@ public class EnhancedBigtableStubSettings extends StubSettings<EnhancedBigtableS
         .add("enableRoutingCookie", enableRoutingCookie)
         .add("enableRetryInfo", enableRetryInfo)
         .add("enableSkipTrailers", enableSkipTrailers)
+        .add("rowCacheSettings", rowCacheSettings)
+        .add("preparedStatementCacheSize", preparedStatementCacheSize)
         .add("readRowsSettings", readRowsSettings)
         .add("readRowSettings", readRowSettings)
         .add("sampleRowKeysSettings", sampleRowKeysSettings)
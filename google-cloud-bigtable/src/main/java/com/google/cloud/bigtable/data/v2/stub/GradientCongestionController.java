@@ -0,0 +1,229 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import com.google.api.core.ApiClock;
+import com.google.api.gax.batching.FlowController;
+import com.google.cloud.bigtable.data.v2.stub.DynamicFlowControlStats.CongestionControlState;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link CongestionController} that combines a latency gradient with multiplicative decrease on
+ * server pushback.
+ *
+ * <p>The limit is the number of entries allowed in flight, the byte limit follows it in proportion.
+ * It is adjusted by:
+ *
+ * <ul>
+ *   <li>Latency: the latency of every successful attempt is compared with a long term average. When
+ *       it's within {@link #RTT_TOLERANCE} of the average, the limit grows by its square root. When
+ *       it's higher, the limit shrinks by the ratio of the two, but by no more than {@link
+ *       #MIN_GRADIENT}. The limit doesn't grow when less than half of it is used.
+ *   <li>RateLimitInfo: the limit is scaled by the factor the server asked for, once per period.
+ *       While the server sends RateLimitInfo, latency can only lower the limit.
+ *   <li>Overload errors: the limit is scaled by {@link #OVERLOAD_FACTOR}, at most once per long
+ *       term latency.
+ * </ul>
+ */
+final class GradientCongestionController implements CongestionController {
+  // Latency can grow to 1.5 times its long term average before the limit is lowered
+  @VisibleForTesting static final double RTT_TOLERANCE = 1.5;
+  // The limit is at most halved by a single latency sample
+  @VisibleForTesting static final double MIN_GRADIENT = 0.5;
+  // Only move 20% of the way to the new limit on every sample to absorb noise
+  @VisibleForTesting static final double SMOOTHING = 0.2;
+  // The long term latency is an exponential moving average over about 600 samples
+  private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+  // Pull the long term latency down when the latency recovers after a long spike
+  private static final double LONG_RTT_DRIFT_RATIO = 2;
+  private static final double LONG_RTT_DRIFT_DECAY = 0.95;
+
+  // The same caps as the server side caps of RateLimitInfo, overload errors use the lowest
+  @VisibleForTesting
+  static final double OVERLOAD_FACTOR = RateLimitingServerStreamingCallable.MIN_FACTOR;
+
+  private static final double MAX_FACTOR = 1.3;
+  private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final FlowController flowController;
+  private final DynamicFlowControlStats stats;
+  private final ApiClock clock;
+  private final long minElementCount;
+  private final long maxElementCount;
+  private final long minRequestBytes;
+  private final long maxRequestBytes;
+
+  private final AtomicLong inFlightEntries = new AtomicLong();
+
+  @GuardedBy("this")
+  private double limit;
+
+  @GuardedBy("this")
+  private double longRttNanos;
+
+  @GuardedBy("this")
+  private long rttNanos;
+
+  @GuardedBy("this")
+  private double gradient = 1;
+
+  @GuardedBy("this")
+  private long nextDecreaseNanos;
+
+  @GuardedBy("this")
+  private long nextRateLimitUpdateNanos;
+
+  @GuardedBy("this")
+  private long rateLimitedUntilNanos;
+
+  GradientCongestionController(
+      @Nonnull FlowController flowController,
+      @Nonnull DynamicFlowControlStats stats,
+      @Nonnull ApiClock clock) {
+    Preconditions.checkArgument(
+        flowController.getMaxElementCountLimit() != null
+            && flowController.getMaxRequestBytesLimit() != null,
+        "congestion control requires both element count and request bytes limits");
+    this.flowController = flowController;
+    this.stats = stats;
+    this.clock = clock;
+    this.minElementCount = flowController.getMinElementCountLimit();
+    this.maxElementCount = flowController.getMaxElementCountLimit();
+    this.minRequestBytes = flowController.getMinRequestBytesLimit();
+    this.maxRequestBytes = flowController.getMaxRequestBytesLimit();
+
+    long now = clock.nanoTime();
+    synchronized (this) {
+      this.limit = flowController.getCurrentElementCountLimit();
+      this.nextDecreaseNanos = now;
+      this.nextRateLimitUpdateNanos = now;
+      this.rateLimitedUntilNanos = now;
+      setLimit(limit);
+    }
+  }
+
+  @Override
+  public void onAttemptStarted(int entryCount) {
+    inFlightEntries.addAndGet(entryCount);
+  }
+
+  @Override
+  public synchronized void onRateLimitInfo(double factor, Duration period) {
+    long now = clock.nanoTime();
+    long periodNanos = period.toNanos();
+    rateLimitedUntilNanos = Math.max(rateLimitedUntilNanos, now + periodNanos);
+    if (now - nextRateLimitUpdateNanos < 0) {
+      return;
+    }
+    nextRateLimitUpdateNanos = now + periodNanos;
+    setLimit(limit * Math.min(Math.max(factor, OVERLOAD_FACTOR), MAX_FACTOR));
+  }
+
+  @Override
+  public void onAttemptFinished(int entryCount, long latencyNanos, Outcome outcome) {
+    // The number of entries in flight while this attempt was running
+    long inFlight = inFlightEntries.getAndAdd(-entryCount);
+    switch (outcome) {
+      case SUCCESS:
+        onLatency(latencyNanos, inFlight);
+        break;
+      case OVERLOADED:
+        onOverload();
+        break;
+      case FAILED:
+        break;
+    }
+  }
+
+  private synchronized void onLatency(long latencyNanos, long inFlight) {
+    long now = clock.nanoTime();
+    rttNanos = Math.max(latencyNanos, 1);
+    if (longRttNanos == 0) {
+      longRttNanos = rttNanos;
+    } else {
+      longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_ALPHA;
+    }
+    if (longRttNanos / rttNanos > LONG_RTT_DRIFT_RATIO) {
+      longRttNanos *= LONG_RTT_DRIFT_DECAY;
+    }
+    gradient = Math.max(MIN_GRADIENT, Math.min(1, RTT_TOLERANCE * longRttNanos / rttNanos));
+
+    // The limit is not what's holding the batcher back, latency says nothing about a higher limit
+    if (inFlight < limit / 2) {
+      publishState();
+      return;
+    }
+    double newLimit = limit * gradient + Math.sqrt(limit);
+    newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    // The server is managing the load with RateLimitInfo, only let latency lower the limit
+    if (newLimit > limit && now - rateLimitedUntilNanos < 0) {
+      publishState();
+      return;
+    }
+    setLimit(newLimit);
+  }
+
+  private synchronized void onOverload() {
+    long now = clock.nanoTime();
+    // Back off once per round trip, all the attempts that were in flight will likely fail too
+    if (now - nextDecreaseNanos < 0) {
+      return;
+    }
+    nextDecreaseNanos = now + Math.max((long) longRttNanos, MIN_DECREASE_INTERVAL_NANOS);
+    setLimit(limit * OVERLOAD_FACTOR);
+  }
+
+  @GuardedBy("this")
+  private void setLimit(double newLimit) {
+    limit = Math.min(Math.max(newLimit, minElementCount), maxElementCount);
+
+    long elementCount = Math.round(limit);
+    long requestBytes =
+        Math.min(
+            Math.max(
+                Math.round(maxRequestBytes * ((double) elementCount / maxElementCount)),
+                minRequestBytes),
+            maxRequestBytes);
+
+    long elementSteps = elementCount - flowController.getCurrentElementCountLimit();
+    long byteSteps = requestBytes - flowController.getCurrentRequestBytesLimit();
+    if (elementSteps > 0 || byteSteps > 0) {
+      flowController.increaseThresholds(Math.max(elementSteps, 0), Math.max(byteSteps, 0));
+    }
+    if (elementSteps < 0 || byteSteps < 0) {
+      flowController.decreaseThresholds(Math.max(-elementSteps, 0), Math.max(-byteSteps, 0));
+    }
+    publishState();
+  }
+
+  @GuardedBy("this")
+  private void publishState() {
+    stats.setCongestionControlState(
+        CongestionControlState.create(
+            flowController.getCurrentElementCountLimit(),
+            flowController.getCurrentRequestBytesLimit(),
+            rttNanos,
+            (long) longRttNanos,
+            gradient,
+            clock.nanoTime() - rateLimitedUntilNanos < 0));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import com.google.api.core.BetaApi;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+
+/**
+ * Settings for the client side row cache.
+ *
+ * <p>When enabled, point reads issued with {@code readRow} and through the bulk read batcher are
+ * served from an in memory cache keyed by the table, the row key and the filter of the read. Rows
+ * that don't exist are cached as well. Entries expire after {@link #getExpireAfterWrite()} and the
+ * cache is bounded by the approximate size of the cached rows. Writes to a row that are issued
+ * through the same client (MutateRow, MutateRows, CheckAndMutateRow and ReadModifyWriteRow)
+ * invalidate every cached entry of the row.
+ *
+ * <p>Writes made by other clients are only observed once the cached entries expire, so the cache
+ * should only be enabled for workloads that can tolerate reading data that is up to {@link
+ * #getExpireAfterWrite()} stale.
+ */
+@BetaApi("The row cache is not yet stable and may change in the future")
+@AutoValue
+public abstract class RowCacheSettings {
+  private static final long DEFAULT_MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+  private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(1);
+
+  /** If the row cache is enabled. */
+  public abstract boolean isEnabled();
+
+  /**
+   * The maximum total size of the cached rows. The size of a row is approximated from the size of
+   * its key, qualifiers and values.
+   */
+  public abstract long getMaxWeightBytes();
+
+  /** How long a row stays in the cache after it was read from the server. */
+  public abstract Duration getExpireAfterWrite();
+
+  public abstract Builder toBuilder();
+
+  /** Returns the default settings, which disable the row cache. */
+  public static RowCacheSettings disabled() {
+    return newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new AutoValue_RowCacheSettings.Builder()
+        .setEnabled(false)
+        .setMaxWeightBytes(DEFAULT_MAX_WEIGHT_BYTES)
+        .setExpireAfterWrite(DEFAULT_EXPIRE_AFTER_WRITE);
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder setEnabled(boolean enabled);
+
+    public abstract Builder setMaxWeightBytes(long maxWeightBytes);
+
+    public abstract Builder setExpireAfterWrite(Duration expireAfterWrite);
+
+    abstract RowCacheSettings autoBuild();
+
+    public RowCacheSettings build() {
+      RowCacheSettings settings = autoBuild();
+      Preconditions.checkArgument(
+          settings.getMaxWeightBytes() > 0, "maxWeightBytes must be positive");
+      Preconditions.checkArgument(
+          !settings.getExpireAfterWrite().isNegative() && !settings.getExpireAfterWrite().isZero(),
+          "expireAfterWrite must be positive");
+      return settings;
+    }
+  }
+}
@@ -49,6 +49,7 @@ public class BuiltinMetricsConstants {
   static final AttributeKey<String> METHOD_KEY = AttributeKey.stringKey("method");
   static final AttributeKey<String> STATUS_KEY = AttributeKey.stringKey("status");
   static final AttributeKey<String> CLIENT_UID_KEY = AttributeKey.stringKey("client_uid");
+  static final AttributeKey<String> RESULT_KEY = AttributeKey.stringKey("result");
 
   static final AttributeKey<String> TRANSPORT_TYPE = AttributeKey.stringKey("transport_type");
   static final AttributeKey<String> TRANSPORT_REGION = AttributeKey.stringKey("transport_region");
@@ -95,6 +96,14 @@ public class BuiltinMetricsConstants {
   static final String CLIENT_BLOCKING_LATENCIES_NAME = "throttling_latencies";
   static final String PER_CONNECTION_ERROR_COUNT_NAME = "per_connection_error_count";
   static final String OUTSTANDING_RPCS_PER_CHANNEL_NAME = "connection_pool/outstanding_rpcs";
+  // Row cache metrics are only recorded when the row cache is enabled, and are not exported to
+  // Cloud Monitoring.
+  static final String ROW_CACHE_REQUESTS_NAME = "row_cache/requests";
+  static final String ROW_CACHE_EVICTIONS_NAME = "row_cache/evictions";
+  // Only recorded when coalescing is enabled for bulk reads, and not exported to Cloud Monitoring.
+  static final String BULK_READ_ROWS_KEYS_NAME = "bulk_read_rows/keys";
+  // Only recorded when bulk mutations are spilled to disk, and not exported to Cloud Monitoring.
+  static final String BULK_MUTATION_SPILL_BYTES_NAME = "bulk_mutation/spill_bytes";
 
   // Start allow list of metrics that will be exported as internal
   public static final Map<String, Set<String>> GRPC_METRICS =
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.metrics;
+
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.BULK_MUTATION_SPILL_BYTES_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.METER_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.RESULT_KEY;
+
+import com.google.api.core.InternalApi;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.BulkMutationSpillStats;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+
+/**
+ * Reports the bytes of the entries that bulk mutation batchers spilled to disk, and of the spilled
+ * entries drained back to the batchers. The rate of the drained bytes is the drain rate, and the
+ * difference between the two is the size of the spilled backlog.
+ */
+@InternalApi("For internal use only")
+public class BulkMutationSpillMetrics implements AutoCloseable {
+  private final ObservableLongCounter bytes;
+
+  private BulkMutationSpillMetrics(ObservableLongCounter bytes) {
+    this.bytes = bytes;
+  }
+
+  public static BulkMutationSpillMetrics register(
+      OpenTelemetry openTelemetry, Attributes commonAttrs, BulkMutationSpillStats stats) {
+    Attributes spilledAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "spilled").build();
+    Attributes drainedAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "drained").build();
+
+    ObservableLongCounter bytes =
+        openTelemetry
+            .getMeter(METER_NAME)
+            .counterBuilder(BULK_MUTATION_SPILL_BYTES_NAME)
+            .setDescription(
+                "The bytes of the bulk mutation entries spilled to disk, and of the spilled entries drained back to the batchers.")
+            .setUnit("By")
+            .buildWithCallback(
+                measurement -> {
+                  measurement.record(stats.getSpilledBytes(), spilledAttrs);
+                  measurement.record(stats.getDrainedBytes(), drainedAttrs);
+                });
+
+    return new BulkMutationSpillMetrics(bytes);
+  }
+
+  /** Stops reporting the bytes. */
+  @Override
+  public void close() {
+    bytes.close();
+  }
+}
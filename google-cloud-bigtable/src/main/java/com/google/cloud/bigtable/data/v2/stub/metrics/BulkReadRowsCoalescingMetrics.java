@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.metrics;
+
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.BULK_READ_ROWS_KEYS_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.METER_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.RESULT_KEY;
+
+import com.google.api.core.InternalApi;
+import com.google.cloud.bigtable.data.v2.stub.readrows.BulkReadRowsCoalescingStats;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+
+/**
+ * Reports the number of row keys added to bulk read batchers, by whether they were sent or shared
+ * the result of a pending read. The coalescing ratio is the share of the coalesced keys.
+ */
+@InternalApi("For internal use only")
+public class BulkReadRowsCoalescingMetrics implements AutoCloseable {
+  private final ObservableLongCounter keys;
+
+  private BulkReadRowsCoalescingMetrics(ObservableLongCounter keys) {
+    this.keys = keys;
+  }
+
+  public static BulkReadRowsCoalescingMetrics register(
+      OpenTelemetry openTelemetry, Attributes commonAttrs, BulkReadRowsCoalescingStats stats) {
+    Attributes sentAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "sent").build();
+    Attributes coalescedAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "coalesced").build();
+
+    ObservableLongCounter keys =
+        openTelemetry
+            .getMeter(METER_NAME)
+            .counterBuilder(BULK_READ_ROWS_KEYS_NAME)
+            .setDescription(
+                "The number of row keys added to bulk read batchers, by whether they were sent or shared the result of a pending read.")
+            .setUnit("1")
+            .buildWithCallback(
+                measurement -> {
+                  measurement.record(stats.getSentCount(), sentAttrs);
+                  measurement.record(stats.getCoalescedCount(), coalescedAttrs);
+                });
+
+    return new BulkReadRowsCoalescingMetrics(keys);
+  }
+
+  /** Stops reporting the counts. */
+  @Override
+  public void close() {
+    keys.close();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.metrics;
+
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.METER_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.RESULT_KEY;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.ROW_CACHE_EVICTIONS_NAME;
+import static com.google.cloud.bigtable.data.v2.stub.metrics.BuiltinMetricsConstants.ROW_CACHE_REQUESTS_NAME;
+
+import com.google.api.core.InternalApi;
+import com.google.cloud.bigtable.data.v2.stub.rowcache.RowCache;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+
+/**
+ * Reports the hit, miss and eviction counts of a {@link RowCache} on the meter of the built-in
+ * metrics.
+ *
+ * <p>The counts are kept by the cache and read when the metrics are collected, so that cache
+ * lookups don't pay for recording a metric.
+ */
+@InternalApi("For internal use only")
+public class RowCacheMetrics implements AutoCloseable {
+  private final ObservableLongCounter requests;
+  private final ObservableLongCounter evictions;
+
+  private RowCacheMetrics(ObservableLongCounter requests, ObservableLongCounter evictions) {
+    this.requests = requests;
+    this.evictions = evictions;
+  }
+
+  public static RowCacheMetrics register(
+      OpenTelemetry openTelemetry, Attributes commonAttrs, RowCache rowCache) {
+    Meter meter = openTelemetry.getMeter(METER_NAME);
+    Attributes hitAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "hit").build();
+    Attributes missAttrs = commonAttrs.toBuilder().put(RESULT_KEY, "miss").build();
+
+    ObservableLongCounter requests =
+        meter
+            .counterBuilder(ROW_CACHE_REQUESTS_NAME)
+            .setDescription(
+                "The number of cacheable point reads, by whether they were served from the row cache.")
+            .setUnit("1")
+            .buildWithCallback(
+                measurement -> {
+                  measurement.record(rowCache.getHitCount(), hitAttrs);
+                  measurement.record(rowCache.getMissCount(), missAttrs);
+                });
+    ObservableLongCounter evictions =
+        meter
+            .counterBuilder(ROW_CACHE_EVICTIONS_NAME)
+            .setDescription(
+                "The number of entries that were evicted from the row cache because it was full or they expired.")
+            .setUnit("1")
+            .buildWithCallback(
+                measurement -> measurement.record(rowCache.getEvictionCount(), commonAttrs));
+
+    return new RowCacheMetrics(requests, evictions);
+  }
+
+  /** Stops reporting the counts. */
+  @Override
+  public void close() {
+    requests.close();
+    evictions.close();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import com.google.api.core.InternalApi;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes of the entries that the bulk mutation batchers of a client spilled to disk, and
+ * of the spilled entries that were drained back to the batchers.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi("For internal use only")
+public final class BulkMutationSpillStats {
+  private final LongAdder spilledBytes = new LongAdder();
+  private final LongAdder drainedBytes = new LongAdder();
+
+  void recordSpilled(long bytes) {
+    spilledBytes.add(bytes);
+  }
+
+  void recordDrained(long bytes) {
+    drainedBytes.add(bytes);
+  }
+
+  /** The number of bytes of the entries that were spilled to disk. */
+  public long getSpilledBytes() {
+    return spilledBytes.sum();
+  }
+
+  /** The number of bytes of the spilled entries that were added back to a batcher. */
+  public long getDrainedBytes() {
+    return drainedBytes.sum();
+  }
+}
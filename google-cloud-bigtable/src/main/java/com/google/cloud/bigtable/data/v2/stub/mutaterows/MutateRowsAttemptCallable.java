@@ -36,11 +36,14 @@ import com.google.cloud.bigtable.data.v2.models.MutateRowsException.FailedMutati
 import com.google.cloud.bigtable.gaxx.retrying.NonCancellableFuture;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.rpc.Code;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import javax.annotation.Nonnull;
@@ -109,9 +112,13 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
   @Nonnull private MutateRowsRequest currentRequest;
 
   // Everything needed to build a retry request
-  @Nullable private List<Integer> originalIndexes;
+  @Nullable private int[] originalIndexes;
   @Nonnull private final Set<StatusCode.Code> retryableCodes;
-  @Nullable private final List<FailedMutation> permanentFailures;
+  // Whether an entry status is retryable, indexed by the value of its code
+  @Nonnull private final boolean[] retryableCodeValues;
+  @Nonnull private final FailureLog failures;
+  // Positions in the failures log of the failures that won't be retried
+  @Nonnull private final IntArray permanentFailures;
   @Nonnull private final RetryAlgorithm<MutateRowsRequest> retryAlgorithm;
   @Nonnull private TimedAttemptSettings attemptSettings;
 
@@ -150,7 +157,14 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
     this.retryAlgorithm = retryAlgorithm;
     this.attemptSettings = retryAlgorithm.createFirstAttempt();
 
-    permanentFailures = Lists.newArrayList();
+    io.grpc.Status.Code[] grpcCodes = io.grpc.Status.Code.values();
+    retryableCodeValues = new boolean[grpcCodes.length];
+    for (io.grpc.Status.Code grpcCode : grpcCodes) {
+      retryableCodeValues[grpcCode.value()] =
+          retryableCodes.contains(GrpcStatusCode.of(grpcCode).getCode());
+    }
+    failures = new FailureLog(retryableCodes);
+    permanentFailures = new IntArray(0);
   }
 
   public void setExternalFuture(RetryingFuture<MutateRowsAttemptResult> externalFuture) {
@@ -228,28 +242,30 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
    */
   private void handleAttemptError(Throwable rpcError) {
     ApiException entryError = createSyntheticErrorForRpcFailure(rpcError);
-    ImmutableList.Builder<FailedMutation> allFailures = ImmutableList.builder();
     MutateRowsRequest lastRequest = currentRequest;
+    int entryCount = lastRequest.getEntriesCount();
 
-    allFailures.addAll(permanentFailures);
-
-    Builder builder = lastRequest.toBuilder().clearEntries();
-    List<Integer> newOriginalIndexes = Lists.newArrayList();
+    IntArray allFailures = permanentFailures.copyWithCapacity(permanentFailures.size + entryCount);
 
     attemptSettings = retryAlgorithm.createNextAttempt(null, entryError, null, attemptSettings);
+    // Every entry failed with the same error, so they are either all retried or none of them is
+    boolean shouldRetry = retryAlgorithm.shouldRetry(null, entryError, null, attemptSettings);
 
-    for (int i = 0; i < currentRequest.getEntriesCount(); i++) {
+    Builder builder = lastRequest.toBuilder().clearEntries();
+    int[] newOriginalIndexes = shouldRetry ? new int[entryCount] : null;
+
+    for (int i = 0; i < entryCount; i++) {
       int origIndex = getOriginalIndex(i);
 
-      FailedMutation failedMutation = FailedMutation.create(origIndex, entryError);
-      allFailures.add(failedMutation);
+      int position = failures.add(origIndex, entryError);
+      allFailures.add(position);
 
-      if (!retryAlgorithm.shouldRetry(null, failedMutation.getError(), null, attemptSettings)) {
-        permanentFailures.add(failedMutation);
+      if (!shouldRetry) {
+        permanentFailures.add(position);
       } else {
         // Schedule the mutation entry for the next RPC by adding it to the request builder and
         // recording its original index
-        newOriginalIndexes.add(origIndex);
+        newOriginalIndexes[i] = origIndex;
         builder.addEntries(lastRequest.getEntries(i));
       }
     }
@@ -258,46 +274,58 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
     originalIndexes = newOriginalIndexes;
 
     throw MutateRowsException.create(
-        rpcError, entryError.getStatusCode(), allFailures.build(), builder.getEntriesCount() > 0);
+        rpcError, entryError.getStatusCode(), failures.asList(allFailures), shouldRetry);
   }
 
   /**
    * Handle entry level failures. All new response entries are inspected for failure. If any
    * transient failures are found, their corresponding mutations are scheduled for the next RPC. The
-   * caller is notified of both new found errors and pre-existing permanent errors in the thrown
-   * {@link MutateRowsException}. If no errors exist, then the attempt future is successfully
+   * caller is notified of both new found errors and pre-existing permanent errors in the returned
+   * {@link MutateRowsAttemptResult}. If no errors exist, then the attempt future is successfully
    * completed. We don't currently handle RetryInfo on entry level failures.
+   *
+   * <p>The errors of the failed entries are only created when the failed mutations of the result
+   * are read, which usually doesn't happen for an attempt that is retried.
    */
   private MutateRowsAttemptResult handleAttemptSuccess(List<MutateRowsResponse> responses) {
-    List<FailedMutation> allFailures = Lists.newArrayList(permanentFailures);
     MutateRowsRequest lastRequest = currentRequest;
+    int entryCount = lastRequest.getEntriesCount();
 
-    Builder builder = lastRequest.toBuilder().clearEntries();
-    List<Integer> newOriginalIndexes = Lists.newArrayList();
-    boolean[] seenIndices = new boolean[currentRequest.getEntriesCount()];
+    // Allocated on the first failure, successful attempts don't need them
+    IntArray allFailures = null;
+    Builder builder = null;
+    int[] newOriginalIndexes = null;
+    int retryCount = 0;
+    boolean[] seenIndices = new boolean[entryCount];
 
     for (MutateRowsResponse response : responses) {
       for (Entry entry : response.getEntriesList()) {
-        seenIndices[Ints.checkedCast(entry.getIndex())] = true;
+        int index = Ints.checkedCast(entry.getIndex());
+        seenIndices[index] = true;
 
-        if (entry.getStatus().getCode() == Code.OK_VALUE) {
+        com.google.rpc.Status status = entry.getStatus();
+        if (status.getCode() == Code.OK_VALUE) {
           continue;
         }
+        if (allFailures == null) {
+          allFailures = permanentFailures.copyWithCapacity(permanentFailures.size + entryCount);
+        }
 
-        int origIndex = getOriginalIndex((int) entry.getIndex());
-
-        FailedMutation failedMutation =
-            FailedMutation.create(origIndex, createEntryError(entry.getStatus()));
-
-        allFailures.add(failedMutation);
+        int origIndex = getOriginalIndex(index);
+        int position = failures.add(origIndex, status);
+        allFailures.add(position);
 
-        if (!failedMutation.getError().isRetryable()) {
-          permanentFailures.add(failedMutation);
+        if (!isRetryable(status.getCode())) {
+          permanentFailures.add(position);
         } else {
           // Schedule the mutation entry for the next RPC by adding it to the request builder and
           // recording it's original index
-          newOriginalIndexes.add(origIndex);
-          builder.addEntries(lastRequest.getEntries((int) entry.getIndex()));
+          if (builder == null) {
+            builder = lastRequest.toBuilder().clearEntries();
+            newOriginalIndexes = new int[entryCount];
+          }
+          newOriginalIndexes[retryCount++] = origIndex;
+          builder.addEntries(lastRequest.getEntries(index));
         }
       }
     }
@@ -307,27 +335,25 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
       if (seenIndices[i]) {
         continue;
       }
+      if (allFailures == null) {
+        allFailures = permanentFailures.copyWithCapacity(permanentFailures.size + entryCount);
+      }
 
-      int origIndex = getOriginalIndex(i);
-      FailedMutation failedMutation =
-          FailedMutation.create(
-              origIndex,
-              ApiExceptionFactory.createException(
-                  "Missing entry response for entry " + origIndex,
-                  null,
-                  GrpcStatusCode.of(io.grpc.Status.Code.INTERNAL),
-                  false));
-
-      allFailures.add(failedMutation);
-      permanentFailures.add(failedMutation);
+      int position = failures.add(getOriginalIndex(i), FailureLog.MISSING_ENTRY_RESPONSE);
+      allFailures.add(position);
+      permanentFailures.add(position);
     }
 
-    currentRequest = builder.build();
+    currentRequest =
+        builder != null ? builder.build() : lastRequest.toBuilder().clearEntries().build();
     originalIndexes = newOriginalIndexes;
 
-    if (!allFailures.isEmpty()) {
-      boolean isRetryable = builder.getEntriesCount() > 0;
-      return MutateRowsAttemptResult.create(allFailures, isRetryable);
+    if (allFailures == null && permanentFailures.size > 0) {
+      // The failures of the previous attempts are the only ones
+      allFailures = permanentFailures;
+    }
+    if (allFailures != null) {
+      return MutateRowsAttemptResult.create(failures.asList(allFailures), retryCount > 0);
     }
     return MutateRowsAttemptResult.success();
   }
@@ -336,11 +362,21 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
    * Remap the entry index in the current attempt back to its original index in the first request.
    */
   private int getOriginalIndex(int index) {
-    return (originalIndexes != null) ? originalIndexes.get(index) : index;
+    return (originalIndexes != null) ? originalIndexes[index] : index;
+  }
+
+  /** Returns true if an entry that failed with the status code value should be retried. */
+  private boolean isRetryable(int codeValue) {
+    if (codeValue < 0 || codeValue >= retryableCodeValues.length) {
+      // Unknown code values are converted to UNKNOWN, like io.grpc.Status#fromCodeValue
+      codeValue = Code.UNKNOWN_VALUE;
+    }
+    return retryableCodeValues[codeValue];
   }
 
   /** Convert an entry's status from a protobuf to an {@link ApiException}. */
-  private ApiException createEntryError(com.google.rpc.Status protoStatus) {
+  private static ApiException createEntryError(
+      com.google.rpc.Status protoStatus, Set<StatusCode.Code> retryableCodes) {
     io.grpc.Status grpcStatus =
         io.grpc.Status.fromCodeValue(protoStatus.getCode())
             .withDescription(protoStatus.getMessage());
@@ -375,4 +411,123 @@ class MutateRowsAttemptCallable implements Callable<MutateRowsAttemptResult> {
         LOCAL_UNKNOWN_STATUS,
         false);
   }
+
+  /**
+   * The failed entries of all the attempts, in the order they were found. The error of a failed
+   * entry is only created when its {@link FailedMutation} is read.
+   */
+  private static final class FailureLog {
+    // Cause of the entries that didn't get a response from a successful RPC
+    private static final Object MISSING_ENTRY_RESPONSE = new Object();
+
+    private final Set<StatusCode.Code> retryableCodes;
+    // The original index and the cause of every failure. A cause is either the status of the
+    // entry, an ApiException or MISSING_ENTRY_RESPONSE
+    private int[] originalIndexes = new int[0];
+    private Object[] causes = new Object[0];
+    private FailedMutation[] failedMutations = new FailedMutation[0];
+    private int size;
+
+    FailureLog(Set<StatusCode.Code> retryableCodes) {
+      this.retryableCodes = retryableCodes;
+    }
+
+    /** Adds a failure and returns its position in the log. */
+    synchronized int add(int originalIndex, Object cause) {
+      if (size == originalIndexes.length) {
+        int capacity = Math.max(16, size * 2);
+        originalIndexes = Arrays.copyOf(originalIndexes, capacity);
+        causes = Arrays.copyOf(causes, capacity);
+        failedMutations = Arrays.copyOf(failedMutations, capacity);
+      }
+      originalIndexes[size] = originalIndex;
+      causes[size] = cause;
+      return size++;
+    }
+
+    synchronized FailedMutation get(int position) {
+      FailedMutation failedMutation = failedMutations[position];
+      if (failedMutation == null) {
+        failedMutation = FailedMutation.create(originalIndexes[position], createError(position));
+        failedMutations[position] = failedMutation;
+      }
+      return failedMutation;
+    }
+
+    private ApiException createError(int position) {
+      Object cause = causes[position];
+      if (cause instanceof ApiException) {
+        return (ApiException) cause;
+      }
+      if (cause instanceof com.google.rpc.Status) {
+        return createEntryError((com.google.rpc.Status) cause, retryableCodes);
+      }
+      return ApiExceptionFactory.createException(
+          "Missing entry response for entry " + originalIndexes[position],
+          null,
+          GrpcStatusCode.of(io.grpc.Status.Code.INTERNAL),
+          false);
+    }
+
+    /** Returns a view of the failures at the positions, which can't change anymore. */
+    List<FailedMutation> asList(IntArray positions) {
+      return new FailureList(this, positions.values, positions.size);
+    }
+  }
+
+  /** A list of the failures at some positions of a {@link FailureLog}. */
+  private static final class FailureList extends AbstractList<FailedMutation>
+      implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 7461573658519409836L;
+
+    private final transient FailureLog log;
+    private final transient int[] positions;
+    private final int size;
+
+    FailureList(FailureLog log, int[] positions, int size) {
+      this.log = log;
+      this.positions = positions;
+      this.size = size;
+    }
+
+    @Override
+    public FailedMutation get(int index) {
+      Preconditions.checkElementIndex(index, size);
+      return log.get(positions[index]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    // MutateRowsException is serializable, serialize the failures with their errors instead
+    private Object writeReplace() {
+      return ImmutableList.copyOf(this);
+    }
+  }
+
+  /** A growable array of ints. Elements are only appended. */
+  private static final class IntArray {
+    private int[] values;
+    private int size;
+
+    IntArray(int capacity) {
+      values = new int[capacity];
+    }
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, Math.max(16, size * 2));
+      }
+      values[size++] = value;
+    }
+
+    IntArray copyWithCapacity(int capacity) {
+      IntArray copy = new IntArray(Math.max(capacity, size));
+      System.arraycopy(values, 0, copy.values, 0, size);
+      copy.size = size;
+      return copy;
+    }
+  }
 }
@@ -20,11 +20,16 @@ import com.google.api.gax.batching.BatchEntry;
 import com.google.api.gax.batching.BatchResource;
 import com.google.api.gax.batching.BatchingDescriptor;
 import com.google.api.gax.batching.BatchingRequestBuilder;
+import com.google.bigtable.v2.MutateRowsRequest;
 import com.google.cloud.bigtable.data.v2.models.BulkMutation;
 import com.google.cloud.bigtable.data.v2.models.MutateRowsException;
 import com.google.cloud.bigtable.data.v2.models.MutateRowsException.FailedMutation;
+import com.google.cloud.bigtable.data.v2.models.Mutation;
 import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
 import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +37,11 @@ import java.util.Map;
  * A custom implementation of a {@link BatchingDescriptor} to split batching response into
  * individual row response and in a {@link MutateRowsException}.
  *
+ * <p>When same row coalescing is enabled, the entries of a batch that mutate the same row are
+ * merged into a single request entry, with their mutations in the order the entries were added. The
+ * merged mutations are applied atomically, and the result of the request entry is the result of
+ * every entry merged into it.
+ *
  * <p>This class is considered an internal implementation detail and not meant to be used by
  * applications directly.
  */
@@ -39,15 +49,37 @@ import java.util.Map;
 public class MutateRowsBatchingDescriptor
     implements BatchingDescriptor<RowMutationEntry, Void, BulkMutation, MutateRowsAttemptResult> {
 
+  private final boolean isSameRowCoalescingEnabled;
+
+  public MutateRowsBatchingDescriptor() {
+    this(false);
+  }
+
+  public MutateRowsBatchingDescriptor(boolean isSameRowCoalescingEnabled) {
+    this.isSameRowCoalescingEnabled = isSameRowCoalescingEnabled;
+  }
+
+  /** Returns true if the entries of a batch that mutate the same row are merged. */
+  public boolean isSameRowCoalescingEnabled() {
+    return isSameRowCoalescingEnabled;
+  }
+
   @Override
   public BatchingRequestBuilder<RowMutationEntry, BulkMutation> newRequestBuilder(
       BulkMutation prototype) {
+    if (isSameRowCoalescingEnabled) {
+      return new CoalescingRequestBuilder(prototype);
+    }
     return new RequestBuilder(prototype);
   }
 
   @Override
   public void splitResponse(
       MutateRowsAttemptResult response, List<BatchEntry<RowMutationEntry, Void>> entries) {
+    if (isSameRowCoalescingEnabled) {
+      splitCoalescedResults(response.getFailedMutations(), entries);
+      return;
+    }
     // For every failed mutation in the response, we set the exception on the matching requested
     // mutation. It is important to set the correct error on the correct mutation. When the entry is
     // later read, it resolves the exception first, and only later it goes to the value set by
@@ -77,6 +109,10 @@ public class MutateRowsBatchingDescriptor
     }
 
     List<FailedMutation> failedMutations = ((MutateRowsException) throwable).getFailedMutations();
+    if (isSameRowCoalescingEnabled) {
+      splitCoalescedResults(failedMutations, entries);
+      return;
+    }
     Map<Integer, Throwable> entryErrors = Maps.newHashMap();
 
     for (FailedMutation failure : failedMutations) {
@@ -94,6 +130,35 @@ public class MutateRowsBatchingDescriptor
     }
   }
 
+  /**
+   * Resolves every entry with the result of the request entry it was merged into. The batch entries
+   * are in the order they were added to the {@link CoalescingRequestBuilder}, so the request index
+   * of a row is the position of its first entry among the distinct rows.
+   */
+  private static void splitCoalescedResults(
+      List<FailedMutation> failedMutations, List<BatchEntry<RowMutationEntry, Void>> entries) {
+    Map<Integer, Throwable> rowErrors = Maps.newHashMap();
+    for (FailedMutation failure : failedMutations) {
+      rowErrors.put(failure.getIndex(), failure.getError());
+    }
+
+    Map<ByteString, Integer> rowIndexes = Maps.newHashMapWithExpectedSize(entries.size());
+    for (BatchEntry<RowMutationEntry, Void> entry : entries) {
+      ByteString key = entry.getElement().getKey();
+      Integer rowIndex = rowIndexes.get(key);
+      if (rowIndex == null) {
+        rowIndex = rowIndexes.size();
+        rowIndexes.put(key, rowIndex);
+      }
+      Throwable rowError = rowErrors.get(rowIndex);
+      if (rowError == null) {
+        entry.getResultFuture().set(null);
+      } else {
+        entry.getResultFuture().setException(rowError);
+      }
+    }
+  }
+
   @Override
   public long countBytes(RowMutationEntry entry) {
     return entry.toProto().getSerializedSize();
@@ -101,8 +166,8 @@ public class MutateRowsBatchingDescriptor
 
   @Override
   public BatchResource createResource(RowMutationEntry element) {
-    long byteCount = countBytes(element);
-    return MutateRowsBatchResource.create(1, byteCount, element.toProto().getMutationsCount());
+    MutateRowsRequest.Entry entry = element.toProto();
+    return MutateRowsBatchResource.create(1, entry.getSerializedSize(), entry.getMutationsCount());
   }
 
   @Override
@@ -131,4 +196,49 @@ public class MutateRowsBatchingDescriptor
       return bulkMutation;
     }
   }
+
+  /**
+   * A {@link BatchingRequestBuilder} that merges the entries of the same row and sends the merged
+   * entries out as a {@link BulkMutation}, in the order their rows were first added.
+   */
+  static class CoalescingRequestBuilder
+      implements BatchingRequestBuilder<RowMutationEntry, BulkMutation> {
+    private final BulkMutation prototype;
+    private final Map<ByteString, List<RowMutationEntry>> rows = new LinkedHashMap<>();
+
+    CoalescingRequestBuilder(BulkMutation prototype) {
+      this.prototype = prototype;
+    }
+
+    @Override
+    public void add(RowMutationEntry entry) {
+      List<RowMutationEntry> rowEntries = rows.get(entry.getKey());
+      if (rowEntries == null) {
+        rowEntries = new ArrayList<>(1);
+        rows.put(entry.getKey(), rowEntries);
+      }
+      rowEntries.add(entry);
+    }
+
+    @Override
+    public BulkMutation build() {
+      BulkMutation bulkMutation = prototype.clone();
+      for (Map.Entry<ByteString, List<RowMutationEntry>> row : rows.entrySet()) {
+        List<RowMutationEntry> rowEntries = row.getValue();
+        if (rowEntries.size() == 1) {
+          bulkMutation.add(rowEntries.get(0));
+          continue;
+        }
+        List<com.google.bigtable.v2.Mutation> mutations = new ArrayList<>();
+        for (RowMutationEntry entry : rowEntries) {
+          mutations.addAll(entry.toProto().getMutationsList());
+        }
+        // The mutations were already validated by the entries, the merged entry only keeps them
+        bulkMutation.add(
+            RowMutationEntry.createFromMutationUnsafe(
+                row.getKey(), Mutation.fromProtoUnsafe(mutations)));
+      }
+      return bulkMutation;
+    }
+  }
 }
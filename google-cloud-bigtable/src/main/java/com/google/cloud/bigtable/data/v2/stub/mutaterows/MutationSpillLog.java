@@ -0,0 +1,473 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+
+/**
+ * An append only log of records in memory mapped segment files, read back in the order they were
+ * appended. A segment file is deleted once all its records were read and completed. The log uses at
+ * most as many segments as fit in its maximum size.
+ *
+ * <p>Every record is written as its length, its CRC32 and its bytes, and the length is written
+ * last. When a log is opened, the records left in the segments of its directory are recovered up to
+ * the first one that is incomplete or corrupt, so that a process that crashed while appending loses
+ * at most the record that was being appended. The segments are only forced to disk when the log is
+ * closed, so the records survive a crash of the process, since the OS still writes back the pages
+ * it mapped, but not a crash of the OS.
+ *
+ * <p>The buffers of the segments are unmapped explicitly when the segments are deleted, so that
+ * their disk space is released right away rather than once the buffers are garbage collected.
+ *
+ * <p>The log is opened in a subdirectory of the spill directory that is locked for as long as the
+ * log is open, so that two logs never share segments. This class is not thread safe.
+ */
+final class MutationSpillLog implements Closeable {
+  private static final Logger LOGGER = Logger.getLogger(MutationSpillLog.class.getName());
+
+  static final int DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+  // Small logs still use a few segments, so that the log can be appended to while the records of
+  // its oldest segment are being completed
+  private static final int MIN_SEGMENTS = 4;
+
+  private static final String LOCK_FILE = "lock";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int HEADER_BYTES = 8;
+  private static final int MAX_DIRECTORIES = 1000;
+  @Nullable private static final Unmapper UNMAPPER = createUnmapper();
+
+  private final Path directory;
+  private final FileChannel lockChannel;
+  private final int segmentBytes;
+  private final long maxSegments;
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+  private final CRC32 crc = new CRC32();
+  private final int recoveredRecords;
+  private long nextSegmentId;
+  // The number of records that were appended or recovered, and not read yet
+  private long unreadRecords;
+  private boolean closed;
+
+  /**
+   * Opens the log in the first subdirectory named {@code name} or {@code name.N} of {@code root}
+   * that isn't locked by another open log, and recovers the records left in it.
+   */
+  static MutationSpillLog open(Path root, String name, long maxBytes) throws IOException {
+    return open(
+        root,
+        name,
+        maxBytes,
+        (int) Math.min(DEFAULT_SEGMENT_BYTES, Math.max(1, maxBytes / MIN_SEGMENTS)));
+  }
+
+  @VisibleForTesting
+  static MutationSpillLog open(Path root, String name, long maxBytes, int segmentBytes)
+      throws IOException {
+    Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive");
+    for (int i = 0; i < MAX_DIRECTORIES; i++) {
+      Path directory = root.resolve(i == 0 ? name : name + "." + i);
+      Files.createDirectories(directory);
+      FileChannel lockChannel =
+          FileChannel.open(
+              directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock lock = null;
+      try {
+        lock = lockChannel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        // Locked by a log of this process
+      } finally {
+        if (lock == null) {
+          lockChannel.close();
+        }
+      }
+      if (lock != null) {
+        try {
+          return new MutationSpillLog(
+              directory, lockChannel, (int) Math.min(segmentBytes, maxBytes), maxBytes);
+        } catch (IOException | RuntimeException e) {
+          lockChannel.close();
+          throw e;
+        }
+      }
+    }
+    throw new IOException("All the spill directories for " + name + " in " + root + " are in use");
+  }
+
+  private MutationSpillLog(Path directory, FileChannel lockChannel, int segmentBytes, long maxBytes)
+      throws IOException {
+    this.directory = directory;
+    this.lockChannel = lockChannel;
+    this.segmentBytes = segmentBytes;
+    this.maxSegments = Math.max(1, maxBytes / segmentBytes);
+    this.recoveredRecords = recover();
+  }
+
+  /** Returns the path of the locked directory that holds the segments. */
+  Path getDirectory() {
+    return directory;
+  }
+
+  /** Returns the number of records that were recovered when the log was opened. */
+  int getRecoveredRecords() {
+    return recoveredRecords;
+  }
+
+  /** Returns true if all the records were read. */
+  boolean isEmpty() {
+    return unreadRecords == 0;
+  }
+
+  /**
+   * Appends a record. Returns false if the record doesn't fit in a segment, or if all the segments
+   * the log may use are full.
+   */
+  boolean append(byte[] record) {
+    Preconditions.checkState(!closed, "Spill log is closed");
+    int recordBytes = HEADER_BYTES + record.length;
+    if (record.length == 0 || recordBytes > segmentBytes) {
+      return false;
+    }
+
+    Segment tail = segments.peekLast();
+    if (tail == null || !tail.writable || tail.remaining() < recordBytes) {
+      if (segments.size() >= maxSegments) {
+        return false;
+      }
+      if (tail != null) {
+        tail.writable = false;
+      }
+      try {
+        tail = createSegment();
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Failed to create a spill segment in " + directory, e);
+        return false;
+      }
+    }
+
+    crc.reset();
+    crc.update(record, 0, record.length);
+    int position = tail.writePosition;
+    tail.buffer.putInt(position + 4, (int) crc.getValue());
+    ByteBuffer data = tail.buffer.duplicate();
+    data.position(position + HEADER_BYTES);
+    data.put(record);
+    // Make sure the record after this one reads as the end of the segment
+    if (tail.buffer.capacity() - position - recordBytes >= HEADER_BYTES) {
+      tail.buffer.putInt(position + recordBytes, 0);
+    }
+    // The length is written last, a record without it is dropped on recovery
+    tail.buffer.putInt(position, record.length);
+
+    tail.writePosition += recordBytes;
+    tail.written++;
+    unreadRecords++;
+    return true;
+  }
+
+  /** Returns the length of the next record to read, or -1 if all the records were read. */
+  int peekLength() {
+    Segment segment = readSegment();
+    return segment == null ? -1 : segment.buffer.getInt(segment.readPosition);
+  }
+
+  /**
+   * Reads the next record, or returns null if all the records were read. The record must be
+   * completed once it doesn't need to be recovered anymore.
+   */
+  @Nullable
+  Record read() {
+    Segment segment = readSegment();
+    if (segment == null) {
+      return null;
+    }
+    int length = segment.buffer.getInt(segment.readPosition);
+    byte[] bytes = new byte[length];
+    ByteBuffer data = segment.buffer.duplicate();
+    data.position(segment.readPosition + HEADER_BYTES);
+    data.get(bytes);
+
+    segment.readPosition += HEADER_BYTES + length;
+    segment.read++;
+    unreadRecords--;
+    return new Record(segment, bytes);
+  }
+
+  @Nullable
+  private Segment readSegment() {
+    for (Segment segment : segments) {
+      if (segment.read < segment.written) {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Closes the segments and releases the directory. The records that weren't completed are kept for
+   * the next log opened in the directory.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      for (Segment segment : segments) {
+        segment.buffer.force();
+        release(segment);
+      }
+      segments.clear();
+    } finally {
+      lockChannel.close();
+    }
+  }
+
+  private Segment createSegment() throws IOException {
+    Path path =
+        directory.resolve(
+            String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      Segment segment =
+          new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+      segments.addLast(segment);
+      return segment;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      Files.deleteIfExists(path);
+      throw e;
+    }
+  }
+
+  /** Recovers the records of the segments left in the directory, and returns how many there are. */
+  private int recover() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    // Segment ids are zero padded, so the names sort in the order the segments were created
+    Collections.sort(paths);
+
+    int records = 0;
+    for (Path path : paths) {
+      String fileName = path.getFileName().toString();
+      long id =
+          Long.parseLong(
+              fileName.substring(
+                  SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+      nextSegmentId = Math.max(nextSegmentId, id + 1);
+
+      FileChannel channel =
+          FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      Segment segment;
+      try {
+        segment =
+            new Segment(
+                path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+      segment.writable = false;
+      scan(segment);
+      if (segment.written == 0) {
+        release(segment);
+        Files.deleteIfExists(path);
+        continue;
+      }
+      segments.addLast(segment);
+      records += segment.written;
+    }
+    unreadRecords = records;
+    return records;
+  }
+
+  /** Counts the valid records of a recovered segment. */
+  private void scan(Segment segment) {
+    MappedByteBuffer buffer = segment.buffer;
+    int position = 0;
+    while (buffer.capacity() - position >= HEADER_BYTES) {
+      int length = buffer.getInt(position);
+      if (length <= 0 || length > buffer.capacity() - position - HEADER_BYTES) {
+        break;
+      }
+      byte[] bytes = new byte[length];
+      ByteBuffer data = buffer.duplicate();
+      data.position(position + HEADER_BYTES);
+      data.get(bytes);
+      crc.reset();
+      crc.update(bytes, 0, length);
+      if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+        LOGGER.warning(
+            "Dropping the corrupt records at offset "
+                + position
+                + " of spill segment "
+                + segment.path);
+        break;
+      }
+      position += HEADER_BYTES + length;
+      segment.written++;
+    }
+    segment.writePosition = position;
+  }
+
+  private void complete(Segment segment) {
+    segment.completed++;
+    // The segment that is appended to is deleted too, the next append creates a new one
+    if (segment.completed < segment.written || closed) {
+      return;
+    }
+    segments.remove(segment);
+    try {
+      release(segment);
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to delete spill segment " + segment.path, e);
+    }
+  }
+
+  /**
+   * Closes the channel of a segment and unmaps its buffer. A deleted file keeps using disk space
+   * for as long as it is mapped.
+   */
+  private static void release(Segment segment) throws IOException {
+    MappedByteBuffer buffer = segment.buffer;
+    // The buffer must not be accessed once it is unmapped
+    segment.buffer = null;
+    try {
+      segment.channel.close();
+    } finally {
+      if (UNMAPPER != null) {
+        try {
+          UNMAPPER.unmap(buffer);
+        } catch (Exception e) {
+          LOGGER.log(Level.FINE, "Failed to unmap spill segment " + segment.path, e);
+        }
+      }
+    }
+  }
+
+  private interface Unmapper {
+    void unmap(MappedByteBuffer buffer) throws Exception;
+  }
+
+  /** Returns a way to unmap the buffers on this JVM, or null if there isn't one. */
+  @Nullable
+  private static Unmapper createUnmapper() {
+    try {
+      // Java 9 and later
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Fall back to the cleaner of the buffer
+    }
+    try {
+      // Java 8
+      Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> clean.invoke(cleaner.invoke(buffer));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.log(
+          Level.FINE,
+          "Spill segments can't be unmapped, they are released when they are garbage collected",
+          e);
+      return null;
+    }
+  }
+
+  /** A record that was read from the log. */
+  final class Record {
+    private final Segment segment;
+    private final byte[] bytes;
+    private boolean completed;
+
+    private Record(Segment segment, byte[] bytes) {
+      this.segment = segment;
+      this.bytes = bytes;
+    }
+
+    byte[] getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Marks the record as done, it won't be recovered anymore once all the records of its segment
+     * are completed.
+     */
+    void complete() {
+      if (!completed) {
+        completed = true;
+        MutationSpillLog.this.complete(segment);
+      }
+    }
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final FileChannel channel;
+    // Null once the segment is released
+    private MappedByteBuffer buffer;
+    private boolean writable = true;
+    private int writePosition;
+    private int readPosition;
+    private int written;
+    private int read;
+    private int completed;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    private int remaining() {
+      return buffer.capacity() - writePosition;
+    }
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.cloud.bigtable.data.v2.internal.ByteStringComparator;
+import com.google.cloud.bigtable.data.v2.models.BulkMutation;
+import com.google.cloud.bigtable.data.v2.models.MutateRowsException;
+import com.google.cloud.bigtable.data.v2.models.MutateRowsException.FailedMutation;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A callable that splits a large {@link BulkMutation} into requests of a single row key range and
+ * sends them concurrently through the inner callable.
+ *
+ * <p>A bulk mutation that is larger than {@code maxRequestBytes} is sorted by row key and cut into
+ * requests of at most {@code maxRequestBytes}, never between the entries of the same row. At most
+ * {@code maxParallelRequests} of them are in flight at a time. The failed mutations of all the
+ * requests are reported with their index in the original bulk mutation.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications.
+ */
+@InternalApi
+public final class ParallelBulkMutateRowsCallable
+    extends UnaryCallable<BulkMutation, MutateRowsAttemptResult> {
+  // Tag and length prefix of an entry in the request
+  private static final int ENTRY_OVERHEAD_BYTES = 6;
+
+  private final UnaryCallable<BulkMutation, MutateRowsAttemptResult> innerCallable;
+  private final long maxRequestBytes;
+  private final int maxParallelRequests;
+
+  public ParallelBulkMutateRowsCallable(
+      UnaryCallable<BulkMutation, MutateRowsAttemptResult> innerCallable,
+      long maxRequestBytes,
+      int maxParallelRequests) {
+    Preconditions.checkArgument(maxRequestBytes > 0, "maxRequestBytes must be positive");
+    Preconditions.checkArgument(maxParallelRequests > 0, "maxParallelRequests must be positive");
+    this.innerCallable = innerCallable;
+    this.maxRequestBytes = maxRequestBytes;
+    this.maxParallelRequests = maxParallelRequests;
+  }
+
+  @Override
+  public ApiFuture<MutateRowsAttemptResult> futureCall(
+      BulkMutation request, ApiCallContext context) {
+    List<MutateRowsRequest.Entry> entries = request.getEntries();
+    if (!exceeds(entries, maxRequestBytes)) {
+      return innerCallable.futureCall(request, context);
+    }
+    List<int[]> parts = split(entries, maxRequestBytes);
+    if (parts.size() == 1) {
+      return innerCallable.futureCall(request, context);
+    }
+    ParallelCall call = new ParallelCall(request, parts, context);
+    call.start();
+    return call.resultFuture;
+  }
+
+  /** Returns true if the entries take more than {@code maxBytes}, without building the request. */
+  private static boolean exceeds(List<MutateRowsRequest.Entry> entries, long maxBytes) {
+    long bytes = 0;
+    for (MutateRowsRequest.Entry entry : entries) {
+      bytes += entry.getSerializedSize() + ENTRY_OVERHEAD_BYTES;
+      if (bytes > maxBytes) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sorts the entries by row key and groups them into parts of at most {@code maxBytes}, or a
+   * single row if the row is larger. Returns the original indexes of the entries of every part.
+   */
+  @VisibleForTesting
+  static List<int[]> split(List<MutateRowsRequest.Entry> entries, long maxBytes) {
+    Integer[] order = new Integer[entries.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    // The sort is stable, so the entries of a row keep the order they were added in
+    Arrays.sort(
+        order,
+        Comparator.comparing(i -> entries.get(i).getRowKey(), ByteStringComparator.INSTANCE));
+
+    List<int[]> parts = new ArrayList<>();
+    int[] part = new int[order.length];
+    int partSize = 0;
+    long partBytes = 0;
+    ByteString previousKey = null;
+    for (int index : order) {
+      MutateRowsRequest.Entry entry = entries.get(index);
+      long entryBytes = entry.getSerializedSize() + ENTRY_OVERHEAD_BYTES;
+      if (partSize > 0
+          && partBytes + entryBytes > maxBytes
+          && !entry.getRowKey().equals(previousKey)) {
+        parts.add(Arrays.copyOf(part, partSize));
+        partSize = 0;
+        partBytes = 0;
+      }
+      part[partSize++] = index;
+      partBytes += entryBytes;
+      previousKey = entry.getRowKey();
+    }
+    if (partSize > 0) {
+      parts.add(Arrays.copyOf(part, partSize));
+    }
+    return parts;
+  }
+
+  /** Sends the parts of a bulk mutation, at most maxParallelRequests at a time. */
+  private final class ParallelCall {
+    private final BulkMutation request;
+    private final List<int[]> parts;
+    private final ApiCallContext context;
+    private final SettableApiFuture<MutateRowsAttemptResult> resultFuture =
+        SettableApiFuture.create();
+
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final List<ApiFuture<MutateRowsAttemptResult>> inFlight = new ArrayList<>();
+    // Guarded by lock
+    private final List<FailedMutation> failedMutations = new ArrayList<>();
+    // Guarded by lock
+    private int nextPart;
+    // Guarded by lock
+    private int completedParts;
+    // Guarded by lock, the failures are retryable if the failures of every part are
+    private boolean isRetryable = true;
+
+    ParallelCall(BulkMutation request, List<int[]> parts, ApiCallContext context) {
+      this.request = request;
+      this.parts = parts;
+      this.context = context;
+      resultFuture.addListener(
+          () -> {
+            if (resultFuture.isCancelled()) {
+              cancelInFlight();
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    void start() {
+      for (int i = 0; i < maxParallelRequests && i < parts.size(); i++) {
+        sendNext();
+      }
+    }
+
+    private void sendNext() {
+      int[] part;
+      synchronized (lock) {
+        if (resultFuture.isDone() || nextPart == parts.size()) {
+          return;
+        }
+        part = parts.get(nextPart++);
+      }
+
+      List<MutateRowsRequest.Entry> entries = request.getEntries();
+      BulkMutation partMutation = BulkMutation.create(request.getTargetId());
+      for (int index : part) {
+        partMutation.add(entries.get(index));
+      }
+      ApiFuture<MutateRowsAttemptResult> future;
+      try {
+        future = innerCallable.futureCall(partMutation, context);
+      } catch (RuntimeException e) {
+        onFailure(part, e);
+        return;
+      }
+      synchronized (lock) {
+        inFlight.add(future);
+      }
+      if (resultFuture.isCancelled()) {
+        cancelInFlight();
+      }
+      ApiFutures.addCallback(
+          future,
+          new ApiFutureCallback<MutateRowsAttemptResult>() {
+            @Override
+            public void onSuccess(MutateRowsAttemptResult result) {
+              onComplete(future, part, result.getFailedMutations(), result.getIsRetryable());
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+              synchronized (lock) {
+                inFlight.remove(future);
+              }
+              ParallelCall.this.onFailure(part, throwable);
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    /**
+     * A {@link MutateRowsException} fails the entries it reports, and an other RPC error fails
+     * every entry of its part, like they do for a single request. Other errors fail the bulk
+     * mutation and cancel the other parts.
+     */
+    private void onFailure(int[] part, Throwable throwable) {
+      if (throwable instanceof MutateRowsException) {
+        MutateRowsException error = (MutateRowsException) throwable;
+        onComplete(null, part, error.getFailedMutations(), error.isRetryable());
+        return;
+      }
+      if (!(throwable instanceof ApiException)) {
+        if (resultFuture.setException(throwable)) {
+          cancelInFlight();
+        }
+        return;
+      }
+      ApiException error = (ApiException) throwable;
+      List<FailedMutation> failures = new ArrayList<>(part.length);
+      for (int i = 0; i < part.length; i++) {
+        failures.add(FailedMutation.create(i, error));
+      }
+      onComplete(null, part, failures, error.isRetryable());
+    }
+
+    private void onComplete(
+        @Nullable ApiFuture<MutateRowsAttemptResult> future,
+        int[] part,
+        List<FailedMutation> failures,
+        boolean retryable) {
+      MutateRowsAttemptResult result = null;
+      synchronized (lock) {
+        if (future != null) {
+          inFlight.remove(future);
+        }
+        for (FailedMutation failure : failures) {
+          failedMutations.add(FailedMutation.create(part[failure.getIndex()], failure.getError()));
+        }
+        if (!failures.isEmpty()) {
+          isRetryable &= retryable;
+        }
+        if (++completedParts == parts.size()) {
+          if (failedMutations.isEmpty()) {
+            result = MutateRowsAttemptResult.success();
+          } else {
+            failedMutations.sort(Comparator.comparingInt(FailedMutation::getIndex));
+            result = MutateRowsAttemptResult.create(failedMutations, isRetryable);
+          }
+        }
+      }
+      if (result != null) {
+        resultFuture.set(result);
+      } else {
+        sendNext();
+      }
+    }
+
+    private void cancelInFlight() {
+      List<ApiFuture<MutateRowsAttemptResult>> futures;
+      synchronized (lock) {
+        futures = new ArrayList<>(inFlight);
+        inFlight.clear();
+      }
+      for (ApiFuture<MutateRowsAttemptResult> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.cloud.bigtable.data.v2.models.Mutation;
+import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link Batcher} for bulk mutations that spills entries to disk instead of blocking when the
+ * wrapped batcher has as many outstanding entries or bytes as it may have.
+ *
+ * <p>Spilled entries are appended to a {@link MutationSpillLog} and added to the wrapped batcher in
+ * order as outstanding entries complete. Once an entry was spilled, the entries added after it are
+ * spilled too until the log is drained, so that entries are sent in the order they were added. When
+ * the log is full, entries are added to the wrapped batcher directly and are subject to its flow
+ * control. The entries recovered from the log when it is opened are sent first, their failures are
+ * only logged.
+ *
+ * <p>Draining adds entries to the wrapped batcher, which blocks on its flow controller, so the log
+ * is drained and the batcher closed on threads of its own rather than on a shared executor. The
+ * threads are released once there is nothing left to drain.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi("For internal use only")
+public final class SpillingMutateRowsBatcher implements Batcher<RowMutationEntry, Void> {
+  private static final Logger LOGGER = Logger.getLogger(SpillingMutateRowsBatcher.class.getName());
+
+  private final Batcher<RowMutationEntry, Void> delegate;
+  private final ExecutorService executor;
+  private final BulkMutationSpillStats stats;
+  private final long maxOutstandingElements;
+  private final long maxOutstandingBytes;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final MutationSpillLog log;
+
+  @GuardedBy("lock")
+  private long outstandingElements;
+
+  @GuardedBy("lock")
+  private long outstandingBytes;
+
+  // The futures of the spilled entries that weren't drained yet, in the order of the log. The
+  // recovered entries come first and have no future.
+  @GuardedBy("lock")
+  private final ArrayDeque<SettableApiFuture<Void>> spilledFutures = new ArrayDeque<>();
+
+  @GuardedBy("lock")
+  private int recoveredRecords;
+
+  @GuardedBy("lock")
+  private boolean draining;
+
+  // Counts the spilled entries added to the wrapped batcher, so that flush can tell if entries were
+  // added while the wrapped batcher was flushed
+  @GuardedBy("lock")
+  private long drainedEntries;
+
+  @GuardedBy("lock")
+  @Nullable
+  private SettableApiFuture<Void> closeFuture;
+
+  /**
+   * Wraps a batcher with a spill log opened in {@code spillDirectory}, in a subdirectory named
+   * after {@code name}. Entries are spilled when the batcher has {@code maxOutstandingElements}
+   * outstanding entries or {@code maxOutstandingBytes} outstanding bytes, null for no limit.
+   */
+  public static SpillingMutateRowsBatcher create(
+      Batcher<RowMutationEntry, Void> delegate,
+      Path spillDirectory,
+      String name,
+      long maxSpillBytes,
+      @Nullable Long maxOutstandingElements,
+      @Nullable Long maxOutstandingBytes,
+      BulkMutationSpillStats stats)
+      throws IOException {
+    return create(
+        delegate,
+        spillDirectory,
+        name,
+        maxSpillBytes,
+        maxOutstandingElements,
+        maxOutstandingBytes,
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("bigtable-spill-" + name + "-%d")
+                .build()),
+        stats);
+  }
+
+  @VisibleForTesting
+  static SpillingMutateRowsBatcher create(
+      Batcher<RowMutationEntry, Void> delegate,
+      Path spillDirectory,
+      String name,
+      long maxSpillBytes,
+      @Nullable Long maxOutstandingElements,
+      @Nullable Long maxOutstandingBytes,
+      ExecutorService executor,
+      BulkMutationSpillStats stats)
+      throws IOException {
+    MutationSpillLog log;
+    try {
+      log = MutationSpillLog.open(spillDirectory, name, maxSpillBytes);
+    } catch (IOException | RuntimeException e) {
+      executor.shutdown();
+      throw e;
+    }
+    return new SpillingMutateRowsBatcher(
+        delegate,
+        log,
+        maxOutstandingElements != null ? maxOutstandingElements : Long.MAX_VALUE,
+        maxOutstandingBytes != null ? maxOutstandingBytes : Long.MAX_VALUE,
+        executor,
+        stats);
+  }
+
+  @VisibleForTesting
+  SpillingMutateRowsBatcher(
+      Batcher<RowMutationEntry, Void> delegate,
+      MutationSpillLog log,
+      long maxOutstandingElements,
+      long maxOutstandingBytes,
+      ExecutorService executor,
+      BulkMutationSpillStats stats) {
+    this.delegate = delegate;
+    this.log = log;
+    this.maxOutstandingElements = maxOutstandingElements;
+    this.maxOutstandingBytes = maxOutstandingBytes;
+    this.executor = executor;
+    this.stats = stats;
+    synchronized (lock) {
+      recoveredRecords = log.getRecoveredRecords();
+      scheduleDrain();
+    }
+  }
+
+  @Override
+  public ApiFuture<Void> add(RowMutationEntry entry) {
+    MutateRowsRequest.Entry proto = entry.toProto();
+    int bytes = proto.getSerializedSize();
+    synchronized (lock) {
+      Preconditions.checkState(closeFuture == null, "Cannot add elements on a closed batcher");
+      if (draining || !log.isEmpty() || !hasCapacity(bytes)) {
+        if (log.append(proto.toByteArray())) {
+          SettableApiFuture<Void> future = SettableApiFuture.create();
+          spilledFutures.addLast(future);
+          stats.recordSpilled(bytes);
+          scheduleDrain();
+          return future;
+        }
+        // The log is full, fall back to the flow control of the batcher
+      }
+      outstandingElements++;
+      outstandingBytes += bytes;
+    }
+    return addToDelegate(entry, bytes, null, null);
+  }
+
+  @GuardedBy("lock")
+  private boolean hasCapacity(long bytes) {
+    return outstandingElements == 0
+        || (outstandingElements < maxOutstandingElements
+            && outstandingBytes + bytes <= maxOutstandingBytes);
+  }
+
+  @GuardedBy("lock")
+  private void scheduleDrain() {
+    // The executor is shut down once the log is closed
+    if (draining || executor.isShutdown() || log.isEmpty() || !hasCapacity(log.peekLength())) {
+      return;
+    }
+    draining = true;
+    executor.execute(this::drain);
+  }
+
+  /** Adds spilled entries to the batcher, until the log is empty or the batcher is full. */
+  private void drain() {
+    while (true) {
+      MutationSpillLog.Record record;
+      SettableApiFuture<Void> spilledFuture = null;
+      synchronized (lock) {
+        int length = executor.isShutdown() ? -1 : log.peekLength();
+        if (length < 0 || !hasCapacity(length)) {
+          draining = false;
+          lock.notifyAll();
+          return;
+        }
+        record = log.read();
+        drainedEntries++;
+        if (recoveredRecords > 0) {
+          recoveredRecords--;
+        } else {
+          spilledFuture = spilledFutures.pollFirst();
+        }
+        outstandingElements++;
+        outstandingBytes += length;
+      }
+
+      int bytes = record.getBytes().length;
+      RowMutationEntry entry;
+      try {
+        MutateRowsRequest.Entry proto = MutateRowsRequest.Entry.parseFrom(record.getBytes());
+        entry =
+            RowMutationEntry.createFromMutationUnsafe(
+                proto.getRowKey(), Mutation.fromProtoUnsafe(proto.getMutationsList()));
+      } catch (InvalidProtocolBufferException e) {
+        onDone(bytes, record);
+        onFailure(spilledFuture, e);
+        continue;
+      }
+      stats.recordDrained(bytes);
+      try {
+        addToDelegate(entry, bytes, record, spilledFuture);
+      } catch (RuntimeException e) {
+        // The record was completed, the entry fails like any entry the batcher rejects
+        onFailure(spilledFuture, e);
+      }
+    }
+  }
+
+  private ApiFuture<Void> addToDelegate(
+      RowMutationEntry entry,
+      final int bytes,
+      @Nullable final MutationSpillLog.Record record,
+      @Nullable final SettableApiFuture<Void> spilledFuture) {
+    ApiFuture<Void> future;
+    try {
+      future = delegate.add(entry);
+    } catch (RuntimeException e) {
+      onDone(bytes, record);
+      throw e;
+    }
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<Void>() {
+          @Override
+          public void onSuccess(Void result) {
+            onDone(bytes, record);
+            if (spilledFuture != null) {
+              spilledFuture.set(null);
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            onDone(bytes, record);
+            SpillingMutateRowsBatcher.onFailure(spilledFuture, throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+    return future;
+  }
+
+  private void onDone(int bytes, @Nullable MutationSpillLog.Record record) {
+    synchronized (lock) {
+      outstandingElements--;
+      outstandingBytes -= bytes;
+      if (record != null) {
+        record.complete();
+      }
+      scheduleDrain();
+    }
+  }
+
+  private static void onFailure(
+      @Nullable SettableApiFuture<Void> spilledFuture, Throwable throwable) {
+    if (spilledFuture != null) {
+      spilledFuture.setException(throwable);
+    } else {
+      LOGGER.log(
+          Level.WARNING, "Failed to apply a bulk mutation entry recovered from disk", throwable);
+    }
+  }
+
+  /** Sends all the outstanding entries, including the spilled ones, and waits for them. */
+  @Override
+  public void flush() throws InterruptedException {
+    while (true) {
+      long drained;
+      synchronized (lock) {
+        drained = drainedEntries;
+      }
+      delegate.flush();
+      synchronized (lock) {
+        if (log.isEmpty() && !draining && drainedEntries == drained) {
+          return;
+        }
+        scheduleDrain();
+        while (draining) {
+          lock.wait();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void sendOutstanding() {
+    delegate.sendOutstanding();
+  }
+
+  /** Cancels the entries of the wrapped batcher, the spilled entries stay in the log. */
+  @Override
+  public void cancelOutstanding() {
+    delegate.cancelOutstanding();
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    try {
+      closeAsync().get();
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    }
+  }
+
+  @Override
+  public void close(Duration timeout) throws InterruptedException, TimeoutException {
+    try {
+      closeAsync().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    } catch (TimeoutException e) {
+      cancelOutstanding();
+      throw e;
+    }
+  }
+
+  private static RuntimeException propagate(ExecutionException e) {
+    Throwables.throwIfUnchecked(e.getCause());
+    throw new IllegalStateException("unexpected error closing the batcher", e.getCause());
+  }
+
+  /**
+   * Stops accepting entries, drains the log and closes the wrapped batcher and the log. Entries
+   * that couldn't be sent stay in the log.
+   */
+  @Override
+  public ApiFuture<Void> closeAsync() {
+    final SettableApiFuture<Void> closed;
+    synchronized (lock) {
+      if (closeFuture != null) {
+        return closeFuture;
+      }
+      closed = SettableApiFuture.create();
+      closeFuture = closed;
+    }
+    executor.execute(
+        () -> {
+          try {
+            flush();
+            delegate.close();
+            closeLog();
+            closed.set(null);
+          } catch (Throwable t) {
+            closeLog();
+            closed.setException(t);
+          }
+        });
+    return closed;
+  }
+
+  private void closeLog() {
+    synchronized (lock) {
+      executor.shutdown();
+      try {
+        log.close();
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Failed to close the spill log in " + log.getDirectory(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.internal.ByteStringComparator;
+import com.google.cloud.bigtable.data.v2.models.KeyOffset;
+import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
+import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link Batcher} for bulk mutations that batches the entries of every row key range separately.
+ *
+ * <p>The row keys of the table are sampled to split it into ranges that roughly follow its tablets,
+ * and every range gets its own batcher, with its own thresholds. A batch then mostly mutates rows
+ * of a single tablet, instead of fanning out to many tablets and waiting for the slowest one. The
+ * ranges are sampled again periodically, batchers of ranges that no longer exist are closed once
+ * they sent their entries. Until the first sample arrives, or if sampling fails, all the entries go
+ * to the same batcher.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi("For internal use only")
+public class TabletAwareMutateRowsBatcher implements Batcher<RowMutationEntry, Void> {
+  private static final Logger LOGGER =
+      Logger.getLogger(TabletAwareMutateRowsBatcher.class.getName());
+
+  private final Supplier<Batcher<RowMutationEntry, Void>> batcherFactory;
+  private final UnaryCallable<SampleRowKeysRequest, List<KeyOffset>> sampleRowKeysCallable;
+  private final SampleRowKeysRequest sampleRowKeysRequest;
+  private final int maxKeyRanges;
+  private final ScheduledFuture<?> refreshFuture;
+
+  private final Object lock = new Object();
+
+  // The start keys of every range but the first one, which starts at the beginning of the table
+  @GuardedBy("lock")
+  private List<ByteString> splitPoints = ImmutableList.of();
+
+  // The batchers of the ranges, by start key
+  @GuardedBy("lock")
+  private final Map<ByteString, RangeBatcher> batchers = new HashMap<>();
+
+  // The close futures of the batchers of ranges that no longer exist, until they are closed
+  @GuardedBy("lock")
+  private final Set<ApiFuture<Void>> retiringBatchers = new HashSet<>();
+
+  @GuardedBy("lock")
+  @Nullable
+  private ApiFuture<Void> closeFuture;
+
+  /**
+   * @param batcherFactory creates the batcher of a row key range. The batchers are expected to
+   *     share the same flow controller.
+   * @param sampleRowKeysRequest the request that samples the row keys of the table the batcher
+   *     mutates
+   */
+  public TabletAwareMutateRowsBatcher(
+      Supplier<Batcher<RowMutationEntry, Void>> batcherFactory,
+      UnaryCallable<SampleRowKeysRequest, List<KeyOffset>> sampleRowKeysCallable,
+      SampleRowKeysRequest sampleRowKeysRequest,
+      ScheduledExecutorService executor,
+      Duration refreshInterval,
+      int maxKeyRanges) {
+    this.batcherFactory = batcherFactory;
+    this.sampleRowKeysCallable = sampleRowKeysCallable;
+    this.sampleRowKeysRequest = sampleRowKeysRequest;
+    this.maxKeyRanges = maxKeyRanges;
+
+    refreshSplitPoints();
+    long refreshMillis = refreshInterval.toMillis();
+    this.refreshFuture =
+        executor.scheduleWithFixedDelay(
+            this::refreshSplitPoints, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public ApiFuture<Void> add(RowMutationEntry entry) {
+    RangeBatcher rangeBatcher;
+    synchronized (lock) {
+      if (closeFuture != null) {
+        throw new IllegalStateException("Cannot add elements on a closed batcher");
+      }
+      ByteString rangeStart = rangeStartOf(entry.getKey());
+      rangeBatcher = batchers.get(rangeStart);
+      if (rangeBatcher == null) {
+        rangeBatcher = new RangeBatcher(batcherFactory.get());
+        batchers.put(rangeStart, rangeBatcher);
+      }
+      // A batcher that is closed while an add waits for the flow controller never sends the entry,
+      // so the batcher stays open until the add returns, even if its range is retired meanwhile
+      rangeBatcher.inFlightAdds++;
+    }
+    // Adding blocks when the flow controller is full, so it must not hold the lock
+    try {
+      return rangeBatcher.batcher.add(entry);
+    } finally {
+      synchronized (lock) {
+        if (--rangeBatcher.inFlightAdds == 0 && rangeBatcher.retired) {
+          rangeBatcher.close();
+        }
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  private ByteString rangeStartOf(ByteString key) {
+    int index = Collections.binarySearch(splitPoints, key, ByteStringComparator.INSTANCE);
+    if (index >= 0) {
+      return splitPoints.get(index);
+    }
+    int insertionPoint = -index - 1;
+    return insertionPoint == 0 ? ByteString.EMPTY : splitPoints.get(insertionPoint - 1);
+  }
+
+  private void refreshSplitPoints() {
+    ApiFuture<List<KeyOffset>> samples;
+    try {
+      samples = sampleRowKeysCallable.futureCall(sampleRowKeysRequest);
+    } catch (RuntimeException e) {
+      // Don't let the error cancel the periodic refresh
+      LOGGER.log(Level.WARNING, "Failed to sample the row keys of the table", e);
+      return;
+    }
+    ApiFutures.addCallback(
+        samples,
+        new ApiFutureCallback<List<KeyOffset>>() {
+          @Override
+          public void onSuccess(List<KeyOffset> keyOffsets) {
+            updateSplitPoints(chooseSplitPoints(keyOffsets, maxKeyRanges));
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            // Keep batching with the current ranges
+            LOGGER.log(Level.WARNING, "Failed to sample the row keys of the table", throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  @VisibleForTesting
+  void updateSplitPoints(List<ByteString> newSplitPoints) {
+    synchronized (lock) {
+      if (closeFuture != null || newSplitPoints.equals(splitPoints)) {
+        return;
+      }
+      splitPoints = newSplitPoints;
+      Set<ByteString> rangeStarts = new HashSet<>(newSplitPoints);
+      rangeStarts.add(ByteString.EMPTY);
+      Iterator<Map.Entry<ByteString, RangeBatcher>> it = batchers.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<ByteString, RangeBatcher> rangeBatcher = it.next();
+        if (!rangeStarts.contains(rangeBatcher.getKey())) {
+          it.remove();
+          retire(rangeBatcher.getValue());
+        }
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  private void retire(RangeBatcher rangeBatcher) {
+    rangeBatcher.retire();
+    final ApiFuture<Void> batcherClosed = rangeBatcher.closeFuture;
+    retiringBatchers.add(batcherClosed);
+    batcherClosed.addListener(
+        () -> {
+          synchronized (lock) {
+            retiringBatchers.remove(batcherClosed);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Picks up to {@code maxKeyRanges - 1} evenly spaced sampled row keys to split the table at. The
+   * empty key that marks the end of the table is skipped.
+   */
+  @VisibleForTesting
+  static List<ByteString> chooseSplitPoints(List<KeyOffset> keyOffsets, int maxKeyRanges) {
+    List<ByteString> candidates = new ArrayList<>();
+    for (KeyOffset keyOffset : keyOffsets) {
+      ByteString key = keyOffset.getKey();
+      if (key.isEmpty()
+          || (!candidates.isEmpty() && candidates.get(candidates.size() - 1).equals(key))) {
+        continue;
+      }
+      candidates.add(key);
+    }
+    int numSplits = maxKeyRanges - 1;
+    if (candidates.size() <= numSplits) {
+      return ImmutableList.copyOf(candidates);
+    }
+    ImmutableList.Builder<ByteString> splitPoints = ImmutableList.builder();
+    for (int i = 1; i <= numSplits; i++) {
+      splitPoints.add(candidates.get((int) ((long) i * candidates.size() / maxKeyRanges)));
+    }
+    return splitPoints.build();
+  }
+
+  @Override
+  public void flush() throws InterruptedException {
+    List<Batcher<RowMutationEntry, Void>> current = currentBatchers();
+    List<ApiFuture<Void>> retiring;
+    synchronized (lock) {
+      retiring = new ArrayList<>(retiringBatchers);
+    }
+    for (Batcher<RowMutationEntry, Void> batcher : current) {
+      batcher.flush();
+    }
+    for (ApiFuture<Void> future : retiring) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        // Like flush, don't report failed entries, their futures already did
+      }
+    }
+  }
+
+  @Override
+  public void sendOutstanding() {
+    for (Batcher<RowMutationEntry, Void> batcher : currentBatchers()) {
+      batcher.sendOutstanding();
+    }
+  }
+
+  @Override
+  public void cancelOutstanding() {
+    for (Batcher<RowMutationEntry, Void> batcher : currentBatchers()) {
+      batcher.cancelOutstanding();
+    }
+  }
+
+  private List<Batcher<RowMutationEntry, Void>> currentBatchers() {
+    synchronized (lock) {
+      List<Batcher<RowMutationEntry, Void>> current = new ArrayList<>(batchers.size());
+      for (RangeBatcher rangeBatcher : batchers.values()) {
+        current.add(rangeBatcher.batcher);
+      }
+      return current;
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    try {
+      closeAsync().get();
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    }
+  }
+
+  @Override
+  public void close(Duration timeout) throws InterruptedException, TimeoutException {
+    try {
+      closeAsync().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw propagate(e);
+    } catch (TimeoutException e) {
+      cancelOutstanding();
+      throw e;
+    }
+  }
+
+  private static RuntimeException propagate(ExecutionException e) {
+    Throwables.throwIfUnchecked(e.getCause());
+    throw new IllegalStateException("unexpected error closing the batcher", e.getCause());
+  }
+
+  @Override
+  public ApiFuture<Void> closeAsync() {
+    final SettableApiFuture<Void> closed;
+    final List<ApiFuture<Void>> closing = new ArrayList<>();
+    synchronized (lock) {
+      if (closeFuture != null) {
+        return closeFuture;
+      }
+      closed = SettableApiFuture.create();
+      closeFuture = closed;
+      refreshFuture.cancel(false);
+      closing.addAll(retiringBatchers);
+      for (RangeBatcher rangeBatcher : batchers.values()) {
+        // Batchers with adds in progress are closed once the adds return
+        rangeBatcher.retire();
+        closing.add(rangeBatcher.closeFuture);
+      }
+    }
+    // Wait for every batcher to close, even if one of them fails
+    ApiFutures.addCallback(
+        ApiFutures.successfulAsList(closing),
+        new ApiFutureCallback<List<Void>>() {
+          @Override
+          public void onSuccess(List<Void> ignored) {
+            for (ApiFuture<Void> batcherClosed : closing) {
+              try {
+                batcherClosed.get();
+              } catch (ExecutionException | InterruptedException e) {
+                closed.setException(e instanceof ExecutionException ? e.getCause() : e);
+                return;
+              }
+            }
+            closed.set(null);
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            closed.setException(throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+    return closed;
+  }
+
+  /** The batcher of a row key range, closed once it is retired and no add is in progress. */
+  private final class RangeBatcher {
+    private final Batcher<RowMutationEntry, Void> batcher;
+    private final SettableApiFuture<Void> closeFuture = SettableApiFuture.create();
+
+    // Guarded by lock
+    private int inFlightAdds;
+    // Guarded by lock
+    private boolean retired;
+
+    RangeBatcher(Batcher<RowMutationEntry, Void> batcher) {
+      this.batcher = batcher;
+    }
+
+    /** Must be called with the lock held. */
+    void retire() {
+      if (retired) {
+        return;
+      }
+      retired = true;
+      if (inFlightAdds == 0) {
+        close();
+      }
+    }
+
+    /** Must be called with the lock held. */
+    void close() {
+      // Closing only sends the batched entries, it doesn't wait for them
+      ApiFutures.addCallback(
+          batcher.closeAsync(),
+          new ApiFutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void ignored) {
+              closeFuture.set(null);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+              closeFuture.setException(throwable);
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+  }
+}
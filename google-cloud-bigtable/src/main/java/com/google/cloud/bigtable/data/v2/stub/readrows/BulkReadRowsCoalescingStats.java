@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.readrows;
+
+import com.google.api.core.InternalApi;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the row keys added to the bulk read batchers of a client, and how many of them shared the
+ * result of a read that was already pending.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi("For internal use only")
+public final class BulkReadRowsCoalescingStats {
+  private final LongAdder sentCount = new LongAdder();
+  private final LongAdder coalescedCount = new LongAdder();
+
+  void recordSent() {
+    sentCount.increment();
+  }
+
+  void recordCoalesced() {
+    coalescedCount.increment();
+  }
+
+  /** The number of row keys that were added to a batch. */
+  public long getSentCount() {
+    return sentCount.sum();
+  }
+
+  /** The number of row keys that shared the result of a pending read. */
+  public long getCoalescedCount() {
+    return coalescedCount.sum();
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.readrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link Batcher} for bulk reads that reads every row key once while it is pending. Adding a row
+ * key whose earlier read hasn't completed yet, whether it is still batched or already sent, returns
+ * the result of that read instead of adding the key to the next batch.
+ *
+ * <p>All the keys of a batcher are read with the same query, so the row key identifies the read.
+ * Every caller gets its own future, so that cancelling one doesn't affect the others.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi("For internal use only")
+public class CoalescingBulkReadRowsBatcher implements Batcher<ByteString, Row> {
+  private final Batcher<ByteString, Row> delegate;
+  private final BulkReadRowsCoalescingStats stats;
+  private final ConcurrentMap<ByteString, SettableApiFuture<Row>> pendingReads =
+      new ConcurrentHashMap<>();
+  private volatile boolean closed;
+
+  public CoalescingBulkReadRowsBatcher(
+      Batcher<ByteString, Row> delegate, BulkReadRowsCoalescingStats stats) {
+    this.delegate = delegate;
+    this.stats = stats;
+  }
+
+  @Override
+  public ApiFuture<Row> add(final ByteString rowKey) {
+    // Checked first, a pending read must not be shared once the batcher is closed
+    Preconditions.checkState(!closed, "Cannot add elements on a closed batcher");
+    SettableApiFuture<Row> pendingRead = SettableApiFuture.create();
+    SettableApiFuture<Row> existingRead = pendingReads.putIfAbsent(rowKey, pendingRead);
+    if (existingRead != null) {
+      stats.recordCoalesced();
+      return copyOf(existingRead);
+    }
+
+    ApiFuture<Row> result;
+    try {
+      result = delegate.add(rowKey);
+    } catch (RuntimeException e) {
+      pendingReads.remove(rowKey, pendingRead);
+      pendingRead.setException(e);
+      throw e;
+    }
+    stats.recordSent();
+
+    ApiFutures.addCallback(
+        result,
+        new ApiFutureCallback<Row>() {
+          @Override
+          public void onSuccess(Row row) {
+            pendingReads.remove(rowKey, pendingRead);
+            pendingRead.set(row);
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            pendingReads.remove(rowKey, pendingRead);
+            pendingRead.setException(throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+    return copyOf(pendingRead);
+  }
+
+  private static ApiFuture<Row> copyOf(ApiFuture<Row> read) {
+    final SettableApiFuture<Row> copy = SettableApiFuture.create();
+    ApiFutures.addCallback(
+        read,
+        new ApiFutureCallback<Row>() {
+          @Override
+          public void onSuccess(Row row) {
+            copy.set(row);
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            copy.setException(throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+    return copy;
+  }
+
+  @Override
+  public void flush() throws InterruptedException {
+    delegate.flush();
+  }
+
+  @Override
+  public void sendOutstanding() {
+    delegate.sendOutstanding();
+  }
+
+  @Override
+  public void cancelOutstanding() {
+    delegate.cancelOutstanding();
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    delegate.close();
+  }
+
+  @Override
+  public void close(Duration timeout) throws InterruptedException, TimeoutException {
+    closed = true;
+    delegate.close(timeout);
+  }
+
+  @Override
+  public ApiFuture<Void> closeAsync() {
+    closed = true;
+    return delegate.closeAsync();
+  }
+}
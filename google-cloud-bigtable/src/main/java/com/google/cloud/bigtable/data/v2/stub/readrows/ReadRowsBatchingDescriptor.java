@@ -23,8 +23,10 @@ import com.google.cloud.bigtable.data.v2.models.Query;
 import com.google.cloud.bigtable.data.v2.models.Row;
 import com.google.protobuf.ByteString;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation for {@link BatchingDescriptor} to split batch response or exception into
@@ -68,6 +70,9 @@ public class ReadRowsBatchingDescriptor
 
   static class BulkReadRequestBuilder implements BatchingRequestBuilder<ByteString, Query> {
     private final Query query;
+    // Keys that were added more than once are only requested once. splitResponse resolves every
+    // entry of a key from the same row.
+    private final Set<ByteString> rowKeys = new HashSet<>();
 
     BulkReadRequestBuilder(Query query) {
       this.query = query.clone();
@@ -75,7 +80,9 @@ public class ReadRowsBatchingDescriptor
 
     @Override
     public void add(ByteString rowKey) {
-      query.rowKey(rowKey);
+      if (rowKeys.add(rowKey)) {
+        query.rowKey(rowKey);
+      }
     }
 
     @Override
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.api.core.ApiClock;
+import com.google.api.core.InternalApi;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowCell;
+import com.google.cloud.bigtable.data.v2.stub.RowCacheSettings;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+/**
+ * A size bounded cache of point read results.
+ *
+ * <p>The cache is split into independently locked segments, and every row is assigned to a segment
+ * by its {@link RowId}, so that all of the cached reads of a row can be invalidated together. Each
+ * segment implements the W-TinyLFU eviction policy:
+ *
+ * <ul>
+ *   <li>New entries are added to a small LRU window (1% of the segment), which absorbs bursts of
+ *       reads of new keys.
+ *   <li>Entries that overflow the window become candidates for admission to the main space, a
+ *       segmented LRU split into a probation (20%) and a protected (80%) queue. Entries in
+ *       probation are promoted to the protected queue when they are read again.
+ *   <li>When the main space is full, a candidate is only admitted if it was read more frequently
+ *       than the LRU entry of the probation queue, which is evicted in its place. Otherwise the
+ *       candidate is evicted. The frequencies are estimated by a {@link FrequencySketch} of the
+ *       recent reads.
+ * </ul>
+ *
+ * <p>Entries also expire after {@link RowCacheSettings#getExpireAfterWrite()}, they are removed
+ * when they are read after expiring or when they are evicted.
+ *
+ * <p>To avoid caching the result of a read that raced with a write of the same row, reads take a
+ * token with {@link #readToken(RowCacheKey)} before they are sent. Invalidating a row changes the
+ * token of its segment and {@link #put(RowCacheKey, Row, long)} drops results with a stale token.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi
+public final class RowCache {
+  // Approximate bookkeeping cost of an entry and of a cell, on top of their keys and values
+  private static final long ENTRY_OVERHEAD_BYTES = 128;
+  private static final long CELL_OVERHEAD_BYTES = 64;
+
+  // Segments are kept large enough for the frequency sketch to be meaningful
+  private static final long MIN_SEGMENT_WEIGHT_BYTES = 1024 * 1024;
+  private static final int MAX_SEGMENT_COUNT = 16;
+  // Used to size the frequency sketch of a segment
+  private static final long EXPECTED_ENTRY_WEIGHT_BYTES = 1024;
+
+  private final ApiClock clock;
+  private final long expireAfterWriteNanos;
+  private final Segment[] segments;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  public RowCache(RowCacheSettings settings, ApiClock clock) {
+    Preconditions.checkArgument(settings.isEnabled(), "The row cache is disabled");
+    this.clock = clock;
+    this.expireAfterWriteNanos = settings.getExpireAfterWrite().toNanos();
+
+    long maxWeight = settings.getMaxWeightBytes();
+    int segmentCount =
+        (int) Math.max(1, Math.min(MAX_SEGMENT_COUNT, maxWeight / MIN_SEGMENT_WEIGHT_BYTES));
+    segmentCount = Integer.highestOneBit(segmentCount);
+
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(maxWeight / segmentCount);
+    }
+  }
+
+  /** Returns the cached result of the read, or null if it's not cached. */
+  @Nullable
+  Entry getIfPresent(RowCacheKey key) {
+    Entry entry = segmentFor(key.getRowId()).get(key, clock.nanoTime());
+    if (entry == null) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the token to pass to {@link #put(RowCacheKey, Row, long)} with the result of the read.
+   * It must be taken before the read is sent.
+   */
+  long readToken(RowCacheKey key) {
+    return segmentFor(key.getRowId()).getToken();
+  }
+
+  /**
+   * Caches the result of a read, where a null row means that the row doesn't exist. The result is
+   * dropped if the row was invalidated since the token was taken.
+   */
+  void put(RowCacheKey key, @Nullable Row row, long token) {
+    long weight = ENTRY_OVERHEAD_BYTES + key.getWeight();
+    if (row != null) {
+      for (RowCell cell : row.getCells()) {
+        weight += CELL_OVERHEAD_BYTES + cell.getQualifier().size() + cell.getValue().size();
+      }
+    }
+    Entry entry = new Entry(key, row, weight, clock.nanoTime() + expireAfterWriteNanos);
+    segmentFor(key.getRowId()).put(entry, token);
+  }
+
+  /** Removes all of the cached reads of the row. */
+  void invalidate(RowId rowId) {
+    segmentFor(rowId).invalidate(rowId);
+  }
+
+  /** The number of reads that were served from the cache. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** The number of cacheable reads that were not in the cache. */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /** The number of entries that were evicted because the cache was full or they expired. */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  @VisibleForTesting
+  long getWeightBytes() {
+    long weight = 0;
+    for (Segment segment : segments) {
+      weight += segment.getWeight();
+    }
+    return weight;
+  }
+
+  private Segment segmentFor(RowId rowId) {
+    int hash = rowId.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /** A cached read result. */
+  static final class Entry {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final RowCacheKey key;
+    @Nullable private final Row row;
+    private final long weight;
+    private final long expireAtNanos;
+
+    private int queue;
+    @Nullable private Entry prev;
+    @Nullable private Entry next;
+
+    private Entry(RowCacheKey key, @Nullable Row row, long weight, long expireAtNanos) {
+      this.key = key;
+      this.row = row;
+      this.weight = weight;
+      this.expireAtNanos = expireAtNanos;
+    }
+
+    /** Returns the cached row or null if the row doesn't exist. */
+    @Nullable
+    Row getRow() {
+      return row;
+    }
+  }
+
+  /** An intrusive doubly linked list of entries in access order, the LRU entry first. */
+  private static final class AccessOrderQueue {
+    @Nullable private Entry head;
+    @Nullable private Entry tail;
+    private long weight;
+
+    void addLast(Entry entry) {
+      entry.prev = tail;
+      entry.next = null;
+      if (tail == null) {
+        head = entry;
+      } else {
+        tail.next = entry;
+      }
+      tail = entry;
+      weight += entry.weight;
+    }
+
+    void remove(Entry entry) {
+      if (entry.prev == null) {
+        head = entry.next;
+      } else {
+        entry.prev.next = entry.next;
+      }
+      if (entry.next == null) {
+        tail = entry.prev;
+      } else {
+        entry.next.prev = entry.prev;
+      }
+      entry.prev = null;
+      entry.next = null;
+      weight -= entry.weight;
+    }
+
+    void moveToLast(Entry entry) {
+      if (entry != tail) {
+        remove(entry);
+        addLast(entry);
+      }
+    }
+  }
+
+  private final class Segment {
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+
+    private final Map<RowCacheKey, Entry> entries = new HashMap<>();
+    // Cached reads of a row can have different filters or go through different authorized views
+    private final Map<RowId, List<Entry>> entriesByRow = new HashMap<>();
+    private final FrequencySketch sketch;
+
+    private final AccessOrderQueue window = new AccessOrderQueue();
+    private final AccessOrderQueue probation = new AccessOrderQueue();
+    private final AccessOrderQueue protectedQueue = new AccessOrderQueue();
+
+    private long token;
+
+    Segment(long maxWeight) {
+      this.maxWeight = maxWeight;
+      this.maxWindowWeight = Math.max(1, maxWeight / 100);
+      this.maxProtectedWeight = (maxWeight - maxWindowWeight) * 8 / 10;
+      this.sketch =
+          new FrequencySketch((int) Math.min(1 << 24, maxWeight / EXPECTED_ENTRY_WEIGHT_BYTES));
+    }
+
+    @Nullable
+    synchronized Entry get(RowCacheKey key, long nowNanos) {
+      sketch.increment(key.hashCode());
+
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expireAtNanos - nowNanos <= 0) {
+        remove(entry);
+        evictionCount.increment();
+        return null;
+      }
+
+      switch (entry.queue) {
+        case Entry.WINDOW:
+          window.moveToLast(entry);
+          break;
+        case Entry.PROBATION:
+          // A second read promotes the entry, demoting the LRU protected entries if needed
+          probation.remove(entry);
+          entry.queue = Entry.PROTECTED;
+          protectedQueue.addLast(entry);
+          while (protectedQueue.weight > maxProtectedWeight) {
+            Entry demoted = protectedQueue.head;
+            protectedQueue.remove(demoted);
+            demoted.queue = Entry.PROBATION;
+            probation.addLast(demoted);
+          }
+          break;
+        default:
+          protectedQueue.moveToLast(entry);
+          break;
+      }
+      return entry;
+    }
+
+    synchronized long getToken() {
+      return token;
+    }
+
+    synchronized void put(Entry entry, long readToken) {
+      if (readToken != token) {
+        return;
+      }
+      Entry existing = entries.get(entry.key);
+      if (existing != null) {
+        remove(existing);
+      }
+      if (entry.weight > maxWeight) {
+        return;
+      }
+
+      entries.put(entry.key, entry);
+      entriesByRow
+          .computeIfAbsent(entry.key.getRowId(), (ignored) -> new ArrayList<>(1))
+          .add(entry);
+      entry.queue = Entry.WINDOW;
+      window.addLast(entry);
+      evict();
+    }
+
+    synchronized void invalidate(RowId rowId) {
+      token++;
+      List<Entry> rowEntries = entriesByRow.get(rowId);
+      if (rowEntries == null) {
+        return;
+      }
+      for (Entry entry : new ArrayList<>(rowEntries)) {
+        remove(entry);
+      }
+    }
+
+    synchronized long getWeight() {
+      return window.weight + probation.weight + protectedQueue.weight;
+    }
+
+    private void evict() {
+      // Entries that overflow the window become candidates for the main space. They are added at
+      // the MRU end of the probation queue, so all of the entries from the first candidate to the
+      // tail are candidates.
+      Entry candidate = null;
+      while (window.weight > maxWindowWeight) {
+        Entry entry = window.head;
+        window.remove(entry);
+        entry.queue = Entry.PROBATION;
+        probation.addLast(entry);
+        if (candidate == null) {
+          candidate = entry;
+        }
+      }
+
+      while (getWeight() > maxWeight) {
+        Entry victim = probation.head;
+        if (victim == null) {
+          victim = protectedQueue.head != null ? protectedQueue.head : window.head;
+        }
+
+        if (candidate != null && candidate != victim) {
+          // The candidate competes with the LRU entry of the main space for admission
+          if (sketch.frequency(candidate.key.hashCode())
+              <= sketch.frequency(victim.key.hashCode())) {
+            victim = candidate;
+          }
+        }
+        if (victim == candidate) {
+          candidate = candidate.queue == Entry.PROBATION ? candidate.next : null;
+        }
+        remove(victim);
+        evictionCount.increment();
+      }
+    }
+
+    private void remove(Entry entry) {
+      switch (entry.queue) {
+        case Entry.WINDOW:
+          window.remove(entry);
+          break;
+        case Entry.PROBATION:
+          probation.remove(entry);
+          break;
+        default:
+          protectedQueue.remove(entry);
+          break;
+      }
+      entries.remove(entry.key);
+
+      List<Entry> rowEntries = entriesByRow.get(entry.key.getRowId());
+      rowEntries.remove(entry);
+      if (rowEntries.isEmpty()) {
+        entriesByRow.remove(entry.key.getRowId());
+      }
+    }
+  }
+}
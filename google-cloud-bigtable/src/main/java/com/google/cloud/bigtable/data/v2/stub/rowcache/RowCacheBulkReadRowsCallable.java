@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.bigtable.v2.ReadRowsRequest;
+import com.google.bigtable.v2.RowSet;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.Query;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.stub.readrows.ReadRowsBatchingDescriptor;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the row keys of a bulk read batch from the {@link RowCache}. Only the keys that miss the
+ * cache are read from the server, and the rows that are read (or found to not exist) are cached.
+ *
+ * <p>The rows of the cached keys are added to the rows returned by the server. This relies on
+ * {@link ReadRowsBatchingDescriptor} matching the rows of a batch to its entries by key rather than
+ * by position.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi
+public final class RowCacheBulkReadRowsCallable extends UnaryCallable<Query, List<Row>> {
+  private final UnaryCallable<Query, List<Row>> inner;
+  private final RowCache cache;
+  private final RequestContext requestContext;
+
+  public RowCacheBulkReadRowsCallable(
+      UnaryCallable<Query, List<Row>> inner, RowCache cache, RequestContext requestContext) {
+    this.inner = inner;
+    this.cache = cache;
+    this.requestContext = requestContext;
+  }
+
+  @Override
+  public ApiFuture<List<Row>> futureCall(Query query, ApiCallContext context) {
+    ReadRowsRequest request = query.toProto(requestContext);
+    if (!RowCacheKey.isCacheable(request)) {
+      return inner.futureCall(query, context);
+    }
+
+    List<ByteString> rowKeys = request.getRows().getRowKeysList();
+    List<Row> cachedRows = new ArrayList<>();
+    List<RowCacheKey> missedKeys = new ArrayList<>();
+    for (ByteString rowKey : rowKeys) {
+      RowCacheKey key = RowCacheKey.create(request, rowKey);
+      RowCache.Entry entry = cache.getIfPresent(key);
+      if (entry == null) {
+        missedKeys.add(key);
+      } else if (entry.getRow() != null) {
+        cachedRows.add(entry.getRow());
+      }
+    }
+    if (missedKeys.isEmpty()) {
+      return ApiFutures.immediateFuture(cachedRows);
+    }
+
+    long[] tokens = new long[missedKeys.size()];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = cache.readToken(missedKeys.get(i));
+    }
+
+    Query missedQuery = query;
+    if (missedKeys.size() < rowKeys.size()) {
+      RowSet.Builder missedRows = RowSet.newBuilder();
+      for (RowCacheKey key : missedKeys) {
+        missedRows.addRowKeys(key.getRowId().getRowKey());
+      }
+      missedQuery = Query.fromProto(request.toBuilder().setRows(missedRows).build());
+    }
+
+    return ApiFutures.transform(
+        inner.futureCall(missedQuery, context),
+        rows -> {
+          Map<ByteString, Row> rowsByKey = new HashMap<>();
+          for (Row row : rows) {
+            rowsByKey.put(row.getKey(), row);
+          }
+          for (int i = 0; i < tokens.length; i++) {
+            RowCacheKey key = missedKeys.get(i);
+            cache.put(key, rowsByKey.get(key.getRowId().getRowKey()), tokens[i]);
+          }
+          if (cachedRows.isEmpty()) {
+            return rows;
+          }
+          List<Row> allRows = new ArrayList<>(cachedRows.size() + rows.size());
+          allRows.addAll(cachedRows);
+          allRows.addAll(rows);
+          return allRows;
+        },
+        MoreExecutors.directExecutor());
+  }
+}
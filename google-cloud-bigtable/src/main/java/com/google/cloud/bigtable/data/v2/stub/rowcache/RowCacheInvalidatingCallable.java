@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.InternalApi;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.bigtable.v2.CheckAndMutateRowRequest;
+import com.google.bigtable.v2.MutateRowRequest;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.bigtable.v2.ReadModifyWriteRowRequest;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.BulkMutation;
+import com.google.cloud.bigtable.data.v2.models.ConditionalRowMutation;
+import com.google.cloud.bigtable.data.v2.models.ReadModifyWriteRow;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowMutation;
+import com.google.cloud.bigtable.data.v2.models.TargetId;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsAttemptResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Invalidates the cached reads of the rows that are written by a request.
+ *
+ * <p>The rows are invalidated both before the request is sent and after it completes, whether it
+ * succeeded or not, since a failed request might have been applied. The first invalidation drops
+ * the reads that were cached before the write, the second one drops the reads that completed while
+ * the write was in flight and might not reflect it.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi
+public final class RowCacheInvalidatingCallable<RequestT, ResponseT>
+    extends UnaryCallable<RequestT, ResponseT> {
+  private final UnaryCallable<RequestT, ResponseT> inner;
+  private final RowCache cache;
+  private final Function<RequestT, List<RowId>> rowsExtractor;
+
+  private RowCacheInvalidatingCallable(
+      UnaryCallable<RequestT, ResponseT> inner,
+      RowCache cache,
+      Function<RequestT, List<RowId>> rowsExtractor) {
+    this.inner = inner;
+    this.cache = cache;
+    this.rowsExtractor = rowsExtractor;
+  }
+
+  public static UnaryCallable<RowMutation, Void> forMutateRow(
+      UnaryCallable<RowMutation, Void> inner, RowCache cache, RequestContext requestContext) {
+    return new RowCacheInvalidatingCallable<>(
+        inner,
+        cache,
+        mutation -> {
+          MutateRowRequest request = mutation.toProto(requestContext);
+          return ImmutableList.of(
+              RowId.create(
+                  request.getTableName(), request.getAuthorizedViewName(), request.getRowKey()));
+        });
+  }
+
+  public static UnaryCallable<BulkMutation, MutateRowsAttemptResult> forBulkMutateRows(
+      UnaryCallable<BulkMutation, MutateRowsAttemptResult> inner,
+      RowCache cache,
+      RequestContext requestContext) {
+    return new RowCacheInvalidatingCallable<>(
+        inner,
+        cache,
+        mutation -> {
+          // Reads the keys from the entries, the inner callable builds the request
+          TargetId targetId = mutation.getTargetId();
+          String resourceName =
+              targetId.toResourceName(
+                  requestContext.getProjectId(), requestContext.getInstanceId());
+          String tableName = targetId.scopedForAuthorizedView() ? "" : resourceName;
+          String authorizedViewName = targetId.scopedForAuthorizedView() ? resourceName : "";
+          List<MutateRowsRequest.Entry> entries = mutation.getEntries();
+          List<RowId> rows = new ArrayList<>(entries.size());
+          for (MutateRowsRequest.Entry entry : entries) {
+            rows.add(RowId.create(tableName, authorizedViewName, entry.getRowKey()));
+          }
+          return rows;
+        });
+  }
+
+  public static UnaryCallable<ConditionalRowMutation, Boolean> forCheckAndMutateRow(
+      UnaryCallable<ConditionalRowMutation, Boolean> inner,
+      RowCache cache,
+      RequestContext requestContext) {
+    return new RowCacheInvalidatingCallable<>(
+        inner,
+        cache,
+        mutation -> {
+          CheckAndMutateRowRequest request = mutation.toProto(requestContext);
+          return ImmutableList.of(
+              RowId.create(
+                  request.getTableName(), request.getAuthorizedViewName(), request.getRowKey()));
+        });
+  }
+
+  public static UnaryCallable<ReadModifyWriteRow, Row> forReadModifyWriteRow(
+      UnaryCallable<ReadModifyWriteRow, Row> inner, RowCache cache, RequestContext requestContext) {
+    return new RowCacheInvalidatingCallable<>(
+        inner,
+        cache,
+        mutation -> {
+          ReadModifyWriteRowRequest request = mutation.toProto(requestContext);
+          return ImmutableList.of(
+              RowId.create(
+                  request.getTableName(), request.getAuthorizedViewName(), request.getRowKey()));
+        });
+  }
+
+  @Override
+  public ApiFuture<ResponseT> futureCall(RequestT request, ApiCallContext context) {
+    List<RowId> rows = rowsExtractor.apply(request);
+    invalidate(rows);
+
+    ApiFuture<ResponseT> future;
+    try {
+      future = inner.futureCall(request, context);
+    } catch (RuntimeException e) {
+      invalidate(rows);
+      throw e;
+    }
+    future.addListener(() -> invalidate(rows), MoreExecutors.directExecutor());
+    return future;
+  }
+
+  private void invalidate(List<RowId> rows) {
+    for (RowId row : rows) {
+      cache.invalidate(row);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.bigtable.v2.ReadRowsRequest;
+import com.google.bigtable.v2.RowFilter;
+import com.google.common.base.MoreObjects;
+import com.google.protobuf.ByteString;
+import javax.annotation.Nullable;
+
+/**
+ * The key of a cached point read: the row, the resource it was read from (the table or one of its
+ * authorized views) and the filter that was applied.
+ */
+final class RowCacheKey {
+  private final RowId rowId;
+  private final String resourceName;
+  private final RowFilter filter;
+  private final int hashCode;
+
+  private RowCacheKey(RowId rowId, String resourceName, RowFilter filter) {
+    this.rowId = rowId;
+    this.resourceName = resourceName;
+    this.filter = filter;
+    this.hashCode = 31 * (31 * rowId.hashCode() + resourceName.hashCode()) + filter.hashCode();
+  }
+
+  /**
+   * Returns true if the results of the request can be cached, which is the case when it reads a set
+   * of row keys in full. Reads from materialized views are never cached, since they are not
+   * invalidated by writes.
+   */
+  static boolean isCacheable(ReadRowsRequest request) {
+    int keyCount = request.getRows().getRowKeysCount();
+    return keyCount > 0
+        && request.getRows().getRowRangesCount() == 0
+        && (request.getRowsLimit() == 0 || request.getRowsLimit() >= keyCount)
+        && request.getMaterializedViewName().isEmpty();
+  }
+
+  /** Creates the key of a row read by a cacheable request. */
+  static RowCacheKey create(ReadRowsRequest request, ByteString rowKey) {
+    String resourceName =
+        request.getTableName().isEmpty() ? request.getAuthorizedViewName() : request.getTableName();
+    return new RowCacheKey(
+        RowId.create(request.getTableName(), request.getAuthorizedViewName(), rowKey),
+        resourceName,
+        request.getFilter());
+  }
+
+  /** Creates the key of the single row read by the request, or null if it can't be cached. */
+  @Nullable
+  static RowCacheKey forPointRead(ReadRowsRequest request) {
+    if (request.getRows().getRowKeysCount() != 1 || !isCacheable(request)) {
+      return null;
+    }
+    return create(request, request.getRows().getRowKeys(0));
+  }
+
+  RowId getRowId() {
+    return rowId;
+  }
+
+  /** The approximate number of bytes retained by the key. */
+  long getWeight() {
+    return rowId.getRowKey().size() + filter.getSerializedSize();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RowCacheKey)) {
+      return false;
+    }
+    RowCacheKey other = (RowCacheKey) o;
+    return hashCode == other.hashCode
+        && rowId.equals(other.rowId)
+        && resourceName.equals(other.resourceName)
+        && filter.equals(other.filter);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("rowId", rowId)
+        .add("resourceName", resourceName)
+        .add("filter", filter)
+        .toString();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.Query;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Serves point reads from the {@link RowCache}. Reads that miss the cache are sent to the inner
+ * callable and their result is cached, including when the row doesn't exist. Queries that are not
+ * point reads bypass the cache.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications directly.
+ */
+@InternalApi
+public final class RowCacheReadRowCallable extends UnaryCallable<Query, Row> {
+  private final UnaryCallable<Query, Row> inner;
+  private final RowCache cache;
+  private final RequestContext requestContext;
+
+  public RowCacheReadRowCallable(
+      UnaryCallable<Query, Row> inner, RowCache cache, RequestContext requestContext) {
+    this.inner = inner;
+    this.cache = cache;
+    this.requestContext = requestContext;
+  }
+
+  @Override
+  public ApiFuture<Row> futureCall(Query query, ApiCallContext context) {
+    RowCacheKey key = RowCacheKey.forPointRead(query.toProto(requestContext));
+    if (key == null) {
+      return inner.futureCall(query, context);
+    }
+
+    RowCache.Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      return ApiFutures.immediateFuture(entry.getRow());
+    }
+
+    long token = cache.readToken(key);
+    return ApiFutures.transform(
+        inner.futureCall(query, context),
+        row -> {
+          cache.put(key, row, token);
+          return row;
+        },
+        MoreExecutors.directExecutor());
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import com.google.cloud.bigtable.data.v2.internal.NameUtil;
+import com.google.common.base.MoreObjects;
+import com.google.protobuf.ByteString;
+
+/**
+ * Identifies a row of a table. Reads and writes through an authorized view are attributed to the
+ * table of the view, so that a write through one of them invalidates the reads of the others.
+ */
+final class RowId {
+  private final String tableName;
+  private final ByteString rowKey;
+  private final int hashCode;
+
+  private RowId(String tableName, ByteString rowKey) {
+    this.tableName = tableName;
+    this.rowKey = rowKey;
+    this.hashCode = 31 * tableName.hashCode() + rowKey.hashCode();
+  }
+
+  /**
+   * Creates the id of a row from the fully qualified table and authorized view names of a request,
+   * only one of which is set.
+   */
+  static RowId create(String tableName, String authorizedViewName, ByteString rowKey) {
+    if (tableName.isEmpty()) {
+      tableName = NameUtil.extractTableNameFromAuthorizedViewName(authorizedViewName);
+    }
+    return new RowId(tableName, rowKey);
+  }
+
+  ByteString getRowKey() {
+    return rowKey;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RowId)) {
+      return false;
+    }
+    RowId other = (RowId) o;
+    return hashCode == other.hashCode
+        && rowKey.equals(other.rowKey)
+        && tableName.equals(other.tableName);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("tableName", tableName)
+        .add("rowKey", rowKey.toStringUtf8())
+        .toString();
+  }
+}
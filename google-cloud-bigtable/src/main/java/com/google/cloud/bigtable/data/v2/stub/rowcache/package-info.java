@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Implementation details of the client side row cache, configured by {@link
+ * com.google.cloud.bigtable.data.v2.stub.RowCacheSettings}.
+ *
+ * <ul>
+ *   <li>RowCache: A size bounded cache of point read results that uses a W-TinyLFU eviction policy.
+ *   <li>RowCacheReadRowCallable: Serves {@code readRow} calls from the cache and populates it on
+ *       misses.
+ *   <li>RowCacheBulkReadRowsCallable: Serves the keys of a bulk read batch from the cache and only
+ *       reads the missing keys from the server.
+ *   <li>RowCacheInvalidatingCallable: Invalidates the rows that are written through the client.
+ * </ul>
+ *
+ * <p>This package is considered an internal implementation detail and is not meant to be used by
+ * applications directly.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
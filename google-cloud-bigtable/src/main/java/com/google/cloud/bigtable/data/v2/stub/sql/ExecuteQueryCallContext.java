@@ -15,6 +15,7 @@
  */
 package com.google.cloud.bigtable.data.v2.stub.sql;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.core.InternalApi;
 import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.grpc.GrpcStatusCode;
@@ -109,6 +110,14 @@ public class ExecuteQueryCallContext {
     }
   }
 
+  /**
+   * Returns the future of the PrepareQuery response that the next request will be built from. It is
+   * still pending while the plan is being refreshed.
+   */
+  ApiFuture<PrepareResponse> latestPrepareFuture() {
+    return latestPrepareResponse.prepareFuture();
+  }
+
   /**
    * Metadata can change as the plan is refreshed. Once a resume token or complete has been received
    * from the stream we know that the {@link com.google.bigtable.v2.PrepareQueryResponse} can no
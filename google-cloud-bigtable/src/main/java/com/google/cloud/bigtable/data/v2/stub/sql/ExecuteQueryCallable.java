@@ -15,6 +15,7 @@
  */
 package com.google.cloud.bigtable.data.v2.stub.sql;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.core.InternalApi;
 import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.rpc.ApiCallContext;
@@ -25,6 +26,7 @@ import com.google.bigtable.v2.ExecuteQueryRequest;
 import com.google.cloud.bigtable.data.v2.internal.SqlRow;
 import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
 import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import javax.annotation.Nullable;
 
 /**
  * Callable that creates {@link SqlServerStream}s from {@link ExecuteQueryRequest}s.
@@ -58,6 +60,43 @@ public class ExecuteQueryCallable extends ServerStreamingCallable<ExecuteQueryCa
     return SqlServerStreamImpl.create(metadataFuture, rowStream);
   }
 
+  /**
+   * Starts an execute query call that delivers its rows to the given observer, instead of blocking
+   * on a {@link SqlServerStream}. The observer can use the {@link
+   * com.google.api.gax.rpc.StreamController} it receives in {@link ResponseObserver#onStart} to
+   * request rows as it is ready for them.
+   *
+   * <p>This class is considered an internal implementation detail and not meant to be used by
+   * applications. Users should only use executeQueryAsync through the {@link
+   * com.google.cloud.bigtable.data.v2.BigtableDataClient}
+   *
+   * @return a future that resolves to the metadata of the results
+   */
+  public ApiFuture<ResultSetMetadata> call(
+      BoundStatement boundStatement, ResponseObserver<? super SqlRow> responseObserver) {
+    return call(boundStatement, responseObserver, null);
+  }
+
+  /**
+   * Same as {@link #call(BoundStatement, ResponseObserver)}, with the given call context.
+   *
+   * <p>This class is considered an internal implementation detail and not meant to be used by
+   * applications.
+   */
+  @SuppressWarnings("unchecked")
+  public ApiFuture<ResultSetMetadata> call(
+      BoundStatement boundStatement,
+      ResponseObserver<? super SqlRow> responseObserver,
+      @Nullable ApiCallContext apiCallContext) {
+    SettableApiFuture<ResultSetMetadata> metadataFuture = SettableApiFuture.create();
+    // The observer only consumes rows, so it can safely observe them as a supertype
+    this.call(
+        ExecuteQueryCallContext.create(boundStatement, metadataFuture),
+        (ResponseObserver<SqlRow>) responseObserver,
+        apiCallContext);
+    return metadataFuture;
+  }
+
   @Override
   public void call(
       ExecuteQueryCallContext callContext,
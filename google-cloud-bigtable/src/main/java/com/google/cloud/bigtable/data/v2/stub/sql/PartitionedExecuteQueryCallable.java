@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.sql;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.InternalApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.internal.ByteStringComparator;
+import com.google.cloud.bigtable.data.v2.internal.SqlRow;
+import com.google.cloud.bigtable.data.v2.models.KeyOffset;
+import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
+import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.PartitionedQuery;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Callable that executes a {@link PartitionedQuery} as several concurrent ExecuteQuery streams and
+ * merges their rows into a single {@link SqlServerStream}.
+ *
+ * <p>The row keys of the table are sampled to split the range of the query into partitions. Each
+ * partition is executed through the {@link ExecuteQueryCallable}, so it is retried and resumed the
+ * same way as any other query.
+ *
+ * <p>This class is considered an internal implementation detail and not meant to be used by
+ * applications.
+ */
+@InternalApi
+public class PartitionedExecuteQueryCallable {
+
+  private final ExecuteQueryCallable executeQueryCallable;
+  private final UnaryCallable<SampleRowKeysRequest, List<KeyOffset>> sampleRowKeysCallable;
+
+  public PartitionedExecuteQueryCallable(
+      ExecuteQueryCallable executeQueryCallable,
+      UnaryCallable<SampleRowKeysRequest, List<KeyOffset>> sampleRowKeysCallable) {
+    this.executeQueryCallable = executeQueryCallable;
+    this.sampleRowKeysCallable = sampleRowKeysCallable;
+  }
+
+  /**
+   * Starts executing the partitions of the query. Rows are only fetched from the partitions as the
+   * returned stream is consumed.
+   */
+  public SqlServerStream call(PartitionedQuery query) {
+    return call(query, null);
+  }
+
+  /**
+   * Starts executing the partitions of the query with the given call context, which applies to the
+   * row key sampling and to every partition.
+   */
+  public SqlServerStream call(PartitionedQuery query, @Nullable ApiCallContext context) {
+    final SettableApiFuture<ResultSetMetadata> metadataFuture = SettableApiFuture.create();
+    ServerStream<SqlRow> rowStream =
+        new ServerStreamingCallable<PartitionedQuery, SqlRow>() {
+          @Override
+          public void call(
+              PartitionedQuery query,
+              ResponseObserver<SqlRow> responseObserver,
+              ApiCallContext context) {
+            start(query, responseObserver, metadataFuture, context);
+          }
+        }.call(query, context);
+    return SqlServerStreamImpl.create(metadataFuture, rowStream);
+  }
+
+  private void start(
+      final PartitionedQuery query,
+      ResponseObserver<SqlRow> responseObserver,
+      SettableApiFuture<ResultSetMetadata> metadataFuture,
+      @Nullable ApiCallContext context) {
+    final PartitionedQueryStream stream =
+        new PartitionedQueryStream(
+            executeQueryCallable,
+            responseObserver,
+            metadataFuture,
+            query.getParallelism(),
+            query.isOrdered(),
+            context);
+    stream.start();
+
+    ApiFuture<List<KeyOffset>> samples =
+        sampleRowKeysCallable.futureCall(SampleRowKeysRequest.create(query.getTargetId()), context);
+    ApiFutures.addCallback(
+        samples,
+        new ApiFutureCallback<List<KeyOffset>>() {
+          @Override
+          public void onSuccess(List<KeyOffset> keyOffsets) {
+            stream.startPartitions(partition(query, keyOffsets));
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            stream.fail(throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /** Creates the statement of every partition of the query, in row key order. */
+  @VisibleForTesting
+  static List<BoundStatement> partition(PartitionedQuery query, List<KeyOffset> keyOffsets) {
+    BoundStatement statement = query.getStatement();
+    ByteString start = statement.getBytesParam(query.getStartKeyParam());
+    ByteString end = statement.getBytesParam(query.getEndKeyParam());
+    List<ByteString> splitPoints =
+        chooseSplitPoints(keyOffsets, start, end, query.getMaxPartitions());
+
+    // The first and last partitions keep the bounds of the template statement, so that its
+    // semantics for NULL or empty bounds are preserved.
+    List<BoundStatement> partitions = new ArrayList<>(splitPoints.size() + 1);
+    ByteString partitionStart = start;
+    for (ByteString splitPoint : splitPoints) {
+      partitions.add(
+          statement
+              .withBytesParam(query.getStartKeyParam(), partitionStart)
+              .withBytesParam(query.getEndKeyParam(), splitPoint));
+      partitionStart = splitPoint;
+    }
+    partitions.add(
+        statement
+            .withBytesParam(query.getStartKeyParam(), partitionStart)
+            .withBytesParam(query.getEndKeyParam(), end));
+    return partitions;
+  }
+
+  /**
+   * Picks up to {@code maxPartitions - 1} evenly spaced sampled row keys that are strictly inside
+   * {@code (start, end)}. An empty or null start and a null end are unbounded.
+   */
+  @VisibleForTesting
+  static List<ByteString> chooseSplitPoints(
+      List<KeyOffset> keyOffsets,
+      @Nullable ByteString start,
+      @Nullable ByteString end,
+      int maxPartitions) {
+    ByteStringComparator comparator = ByteStringComparator.INSTANCE;
+    List<ByteString> candidates = new ArrayList<>();
+    for (KeyOffset keyOffset : keyOffsets) {
+      ByteString key = keyOffset.getKey();
+      // The last sample has an empty key, which marks the end of the table
+      if (key.isEmpty()) {
+        continue;
+      }
+      if (start != null && comparator.compare(key, start) <= 0) {
+        continue;
+      }
+      if (end != null && comparator.compare(key, end) >= 0) {
+        continue;
+      }
+      if (!candidates.isEmpty() && candidates.get(candidates.size() - 1).equals(key)) {
+        continue;
+      }
+      candidates.add(key);
+    }
+
+    int numSplits = maxPartitions - 1;
+    if (candidates.size() <= numSplits) {
+      return candidates;
+    }
+    List<ByteString> splitPoints = new ArrayList<>(numSplits);
+    for (int i = 1; i <= numSplits; i++) {
+      splitPoints.add(candidates.get((int) ((long) i * candidates.size() / maxPartitions)));
+    }
+    return splitPoints;
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.sql;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.bigtable.data.v2.internal.SqlRow;
+import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Merges the rows of the partitions of a {@link
+ * com.google.cloud.bigtable.data.v2.models.sql.PartitionedQuery} into a single downstream observer.
+ *
+ * <p>At most {@code parallelism} partitions are executing at once, and every partition buffers at
+ * most {@link #PARTITION_PREFETCH_ROWS} rows that the downstream observer didn't consume yet. Rows
+ * are delivered on the thread of whichever partition or downstream request made them available. The
+ * first error of any partition cancels the others and is delivered to the downstream observer.
+ */
+final class PartitionedQueryStream {
+  static final int PARTITION_PREFETCH_ROWS = 32;
+
+  private final ExecuteQueryCallable executeQueryCallable;
+  private final ResponseObserver<SqlRow> outerObserver;
+  private final SettableApiFuture<ResultSetMetadata> metadataFuture;
+  private final int parallelism;
+  private final boolean ordered;
+  @Nullable private final ApiCallContext context;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final List<Partition> partitions = new ArrayList<>();
+
+  @GuardedBy("lock")
+  private boolean planned;
+
+  @GuardedBy("lock")
+  private int nextToStart;
+
+  @GuardedBy("lock")
+  private int running;
+
+  // The partition whose rows are delivered next when the results are ordered, and the partition
+  // that is checked first otherwise
+  @GuardedBy("lock")
+  private int cursor;
+
+  @GuardedBy("lock")
+  private long demand;
+
+  @GuardedBy("lock")
+  private boolean autoFlowControl = true;
+
+  @GuardedBy("lock")
+  private boolean delivering;
+
+  @GuardedBy("lock")
+  private boolean finished;
+
+  @GuardedBy("lock")
+  @Nullable
+  private Throwable error;
+
+  PartitionedQueryStream(
+      ExecuteQueryCallable executeQueryCallable,
+      ResponseObserver<SqlRow> outerObserver,
+      SettableApiFuture<ResultSetMetadata> metadataFuture,
+      int parallelism,
+      boolean ordered,
+      @Nullable ApiCallContext context) {
+    this.executeQueryCallable = executeQueryCallable;
+    this.outerObserver = outerObserver;
+    this.metadataFuture = metadataFuture;
+    this.parallelism = parallelism;
+    this.ordered = ordered;
+    this.context = context;
+  }
+
+  /** Hands the downstream observer its controller. Must be called before anything else. */
+  void start() {
+    outerObserver.onStart(new OuterController());
+    synchronized (lock) {
+      if (autoFlowControl) {
+        demand = Long.MAX_VALUE;
+      }
+    }
+  }
+
+  /** Starts executing the given partitions, which must be in row key order. */
+  void startPartitions(List<BoundStatement> statements) {
+    synchronized (lock) {
+      for (BoundStatement statement : statements) {
+        partitions.add(new Partition(statement));
+      }
+      planned = true;
+    }
+    startNextPartitions();
+    deliver();
+  }
+
+  /** Fails the stream, cancelling any partition that is executing. */
+  void fail(Throwable throwable) {
+    synchronized (lock) {
+      if (error == null) {
+        error = throwable;
+      }
+    }
+    deliver();
+  }
+
+  private void startNextPartitions() {
+    while (true) {
+      Partition next;
+      synchronized (lock) {
+        if (error != null || running >= parallelism || nextToStart >= partitions.size()) {
+          return;
+        }
+        next = partitions.get(nextToStart++);
+        running++;
+      }
+      next.execute();
+    }
+  }
+
+  /**
+   * Delivers buffered rows while the downstream observer has demand, and the terminal event once
+   * every partition is drained or one of them failed. Only one thread delivers at a time; other
+   * threads only update the state under the lock, which the delivering thread re-checks before
+   * giving up.
+   */
+  private void deliver() {
+    synchronized (lock) {
+      if (delivering) {
+        return;
+      }
+      delivering = true;
+    }
+    while (true) {
+      SqlRow row = null;
+      Partition source = null;
+      Throwable terminalError = null;
+      boolean complete = false;
+      synchronized (lock) {
+        if (finished) {
+          delivering = false;
+          return;
+        }
+        if (error != null) {
+          terminalError = error;
+          finished = true;
+        } else if (demand > 0 && (source = nextReadyPartition()) != null) {
+          row = source.buffer.poll();
+          if (demand != Long.MAX_VALUE) {
+            demand--;
+          }
+        } else if (isDrained()) {
+          complete = true;
+          finished = true;
+        } else {
+          delivering = false;
+          return;
+        }
+      }
+
+      if (terminalError != null) {
+        cancelPartitions();
+        metadataFuture.setException(terminalError);
+        outerObserver.onError(terminalError);
+      } else if (complete) {
+        outerObserver.onComplete();
+      } else {
+        outerObserver.onResponse(row);
+        source.controller.request(1);
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  @Nullable
+  private Partition nextReadyPartition() {
+    if (ordered) {
+      while (cursor < partitions.size()) {
+        Partition partition = partitions.get(cursor);
+        if (!partition.buffer.isEmpty()) {
+          return partition;
+        }
+        if (!partition.complete) {
+          return null;
+        }
+        cursor++;
+      }
+      return null;
+    }
+    // Rotate through the partitions that have started, so that a fast one can't starve the others
+    for (int i = 0; i < nextToStart; i++) {
+      Partition partition = partitions.get((cursor + i) % nextToStart);
+      if (!partition.buffer.isEmpty()) {
+        cursor = (cursor + i + 1) % nextToStart;
+        return partition;
+      }
+    }
+    return null;
+  }
+
+  @GuardedBy("lock")
+  private boolean isDrained() {
+    if (!planned || nextToStart < partitions.size() || running > 0) {
+      return false;
+    }
+    for (Partition partition : partitions) {
+      if (!partition.buffer.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void cancelPartitions() {
+    List<StreamController> controllers = new ArrayList<>();
+    synchronized (lock) {
+      for (int i = 0; i < nextToStart; i++) {
+        Partition partition = partitions.get(i);
+        if (!partition.complete && partition.controller != null) {
+          controllers.add(partition.controller);
+        }
+      }
+    }
+    for (StreamController controller : controllers) {
+      controller.cancel();
+    }
+  }
+
+  private class OuterController implements StreamController {
+    @Override
+    public void disableAutoInboundFlowControl() {
+      synchronized (lock) {
+        autoFlowControl = false;
+      }
+    }
+
+    @Override
+    public void request(int count) {
+      synchronized (lock) {
+        demand = demand + count < 0 ? Long.MAX_VALUE : demand + count;
+      }
+      deliver();
+    }
+
+    @Override
+    public void cancel() {
+      fail(new CancellationException("User cancelled stream"));
+    }
+  }
+
+  private class Partition implements ResponseObserver<SqlRow> {
+    private final BoundStatement statement;
+
+    // Guarded by the lock of the stream
+    private final ArrayDeque<SqlRow> buffer = new ArrayDeque<>();
+    private boolean complete;
+
+    // Written once in onStart, before the partition produces any row
+    private volatile StreamController controller;
+
+    Partition(BoundStatement statement) {
+      this.statement = statement;
+    }
+
+    void execute() {
+      ApiFuture<ResultSetMetadata> partitionMetadata;
+      try {
+        partitionMetadata = executeQueryCallable.call(statement, this, context);
+      } catch (RuntimeException e) {
+        // The call may have already reported the error through onError
+        synchronized (lock) {
+          if (complete) {
+            return;
+          }
+          complete = true;
+          running--;
+        }
+        fail(e);
+        return;
+      }
+      ApiFutures.addCallback(
+          partitionMetadata,
+          new ApiFutureCallback<ResultSetMetadata>() {
+            @Override
+            public void onSuccess(ResultSetMetadata metadata) {
+              // Every partition executes the same prepared query, so the first one wins
+              metadataFuture.set(metadata);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+              // The error is delivered through onError
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void onStart(StreamController controller) {
+      this.controller = controller;
+      controller.disableAutoInboundFlowControl();
+      boolean cancelled;
+      synchronized (lock) {
+        cancelled = error != null;
+      }
+      if (cancelled) {
+        controller.cancel();
+      } else {
+        controller.request(PARTITION_PREFETCH_ROWS);
+      }
+    }
+
+    @Override
+    public void onResponse(SqlRow row) {
+      synchronized (lock) {
+        if (finished) {
+          return;
+        }
+        buffer.add(row);
+      }
+      deliver();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      synchronized (lock) {
+        complete = true;
+        running--;
+      }
+      fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      synchronized (lock) {
+        complete = true;
+        running--;
+      }
+      startNextPartitions();
+      deliver();
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.google.cloud.bigtable.data.v2.stub.sql;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.core.InternalApi;
 import com.google.api.gax.grpc.GrpcCallContext;
 import com.google.api.gax.grpc.GrpcStatusCode;
@@ -27,11 +28,13 @@ import com.google.api.gax.rpc.StatusCode.Code;
 import com.google.api.gax.rpc.StreamController;
 import com.google.bigtable.v2.ExecuteQueryRequest;
 import com.google.bigtable.v2.ExecuteQueryResponse;
+import com.google.cloud.bigtable.data.v2.internal.PrepareResponse;
 import com.google.cloud.bigtable.data.v2.internal.RequestContext;
 import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatementRefreshTimeoutException;
 import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.stub.SafeResponseObserver;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.rpc.PreconditionFailure;
 import com.google.rpc.PreconditionFailure.Violation;
 import io.grpc.Deadline;
@@ -39,7 +42,10 @@ import io.grpc.Status;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 
 /**
@@ -53,12 +59,19 @@ public class PlanRefreshingCallable
     extends ServerStreamingCallable<ExecuteQueryCallContext, ExecuteQueryResponse> {
   private final ServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> inner;
   private final RequestContext requestContext;
+  private final ScheduledExecutorService executor;
 
+  /**
+   * @param executor used to time out attempts that are waiting for a plan refresh. Attempts never
+   *     block while waiting for the refresh, they are started when the refreshed plan resolves.
+   */
   public PlanRefreshingCallable(
       ServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> inner,
-      RequestContext requestContext) {
+      RequestContext requestContext,
+      ScheduledExecutorService executor) {
     this.inner = inner;
     this.requestContext = requestContext;
+    this.executor = executor;
   }
 
   @Override
@@ -66,16 +79,69 @@ public class PlanRefreshingCallable
       ExecuteQueryCallContext executeQueryCallContext,
       ResponseObserver<ExecuteQueryResponse> responseObserver,
       @Nullable ApiCallContext apiCallContext) {
-    PlanRefreshingObserver observer =
-        new PlanRefreshingObserver(responseObserver, executeQueryCallContext);
-    ExecuteQueryRequest request;
     @Nullable GrpcCallContext grpcCallContext = (GrpcCallContext) apiCallContext;
     // Convert timeout to an absolute deadline, so we can use it for both the plan refresh and
     // the ExecuteQuery rpc
     Deadline deadline = getDeadline(grpcCallContext, executeQueryCallContext.startTimeOfCall());
+    ApiFuture<PrepareResponse> prepareFuture = executeQueryCallContext.latestPrepareFuture();
+    if (prepareFuture.isDone()) {
+      startAttempt(executeQueryCallContext, responseObserver, grpcCallContext, deadline);
+    } else {
+      startAttemptAfterPlanRefresh(
+          prepareFuture, executeQueryCallContext, responseObserver, grpcCallContext, deadline);
+    }
+  }
+
+  /**
+   * Waits for the plan refresh without blocking the calling thread. The attempt starts on the
+   * thread that resolves the refreshed plan, or fails if the deadline passes first.
+   */
+  private void startAttemptAfterPlanRefresh(
+      ApiFuture<PrepareResponse> prepareFuture,
+      ExecuteQueryCallContext executeQueryCallContext,
+      ResponseObserver<ExecuteQueryResponse> responseObserver,
+      @Nullable GrpcCallContext grpcCallContext,
+      @Nullable Deadline deadline) {
+    AtomicBoolean started = new AtomicBoolean();
+    @Nullable ScheduledFuture<?> timeout = null;
+    if (deadline != null) {
+      timeout =
+          executor.schedule(
+              () -> {
+                if (started.compareAndSet(false, true)) {
+                  // Return the retryable error, but don't trigger a new refresh since one is
+                  // ongoing
+                  responseObserver.onError(
+                      new PreparedStatementRefreshTimeoutException(
+                          "Exceeded deadline waiting for PreparedQuery to refresh"));
+                }
+              },
+              deadline.timeRemaining(TimeUnit.NANOSECONDS),
+              TimeUnit.NANOSECONDS);
+    }
+    @Nullable ScheduledFuture<?> finalTimeout = timeout;
+    prepareFuture.addListener(
+        () -> {
+          if (started.compareAndSet(false, true)) {
+            if (finalTimeout != null) {
+              finalTimeout.cancel(false);
+            }
+            startAttempt(executeQueryCallContext, responseObserver, grpcCallContext, deadline);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void startAttempt(
+      ExecuteQueryCallContext executeQueryCallContext,
+      ResponseObserver<ExecuteQueryResponse> responseObserver,
+      @Nullable GrpcCallContext grpcCallContext,
+      @Nullable Deadline deadline) {
+    PlanRefreshingObserver observer =
+        new PlanRefreshingObserver(responseObserver, executeQueryCallContext);
+    ExecuteQueryRequest request;
     try {
-      // TODO: this blocks. That is ok because ResultSet is synchronous. If we ever
-      // need to make this async that needs to change
+      // The prepare future has resolved, so this doesn't block
       request = executeQueryCallContext.buildRequestWithDeadline(requestContext, deadline);
     } catch (PreparedStatementRefreshTimeoutException e) {
       // If we timed out waiting for refresh, return the retryable error, but don't trigger a
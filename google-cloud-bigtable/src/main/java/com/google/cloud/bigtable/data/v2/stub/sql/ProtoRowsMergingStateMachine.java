@@ -17,7 +17,6 @@ package com.google.cloud.bigtable.data.v2.stub.sql;
 
 import com.google.api.core.InternalApi;
 import com.google.bigtable.v2.PartialResultSet;
-import com.google.bigtable.v2.ProtoRows;
 import com.google.bigtable.v2.Value;
 import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
 import com.google.cloud.bigtable.data.v2.internal.SqlRow;
@@ -25,17 +24,16 @@ import com.google.cloud.bigtable.data.v2.models.sql.ColumnMetadata;
 import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
-import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.protobuf.ByteString;
-import com.google.protobuf.InvalidProtocolBufferException;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Queue;
+import java.util.RandomAccess;
 import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -49,7 +47,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * <ul>
  *   <li>Add results with {@link #addPartialResultSet(PartialResultSet)} until {@link
  *       #hasCompleteBatches()} is true
- *   <li>Call {@link #populateQueue(Queue)} to materialize results from the complete batch.
+ *   <li>Call {@link #takeRows()} to iterate over the rows of the complete batch, or {@link
+ *       #populateQueue(Queue)} to materialize them all at once.
  *   <li>Repeat until all {@link PartialResultSet}s have been processed
  *   <li>Ensure that there is no incomplete data using {@link #isBatchInProgress()}
  * </ul>
@@ -71,14 +70,29 @@ final class ProtoRowsMergingStateMachine {
   private @Nullable ResultSetMetadata metadata;
   private State state;
   private ByteString batchBuffer;
-  private List<List<Value>> parsedBatches;
+  // crc32c of batchBuffer, updated as chunks arrive so the batch is never copied to be hashed
+  private Hasher batchHasher;
+  // Number of chunks in batchBuffer, a batch made of a single chunk can be parsed in place
+  private int batchChunks;
+  // Values of the complete batches. The values before takenValues were handed over to RowCursors,
+  // the ones after it wait for a resume token.
+  private final ValueArena parsedValues;
+  private int takenValues;
   private boolean hasReceivedFirstResumeToken;
 
   ProtoRowsMergingStateMachine(Supplier<ResultSetMetadata> metadataSupplier) {
+    this(metadataSupplier, new ValueArena());
+  }
+
+  ProtoRowsMergingStateMachine(
+      Supplier<ResultSetMetadata> metadataSupplier, ValueArena parsedValues) {
     this.metadataSupplier = metadataSupplier;
+    this.parsedValues = parsedValues;
     state = State.AWAITING_NEW_DATA;
     batchBuffer = ByteString.empty();
-    parsedBatches = new ArrayList<>();
+    batchHasher = CRC32C.newHasher();
+    batchChunks = 0;
+    takenValues = 0;
     hasReceivedFirstResumeToken = false;
   }
 
@@ -92,18 +106,18 @@ final class ProtoRowsMergingStateMachine {
    * <pre>Translated to use local variable names the expected logic is as follows:
    * if results.reset {
    *   reset batchBuffer
-   *   reset parsedBatches
+   *   reset the values in parsedValues that weren't yielded yet
    * }
    * if results.proto_rows_batch is set {
    *   append result.proto_rows_batch.batch_data to batchBuffer
+   *   update the crc32c hash of batchBuffer with result.proto_rows_batch.batch_data
    * }
    * if results.batch_checksum is set {
    *   validate the checksum matches the crc32c hash of batchBuffer
-   *   parse batchBuffer as a ProtoRows message, clearing batchBuffer
-   *   add the parsed data to parsedBatches
+   *   parse the values of batchBuffer into parsedValues, clearing batchBuffer and its hash
    * }
    * if results.resume_token is set {
-   *   yield the results in parsedBatches to the row merger.
+   *   yield the results in parsedValues to the row merger.
    *   this is controlled by the AWAITING_BATCH_CONSUME state.
    * }
    * </pre>
@@ -115,19 +129,29 @@ final class ProtoRowsMergingStateMachine {
     // If the API indicates we should reset we need to clear buffered data
     if (results.getReset()) {
       batchBuffer = ByteString.EMPTY;
-      parsedBatches.clear();
+      batchHasher = CRC32C.newHasher();
+      batchChunks = 0;
+      parsedValues.truncate(takenValues);
     }
+    ByteString chunk = results.getProtoRowsBatch().getBatchData();
     // ByteString has an efficient concat which generally involves no copying
-    batchBuffer = batchBuffer.concat(results.getProtoRowsBatch().getBatchData());
+    batchBuffer = batchBuffer.concat(chunk);
+    if (!chunk.isEmpty()) {
+      batchChunks++;
+    }
+    // The chunk is hashed while it's likely still in the cpu cache, and without copying it
+    for (ByteBuffer buffer : chunk.asReadOnlyByteBufferList()) {
+      batchHasher.putBytes(buffer);
+    }
     if (results.hasBatchChecksum()) {
-      HashCode hash = CRC32C.hashBytes(batchBuffer.toByteArray());
-      Preconditions.checkState(
-          hash.hashCode() == results.getBatchChecksum(), "Unexpected checksum mismatch");
+      int hash = batchHasher.hash().asInt();
+      batchHasher = CRC32C.newHasher();
+      Preconditions.checkState(hash == results.getBatchChecksum(), "Unexpected checksum mismatch");
       try {
-        ProtoRows completeBatch = ProtoRows.parseFrom(batchBuffer);
+        parsedValues.decode(batchBuffer, batchChunks <= 1);
         batchBuffer = ByteString.EMPTY;
-        parsedBatches.add(completeBatch.getValuesList());
-      } catch (InvalidProtocolBufferException e) {
+        batchChunks = 0;
+      } catch (IOException e) {
         throw new InternalError("Unexpected exception parsing response protobuf", e);
       }
     }
@@ -154,16 +178,34 @@ final class ProtoRowsMergingStateMachine {
 
   /** Returns true if there is a partial or complete batch buffered, false otherwise */
   boolean isBatchInProgress() {
-    boolean hasBufferedData = !batchBuffer.isEmpty() || !parsedBatches.isEmpty();
+    boolean hasBufferedData = !batchBuffer.isEmpty() || parsedValues.size() > takenValues;
     return hasCompleteBatches() || hasBufferedData;
   }
 
   /**
-   * Populates the given queue with the currently buffered rows of rows
+   * Populates the given queue with the currently buffered rows of rows. The rows of any cursor that
+   * was taken earlier must have been consumed already.
    *
    * @throws IllegalStateException if there is no yieldable data
    */
   void populateQueue(Queue<SqlRow> queue) {
+    RowCursor rows = takeRows();
+    while (rows.hasNext()) {
+      queue.add(rows.next());
+    }
+    releaseRows();
+  }
+
+  /**
+   * Hands the currently buffered rows over to a {@link RowCursor} and gets ready for new data.
+   *
+   * <p>The values of all the complete batches are kept in a single flat arena, and rows are created
+   * as the cursor advances, so a large batch doesn't hold a row object per row on top of its
+   * values. The cursor reads the arena until {@link #releaseRows()} is called.
+   *
+   * @throws IllegalStateException if there is no yieldable data, or if the last row is incomplete
+   */
+  RowCursor takeRows() {
     Preconditions.checkState(
         state == State.AWAITING_BATCH_CONSUME,
         "Attempting to populate Queue from state machine without completed batch");
@@ -171,20 +213,82 @@ final class ProtoRowsMergingStateMachine {
         batchBuffer.isEmpty(), "Unexpected buffered partial batch while consuming rows.");
     Preconditions.checkNotNull(metadata, "Unexpected empty metadata when parsing response");
 
-    Iterator<Value> valuesIterator = Iterables.concat(parsedBatches).iterator();
-    while (valuesIterator.hasNext()) {
-      ImmutableList.Builder<Value> rowDataBuilder = ImmutableList.builder();
-      for (ColumnMetadata c : metadata.getColumns()) {
-        Preconditions.checkState(
-            valuesIterator.hasNext(), "Incomplete row received with first missing column: %s", c);
-        Value v = valuesIterator.next();
-        validateValueAndType(c.type(), v);
-        rowDataBuilder.add(v);
+    int start = takenValues;
+    int end = parsedValues.size();
+    List<ColumnMetadata> columns = metadata.getColumns();
+    int missingColumns = (end - start) % columns.size();
+    Preconditions.checkState(
+        missingColumns == 0,
+        "Incomplete row received with first missing column: %s",
+        missingColumns == 0 ? null : columns.get(missingColumns));
+
+    takenValues = end;
+    state = State.AWAITING_NEW_DATA;
+    return new RowCursor(metadata, parsedValues, start, end);
+  }
+
+  /**
+   * Recycles the values of the rows that were taken, so the arena can be reused for the next
+   * batches. Every {@link RowCursor} that was taken must have been consumed.
+   */
+  void releaseRows() {
+    parsedValues.release(takenValues);
+    takenValues = 0;
+  }
+
+  /**
+   * Iterates over the rows of complete batches. Each row copies its values out of the arena, so it
+   * stays valid after the arena is reused, and they are validated against the schema when the row
+   * is created.
+   */
+  static final class RowCursor {
+    private final ResultSetMetadata metadata;
+    private final List<ColumnMetadata> columns;
+    private final ValueArena values;
+    private final int end;
+    private int position;
+
+    private RowCursor(ResultSetMetadata metadata, ValueArena values, int start, int end) {
+      this.metadata = metadata;
+      this.columns = metadata.getColumns();
+      this.values = values;
+      this.position = start;
+      this.end = end;
+    }
+
+    boolean hasNext() {
+      return position < end;
+    }
+
+    SqlRow next() {
+      Preconditions.checkState(hasNext(), "No more rows in the batch");
+      Value[] rowValues = new Value[columns.size()];
+      for (int i = 0; i < rowValues.length; i++) {
+        Value value = values.get(position++);
+        validateValueAndType(columns.get(i).type(), value);
+        rowValues[i] = value;
       }
-      queue.add(ProtoSqlRow.create(metadata, rowDataBuilder.build()));
+      return ProtoSqlRow.create(metadata, new RowValues(rowValues));
+    }
+  }
+
+  /** The values of a single row. */
+  private static final class RowValues extends AbstractList<Value> implements RandomAccess {
+    private final Value[] values;
+
+    RowValues(Value[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Value get(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
     }
-    this.parsedBatches = new ArrayList<>();
-    state = State.AWAITING_NEW_DATA;
   }
 
   @InternalApi("VisibleForTestingOnly")
@@ -33,7 +33,10 @@ import java.util.function.Supplier;
 @InternalApi
 public final class SqlRowMerger implements Reframer<SqlRow, ExecuteQueryResponse> {
 
-  private final Queue<SqlRow> queue;
+  // Rows are created lazily from the complete batches, as they are popped
+  private final Queue<ProtoRowsMergingStateMachine.RowCursor> batches;
+  // Holds the parsed values of the batches, and is reused across batches for the whole stream
+  private final ValueArena parsedValues;
   private final ProtoRowsMergingStateMachine stateMachine;
 
   /**
@@ -42,8 +45,9 @@ public final class SqlRowMerger implements Reframer<SqlRow, ExecuteQueryResponse
    *     <p>This exists to facilitate plan refresh that can happen after creation of the row merger.
    */
   public SqlRowMerger(Supplier<ResultSetMetadata> metadataSupplier) {
-    queue = new ArrayDeque<>();
-    stateMachine = new ProtoRowsMergingStateMachine(metadataSupplier);
+    batches = new ArrayDeque<>();
+    parsedValues = new ValueArena();
+    stateMachine = new ProtoRowsMergingStateMachine(metadataSupplier, parsedValues);
   }
 
   /**
@@ -64,7 +68,10 @@ public final class SqlRowMerger implements Reframer<SqlRow, ExecuteQueryResponse
   private void processProtoRows(PartialResultSet results) {
     stateMachine.addPartialResultSet(results);
     if (stateMachine.hasCompleteBatches()) {
-      stateMachine.populateQueue(queue);
+      ProtoRowsMergingStateMachine.RowCursor rows = stateMachine.takeRows();
+      if (rows.hasNext()) {
+        batches.add(rows);
+      }
     }
   }
 
@@ -75,7 +82,7 @@ public final class SqlRowMerger implements Reframer<SqlRow, ExecuteQueryResponse
    */
   @Override
   public boolean hasFullFrame() {
-    return !queue.isEmpty();
+    return !batches.isEmpty();
   }
 
   /**
@@ -91,7 +98,17 @@ public final class SqlRowMerger implements Reframer<SqlRow, ExecuteQueryResponse
   /** pops a completed row from the FIFO queue built from the given responses. */
   @Override
   public SqlRow pop() {
-    return Preconditions.checkNotNull(
-        queue.poll(), "SqlRowMerger.pop() called when there are no complete rows.");
+    ProtoRowsMergingStateMachine.RowCursor rows =
+        Preconditions.checkNotNull(
+            batches.peek(), "SqlRowMerger.pop() called when there are no complete rows.");
+    SqlRow row = rows.next();
+    if (!rows.hasNext()) {
+      batches.poll();
+      if (batches.isEmpty()) {
+        // Every row that was taken has been created, so their values can be recycled
+        stateMachine.releaseRows();
+      }
+    }
+    return row;
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.sql;
+
+import com.google.bigtable.v2.ProtoRows;
+import com.google.bigtable.v2.Value;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Growable storage for the values of {@link ProtoRows} batches, reused for the lifetime of a
+ * stream.
+ *
+ * <p>Batches are decoded straight into the arena, without building a {@link ProtoRows} message and
+ * its list of values for every batch. Batches that arrive in several chunks are decoded over their
+ * chunks, the same way {@link ProtoRowsMergingStateMachine} parses them, so no copy of the whole
+ * batch is made or kept.
+ *
+ * <p>Slots are only recycled by {@link #release(int)}, so callers must stop reading the released
+ * values first. This class is not thread safe.
+ */
+final class ValueArena {
+  private static final int INITIAL_CAPACITY = 64;
+  // The stream decoder copies every value that doesn't fit in its buffer twice
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+  private static final int VALUES_TAG =
+      (ProtoRows.VALUES_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+  private Value[] values = new Value[INITIAL_CAPACITY];
+  private int size;
+
+  /** Returns the number of values in the arena. */
+  int size() {
+    return size;
+  }
+
+  Value get(int index) {
+    Preconditions.checkElementIndex(index, size);
+    return values[index];
+  }
+
+  /**
+   * Decodes the values of a serialized {@link ProtoRows} batch and appends them to the arena.
+   *
+   * @param singleChunk whether the batch is backed by a single buffer, which is decoded in place
+   */
+  void decode(ByteString batch, boolean singleChunk) throws IOException {
+    CodedInputStream input;
+    if (singleChunk || batch.size() <= STREAM_BUFFER_SIZE) {
+      input = batch.newCodedInput();
+    } else {
+      input = CodedInputStream.newInstance(batch.newInput(), STREAM_BUFFER_SIZE);
+    }
+
+    ExtensionRegistryLite registry = ExtensionRegistryLite.getEmptyRegistry();
+    while (true) {
+      int tag = input.readTag();
+      if (tag == 0) {
+        return;
+      }
+      if (tag == VALUES_TAG) {
+        add(input.readMessage(Value.parser(), registry));
+      } else if (!input.skipField(tag)) {
+        return;
+      }
+    }
+  }
+
+  /** Drops the values from {@code newSize} onwards, which haven't been read yet. */
+  void truncate(int newSize) {
+    Preconditions.checkPositionIndex(newSize, size);
+    Arrays.fill(values, newSize, size, null);
+    size = newSize;
+  }
+
+  /**
+   * Releases the first {@code count} values, which must not be read anymore. The remaining values
+   * are moved to the start of the arena.
+   */
+  void release(int count) {
+    Preconditions.checkPositionIndex(count, size);
+    int remaining = size - count;
+    System.arraycopy(values, count, values, 0, remaining);
+    Arrays.fill(values, remaining, size, null);
+    size = remaining;
+  }
+
+  private void add(Value value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = value;
+  }
+}
@@ -35,16 +35,16 @@ import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -64,6 +64,21 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
 
   private static final java.time.Duration REFRESH_PERIOD = java.time.Duration.ofMinutes(50);
 
+  /**
+   * How quickly the peak EWMA latency of a channel forgets older samples. A channel that was slow
+   * and stopped receiving RPCs has its latency decay towards 0, so that it's tried again within a
+   * fraction of a second. Longer decay times let a single latency spike on a healthy channel push
+   * traffic to a slower one for too long.
+   */
+  @VisibleForTesting static final long LATENCY_DECAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * The latency recorded for a call that the channel failed before any response, so that a channel
+   * that fails fast looks slow rather than fast. It decays like any other sample, so the channel is
+   * tried again once it stops failing calls.
+   */
+  @VisibleForTesting static final long FAILURE_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   private final BigtableChannelPoolSettings settings;
   private final ChannelFactory channelFactory;
 
@@ -71,11 +86,14 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
   private final ScheduledExecutorService executor;
   private final Object entryWriteLock = new Object();
   @VisibleForTesting final AtomicReference<ImmutableList<Entry>> entries = new AtomicReference<>();
+  // A copy of entries for picking channels, so that every pick reads one array. Only written
+  // together with entries.
+  private volatile Entry[] entrySnapshot;
   private final ChannelPoolHealthChecker channelPoolHealthChecker;
-  private final AtomicInteger indexTicker = new AtomicInteger();
+  private final AtomicInteger indexTicker = new PaddedAtomicInteger();
   private final String authority;
-  private final Random rng = new Random();
-  private final Supplier<Integer> picker;
+  private final ToIntFunction<Entry[]> picker;
+  private final boolean isLatencyTracked;
 
   public static BigtableChannelPool create(
       BigtableChannelPoolSettings settings,
@@ -116,7 +134,7 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
       initialListBuilder.add(new Entry(newChannel));
     }
 
-    entries.set(initialListBuilder.build());
+    setEntries(initialListBuilder.build());
     authority = entries.get().get(0).channel.authority();
 
     switch (settings.getLoadBalancingStrategy()) {
@@ -124,16 +142,22 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
         picker = this::pickEntryIndexRoundRobin;
         break;
       case LEAST_IN_FLIGHT:
-        picker = this::pickEntryIndexLeastInFlight;
+        picker = BigtableChannelPool::pickEntryIndexLeastInFlight;
         break;
       case POWER_OF_TWO_LEAST_IN_FLIGHT:
-        picker = this::pickEntryIndexPowerOfTwoLeastInFlight;
+        picker = BigtableChannelPool::pickEntryIndexPowerOfTwoLeastInFlight;
+        break;
+      case POWER_OF_TWO_PEAK_EWMA:
+        picker = BigtableChannelPool::pickEntryIndexPowerOfTwoPeakEwma;
         break;
       default:
         throw new IllegalStateException(
             String.format(
                 "Unknown load balancing strategy %s", settings.getLoadBalancingStrategy()));
     }
+    isLatencyTracked =
+        settings.getLoadBalancingStrategy()
+            == BigtableChannelPoolSettings.LoadBalancingStrategy.POWER_OF_TWO_PEAK_EWMA;
 
     this.executor = executor;
 
@@ -167,7 +191,7 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
   @Override
   public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
       MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
-    return new AffinityChannel(pickEntryIndex()).newCall(methodDescriptor, callOptions);
+    return newCall(pickEntryIndex(), methodDescriptor, callOptions);
   }
 
   /**
@@ -176,53 +200,83 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
    * possible.
    */
   private int pickEntryIndex() {
-    return picker.get();
+    return picker.applyAsInt(entrySnapshot);
   }
 
   /** Pick an entry using the Round Robin algorithm. */
-  private int pickEntryIndexRoundRobin() {
-    return Math.abs(indexTicker.getAndIncrement() % entries.get().size());
+  private int pickEntryIndexRoundRobin(Entry[] localEntries) {
+    return Math.abs(indexTicker.getAndIncrement() % localEntries.length);
   }
 
   /** Pick an entry at random. */
-  private int pickEntryIndexRandom() {
-    return rng.nextInt(entries.get().size());
+  private static int pickEntryIndexRandom(Entry[] localEntries) {
+    return ThreadLocalRandom.current().nextInt(localEntries.length);
   }
 
-  /** Pick an entry using the least-in-flight algorithm. */
-  private int pickEntryIndexLeastInFlight() {
-    List<Entry> localEntries = entries.get();
+  /**
+   * Pick an entry using the least-in-flight algorithm. If there are multiple matching entries, one
+   * of them is picked at random.
+   */
+  private static int pickEntryIndexLeastInFlight(Entry[] localEntries) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
     int minRpcs = Integer.MAX_VALUE;
-    List<Integer> candidates = new ArrayList<>();
+    int candidate = 0;
+    int candidateCount = 0;
 
-    for (int i = 0; i < localEntries.size(); i++) {
-      Entry entry = localEntries.get(i);
-      int rpcs = entry.totalOutstandingRpcs();
+    for (int i = 0; i < localEntries.length; i++) {
+      int rpcs = localEntries[i].totalOutstandingRpcs();
       if (rpcs < minRpcs) {
         minRpcs = rpcs;
-        candidates.clear();
-        candidates.add(i);
-      } else if (rpcs == minRpcs) {
-        candidates.add(i);
+        candidate = i;
+        candidateCount = 1;
+      } else if (rpcs == minRpcs && random.nextInt(++candidateCount) == 0) {
+        // Replacing the candidate with a probability of 1/candidateCount picks every matching entry
+        // with the same probability, without collecting them.
+        candidate = i;
       }
     }
-    // If there are multiple matching entries, pick one at random.
-    return candidates.get(rng.nextInt(candidates.size()));
+    return candidate;
   }
 
   /** Pick an entry using the power-of-two algorithm. */
-  private int pickEntryIndexPowerOfTwoLeastInFlight() {
-    List<Entry> localEntries = entries.get();
-    int choice1 = pickEntryIndexRandom();
-    int choice2 = pickEntryIndexRandom();
+  private static int pickEntryIndexPowerOfTwoLeastInFlight(Entry[] localEntries) {
+    int choice1 = pickEntryIndexRandom(localEntries);
+    int choice2 = pickEntryIndexRandom(localEntries);
     if (choice1 == choice2) {
       // Try to pick two different entries. If this picks the same entry again, it's likely that
       // there's only one healthy channel in the pool and we should proceed anyway.
-      choice2 = pickEntryIndexRandom();
+      choice2 = pickEntryIndexRandom(localEntries);
+    }
+
+    Entry entry1 = localEntries[choice1];
+    Entry entry2 = localEntries[choice2];
+    return entry1.totalOutstandingRpcs() < entry2.totalOutstandingRpcs() ? choice1 : choice2;
+  }
+
+  /** Pick an entry using the power-of-two algorithm, comparing the peak EWMA latency cost. */
+  private static int pickEntryIndexPowerOfTwoPeakEwma(Entry[] localEntries) {
+    int choice1 = pickEntryIndexRandom(localEntries);
+    int choice2 = pickEntryIndexRandom(localEntries);
+    if (choice1 == choice2) {
+      choice2 = pickEntryIndexRandom(localEntries);
     }
+    return pickLowerLatencyCost(localEntries, choice1, choice2, System.nanoTime());
+  }
 
-    Entry entry1 = localEntries.get(choice1);
-    Entry entry2 = localEntries.get(choice2);
+  /**
+   * Returns the choice whose entry has the lower {@link Entry#getLatencyCost(long) latency cost},
+   * or the one with fewer outstanding RPCs if the costs are equal, which is the case before any
+   * latency was recorded.
+   */
+  @VisibleForTesting
+  static int pickLowerLatencyCost(Entry[] entries, int choice1, int choice2, long nowNanos) {
+    Entry entry1 = entries[choice1];
+    Entry entry2 = entries[choice2];
+    double cost1 = entry1.getLatencyCost(nowNanos);
+    double cost2 = entry2.getLatencyCost(nowNanos);
+    if (cost1 != cost2) {
+      return cost1 < cost2 ? choice1 : choice2;
+    }
     return entry1.totalOutstandingRpcs() < entry2.totalOutstandingRpcs() ? choice1 : choice2;
   }
 
@@ -393,7 +447,7 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
         localEntries.size() >= desiredSize, "current size is already smaller than the desired");
 
     // Set the new list
-    entries.set(localEntries.subList(0, desiredSize));
+    setEntries(localEntries.subList(0, desiredSize));
     // clean up removed entries
     List<Entry> removed = localEntries.subList(desiredSize, localEntries.size());
     removed.forEach(Entry::requestShutdown);
@@ -417,7 +471,13 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
       }
     }
 
-    entries.set(newEntries.build());
+    setEntries(newEntries.build());
+  }
+
+  /** Not threadsafe, must be called under the entryWriteLock monitor or from the constructor */
+  private void setEntries(ImmutableList<Entry> newEntries) {
+    entrySnapshot = newEntries.toArray(new Entry[0]);
+    entries.set(newEntries);
   }
 
   private void refreshSafely() {
@@ -457,7 +517,8 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
         }
       }
 
-      ImmutableList<Entry> replacedEntries = entries.getAndSet(ImmutableList.copyOf(newEntries));
+      ImmutableList<Entry> replacedEntries = entries.get();
+      setEntries(ImmutableList.copyOf(newEntries));
 
       // Shutdown the channels that were cycled out.
       for (Entry e : replacedEntries) {
@@ -501,11 +562,11 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
    *     same channel. However, the implementation should attempt to spread load evenly.
    */
   private Entry getEntry(int affinity) {
-    List<Entry> localEntries = entries.get();
+    Entry[] localEntries = entrySnapshot;
 
-    int index = Math.abs(affinity % localEntries.size());
+    int index = Math.abs(affinity % localEntries.length);
 
-    return localEntries.get(index);
+    return localEntries[index];
   }
 
   /** Gets the current list of BigtableChannelInsight objects. */
@@ -534,14 +595,16 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
      */
     @VisibleForTesting final AtomicReference<Boolean> isAltsHolder = new AtomicReference<>(null);
 
-    @VisibleForTesting final AtomicInteger errorCount = new AtomicInteger(0);
-    @VisibleForTesting final AtomicInteger successCount = new AtomicInteger(0);
-    @VisibleForTesting final AtomicInteger outstandingUnaryRpcs = new AtomicInteger(0);
+    // The counters that are updated by every RPC are padded, so that RPCs on different entries, or
+    // unary and streaming RPCs on the same entry, don't contend on the same cache line.
+    @VisibleForTesting final AtomicInteger errorCount = new PaddedAtomicInteger();
+    @VisibleForTesting final AtomicInteger successCount = new PaddedAtomicInteger();
+    @VisibleForTesting final AtomicInteger outstandingUnaryRpcs = new PaddedAtomicInteger();
 
-    @VisibleForTesting final AtomicInteger outstandingStreamingRpcs = new AtomicInteger(0);
+    @VisibleForTesting final AtomicInteger outstandingStreamingRpcs = new PaddedAtomicInteger();
 
-    private final AtomicInteger maxOutstandingUnaryRpcs = new AtomicInteger();
-    private final AtomicInteger maxOutstandingStreamingRpcs = new AtomicInteger();
+    private final AtomicInteger maxOutstandingUnaryRpcs = new PaddedAtomicInteger();
+    private final AtomicInteger maxOutstandingStreamingRpcs = new PaddedAtomicInteger();
 
     /** Queue storing the last 5 minutes of probe results */
     @VisibleForTesting
@@ -560,14 +623,27 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
     // Flag that the channel has been closed.
     private final AtomicBoolean shutdownInitiated = new AtomicBoolean();
 
+    /**
+     * Peak EWMA of the response latency of the channel. A sample above the average replaces it, so
+     * that a channel that slows down is avoided right away, while lower samples are averaged in
+     * with a weight that grows with the time since the previous sample. Updates are synchronized,
+     * reads are not and may see the latency and its timestamp from different updates.
+     */
+    private volatile double latencyEwmaNanos;
+
+    private volatile long latencyUpdateNanos;
+
     @VisibleForTesting
     Entry(ManagedChannel channel) {
       this.channel = channel;
     }
 
     void checkAndSetIsAlts(ClientCall<?, ?> call) {
-      boolean currentIsAlts = AltsContextUtil.check(call);
-      isAltsHolder.set(currentIsAlts);
+      Boolean currentIsAlts = AltsContextUtil.check(call);
+      // Avoid writing to the shared holder on every call when the value didn't change
+      if (!currentIsAlts.equals(isAltsHolder.get())) {
+        isAltsHolder.set(currentIsAlts);
+      }
     }
 
     ManagedChannel getManagedChannel() {
@@ -599,7 +675,9 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
       AtomicInteger maxCounter =
           isStreaming ? maxOutstandingStreamingRpcs : maxOutstandingUnaryRpcs;
       int currentOutstanding = counter.incrementAndGet();
-      maxCounter.accumulateAndGet(currentOutstanding, Math::max);
+      if (currentOutstanding > maxCounter.get()) {
+        maxCounter.accumulateAndGet(currentOutstanding, Math::max);
+      }
       // abort if the channel is closing
       if (shutdownRequested.get()) {
         release(isStreaming);
@@ -683,6 +761,27 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
     void incrementSuccessCount() {
       successCount.incrementAndGet();
     }
+
+    /** Adds a response latency sample to the peak EWMA latency of the channel. */
+    synchronized void recordLatency(long latencyNanos, long nowNanos) {
+      double weight = decayWeight(nowNanos);
+      latencyEwmaNanos =
+          Math.max(latencyNanos, latencyEwmaNanos * weight + latencyNanos * (1 - weight));
+      latencyUpdateNanos = nowNanos;
+    }
+
+    /**
+     * The expected latency of a new RPC on this channel: the peak EWMA latency, decayed by the time
+     * since it was last updated, multiplied by the number of RPCs the new one would queue behind.
+     */
+    double getLatencyCost(long nowNanos) {
+      return latencyEwmaNanos * decayWeight(nowNanos) * (totalOutstandingRpcs() + 1);
+    }
+
+    private double decayWeight(long nowNanos) {
+      long elapsedNanos = Math.max(nowNanos - latencyUpdateNanos, 0);
+      return Math.exp(-elapsedNanos / (double) LATENCY_DECAY_NANOS);
+    }
   }
 
   /** Thin wrapper to ensure that new calls are properly reference counted. */
@@ -701,26 +800,73 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
     @Override
     public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
         MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
-      boolean isStreaming =
-          methodDescriptor.getType() == MethodDescriptor.MethodType.SERVER_STREAMING;
-      Entry entry = getRetainedEntry(index, isStreaming);
-      return new ReleasingClientCall<>(
-          entry.channel.newCall(methodDescriptor, callOptions), entry, isStreaming);
+      return BigtableChannelPool.this.newCall(index, methodDescriptor, callOptions);
     }
   }
 
+  /** Creates a reference counted call on the entry with the given affinity. */
+  private <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+      int affinity,
+      MethodDescriptor<RequestT, ResponseT> methodDescriptor,
+      CallOptions callOptions) {
+    boolean isStreaming =
+        methodDescriptor.getType() == MethodDescriptor.MethodType.SERVER_STREAMING;
+    Entry entry = getRetainedEntry(affinity, isStreaming);
+    return new ReleasingClientCall<>(
+        entry.channel.newCall(methodDescriptor, callOptions), entry, isStreaming, isLatencyTracked);
+  }
+
+  /**
+   * An {@link AtomicInteger} that takes up a cache line. The fields of a subclass are laid out
+   * after the fields of its superclass, so the padding keeps the value away from the objects that
+   * are allocated after it. This is a portable alternative to {@code @Contended}, which is only
+   * available to the JDK.
+   */
+  @SuppressWarnings("unused")
+  private static final class PaddedAtomicInteger extends AtomicInteger {
+    private static final long serialVersionUID = 1L;
+
+    private long p1, p2, p3, p4, p5, p6, p7;
+  }
+
   /** ClientCall wrapper that makes sure to decrement the outstanding RPC count on completion. */
   static class ReleasingClientCall<ReqT, RespT> extends SimpleForwardingClientCall<ReqT, RespT> {
     @Nullable private CancellationException cancellationException;
     final Entry entry;
     private final boolean isStreaming;
+    private final boolean isLatencyTracked;
     private final AtomicBoolean wasClosed = new AtomicBoolean();
     private final AtomicBoolean wasReleased = new AtomicBoolean();
+    private long startNanos;
+    // Only accessed from the listener, whose callbacks are serialized.
+    private boolean wasLatencyRecorded;
 
     public ReleasingClientCall(ClientCall<ReqT, RespT> delegate, Entry entry, boolean isStreaming) {
+      this(delegate, entry, isStreaming, false);
+    }
+
+    ReleasingClientCall(
+        ClientCall<ReqT, RespT> delegate,
+        Entry entry,
+        boolean isStreaming,
+        boolean isLatencyTracked) {
       super(delegate);
       this.entry = entry;
       this.isStreaming = isStreaming;
+      this.isLatencyTracked = isLatencyTracked;
+    }
+
+    /**
+     * Records the response latency of the call: the time to the first message for streaming calls
+     * and the time to close for unary calls. The latency is at least {@code minLatencyNanos}.
+     */
+    private void recordLatency(long minLatencyNanos) {
+      if (!isLatencyTracked || wasLatencyRecorded) {
+        return;
+      }
+      wasLatencyRecorded = true;
+      long nowNanos = System.nanoTime();
+      entry.recordLatency(Math.max(nowNanos - startNanos, minLatencyNanos), nowNanos);
     }
 
     @Override
@@ -730,9 +876,20 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
       }
       try {
         entry.checkAndSetIsAlts(delegate());
+        if (isLatencyTracked) {
+          startNanos = System.nanoTime();
+        }
 
         super.start(
             new SimpleForwardingClientCallListener<RespT>(responseListener) {
+              @Override
+              public void onMessage(RespT message) {
+                if (isStreaming) {
+                  recordLatency(0);
+                }
+                super.onMessage(message);
+              }
+
               @Override
               public void onClose(Status status, Metadata trailers) {
                 if (!wasClosed.compareAndSet(false, true)) {
@@ -749,6 +906,15 @@ public class BigtableChannelPool extends ManagedChannel implements BigtableChann
                   } else {
                     entry.incrementErrorCount();
                   }
+                  // Streaming calls that didn't return a message record their latency here. A
+                  // channel that can't reach the server fails calls quickly, which must not make it
+                  // look fast, while other errors say nothing about the latency of the channel.
+                  if (status.isOk()) {
+                    recordLatency(0);
+                  } else if (status.getCode() == Status.Code.UNAVAILABLE
+                      || status.getCode() == Status.Code.DEADLINE_EXCEEDED) {
+                    recordLatency(FAILURE_LATENCY_NANOS);
+                  }
                   super.onClose(status, trailers);
                 } finally {
                   if (wasReleased.compareAndSet(false, true)) {
@@ -70,6 +70,9 @@ public abstract class BigtableChannelPoolSettings {
     LEAST_IN_FLIGHT,
     // Out of two random channels, pick the channel with the fewest in-flight requests.
     POWER_OF_TWO_LEAST_IN_FLIGHT,
+    // Out of two random channels, pick the channel with the lowest peak EWMA response latency
+    // multiplied by its number of in-flight requests.
+    POWER_OF_TWO_PEAK_EWMA,
   }
 
   /**
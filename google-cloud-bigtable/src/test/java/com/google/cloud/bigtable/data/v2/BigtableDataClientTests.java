@@ -27,6 +27,7 @@ import com.google.api.gax.rpc.ServerStreamingCallable;
 import com.google.api.gax.rpc.UnaryCallable;
 import com.google.cloud.bigtable.data.v2.internal.PrepareQueryRequest;
 import com.google.cloud.bigtable.data.v2.internal.PrepareResponse;
+import com.google.cloud.bigtable.data.v2.internal.PreparedStatementImpl;
 import com.google.cloud.bigtable.data.v2.models.AuthorizedViewId;
 import com.google.cloud.bigtable.data.v2.models.BulkMutation;
 import com.google.cloud.bigtable.data.v2.models.ChangeStreamRecord;
@@ -45,8 +46,13 @@ import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
 import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
 import com.google.cloud.bigtable.data.v2.models.TableId;
 import com.google.cloud.bigtable.data.v2.models.TargetId;
+import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
 import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.cloud.bigtable.data.v2.models.sql.StructReader;
 import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStub;
+import com.google.cloud.bigtable.data.v2.stub.sql.ExecuteQueryCallable;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
@@ -98,6 +104,9 @@ public class BigtableDataClientTests {
   @Mock private Batcher<ByteString, Row> mockBulkReadRowsBatcher;
   @Mock private UnaryCallable<PrepareQueryRequest, PrepareResponse> mockPrepareQueryCallable;
 
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private ExecuteQueryCallable mockExecuteQueryCallable;
+
   @Mock(answer = Answers.RETURNS_DEEP_STUBS)
   private ServerStreamingCallable<String, ByteStringRange>
       mockGenerateInitialChangeStreamPartitionsCallable;
@@ -1078,6 +1087,49 @@ public class BigtableDataClientTests {
     Mockito.verify(mockPrepareQueryCallable).call(PrepareQueryRequest.create(query, paramTypes));
   }
 
+  @Test
+  public void proxyExecuteQueryTest() {
+    Mockito.when(mockStub.executeQueryCallable()).thenReturn(mockExecuteQueryCallable);
+    PreparedStatement preparedStatement =
+        PreparedStatementImpl.create(
+            PrepareResponse.fromProto(
+                SqlProtoFactory.prepareResponse(
+                    SqlProtoFactory.metadata(
+                        SqlProtoFactory.columnMetadata("foo", SqlProtoFactory.stringType())))),
+            new HashMap<>(),
+            null,
+            mockStub);
+    BoundStatement boundStatement = preparedStatement.bind().build();
+
+    bigtableDataClient.executeQuery(boundStatement);
+    bigtableDataClient.executeQuery(boundStatement);
+
+    // The callable chain is built once by the stub and reused by every query
+    Mockito.verify(mockExecuteQueryCallable, Mockito.times(2)).call(boundStatement);
+    Mockito.verify(mockStub, Mockito.never()).createExecuteQueryCallable();
+  }
+
+  @Test
+  public void proxyExecuteQueryAsyncTest() {
+    Mockito.when(mockStub.executeQueryCallable()).thenReturn(mockExecuteQueryCallable);
+    PreparedStatement preparedStatement =
+        PreparedStatementImpl.create(
+            PrepareResponse.fromProto(
+                SqlProtoFactory.prepareResponse(
+                    SqlProtoFactory.metadata(
+                        SqlProtoFactory.columnMetadata("foo", SqlProtoFactory.stringType())))),
+            new HashMap<>(),
+            null,
+            mockStub);
+    BoundStatement boundStatement = preparedStatement.bind().build();
+    @SuppressWarnings("unchecked")
+    ResponseObserver<StructReader> mockObserver = Mockito.mock(ResponseObserver.class);
+
+    bigtableDataClient.executeQueryAsync(boundStatement, mockObserver);
+
+    Mockito.verify(mockExecuteQueryCallable).call(boundStatement, mockObserver);
+  }
+
   @Test
   public void executeQueryMustUseSameClientAsPrepare() {
     Mockito.when(mockStub.prepareQueryCallable()).thenReturn(mockPrepareQueryCallable);
@@ -15,8 +15,14 @@
  */
 package com.google.cloud.bigtable.data.v2.internal;
 
+import com.google.common.primitives.UnsignedBytes;
 import com.google.common.truth.Truth;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -56,4 +62,87 @@ public class ByteStringComparatorTest {
     Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, a_)).isEqualTo(-1);
     Truth.assertThat(ByteStringComparator.INSTANCE.compare(a_, a)).isEqualTo(1);
   }
+
+  @Test
+  public void unsignedWordTest() {
+    // The difference is in the sign bit of the first word
+    ByteString a = ByteString.copyFromUtf8("0123456789");
+    ByteString b = a.substring(1).concat(ByteString.copyFrom(new byte[] {(byte) 0xff}));
+    ByteString c = ByteString.copyFrom(new byte[] {(byte) 0x80, 0, 0, 0, 0, 0, 0, 0, 0});
+
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, c)).isEqualTo(-1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(c, a)).isEqualTo(1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, b)).isEqualTo(-1);
+  }
+
+  @Test
+  public void longPrefixTest() {
+    ByteString prefix = ByteString.copyFromUtf8("some-long-shared-row-key-prefix#");
+    ByteString a = prefix.concat(ByteString.copyFromUtf8("1234567"));
+    ByteString b = prefix.concat(ByteString.copyFromUtf8("1234568"));
+    ByteString a_ = prefix.concat(ByteString.copyFromUtf8("12345670"));
+
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, b)).isEqualTo(-1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(b, a)).isEqualTo(1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, a_)).isEqualTo(-1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a_, a)).isEqualTo(1);
+    Truth.assertThat(ByteStringComparator.INSTANCE.compare(a, ByteString.copyFrom(a.toByteArray())))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void matchesUnsignedByteArrayOrderTest() {
+    Random random = new Random(1234);
+    List<byte[]> keys = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      // Small alphabet and shared prefixes, so that most comparisons go past the first word
+      byte[] key = new byte[random.nextInt(40)];
+      for (int j = 0; j < key.length; j++) {
+        key[j] = j < 16 ? (byte) 'k' : (byte) (random.nextInt(4) * 0x55);
+      }
+      keys.add(key);
+    }
+
+    for (byte[] a : keys) {
+      for (byte[] b : keys) {
+        int expected = Integer.signum(UnsignedBytes.lexicographicalComparator().compare(a, b));
+
+        for (ByteString byteStringA : representations(a)) {
+          for (ByteString byteStringB : representations(b)) {
+            Truth.assertThat(ByteStringComparator.INSTANCE.compare(byteStringA, byteStringB))
+                .isEqualTo(expected);
+          }
+        }
+      }
+    }
+  }
+
+  /** The different kinds of ByteStrings that can hold the same bytes. */
+  private static List<ByteString> representations(byte[] bytes) {
+    List<ByteString> results = new ArrayList<>();
+    // Literal
+    results.add(ByteString.copyFrom(bytes));
+
+    // Bounded: a substring with a non zero offset into its backing array
+    byte[] padded = new byte[bytes.length + 3];
+    System.arraycopy(bytes, 0, padded, 1, bytes.length);
+    results.add(ByteString.copyFrom(padded).substring(1, bytes.length + 1));
+
+    // Nio: a direct buffer
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    results.add(UnsafeByteOperations.unsafeWrap(direct));
+
+    // Rope: concatenation of pieces that are too large to be flattened
+    int half = bytes.length / 2;
+    results.add(
+        ByteString.copyFrom(bytes, 0, half)
+            .concat(ByteString.copyFrom(bytes, half, bytes.length - half)));
+    if (bytes.length > 0) {
+      ByteString filler = ByteString.copyFrom(new byte[256]);
+      ByteString rope = filler.concat(ByteString.copyFrom(bytes)).concat(filler);
+      results.add(rope.substring(filler.size(), filler.size() + bytes.length));
+    }
+    return results;
+  }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.internal;
+
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.columnMetadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.metadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.prepareResponse;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.api.gax.rpc.InvalidArgumentException;
+import com.google.bigtable.v2.ResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.BigtableDataClient;
+import com.google.cloud.bigtable.data.v2.BigtableDataSettings;
+import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.cloud.bigtable.data.v2.stub.metrics.NoopMetricsProvider;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.PrepareRpcExpectation;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.TestBigtableSqlService;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import io.grpc.Status.Code;
+import io.grpc.testing.GrpcServerRule;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PreparedStatementCacheTest {
+  private static final ResultSetMetadata METADATA_PROTO =
+      metadata(columnMetadata("_key", bytesType()));
+  private static final Map<String, SqlType<?>> NO_PARAMS = ImmutableMap.of();
+
+  @Rule public GrpcServerRule serverRule = new GrpcServerRule();
+  private TestBigtableSqlService service;
+  private BigtableDataClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    service = new TestBigtableSqlService();
+    serverRule.getServiceRegistry().addService(service);
+    BigtableDataSettings.Builder settings =
+        BigtableDataSettings.newBuilder()
+            .setProjectId(TestBigtableSqlService.DEFAULT_PROJECT_ID)
+            .setInstanceId(TestBigtableSqlService.DEFAULT_INSTANCE_ID)
+            .setAppProfileId(TestBigtableSqlService.DEFAULT_APP_PROFILE_ID)
+            .setCredentialsProvider(NoCredentialsProvider.create())
+            .setPreparedStatementCacheSize(2);
+    settings
+        .stubSettings()
+        .setTransportChannelProvider(
+            FixedTransportChannelProvider.create(
+                GrpcTransportChannel.create(serverRule.getChannel())))
+        // Refreshing channel doesn't work with FixedTransportChannelProvider
+        .setRefreshingChannel(false);
+    // Remove log noise from client side metrics
+    settings.setMetricsProvider(NoopMetricsProvider.INSTANCE);
+    client = BigtableDataClient.create(settings.build());
+  }
+
+  @After
+  public void tearDown() {
+    if (client != null) {
+      client.close();
+    }
+  }
+
+  @Test
+  public void sameQueryIsPreparedOnceTest() {
+    expectPrepare("SELECT * FROM table", NO_PARAMS);
+
+    PreparedStatement first = client.prepareStatement("SELECT * FROM table", NO_PARAMS);
+    PreparedStatement second = client.prepareStatement("SELECT * FROM table", new HashMap<>());
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(service.prepareCount).isEqualTo(1);
+  }
+
+  @Test
+  public void differentParamTypesAreCachedSeparatelyTest() {
+    Map<String, SqlType<?>> stringParam = ImmutableMap.of("param", SqlType.string());
+    Map<String, SqlType<?>> int64Param = ImmutableMap.of("param", SqlType.int64());
+    expectPrepare("SELECT @param AS p FROM table", stringParam);
+    expectPrepare("SELECT @param AS p FROM table", int64Param);
+
+    PreparedStatement first = client.prepareStatement("SELECT @param AS p FROM table", stringParam);
+    PreparedStatement second = client.prepareStatement("SELECT @param AS p FROM table", int64Param);
+
+    assertThat(second).isNotSameInstanceAs(first);
+    assertThat(service.prepareCount).isEqualTo(2);
+  }
+
+  @Test
+  public void changesToTheParamTypesDontAffectTheCacheTest() {
+    Map<String, SqlType<?>> paramTypes = new HashMap<>();
+    paramTypes.put("param", SqlType.string());
+    expectPrepare("SELECT @param AS p FROM table", paramTypes);
+    PreparedStatement first = client.prepareStatement("SELECT @param AS p FROM table", paramTypes);
+
+    paramTypes.put("param", SqlType.int64());
+    expectPrepare("SELECT @param AS p FROM table", paramTypes);
+    PreparedStatement second = client.prepareStatement("SELECT @param AS p FROM table", paramTypes);
+
+    assertThat(second).isNotSameInstanceAs(first);
+    assertThat(
+            client.prepareStatement(
+                "SELECT @param AS p FROM table", ImmutableMap.of("param", SqlType.string())))
+        .isSameInstanceAs(first);
+    assertThat(service.prepareCount).isEqualTo(2);
+  }
+
+  @Test
+  public void concurrentPreparesShareOneRpcTest() throws Exception {
+    service.addExpectation(
+        PrepareRpcExpectation.create()
+            .withSql("SELECT * FROM table")
+            .withParamTypes(NO_PARAMS)
+            .withDelay(Duration.ofMillis(500))
+            .respondWith(prepareResponse(ByteString.copyFromUtf8("plan"), METADATA_PROTO)));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<PreparedStatement>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(
+            executor.submit(() -> client.prepareStatement("SELECT * FROM table", NO_PARAMS)));
+      }
+      PreparedStatement first = futures.get(0).get();
+      for (Future<PreparedStatement> future : futures) {
+        assertThat(future.get()).isSameInstanceAs(first);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(service.prepareCount).isEqualTo(1);
+  }
+
+  @Test
+  public void failedPrepareIsNotCachedTest() {
+    service.addExpectation(
+        PrepareRpcExpectation.create()
+            .withSql("SELECT * FROM table")
+            .withParamTypes(NO_PARAMS)
+            .respondWithStatus(Code.INVALID_ARGUMENT));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> client.prepareStatement("SELECT * FROM table", NO_PARAMS));
+
+    expectPrepare("SELECT * FROM table", NO_PARAMS);
+    assertThat(client.prepareStatement("SELECT * FROM table", NO_PARAMS)).isNotNull();
+    assertThat(service.prepareCount).isEqualTo(2);
+  }
+
+  @Test
+  public void expiredStatementIsPreparedAgainTest() {
+    service.addExpectation(
+        PrepareRpcExpectation.create()
+            .withSql("SELECT * FROM table")
+            .withParamTypes(NO_PARAMS)
+            .respondWith(
+                prepareResponse(
+                    ByteString.copyFromUtf8("plan"),
+                    METADATA_PROTO,
+                    Instant.now().minus(Duration.ofSeconds(1)))));
+    PreparedStatement expired = client.prepareStatement("SELECT * FROM table", NO_PARAMS);
+
+    expectPrepare("SELECT * FROM table", NO_PARAMS);
+    PreparedStatement fresh = client.prepareStatement("SELECT * FROM table", NO_PARAMS);
+
+    assertThat(fresh).isNotSameInstanceAs(expired);
+    assertThat(client.prepareStatement("SELECT * FROM table", NO_PARAMS)).isSameInstanceAs(fresh);
+    assertThat(service.prepareCount).isEqualTo(2);
+  }
+
+  @Test
+  public void leastRecentlyUsedStatementIsEvictedTest() {
+    expectPrepare("SELECT * FROM a", NO_PARAMS);
+    expectPrepare("SELECT * FROM b", NO_PARAMS);
+    expectPrepare("SELECT * FROM c", NO_PARAMS);
+
+    PreparedStatement a = client.prepareStatement("SELECT * FROM a", NO_PARAMS);
+    client.prepareStatement("SELECT * FROM b", NO_PARAMS);
+    // Makes b the least recently used statement
+    assertThat(client.prepareStatement("SELECT * FROM a", NO_PARAMS)).isSameInstanceAs(a);
+    client.prepareStatement("SELECT * FROM c", NO_PARAMS);
+    assertThat(service.prepareCount).isEqualTo(3);
+
+    assertThat(client.prepareStatement("SELECT * FROM a", NO_PARAMS)).isSameInstanceAs(a);
+    assertThat(service.prepareCount).isEqualTo(3);
+
+    expectPrepare("SELECT * FROM b", NO_PARAMS);
+    client.prepareStatement("SELECT * FROM b", NO_PARAMS);
+    assertThat(service.prepareCount).isEqualTo(4);
+  }
+
+  private void expectPrepare(String sql, Map<String, SqlType<?>> paramTypes) {
+    service.addExpectation(
+        PrepareRpcExpectation.create()
+            .withSql(sql)
+            .withParamTypes(paramTypes)
+            .respondWith(prepareResponse(ByteString.copyFromUtf8("plan"), METADATA_PROTO)));
+  }
+}
@@ -159,6 +159,24 @@ public class BulkMutationTest {
     assertThat(actual.toProto(REQUEST_CONTEXT)).isEqualTo(expected.toProto(REQUEST_CONTEXT));
   }
 
+  @Test
+  public void getEntriesTest() {
+    BulkMutation bulkMutation =
+        BulkMutation.create(TableId.of("fake-table")).add("key-a", Mutation.create().deleteRow());
+    assertThat(bulkMutation.getTargetId()).isEqualTo(TableId.of("fake-table"));
+    assertThat(bulkMutation.getEntries()).hasSize(1);
+
+    bulkMutation.add(RowMutationEntry.create("key-b").deleteRow());
+    assertThat(bulkMutation.getEntries())
+        .isEqualTo(bulkMutation.toProto(REQUEST_CONTEXT).getEntriesList());
+    assertThat(bulkMutation.getEntries().get(1).getRowKey())
+        .isEqualTo(ByteString.copyFromUtf8("key-b"));
+
+    BulkMutation copy =
+        BulkMutation.create(bulkMutation.getTargetId()).add(bulkMutation.getEntries().get(1));
+    assertThat(copy.getEntries()).containsExactly(bulkMutation.getEntries().get(1));
+  }
+
   @Test
   public void cloneTest() {
     // Test BulkMutation on a table.
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.bigtable.data.v2.models.RowAdapter.RowBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ColumnarRowAdapterTest {
+
+  private final ColumnarRowAdapter adapter = new ColumnarRowAdapter();
+  private RowBuilder<ColumnarRow> rowBuilder;
+
+  @Before
+  public void setUp() {
+    rowBuilder = adapter.createRowBuilder();
+  }
+
+  @Test
+  public void singleCellRowTest() {
+    ByteString value = ByteString.copyFromUtf8("my-value");
+    rowBuilder.startRow(ByteString.copyFromUtf8("my-key"));
+    rowBuilder.startCell(
+        "my-family",
+        ByteString.copyFromUtf8("my-qualifier"),
+        100,
+        ImmutableList.of("my-label"),
+        value.size());
+    rowBuilder.cellValue(value);
+    rowBuilder.finishCell();
+
+    ColumnarRow row = rowBuilder.finishRow();
+
+    assertThat(row.getKey()).isEqualTo(ByteString.copyFromUtf8("my-key"));
+    assertThat(row.getCellCount()).isEqualTo(1);
+    assertThat(row.getFamily(0)).isEqualTo("my-family");
+    assertThat(row.getQualifier(0)).isEqualTo(ByteString.copyFromUtf8("my-qualifier"));
+    assertThat(row.getTimestamp(0)).isEqualTo(100);
+    assertThat(row.getLabels(0)).containsExactly("my-label");
+    assertThat(row.getValue(0)).isSameInstanceAs(value);
+
+    assertThat(row.toRow())
+        .isEqualTo(
+            Row.create(
+                ByteString.copyFromUtf8("my-key"),
+                ImmutableList.of(
+                    RowCell.create(
+                        "my-family",
+                        ByteString.copyFromUtf8("my-qualifier"),
+                        100,
+                        ImmutableList.of("my-label"),
+                        value))));
+  }
+
+  @Test
+  public void multiCellTest() {
+    List<RowCell> expectedCells = Lists.newArrayList();
+
+    rowBuilder.startRow(ByteString.copyFromUtf8("my-key"));
+
+    // More cells than the initial capacity of the builder
+    for (int i = 0; i < 100; i++) {
+      ByteString value = ByteString.copyFromUtf8("value-" + i);
+      ByteString qualifier = ByteString.copyFromUtf8("qualifier-" + i);
+      rowBuilder.startCell("family", qualifier, 1000, ImmutableList.<String>of(), value.size());
+      rowBuilder.cellValue(value);
+      rowBuilder.finishCell();
+
+      expectedCells.add(
+          RowCell.create("family", qualifier, 1000, ImmutableList.<String>of(), value));
+    }
+
+    ColumnarRow row = rowBuilder.finishRow();
+    assertThat(row.getCellCount()).isEqualTo(100);
+    assertThat(row.getCells()).containsExactlyElementsIn(expectedCells).inOrder();
+    assertThat(row.toRow()).isEqualTo(Row.create(ByteString.copyFromUtf8("my-key"), expectedCells));
+  }
+
+  @Test
+  public void splitCellTest() {
+    ByteString part1 = ByteString.copyFromUtf8("part1");
+    ByteString part2 = ByteString.copyFromUtf8("part2");
+
+    rowBuilder.startRow(ByteString.copyFromUtf8("my-key"));
+    rowBuilder.startCell(
+        "family",
+        ByteString.copyFromUtf8("qualifier"),
+        1000,
+        ImmutableList.<String>of(),
+        part1.size() + part2.size());
+    rowBuilder.cellValue(part1);
+    rowBuilder.cellValue(part2);
+    rowBuilder.finishCell();
+
+    ColumnarRow row = rowBuilder.finishRow();
+    assertThat(row.getValue(0)).isEqualTo(ByteString.copyFromUtf8("part1part2"));
+  }
+
+  @Test
+  public void markerRowTest() {
+    ColumnarRow markerRow = rowBuilder.createScanMarkerRow(ByteString.copyFromUtf8("key"));
+    assertThat(adapter.isScanMarkerRow(markerRow)).isTrue();
+    assertThat(adapter.getKey(markerRow)).isEqualTo(ByteString.copyFromUtf8("key"));
+
+    ByteString value = ByteString.copyFromUtf8("value");
+    rowBuilder.startRow(ByteString.copyFromUtf8("key"));
+    rowBuilder.startCell(
+        "family", ByteString.EMPTY, 1000, ImmutableList.<String>of(), value.size());
+    rowBuilder.cellValue(value);
+    rowBuilder.finishCell();
+
+    assertThat(adapter.isScanMarkerRow(rowBuilder.finishRow())).isFalse();
+  }
+
+  @Test
+  public void sortFamiliesAreSorted() {
+    ByteString col1 = ByteString.copyFromUtf8("col1");
+    ByteString col2 = ByteString.copyFromUtf8("col2");
+    List<String> labels = ImmutableList.of();
+    ByteString value1 = ByteString.copyFromUtf8("my-value1");
+    ByteString value2 = ByteString.copyFromUtf8("my-value2");
+    ByteString value3 = ByteString.copyFromUtf8("my-value3");
+
+    rowBuilder.startRow(ByteString.copyFromUtf8("key1"));
+
+    // family2 with 2 cells is received before family1
+    rowBuilder.startCell("family2", col1, 1000, labels, value1.size());
+    rowBuilder.cellValue(value1);
+    rowBuilder.finishCell();
+
+    rowBuilder.startCell("family2", col2, 1000, labels, value2.size());
+    rowBuilder.cellValue(value2);
+    rowBuilder.finishCell();
+
+    rowBuilder.startCell("family1", col1, 1000, labels, value3.size());
+    rowBuilder.cellValue(value3);
+    rowBuilder.finishCell();
+
+    ColumnarRow row = rowBuilder.finishRow();
+
+    assertThat(row.getFamilies()).containsExactly("family1", "family2").inOrder();
+    assertThat(row.getFamilyStartIndex("family1")).isEqualTo(0);
+    assertThat(row.getFamilyEndIndex("family1")).isEqualTo(1);
+    assertThat(row.getFamilyStartIndex("family2")).isEqualTo(1);
+    assertThat(row.getFamilyEndIndex("family2")).isEqualTo(3);
+    assertThat(row.getFamilyStartIndex("family3")).isEqualTo(-1);
+    assertThat(row.getCells())
+        .containsExactly(
+            RowCell.create("family1", col1, 1000, labels, value3),
+            RowCell.create("family2", col1, 1000, labels, value1),
+            RowCell.create("family2", col2, 1000, labels, value2))
+        .inOrder();
+  }
+
+  @Test
+  public void interleavedFamiliesAreMergedTest() {
+    List<String> labels = ImmutableList.of();
+    rowBuilder.startRow(ByteString.copyFromUtf8("key1"));
+
+    // familyB is received between two groups of familyA, and familyC between two of familyB
+    String[][] cells = {
+      {"familyB", "b1"},
+      {"familyA", "a1"},
+      {"familyA", "a2"},
+      {"familyB", "b2"},
+      {"familyC", "c1"},
+      {"familyB", "b3"},
+      {"familyA", "a3"}
+    };
+    for (String[] cell : cells) {
+      ByteString value = ByteString.copyFromUtf8(cell[1]);
+      rowBuilder.startCell(cell[0], ByteString.copyFromUtf8(cell[1]), 1000, labels, value.size());
+      rowBuilder.cellValue(value);
+      rowBuilder.finishCell();
+    }
+
+    ColumnarRow row = rowBuilder.finishRow();
+
+    assertThat(row.getFamilies()).containsExactly("familyA", "familyB", "familyC").inOrder();
+    assertThat(row.getFamilyStartIndex("familyA")).isEqualTo(0);
+    assertThat(row.getFamilyEndIndex("familyA")).isEqualTo(3);
+    assertThat(row.getFamilyStartIndex("familyB")).isEqualTo(3);
+    assertThat(row.getFamilyEndIndex("familyB")).isEqualTo(6);
+    assertThat(row.getFamilyStartIndex("familyC")).isEqualTo(6);
+    assertThat(row.getFamilyEndIndex("familyC")).isEqualTo(7);
+    List<String> qualifiers = new ArrayList<>();
+    for (RowCell cell : row.getCells()) {
+      qualifiers.add(cell.getFamily() + ":" + cell.getQualifier().toStringUtf8());
+    }
+    // The cells of a family keep the order they were received in
+    assertThat(qualifiers)
+        .containsExactly(
+            "familyA:a1",
+            "familyA:a2",
+            "familyA:a3",
+            "familyB:b1",
+            "familyB:b2",
+            "familyB:b3",
+            "familyC:c1")
+        .inOrder();
+  }
+
+  @Test
+  public void builderIsReusedAcrossRowsTest() {
+    ByteString value = ByteString.copyFromUtf8("value");
+
+    rowBuilder.startRow(ByteString.copyFromUtf8("key1"));
+    rowBuilder.startCell(
+        "family", ByteString.copyFromUtf8("q1"), 1, ImmutableList.of("label"), value.size());
+    rowBuilder.cellValue(value);
+    rowBuilder.finishCell();
+    ColumnarRow row1 = rowBuilder.finishRow();
+    rowBuilder.reset();
+
+    rowBuilder.startRow(ByteString.copyFromUtf8("key2"));
+    rowBuilder.startCell(
+        "family", ByteString.copyFromUtf8("q2"), 2, ImmutableList.<String>of(), value.size());
+    rowBuilder.cellValue(value);
+    rowBuilder.finishCell();
+    ColumnarRow row2 = rowBuilder.finishRow();
+
+    // The first row must not be affected by building the second one
+    assertThat(row1.getCells())
+        .containsExactly(
+            RowCell.create(
+                "family", ByteString.copyFromUtf8("q1"), 1, ImmutableList.of("label"), value));
+    assertThat(row2.getCells())
+        .containsExactly(
+            RowCell.create(
+                "family", ByteString.copyFromUtf8("q2"), 2, ImmutableList.<String>of(), value));
+  }
+
+  @Test
+  public void equalityTest() {
+    ByteString value = ByteString.copyFromUtf8("value");
+    ColumnarRow[] rows = new ColumnarRow[2];
+
+    for (int i = 0; i < rows.length; i++) {
+      rowBuilder.startRow(ByteString.copyFromUtf8("key"));
+      rowBuilder.startCell(
+          "family", ByteString.copyFromUtf8("q"), 1, ImmutableList.<String>of(), value.size());
+      rowBuilder.cellValue(value);
+      rowBuilder.finishCell();
+      rows[i] = rowBuilder.finishRow();
+      rowBuilder.reset();
+    }
+
+    assertThat(rows[0]).isEqualTo(rows[1]);
+    assertThat(rows[0].hashCode()).isEqualTo(rows[1].hashCode());
+    assertThat(rows[0]).isNotEqualTo(ColumnarRow.createEmpty(ByteString.copyFromUtf8("key")));
+  }
+}
@@ -165,4 +165,25 @@ public class RowMutationEntryTest {
                 .setValue(ByteString.copyFrom(Longs.toByteArray(100_000L)))
                 .build());
   }
+
+  @Test
+  public void toProtoReusedUntilModifiedTest() {
+    com.google.cloud.bigtable.data.v2.models.Mutation mutation =
+        com.google.cloud.bigtable.data.v2.models.Mutation.create()
+            .setCell("fake-family", "qualifier-1", 10_000L, "fake-value");
+    RowMutationEntry entry =
+        RowMutationEntry.createFromMutationUnsafe(ByteString.copyFromUtf8("row-key"), mutation);
+
+    MutateRowsRequest.Entry first = entry.toProto();
+    assertThat(entry.toProto()).isSameInstanceAs(first);
+
+    // Changes to the entry or to the mutation it wraps are both picked up
+    entry.deleteFamily("family-2");
+    MutateRowsRequest.Entry second = entry.toProto();
+    assertThat(second.getMutationsCount()).isEqualTo(2);
+    mutation.deleteRow();
+    assertThat(entry.toProto().getMutationsCount()).isEqualTo(3);
+    assertThat(entry.toProto().getMutationsList().subList(0, 2))
+        .isEqualTo(second.getMutationsList());
+  }
 }
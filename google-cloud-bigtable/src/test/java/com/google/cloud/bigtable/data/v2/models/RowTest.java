@@ -162,4 +162,64 @@ public class RowTest {
     assertThat(row.getCells("family4", col1))
         .containsExactly(RowCell.create("family4", col1, 1_000, labels, value));
   }
+
+  @Test
+  public void getLatestCellTest() {
+    ByteString col1 = ByteString.copyFromUtf8("col1");
+    ByteString col2 = ByteString.copyFromUtf8("col2");
+
+    List<String> labels = ImmutableList.of();
+    ByteString value = ByteString.EMPTY;
+
+    Row row =
+        Row.create(
+            ByteString.copyFromUtf8("ignored-key"),
+            ImmutableList.of(
+                RowCell.create("family1", col1, 1_000, labels, value),
+                RowCell.create("family1", col2, 3_000, labels, value),
+                RowCell.create("family1", col2, 2_000, labels, value),
+                RowCell.create("family2", col2, 1_000, labels, value)));
+
+    assertThat(row.getLatestCell("family1", col1))
+        .isEqualTo(RowCell.create("family1", col1, 1_000, labels, value));
+    assertThat(row.getLatestCell("family1", "col2"))
+        .isEqualTo(RowCell.create("family1", col2, 3_000, labels, value));
+    assertThat(row.getLatestCell("family2", col2))
+        .isEqualTo(RowCell.create("family2", col2, 1_000, labels, value));
+
+    assertThat(row.getLatestCell("family2", col1)).isNull();
+    assertThat(row.getLatestCell("family3", col1)).isNull();
+  }
+
+  @Test
+  public void emptyRowLookupTest() {
+    Row row = Row.create(ByteString.copyFromUtf8("key"), ImmutableList.<RowCell>of());
+
+    assertThat(row.getCells("family")).isEmpty();
+    assertThat(row.getCells("family", "col")).isEmpty();
+    assertThat(row.getLatestCell("family", "col")).isNull();
+  }
+
+  @Test
+  public void lookupAfterSerializationTest() throws IOException, ClassNotFoundException {
+    ByteString col = ByteString.copyFromUtf8("col");
+    RowCell cell =
+        RowCell.create("family", col, 1_000, ImmutableList.<String>of(), ByteString.EMPTY);
+    Row row = Row.create(ByteString.copyFromUtf8("key"), ImmutableList.of(cell));
+
+    // Populate the lookup index before serializing
+    assertThat(row.getCells("family", col)).containsExactly(cell);
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(bos);
+    oos.writeObject(row);
+    oos.close();
+
+    ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+    Row actual = (Row) ois.readObject();
+
+    assertThat(actual).isEqualTo(row);
+    assertThat(actual.getCells("family", col)).containsExactly(cell);
+    assertThat(actual.getLatestCell("family", col)).isEqualTo(cell);
+  }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.models.sql;
+
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.arrayType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.arrayValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.boolType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.boolValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.callContext;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.columnMetadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.dateType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.dateValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.enumType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.float32Type;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.float64Type;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.floatValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.int64Type;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.int64Value;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapElement;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.metadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.nullValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.protoType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.structField;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.structType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.structValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.timestampType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.timestampValue;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.Date;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.internal.ResultSetImpl;
+import com.google.cloud.bigtable.data.v2.internal.SqlRow;
+import com.google.cloud.bigtable.data.v2.stub.sql.ExecuteQueryCallContext;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory;
+import com.google.cloud.bigtable.data.v2.stub.sql.SqlServerStreamImpl;
+import com.google.cloud.bigtable.data.v2.test.SingerProto.Genre;
+import com.google.cloud.bigtable.data.v2.test.SingerProto.Singer;
+import com.google.cloud.bigtable.gaxx.testing.FakeStreamingApi.ServerStreamingStashCallable;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ColumnAccessorTest {
+  private static final com.google.bigtable.v2.ResultSetMetadata PROTO_METADATA =
+      metadata(
+          columnMetadata("string", stringType()),
+          columnMetadata("bytes", bytesType()),
+          columnMetadata("long", int64Type()),
+          columnMetadata("double", float64Type()),
+          columnMetadata("float", float32Type()),
+          columnMetadata("boolean", boolType()),
+          columnMetadata("timestamp", timestampType()),
+          columnMetadata("date", dateType()),
+          columnMetadata("struct", structType(structField("string", stringType()))),
+          columnMetadata("list", arrayType(stringType())),
+          columnMetadata("map", mapType(stringType(), int64Type())),
+          columnMetadata(
+              "proto", protoType("com.google.cloud.bigtable.data.v2.test.Singer", "my_bundle")),
+          columnMetadata(
+              "enum", enumType("com.google.cloud.bigtable.data.v2.test.Genre", "other_bundle")));
+  private static final ResultSetMetadata METADATA =
+      ProtoResultSetMetadata.fromProto(PROTO_METADATA);
+  private static final com.google.bigtable.v2.ResultSetMetadata PROTO_METADATA_WITH_LONG =
+      metadata(columnMetadata("name", stringType()), columnMetadata("count", int64Type()));
+  private static final ResultSetMetadata METADATA_WITH_LONG =
+      ProtoResultSetMetadata.fromProto(PROTO_METADATA_WITH_LONG);
+  private static final Singer SINGER =
+      Singer.newBuilder().setName("Foo").setGenre(Genre.POP).build();
+
+  @Test
+  public void scalarAccessorsTest() {
+    ProtoSqlRow row = row(METADATA);
+
+    assertThat(ColumnAccessor.string(METADATA, "string").get(row)).isEqualTo("test");
+    assertThat(ColumnAccessor.bytes(METADATA, "bytes").get(row))
+        .isEqualTo(ByteString.copyFromUtf8("bytes"));
+    assertThat(ColumnAccessor.int64(METADATA, "long").getLong(row)).isEqualTo(100);
+    assertThat(ColumnAccessor.float64(METADATA, "double").getDouble(row)).isEqualTo(1.23d);
+    assertThat(ColumnAccessor.float32(METADATA, "float").getFloat(row)).isEqualTo(1.23f);
+    assertThat(ColumnAccessor.bool(METADATA, "boolean").getBoolean(row)).isTrue();
+    assertThat(ColumnAccessor.timestamp(METADATA, "timestamp").get(row))
+        .isEqualTo(Instant.ofEpochSecond(10000000, 100));
+    assertThat(ColumnAccessor.date(METADATA, "date").get(row))
+        .isEqualTo(Date.fromYearMonthDay(2024, 6, 5));
+    assertThat(ColumnAccessor.int64(METADATA, "long").getColumnIndex()).isEqualTo(2);
+  }
+
+  @Test
+  public void accessorsMatchTheRowGettersTest() {
+    ProtoSqlRow row = row(METADATA);
+
+    assertThat(ColumnAccessor.of(METADATA, "long", SqlType.int64()).get(row))
+        .isEqualTo(row.getLong("long"));
+    assertThat(ColumnAccessor.of(METADATA, "date", SqlType.date()).get(row))
+        .isEqualTo(row.getDate("date"));
+    assertThat(ColumnAccessor.of(METADATA, "struct", SqlType.struct()).get(row))
+        .isEqualTo(row.getStruct("struct"));
+    assertThat(ColumnAccessor.of(METADATA, "list", SqlType.arrayOf(SqlType.string())).get(row))
+        .containsExactly("foo", "bar")
+        .inOrder();
+    assertThat(
+            ColumnAccessor.of(METADATA, "map", SqlType.mapOf(SqlType.string(), SqlType.int64()))
+                .get(row))
+        .isEqualTo(ImmutableMap.of("key", 1L));
+    assertThat(
+            ColumnAccessor.of(METADATA, "proto", SqlType.protoOf(Singer.getDefaultInstance()))
+                .get(row))
+        .isEqualTo(SINGER);
+    assertThat(ColumnAccessor.of(METADATA, "enum", SqlType.enumOf(Genre::forNumber)).get(row))
+        .isEqualTo(Genre.POP);
+  }
+
+  @Test
+  public void nullValuesTest() {
+    ResultSetMetadata metadata =
+        ProtoResultSetMetadata.fromProto(metadata(columnMetadata("long", int64Type())));
+    ColumnAccessor.Int64 accessor = ColumnAccessor.int64(metadata, "long");
+
+    ProtoSqlRow nullRow = ProtoSqlRow.create(metadata, Arrays.asList(nullValue()));
+    assertThat(accessor.isNull(nullRow)).isTrue();
+    assertThrows(NullPointerException.class, () -> accessor.getLong(nullRow));
+    assertThrows(NullPointerException.class, () -> accessor.get(nullRow));
+
+    ProtoSqlRow row = ProtoSqlRow.create(metadata, Arrays.asList(int64Value(0)));
+    assertThat(accessor.isNull(row)).isFalse();
+  }
+
+  @Test
+  public void readsTheCurrentRowOfAResultSetTest() {
+    ResultSet resultSet =
+        resultSetWithRows(
+            ProtoSqlRow.create(METADATA_WITH_LONG, Arrays.asList(stringValue("a"), int64Value(1))),
+            ProtoSqlRow.create(METADATA_WITH_LONG, Arrays.asList(stringValue("b"), int64Value(2))));
+    ResultSetMetadata metadata = resultSet.getMetadata();
+    ColumnAccessor<String> name = ColumnAccessor.string(metadata, "name");
+    ColumnAccessor.Int64 count = ColumnAccessor.int64(metadata, "count");
+
+    assertThat(resultSet.next()).isTrue();
+    assertThat(name.get(resultSet)).isEqualTo("a");
+    assertThat(count.getLong(resultSet)).isEqualTo(1);
+    assertThat(resultSet.next()).isTrue();
+    assertThat(name.get(resultSet)).isEqualTo("b");
+    assertThat(count.getLong(resultSet)).isEqualTo(2);
+    assertThat(resultSet.next()).isFalse();
+    assertThrows(IllegalStateException.class, () -> count.getLong(resultSet));
+  }
+
+  @Test
+  public void columnIsValidatedWhenTheAccessorIsCreatedTest() {
+    assertThrows(IllegalArgumentException.class, () -> ColumnAccessor.int64(METADATA, "string"));
+    assertThrows(
+        IllegalArgumentException.class, () -> ColumnAccessor.int64(METADATA, "doesNotExist"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ColumnAccessor.of(METADATA, "list", SqlType.arrayOf(SqlType.int64())));
+
+    ResultSetMetadata ambiguous =
+        ProtoResultSetMetadata.fromProto(
+            metadata(columnMetadata("long", int64Type()), columnMetadata("long", int64Type())));
+    assertThrows(IllegalArgumentException.class, () -> ColumnAccessor.int64(ambiguous, "long"));
+  }
+
+  @Test
+  public void rejectsRowsOfOtherResultsTest() {
+    ColumnAccessor.Int64 accessor = ColumnAccessor.int64(METADATA_WITH_LONG, "count");
+    ResultSetMetadata otherMetadata =
+        ProtoResultSetMetadata.fromProto(
+            metadata(columnMetadata("count", int64Type()), columnMetadata("name", stringType())));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            accessor.getLong(
+                ProtoSqlRow.create(otherMetadata, Arrays.asList(int64Value(1), stringValue("a")))));
+
+    // Rows with equal metadata are accepted
+    ResultSetMetadata equalMetadata = ProtoResultSetMetadata.fromProto(PROTO_METADATA_WITH_LONG);
+    assertThat(
+            accessor.getLong(
+                ProtoSqlRow.create(equalMetadata, Arrays.asList(stringValue("a"), int64Value(1)))))
+        .isEqualTo(1);
+  }
+
+  private static ProtoSqlRow row(ResultSetMetadata metadata) {
+    return ProtoSqlRow.create(
+        metadata,
+        Arrays.asList(
+            stringValue("test"),
+            bytesValue("bytes"),
+            int64Value(100),
+            floatValue(1.23),
+            floatValue(1.23),
+            boolValue(true),
+            timestampValue(10000000, 100),
+            dateValue(2024, 6, 5),
+            structValue(stringValue("foo")),
+            arrayValue(stringValue("foo"), stringValue("bar")),
+            mapValue(mapElement(stringValue("key"), int64Value(1))),
+            bytesValue(SINGER.toByteArray()),
+            int64Value(Genre.POP.getNumber())));
+  }
+
+  private static ResultSet resultSetWithRows(SqlRow... rows) {
+    ServerStreamingStashCallable<ExecuteQueryCallContext, SqlRow> stream =
+        new ServerStreamingStashCallable<>(Arrays.asList(rows));
+    SettableApiFuture<ResultSetMetadata> future = SettableApiFuture.create();
+    future.set(METADATA_WITH_LONG);
+    PreparedStatement preparedStatement =
+        SqlProtoFactory.preparedStatement(PROTO_METADATA_WITH_LONG);
+    ExecuteQueryCallContext fakeCallContext = callContext(preparedStatement.bind().build(), future);
+    return ResultSetImpl.create(SqlServerStreamImpl.create(future, stream.call(fakeCallContext)));
+  }
+}
@@ -223,6 +223,186 @@ public class BigtableBatchingCallSettingsTest {
     assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  public void testLatencyPercentile() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS)
+            .enableLatencyBasedThrottling(10L, 99);
+
+    BigtableBatchingCallSettings settings = builder.build();
+    assertThat(settings.getTargetRpcLatencyMs()).isEqualTo(10L);
+    assertThat(settings.getTargetRpcLatencyPercentile()).isEqualTo(99.0);
+    assertThat(settings.toBuilder().getTargetRpcLatencyPercentile()).isEqualTo(99.0);
+
+    // Without a percentile the mean latency is targeted
+    assertThat(builder.enableLatencyBasedThrottling(10L).getTargetRpcLatencyPercentile()).isNull();
+    assertThat(
+            builder
+                .enableLatencyBasedThrottling(10L, 90)
+                .disableLatencyBasedThrottling()
+                .getTargetRpcLatencyPercentile())
+        .isNull();
+
+    Exception actualEx = null;
+    try {
+      builder.enableLatencyBasedThrottling(10L, 0);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testCongestionControl() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS)
+            .enableCongestionControl();
+
+    BigtableBatchingCallSettings settings = builder.build();
+    assertThat(settings.isCongestionControlEnabled()).isTrue();
+    assertThat(settings.toBuilder().isCongestionControlEnabled()).isTrue();
+
+    // Both limits are adjusted, but never below a batch
+    DynamicFlowControlSettings flowControlSettings = settings.getDynamicFlowControlSettings();
+    assertThat(flowControlSettings.getInitialOutstandingElementCount()).isEqualTo(25);
+    assertThat(flowControlSettings.getMinOutstandingElementCount()).isEqualTo(10);
+    assertThat(flowControlSettings.getMaxOutstandingElementCount()).isEqualTo(100);
+    assertThat(flowControlSettings.getInitialOutstandingRequestBytes()).isEqualTo(25);
+    assertThat(flowControlSettings.getMinOutstandingRequestBytes()).isEqualTo(20);
+    assertThat(flowControlSettings.getMaxOutstandingRequestBytes()).isEqualTo(100);
+
+    Exception actualEx = null;
+    try {
+      builder.enableLatencyBasedThrottling(10L).build();
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalStateException.class);
+
+    actualEx = null;
+    try {
+      builder.disableLatencyBasedThrottling().setServerInitiatedFlowControl(true).build();
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalStateException.class);
+
+    settings = builder.disableCongestionControl().build();
+    assertThat(settings.isCongestionControlEnabled()).isFalse();
+  }
+
+  @Test
+  public void testTabletAwareBatching() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS);
+    assertThat(builder.build().isTabletAwareBatchingEnabled()).isFalse();
+
+    BigtableBatchingCallSettings settings =
+        builder.enableTabletAwareBatching(java.time.Duration.ofMinutes(1), 8).build();
+    assertThat(settings.isTabletAwareBatchingEnabled()).isTrue();
+    assertThat(settings.getSplitPointsRefreshInterval()).isEqualTo(java.time.Duration.ofMinutes(1));
+    assertThat(settings.getMaxKeyRanges()).isEqualTo(8);
+    assertThat(settings.toBuilder().build().toString()).isEqualTo(settings.toString());
+
+    Exception actualEx = null;
+    try {
+      builder.enableTabletAwareBatching(java.time.Duration.ZERO, 8);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+
+    actualEx = null;
+    try {
+      builder.enableTabletAwareBatching(java.time.Duration.ofMinutes(1), 0);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+
+    assertThat(builder.disableTabletAwareBatching().build().isTabletAwareBatchingEnabled())
+        .isFalse();
+  }
+
+  @Test
+  public void testSameRowCoalescing() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS);
+    assertThat(builder.isSameRowCoalescingEnabled()).isFalse();
+    assertThat(builder.build().isSameRowCoalescingEnabled()).isFalse();
+
+    BigtableBatchingCallSettings settings = builder.setSameRowCoalescingEnabled(true).build();
+    assertThat(settings.isSameRowCoalescingEnabled()).isTrue();
+    assertThat(settings.toBuilder().isSameRowCoalescingEnabled()).isTrue();
+
+    settings = settings.toBuilder().setSameRowCoalescingEnabled(false).build();
+    assertThat(settings.isSameRowCoalescingEnabled()).isFalse();
+  }
+
+  @Test
+  public void testSpillToDisk() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS);
+    assertThat(builder.build().isSpillToDiskEnabled()).isFalse();
+
+    java.nio.file.Path directory = java.nio.file.Paths.get("/tmp/bigtable-spill");
+    BigtableBatchingCallSettings settings =
+        builder.enableSpillToDisk(directory, 1024 * 1024).build();
+    assertThat(settings.isSpillToDiskEnabled()).isTrue();
+    assertThat(settings.getSpillDirectory()).isEqualTo(directory);
+    assertThat(settings.getMaxSpillBytes()).isEqualTo(1024 * 1024);
+    assertThat(settings.toBuilder().build().toString()).isEqualTo(settings.toString());
+
+    Exception actualEx = null;
+    try {
+      builder.enableSpillToDisk(directory, 0);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+
+    assertThat(builder.disableSpillToDisk().build().isSpillToDiskEnabled()).isFalse();
+  }
+
+  @Test
+  public void testParallelBulkMutation() {
+    BigtableBatchingCallSettings.Builder builder =
+        BigtableBatchingCallSettings.newBuilder(new MutateRowsBatchingDescriptor())
+            .setBatchingSettings(BATCHING_SETTINGS);
+    assertThat(builder.build().isParallelBulkMutationEnabled()).isFalse();
+
+    BigtableBatchingCallSettings settings =
+        builder.enableParallelBulkMutation(1024 * 1024, 4).build();
+    assertThat(settings.isParallelBulkMutationEnabled()).isTrue();
+    assertThat(settings.getMaxParallelRequestBytes()).isEqualTo(1024 * 1024);
+    assertThat(settings.getMaxParallelRequests()).isEqualTo(4);
+    assertThat(settings.toBuilder().build().toString()).isEqualTo(settings.toString());
+
+    Exception actualEx = null;
+    try {
+      builder.enableParallelBulkMutation(0, 4);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+
+    actualEx = null;
+    try {
+      builder.enableParallelBulkMutation(1024, 0);
+    } catch (Exception ex) {
+      actualEx = ex;
+    }
+    assertThat(actualEx).isInstanceOf(IllegalArgumentException.class);
+
+    assertThat(builder.disableParallelBulkMutation().build().isParallelBulkMutationEnabled())
+        .isFalse();
+  }
+
   private void verifyFlowControlSettingWhenLatencyBasedThrottlingDisabled(
       DynamicFlowControlSettings settings) {
     assertThat(settings.getInitialOutstandingElementCount())
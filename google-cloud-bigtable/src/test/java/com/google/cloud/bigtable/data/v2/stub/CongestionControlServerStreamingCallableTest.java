@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.gax.core.FakeApiClock;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ResourceExhaustedException;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.bigtable.v2.MutateRowsResponse;
+import com.google.bigtable.v2.Mutation;
+import com.google.bigtable.v2.RateLimitInfo;
+import com.google.cloud.bigtable.data.v2.stub.CongestionController.Outcome;
+import com.google.cloud.bigtable.gaxx.testing.FakeStatusCode;
+import com.google.protobuf.ByteString;
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class CongestionControlServerStreamingCallableTest {
+  private static final MutateRowsRequest REQUEST =
+      MutateRowsRequest.newBuilder()
+          .addEntries(entry("k1"))
+          .addEntries(entry("k2"))
+          .addEntries(entry("k3"))
+          .build();
+
+  private final ApiCallContext context = GrpcCallContext.createDefault();
+  private FakeApiClock clock;
+  private FakeCallable innerCallable;
+  private RecordingController controller;
+  private ResponseObserver<MutateRowsResponse> outerObserver;
+  private CongestionControlServerStreamingCallable callable;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    clock = new FakeApiClock(0);
+    innerCallable = new FakeCallable();
+    controller = new RecordingController();
+    outerObserver = Mockito.mock(ResponseObserver.class);
+    callable = new CongestionControlServerStreamingCallable(innerCallable, controller, clock);
+  }
+
+  @Test
+  public void testSuccessfulAttemptTest() {
+    callable.call(REQUEST, outerObserver, context);
+    assertThat(controller.events).containsExactly("started 3");
+
+    MutateRowsResponse response =
+        MutateRowsResponse.newBuilder()
+            .addEntries(MutateRowsResponse.Entry.newBuilder().setIndex(0))
+            .build();
+    clock.incrementNanoTime(TimeUnit.MILLISECONDS.toNanos(5));
+    innerCallable.observer.onResponse(response);
+    innerCallable.observer.onComplete();
+
+    assertThat(controller.events)
+        .containsExactly("started 3", "finished 3 " + TimeUnit.MILLISECONDS.toNanos(5) + " SUCCESS")
+        .inOrder();
+    Mockito.verify(outerObserver).onResponse(response);
+    Mockito.verify(outerObserver).onComplete();
+  }
+
+  @Test
+  public void testRateLimitInfoTest() {
+    callable.call(REQUEST, outerObserver, context);
+
+    innerCallable.observer.onResponse(
+        MutateRowsResponse.newBuilder()
+            .setRateLimitInfo(
+                RateLimitInfo.newBuilder()
+                    .setFactor(0.8)
+                    .setPeriod(com.google.protobuf.Duration.newBuilder().setSeconds(10)))
+            .build());
+    // Invalid RateLimitInfo is ignored
+    innerCallable.observer.onResponse(
+        MutateRowsResponse.newBuilder().setRateLimitInfo(RateLimitInfo.newBuilder()).build());
+    innerCallable.observer.onComplete();
+
+    assertThat(controller.events)
+        .containsExactly("started 3", "rate limit 0.8 PT10S", "finished 3 0 SUCCESS")
+        .inOrder();
+  }
+
+  @Test
+  public void testSubSecondRateLimitPeriodTest() {
+    callable.call(REQUEST, outerObserver, context);
+
+    innerCallable.observer.onResponse(
+        MutateRowsResponse.newBuilder()
+            .setRateLimitInfo(
+                RateLimitInfo.newBuilder()
+                    .setFactor(0.5)
+                    .setPeriod(com.google.protobuf.Duration.newBuilder().setNanos(250_000_000)))
+            .build());
+
+    assertThat(controller.events).containsExactly("started 3", "rate limit 0.5 PT0.25S").inOrder();
+  }
+
+  @Test
+  public void testSynchronousErrorReleasesTheAttemptTest() {
+    RuntimeException error = new IllegalStateException("fake");
+    innerCallable.error = error;
+
+    IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class, () -> callable.call(REQUEST, outerObserver, context));
+
+    assertThat(thrown).isSameInstanceAs(error);
+    assertThat(controller.events).containsExactly("started 3", "finished 3 0 FAILED").inOrder();
+  }
+
+  @Test
+  public void testRejectedEntriesAreOverloadTest() {
+    callable.call(REQUEST, outerObserver, context);
+
+    innerCallable.observer.onResponse(
+        MutateRowsResponse.newBuilder()
+            .addEntries(
+                MutateRowsResponse.Entry.newBuilder()
+                    .setIndex(1)
+                    .setStatus(Status.newBuilder().setCode(Code.RESOURCE_EXHAUSTED_VALUE)))
+            .build());
+    innerCallable.observer.onComplete();
+
+    assertThat(controller.events).containsExactly("started 3", "finished 3 0 OVERLOADED").inOrder();
+  }
+
+  @Test
+  public void testErrorsTest() {
+    callable.call(REQUEST, outerObserver, context);
+    ResourceExhaustedException overload =
+        new ResourceExhaustedException(
+            new RuntimeException("fake"),
+            new FakeStatusCode(StatusCode.Code.RESOURCE_EXHAUSTED),
+            true);
+    innerCallable.observer.onError(overload);
+
+    callable.call(REQUEST, outerObserver, context);
+    RuntimeException other = new RuntimeException("fake");
+    innerCallable.observer.onError(other);
+
+    assertThat(controller.events)
+        .containsExactly("started 3", "finished 3 0 OVERLOADED", "started 3", "finished 3 0 FAILED")
+        .inOrder();
+    Mockito.verify(outerObserver).onError(overload);
+    Mockito.verify(outerObserver).onError(other);
+  }
+
+  private static MutateRowsRequest.Entry entry(String key) {
+    return MutateRowsRequest.Entry.newBuilder()
+        .setRowKey(ByteString.copyFromUtf8(key))
+        .addMutations(
+            Mutation.newBuilder().setDeleteFromRow(Mutation.DeleteFromRow.getDefaultInstance()))
+        .build();
+  }
+
+  private static class RecordingController implements CongestionController {
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onAttemptStarted(int entryCount) {
+      events.add("started " + entryCount);
+    }
+
+    @Override
+    public void onRateLimitInfo(double factor, Duration period) {
+      events.add("rate limit " + factor + " " + period);
+    }
+
+    @Override
+    public void onAttemptFinished(int entryCount, long latencyNanos, Outcome outcome) {
+      events.add("finished " + entryCount + " " + latencyNanos + " " + outcome);
+    }
+  }
+
+  private static class FakeCallable
+      extends ServerStreamingCallable<MutateRowsRequest, MutateRowsResponse> {
+    private ResponseObserver<MutateRowsResponse> observer;
+    private RuntimeException error;
+
+    @Override
+    public void call(
+        MutateRowsRequest request,
+        ResponseObserver<MutateRowsResponse> responseObserver,
+        ApiCallContext context) {
+      if (error != null) {
+        throw error;
+      }
+      observer = responseObserver;
+    }
+  }
+}
@@ -154,6 +154,30 @@ public class DynamicFlowControlCallableTest {
         .isEqualTo(INITIAL_ELEMENT - expectedStep);
   }
 
+  @Test
+  public void testPercentileTargetReactsToTailLatency() throws Exception {
+    // A few slow rpcs barely move the mean but dominate the p99
+    for (int i = 0; i < 200; i++) {
+      stats.updateLatency(10);
+    }
+    for (int i = 0; i < 5; i++) {
+      stats.updateLatency(TARGET_LATENCY_MS * 4);
+    }
+    assertThat(stats.getMeanLatency()).isLessThan(TARGET_LATENCY_MS);
+
+    callableToTest =
+        new DynamicFlowControlCallable(
+            innerCallable, flowController, stats, TARGET_LATENCY_MS, 99.0, ADJUSTING_INTERVAL_MS);
+    ApiFuture future = callableToTest.futureCall(request, context);
+    future.get();
+
+    long expectedStep =
+        Math.round(
+            MAX_ELEMENT * DynamicFlowControlCallable.VERY_HIGH_LATENCY_DECREASE_CONCURRENCY_RATE);
+    assertThat(flowController.getCurrentElementCountLimit())
+        .isEqualTo(INITIAL_ELEMENT - expectedStep);
+  }
+
   @Test
   public void testDecreasingThresholdsCantGoOverLimit() throws Exception {
     // set adjusting intervals to 0 so the thresholds can keep getting updated
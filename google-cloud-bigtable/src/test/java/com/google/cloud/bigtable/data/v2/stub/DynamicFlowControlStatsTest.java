@@ -18,6 +18,7 @@ package com.google.cloud.bigtable.data.v2.stub;
 import static com.google.common.truth.Truth.assertThat;
 
 import com.google.api.core.ApiClock;
+import com.google.common.collect.Range;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -69,6 +70,54 @@ public class DynamicFlowControlStatsTest {
     assertThat(stats.getMeanLatency()).isLessThan(6);
   }
 
+  @Test
+  public void testLatencyPercentile() {
+    Mockito.when(clock.millisTime()).thenReturn(0L);
+    DynamicFlowControlStats stats = new DynamicFlowControlStats(0.015, clock);
+    assertThat(stats.getLatencyPercentile(99)).isEqualTo(0);
+
+    for (int i = 1; i <= 1000; i++) {
+      stats.updateLatency(i);
+    }
+    // Percentiles are never understated and are within 12.5% of the exact value
+    assertThat(stats.getLatencyPercentile(50)).isIn(Range.closed(500L, 563L));
+    assertThat(stats.getLatencyPercentile(99)).isIn(Range.closed(990L, 1114L));
+    assertThat(stats.getLatencyPercentile(100)).isIn(Range.closed(1000L, 1125L));
+
+    // Small latencies are exact
+    stats = new DynamicFlowControlStats(0.015, clock);
+    stats.updateLatency(3);
+    assertThat(stats.getLatencyPercentile(50)).isEqualTo(3);
+
+    // Very large latencies are capped
+    stats.updateLatency(Long.MAX_VALUE);
+    assertThat(stats.getLatencyPercentile(100)).isAtLeast(TimeUnit.MINUTES.toMillis(17));
+  }
+
+  @Test
+  public void testLatencyPercentileWindow() {
+    Mockito.when(clock.millisTime()).thenReturn(0L);
+    DynamicFlowControlStats stats = new DynamicFlowControlStats(0.015, clock);
+    for (int i = 0; i < 100; i++) {
+      stats.updateLatency(1000);
+    }
+
+    Mockito.when(clock.millisTime()).thenReturn(TimeUnit.SECONDS.toMillis(30));
+    stats.updateLatency(10);
+    assertThat(stats.getLatencyPercentile(50)).isAtLeast(1000);
+
+    // The slow latencies slide out of the window after a minute
+    Mockito.when(clock.millisTime()).thenReturn(TimeUnit.SECONDS.toMillis(65));
+    assertThat(stats.getLatencyPercentile(50)).isEqualTo(10);
+
+    Mockito.when(clock.millisTime()).thenReturn(TimeUnit.SECONDS.toMillis(95));
+    assertThat(stats.getLatencyPercentile(50)).isEqualTo(0);
+
+    // Reused slices start empty
+    stats.updateLatency(12);
+    assertThat(stats.getLatencyPercentile(100)).isEqualTo(12);
+  }
+
   @Test(timeout = 1000)
   public void testConcurrentUpdates() throws InterruptedException, ExecutionException {
     final DynamicFlowControlStats stats = new DynamicFlowControlStats();
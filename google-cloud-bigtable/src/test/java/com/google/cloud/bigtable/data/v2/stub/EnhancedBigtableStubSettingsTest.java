@@ -16,6 +16,7 @@
 package com.google.cloud.bigtable.data.v2.stub;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
 
 import com.google.api.gax.batching.BatchingSettings;
 import com.google.api.gax.batching.FlowControlSettings;
@@ -590,6 +591,7 @@ public class EnhancedBigtableStubSettingsTest {
         .setRetryableCodes(Code.ABORTED, Code.DEADLINE_EXCEEDED)
         .setRetrySettings(retrySettings)
         .setBatchingSettings(batchingSettings)
+        .setCoalescingEnabled(true)
         .build();
 
     // Point read & streaming readRows settings must match point lookup settings.
@@ -614,6 +616,7 @@ public class EnhancedBigtableStubSettingsTest {
         .isEqualTo(retrySettings);
     assertThat(builder.build().toBuilder().bulkReadRowsSettings().getBatchingSettings())
         .isSameInstanceAs(batchingSettings);
+    assertThat(builder.build().toBuilder().bulkReadRowsSettings().isCoalescingEnabled()).isTrue();
   }
 
   @Test
@@ -987,6 +990,41 @@ public class EnhancedBigtableStubSettingsTest {
     assertThat(builder.build().toBuilder().getEnableRetryInfo()).isFalse();
   }
 
+  @Test
+  public void rowCacheSettingsTest() {
+    EnhancedBigtableStubSettings.Builder builder =
+        EnhancedBigtableStubSettings.newBuilder()
+            .setProjectId("my-project")
+            .setInstanceId("my-instance");
+    assertThat(builder.getRowCacheSettings().isEnabled()).isFalse();
+
+    RowCacheSettings rowCacheSettings =
+        RowCacheSettings.newBuilder()
+            .setEnabled(true)
+            .setMaxWeightBytes(1024)
+            .setExpireAfterWrite(java.time.Duration.ofSeconds(5))
+            .build();
+    builder.setRowCacheSettings(rowCacheSettings);
+    assertThat(builder.getRowCacheSettings()).isEqualTo(rowCacheSettings);
+    assertThat(builder.build().getRowCacheSettings()).isEqualTo(rowCacheSettings);
+    assertThat(builder.build().toBuilder().getRowCacheSettings()).isEqualTo(rowCacheSettings);
+  }
+
+  @Test
+  public void preparedStatementCacheSizeTest() {
+    EnhancedBigtableStubSettings.Builder builder =
+        EnhancedBigtableStubSettings.newBuilder()
+            .setProjectId("my-project")
+            .setInstanceId("my-instance");
+    assertThat(builder.getPreparedStatementCacheSize()).isEqualTo(0);
+
+    builder.setPreparedStatementCacheSize(100);
+    assertThat(builder.getPreparedStatementCacheSize()).isEqualTo(100);
+    assertThat(builder.build().getPreparedStatementCacheSize()).isEqualTo(100);
+    assertThat(builder.build().toBuilder().getPreparedStatementCacheSize()).isEqualTo(100);
+    assertThrows(IllegalArgumentException.class, () -> builder.setPreparedStatementCacheSize(-1));
+  }
+
   static final String[] SETTINGS_LIST = {
     "projectId",
     "instanceId",
@@ -996,6 +1034,8 @@ public class EnhancedBigtableStubSettingsTest {
     "enableRoutingCookie",
     "enableRetryInfo",
     "enableSkipTrailers",
+    "rowCacheSettings",
+    "preparedStatementCacheSize",
     "readRowsSettings",
     "readRowSettings",
     "sampleRowKeysSettings",
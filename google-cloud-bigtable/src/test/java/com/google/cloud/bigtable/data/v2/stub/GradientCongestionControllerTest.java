@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.gax.batching.DynamicFlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.batching.FlowController.LimitExceededBehavior;
+import com.google.api.gax.core.FakeApiClock;
+import com.google.cloud.bigtable.data.v2.stub.CongestionController.Outcome;
+import com.google.cloud.bigtable.data.v2.stub.DynamicFlowControlStats.CongestionControlState;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GradientCongestionControllerTest {
+  private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private FakeApiClock clock;
+  private FlowController flowController;
+  private DynamicFlowControlStats stats;
+  private GradientCongestionController controller;
+
+  @Before
+  public void setUp() {
+    clock = new FakeApiClock(0);
+    flowController =
+        new FlowController(
+            DynamicFlowControlSettings.newBuilder()
+                .setLimitExceededBehavior(LimitExceededBehavior.Block)
+                .setInitialOutstandingElementCount(250L)
+                .setMinOutstandingElementCount(10L)
+                .setMaxOutstandingElementCount(1000L)
+                .setInitialOutstandingRequestBytes(25_000L)
+                .setMinOutstandingRequestBytes(1_000L)
+                .setMaxOutstandingRequestBytes(100_000L)
+                .build());
+    stats = new DynamicFlowControlStats();
+    controller = new GradientCongestionController(flowController, stats, clock);
+  }
+
+  @Test
+  public void testStableLatencyGrowsBothLimitsTest() {
+    for (int i = 0; i < 10; i++) {
+      attempt(250, LATENCY_NANOS, Outcome.SUCCESS);
+    }
+
+    long elementLimit = flowController.getCurrentElementCountLimit();
+    assertThat(elementLimit).isGreaterThan(250);
+    // Bytes follow the entries in proportion
+    assertThat(flowController.getCurrentRequestBytesLimit()).isEqualTo(elementLimit * 100);
+
+    CongestionControlState state = stats.getCongestionControlState();
+    assertThat(state.getElementCountLimit()).isEqualTo(elementLimit);
+    assertThat(state.getRequestBytesLimit()).isEqualTo(elementLimit * 100);
+    assertThat(state.getLatencyNanos()).isEqualTo(LATENCY_NANOS);
+    assertThat(state.getGradient()).isEqualTo(1.0);
+    assertThat(state.isServerRateLimited()).isFalse();
+  }
+
+  @Test
+  public void testUnusedLimitDoesNotGrowTest() {
+    for (int i = 0; i < 10; i++) {
+      attempt(10, LATENCY_NANOS, Outcome.SUCCESS);
+    }
+
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(250);
+  }
+
+  @Test
+  public void testLatencySpikeShrinksLimitTest() {
+    for (int i = 0; i < 10; i++) {
+      attempt(250, LATENCY_NANOS, Outcome.SUCCESS);
+    }
+    long limit = flowController.getCurrentElementCountLimit();
+
+    for (int i = 0; i < 5; i++) {
+      attempt(250, 10 * LATENCY_NANOS, Outcome.SUCCESS);
+    }
+
+    assertThat(flowController.getCurrentElementCountLimit()).isLessThan(limit);
+    assertThat(stats.getCongestionControlState().getGradient())
+        .isEqualTo(GradientCongestionController.MIN_GRADIENT);
+  }
+
+  @Test
+  public void testOverloadBacksOffOncePerIntervalTest() {
+    attempt(250, LATENCY_NANOS, Outcome.OVERLOADED);
+    attempt(250, LATENCY_NANOS, Outcome.OVERLOADED);
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(175);
+
+    clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(1));
+    attempt(250, LATENCY_NANOS, Outcome.OVERLOADED);
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(122);
+
+    // Other errors don't change the limit
+    attempt(250, LATENCY_NANOS, Outcome.FAILED);
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(122);
+  }
+
+  @Test
+  public void testLimitIsBoundedTest() {
+    for (int i = 0; i < 20; i++) {
+      attempt(1000, LATENCY_NANOS, Outcome.OVERLOADED);
+      clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(1));
+    }
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(10);
+    assertThat(flowController.getCurrentRequestBytesLimit()).isEqualTo(1_000);
+
+    for (int i = 0; i < 1000; i++) {
+      attempt(1000, LATENCY_NANOS, Outcome.SUCCESS);
+    }
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(1000);
+    assertThat(flowController.getCurrentRequestBytesLimit()).isEqualTo(100_000);
+  }
+
+  @Test
+  public void testRateLimitInfoTest() {
+    // The factor is capped like on the server, and only applied once per period
+    controller.onRateLimitInfo(0.1, Duration.ofSeconds(10));
+    controller.onRateLimitInfo(0.1, Duration.ofSeconds(10));
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(175);
+    assertThat(stats.getCongestionControlState().isServerRateLimited()).isTrue();
+
+    // Latency can't raise the limit while the server is rate limiting
+    for (int i = 0; i < 10; i++) {
+      attempt(250, LATENCY_NANOS, Outcome.SUCCESS);
+    }
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(175);
+
+    clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(10));
+    controller.onRateLimitInfo(10, Duration.ofSeconds(10));
+    assertThat(flowController.getCurrentElementCountLimit()).isEqualTo(228);
+
+    // Once the server stops sending RateLimitInfo latency takes over again
+    clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(10));
+    attempt(250, LATENCY_NANOS, Outcome.SUCCESS);
+    assertThat(flowController.getCurrentElementCountLimit()).isGreaterThan(228);
+    assertThat(stats.getCongestionControlState().isServerRateLimited()).isFalse();
+  }
+
+  private void attempt(int entryCount, long latencyNanos, Outcome outcome) {
+    controller.onAttemptStarted(entryCount);
+    controller.onAttemptFinished(entryCount, latencyNanos, outcome);
+  }
+}
@@ -269,6 +269,66 @@ public class MutateRowsAttemptCallableTest {
     assertThat(failedMutations.get(0).getError().isRetryable()).isFalse();
   }
 
+  @Test
+  public void multipleAttemptsTest() throws Exception {
+    MutateRowsRequest request =
+        MutateRowsRequest.newBuilder()
+            .addEntries(Entry.newBuilder().setRowKey(ByteString.copyFromUtf8("0")))
+            .addEntries(Entry.newBuilder().setRowKey(ByteString.copyFromUtf8("1")))
+            .addEntries(Entry.newBuilder().setRowKey(ByteString.copyFromUtf8("2")))
+            .addEntries(Entry.newBuilder().setRowKey(ByteString.copyFromUtf8("3")))
+            .build();
+    innerCallable.response.add(
+        response(
+            OK_STATUS_PROTO,
+            TRANSIENT_ERROR_STATUS_PROTO,
+            PERMENANT_ERROR_STATUS_PROTO,
+            TRANSIENT_ERROR_STATUS_PROTO));
+
+    MutateRowsAttemptCallable attemptCallable =
+        new MutateRowsAttemptCallable(
+            innerCallable, request, callContext, retryCodes, mockRetryAlgorithm);
+    attemptCallable.setExternalFuture(parentFuture);
+    attemptCallable.call();
+    assertThat(parentFuture.attemptFuture.get().getIsRetryable()).isTrue();
+
+    // Entries 1 and 3 are retried
+    innerCallable.response =
+        Lists.newArrayList(response(OK_STATUS_PROTO, TRANSIENT_ERROR_STATUS_PROTO));
+    attemptCallable.call();
+    assertThat(innerCallable.lastRequest.getEntriesList())
+        .containsExactly(request.getEntries(1), request.getEntries(3))
+        .inOrder();
+    assertThat(parentFuture.attemptFuture.get().getIsRetryable()).isTrue();
+
+    // Entry 3 is retried
+    innerCallable.response = Lists.newArrayList(response(PERMENANT_ERROR_STATUS_PROTO));
+    attemptCallable.call();
+    assertThat(innerCallable.lastRequest.getEntriesList()).containsExactly(request.getEntries(3));
+
+    MutateRowsAttemptResult result = parentFuture.attemptFuture.get();
+    assertThat(result.getIsRetryable()).isFalse();
+    List<FailedMutation> failedMutations = result.getFailedMutations();
+    assertThat(failedMutations).hasSize(2);
+    assertThat(failedMutations.get(0).getIndex()).isEqualTo(2);
+    assertThat(failedMutations.get(0).getError().getStatusCode().getCode())
+        .isEqualTo(Code.INVALID_ARGUMENT);
+    assertThat(failedMutations.get(1).getIndex()).isEqualTo(3);
+    assertThat(failedMutations.get(1).getError().getStatusCode().getCode())
+        .isEqualTo(Code.INVALID_ARGUMENT);
+    // The errors are created once
+    assertThat(failedMutations.get(0).getError())
+        .isSameInstanceAs(failedMutations.get(0).getError());
+  }
+
+  private static MutateRowsResponse response(Status... statuses) {
+    MutateRowsResponse.Builder response = MutateRowsResponse.newBuilder();
+    for (int i = 0; i < statuses.length; i++) {
+      response.addEntries(MutateRowsResponse.Entry.newBuilder().setIndex(i).setStatus(statuses[i]));
+    }
+    return response.build();
+  }
+
   @Test
   public void rpcRetryableError() {
     // Setup the request & response
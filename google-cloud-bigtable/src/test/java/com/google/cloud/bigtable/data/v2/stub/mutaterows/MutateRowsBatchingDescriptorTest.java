@@ -253,4 +253,91 @@ public class MutateRowsBatchingDescriptorTest {
                 .shouldFlush(3, 20 * 1000 * 1000))
         .isTrue();
   }
+
+  @Test
+  public void coalescingRequestBuilderTest() {
+    MutateRowsBatchingDescriptor underTest = new MutateRowsBatchingDescriptor(true);
+    BatchingRequestBuilder<RowMutationEntry, BulkMutation> requestBuilder =
+        underTest.newRequestBuilder(BulkMutation.create("fake-table"));
+    requestBuilder.add(RowMutationEntry.create("key1").setCell(FAMILY, QUALIFIER, 1_000L, "v1"));
+    requestBuilder.add(RowMutationEntry.create("key2").deleteRow());
+    requestBuilder.add(
+        RowMutationEntry.create("key1")
+            .deleteCells(FAMILY, QUALIFIER)
+            .setCell(FAMILY, QUALIFIER, 2_000L, "v2"));
+
+    assertThat(requestBuilder.build().toProto(requestContext))
+        .isEqualTo(
+            BulkMutation.create("fake-table")
+                .add(
+                    "key1",
+                    Mutation.create()
+                        .setCell(FAMILY, QUALIFIER, 1_000L, "v1")
+                        .deleteCells(FAMILY, QUALIFIER)
+                        .setCell(FAMILY, QUALIFIER, 2_000L, "v2"))
+                .add("key2", Mutation.create().deleteRow())
+                .toProto(requestContext));
+  }
+
+  @Test
+  public void splitCoalescedResponseTest() {
+    BatchEntry<RowMutationEntry, Void> batchEntry1 =
+        BatchEntry.create(
+            RowMutationEntry.create("key1").deleteRow(), SettableApiFuture.<Void>create());
+    BatchEntry<RowMutationEntry, Void> batchEntry2 =
+        BatchEntry.create(
+            RowMutationEntry.create("key2").deleteRow(), SettableApiFuture.<Void>create());
+    BatchEntry<RowMutationEntry, Void> batchEntry3 =
+        BatchEntry.create(
+            RowMutationEntry.create("key1").deleteRow(), SettableApiFuture.<Void>create());
+    InternalException error =
+        new InternalException(null, GrpcStatusCode.of(Status.Code.INTERNAL), false);
+
+    MutateRowsBatchingDescriptor underTest = new MutateRowsBatchingDescriptor(true);
+    // The request has 2 entries, key1 at index 0 and key2 at index 1
+    underTest.splitResponse(
+        MutateRowsAttemptResult.create(ImmutableList.of(FailedMutation.create(0, error)), false),
+        ImmutableList.of(batchEntry1, batchEntry2, batchEntry3));
+
+    assertThat(
+            assertThrows(ExecutionException.class, () -> batchEntry1.getResultFuture().get())
+                .getCause())
+        .isSameInstanceAs(error);
+    assertThat(batchEntry2.getResultFuture().isDone()).isTrue();
+    assertThat(
+            assertThrows(ExecutionException.class, () -> batchEntry3.getResultFuture().get())
+                .getCause())
+        .isSameInstanceAs(error);
+  }
+
+  @Test
+  public void splitCoalescedExceptionTest() throws Exception {
+    BatchEntry<RowMutationEntry, Void> batchEntry1 =
+        BatchEntry.create(
+            RowMutationEntry.create("key1").deleteRow(), SettableApiFuture.<Void>create());
+    BatchEntry<RowMutationEntry, Void> batchEntry2 =
+        BatchEntry.create(
+            RowMutationEntry.create("key1").deleteRow(), SettableApiFuture.<Void>create());
+    BatchEntry<RowMutationEntry, Void> batchEntry3 =
+        BatchEntry.create(
+            RowMutationEntry.create("key2").deleteRow(), SettableApiFuture.<Void>create());
+    UnavailableException error =
+        new UnavailableException(null, GrpcStatusCode.of(Status.Code.UNAVAILABLE), true);
+
+    MutateRowsBatchingDescriptor underTest = new MutateRowsBatchingDescriptor(true);
+    underTest.splitException(
+        MutateRowsException.create(
+            null,
+            GrpcStatusCode.of(Status.Code.UNAVAILABLE),
+            ImmutableList.of(FailedMutation.create(1, error)),
+            true),
+        ImmutableList.of(batchEntry1, batchEntry2, batchEntry3));
+
+    batchEntry1.getResultFuture().get();
+    batchEntry2.getResultFuture().get();
+    assertThat(
+            assertThrows(ExecutionException.class, () -> batchEntry3.getResultFuture().get())
+                .getCause())
+        .isSameInstanceAs(error);
+  }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MutationSpillLogTest {
+  private static final int SEGMENT_BYTES = 64;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testAppendAndRead() throws IOException {
+    try (MutationSpillLog log = open(1024)) {
+      assertThat(log.isEmpty()).isTrue();
+      assertThat(log.peekLength()).isEqualTo(-1);
+      assertThat(log.read()).isNull();
+
+      assertThat(log.append(bytes("first"))).isTrue();
+      assertThat(log.append(bytes("second"))).isTrue();
+      assertThat(log.isEmpty()).isFalse();
+
+      assertThat(log.peekLength()).isEqualTo(5);
+      assertThat(string(log.read())).isEqualTo("first");
+      assertThat(log.peekLength()).isEqualTo(6);
+      assertThat(string(log.read())).isEqualTo("second");
+      assertThat(log.isEmpty()).isTrue();
+      assertThat(log.read()).isNull();
+    }
+  }
+
+  @Test
+  public void testRecoversRecordsThatWereNotCompleted() throws IOException {
+    try (MutationSpillLog log = open(1024)) {
+      for (int i = 0; i < 10; i++) {
+        assertThat(log.append(bytes("record-" + i))).isTrue();
+      }
+      // Completes the records of the first segment, only the other ones are recovered
+      for (int i = 0; i < 4; i++) {
+        log.read().complete();
+      }
+      // Read but not completed
+      log.read();
+    }
+
+    try (MutationSpillLog log = open(1024)) {
+      assertThat(log.getRecoveredRecords()).isEqualTo(6);
+      assertThat(readAll(log))
+          .containsExactly("record-4", "record-5", "record-6", "record-7", "record-8", "record-9")
+          .inOrder();
+      // New records are appended after the recovered ones
+      assertThat(log.append(bytes("new"))).isTrue();
+      assertThat(readAll(log)).containsExactly("new");
+    }
+  }
+
+  @Test
+  public void testDropsCorruptRecords() throws IOException {
+    Path segment;
+    try (MutationSpillLog log = open(1024)) {
+      log.append(bytes("first"));
+      log.append(bytes("second"));
+      log.append(bytes("third"));
+      segment = segments(log.getDirectory()).get(0);
+    }
+
+    // Corrupts the data of the second record, which has a header of 8 bytes after the first one
+    try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+      file.seek(8 + 5 + 8);
+      file.write('S');
+    }
+
+    try (MutationSpillLog log = open(1024)) {
+      assertThat(log.getRecoveredRecords()).isEqualTo(1);
+      assertThat(readAll(log)).containsExactly("first");
+    }
+  }
+
+  @Test
+  public void testDeletesCompletedSegments() throws IOException {
+    try (MutationSpillLog log = open(1024)) {
+      for (int i = 0; i < 10; i++) {
+        log.append(bytes("record-" + i));
+      }
+      assertThat(segments(log.getDirectory())).hasSize(3);
+
+      List<MutationSpillLog.Record> records = new ArrayList<>();
+      while (!log.isEmpty()) {
+        records.add(log.read());
+      }
+      for (MutationSpillLog.Record record : records.subList(0, 4)) {
+        record.complete();
+      }
+      assertThat(segments(log.getDirectory())).hasSize(2);
+      for (MutationSpillLog.Record record : records) {
+        record.complete();
+      }
+      assertThat(segments(log.getDirectory())).isEmpty();
+
+      assertThat(log.append(bytes("new"))).isTrue();
+      assertThat(segments(log.getDirectory())).hasSize(1);
+    }
+  }
+
+  @Test
+  public void testMaxBytes() throws IOException {
+    try (MutationSpillLog log = open(2 * SEGMENT_BYTES)) {
+      // Every segment holds 4 records of 16 bytes
+      for (int i = 0; i < 8; i++) {
+        assertThat(log.append(bytes("record-" + i))).isTrue();
+      }
+      assertThat(log.append(bytes("record-8"))).isFalse();
+      // Records larger than a segment never fit
+      log.read().complete();
+      assertThat(log.append(new byte[SEGMENT_BYTES])).isFalse();
+      assertThat(log.append(new byte[0])).isFalse();
+    }
+  }
+
+  @Test
+  public void testLocksTheDirectory() throws IOException {
+    try (MutationSpillLog first = open(1024);
+        MutationSpillLog second = open(1024)) {
+      assertThat(second.getDirectory()).isNotEqualTo(first.getDirectory());
+      first.append(bytes("first"));
+      second.append(bytes("second"));
+      assertThat(readAll(first)).containsExactly("first");
+      assertThat(readAll(second)).containsExactly("second");
+    }
+
+    try (MutationSpillLog log = open(1024)) {
+      assertThat(log.getDirectory().getFileName().toString()).isEqualTo("table");
+    }
+  }
+
+  private MutationSpillLog open(long maxBytes) throws IOException {
+    return MutationSpillLog.open(folder.getRoot().toPath(), "table", maxBytes, SEGMENT_BYTES);
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.list(directory)) {
+      return paths
+          .filter(path -> path.getFileName().toString().endsWith(".log"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static List<String> readAll(MutationSpillLog log) {
+    List<String> records = new ArrayList<>();
+    while (!log.isEmpty()) {
+      records.add(string(log.read()));
+    }
+    return records;
+  }
+
+  private static byte[] bytes(String record) {
+    return record.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(MutationSpillLog.Record record) {
+    return new String(record.getBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.bigtable.v2.MutateRowsRequest;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.BulkMutation;
+import com.google.cloud.bigtable.data.v2.models.MutateRowsException;
+import com.google.cloud.bigtable.data.v2.models.MutateRowsException.FailedMutation;
+import com.google.cloud.bigtable.data.v2.models.Mutation;
+import com.google.common.collect.ImmutableList;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelBulkMutateRowsCallableTest {
+  private static final RequestContext REQUEST_CONTEXT =
+      RequestContext.create("fake-project", "fake-instance", "fake-profile");
+
+  private FakeCallable inner;
+
+  @Before
+  public void setUp() {
+    inner = new FakeCallable();
+  }
+
+  @Test
+  public void testSmallBulkMutationIsNotSplit() {
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, 1024 * 1024, 2);
+    BulkMutation bulkMutation = bulkMutation("b", "a", "c");
+
+    callable.futureCall(bulkMutation, null);
+
+    assertThat(inner.requests).containsExactly(bulkMutation);
+  }
+
+  @Test
+  public void testSplitsByKeyRangeAndSize() {
+    MutateRowsRequest request = bulkMutation("d", "b", "a", "c", "b", "e").toProto(REQUEST_CONTEXT);
+    long entryBytes = request.getEntries(0).getSerializedSize() + 6;
+
+    List<int[]> parts =
+        ParallelBulkMutateRowsCallable.split(request.getEntriesList(), 2 * entryBytes);
+
+    // The entries of b stay in the same part, in the order they were added
+    assertThat(parts).hasSize(3);
+    assertThat(parts.get(0)).asList().containsExactly(2, 1, 4).inOrder();
+    assertThat(parts.get(1)).asList().containsExactly(3, 0).inOrder();
+    assertThat(parts.get(2)).asList().containsExactly(5);
+  }
+
+  @Test
+  public void testSendsAtMostMaxParallelRequests() throws Exception {
+    BulkMutation bulkMutation = bulkMutation("e", "d", "c", "b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, entryBytes, 2);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+
+    assertThat(inner.keys()).containsExactly("a", "b").inOrder();
+    inner.futures.get(1).set(MutateRowsAttemptResult.success());
+    assertThat(inner.keys()).containsExactly("a", "b", "c").inOrder();
+    inner.futures.get(0).set(MutateRowsAttemptResult.success());
+    inner.futures.get(2).set(MutateRowsAttemptResult.success());
+    assertThat(inner.keys()).containsExactly("a", "b", "c", "d", "e").inOrder();
+    assertThat(future.isDone()).isFalse();
+
+    inner.futures.get(3).set(MutateRowsAttemptResult.success());
+    inner.futures.get(4).set(MutateRowsAttemptResult.success());
+    assertThat(future.get().getFailedMutations()).isEmpty();
+    // The target of the bulk mutation is kept
+    assertThat(inner.requests.get(0).toProto(REQUEST_CONTEXT).getTableName())
+        .isEqualTo("projects/fake-project/instances/fake-instance/tables/fake-table");
+  }
+
+  @Test
+  public void testReportsFailuresWithTheirOriginalIndex() throws Exception {
+    BulkMutation bulkMutation = bulkMutation("d", "c", "b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, 2 * entryBytes, 4);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+
+    // The first part has a and b, the second one c and d
+    assertThat(inner.keys()).containsExactly("a", "b", "c", "d").inOrder();
+    ApiException entryError = error(Status.Code.UNAVAILABLE, true);
+    inner
+        .futures
+        .get(0)
+        .set(
+            MutateRowsAttemptResult.create(
+                ImmutableList.of(FailedMutation.create(1, entryError)), true));
+    ApiException rpcError = error(Status.Code.PERMISSION_DENIED, false);
+    inner.futures.get(1).setException(rpcError);
+
+    MutateRowsAttemptResult result = future.get();
+    assertThat(result.getIsRetryable()).isFalse();
+    assertThat(result.getFailedMutations())
+        .containsExactly(
+            FailedMutation.create(0, rpcError),
+            FailedMutation.create(1, rpcError),
+            FailedMutation.create(2, entryError))
+        .inOrder();
+  }
+
+  @Test
+  public void testReportsPartialFailuresOfAPartWithTheirOriginalIndex() throws Exception {
+    BulkMutation bulkMutation = bulkMutation("d", "c", "b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, 2 * entryBytes, 4);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+
+    // The second part has c and d, only d failed
+    ApiException entryError = error(Status.Code.UNAVAILABLE, true);
+    inner.futures.get(0).set(MutateRowsAttemptResult.success());
+    inner
+        .futures
+        .get(1)
+        .setException(
+            MutateRowsException.create(
+                null,
+                GrpcStatusCode.of(Status.Code.OK),
+                ImmutableList.of(FailedMutation.create(1, entryError)),
+                true));
+
+    MutateRowsAttemptResult result = future.get();
+    assertThat(result.getIsRetryable()).isTrue();
+    assertThat(result.getFailedMutations()).containsExactly(FailedMutation.create(0, entryError));
+  }
+
+  @Test
+  public void testFailuresAreRetryableIfAllTheFailuresAre() throws Exception {
+    BulkMutation bulkMutation = bulkMutation("b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, entryBytes, 2);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+    inner.futures.get(0).set(MutateRowsAttemptResult.create(new ArrayList<>(), false));
+    inner.futures.get(1).setException(error(Status.Code.UNAVAILABLE, true));
+
+    MutateRowsAttemptResult result = future.get();
+    assertThat(result.getIsRetryable()).isTrue();
+    assertThat(result.getFailedMutations()).hasSize(1);
+    assertThat(result.getFailedMutations().get(0).getIndex()).isEqualTo(0);
+  }
+
+  @Test
+  public void testOtherErrorsCancelTheOtherParts() {
+    BulkMutation bulkMutation = bulkMutation("c", "b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, entryBytes, 2);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+    inner.futures.get(0).setException(new IllegalStateException("fake error"));
+
+    ExecutionException e = assertThrows(ExecutionException.class, future::get);
+    assertThat(e).hasCauseThat().isInstanceOf(IllegalStateException.class);
+    assertThat(inner.futures.get(1).isCancelled()).isTrue();
+    assertThat(inner.futures).hasSize(2);
+  }
+
+  @Test
+  public void testCancelCancelsTheParts() {
+    BulkMutation bulkMutation = bulkMutation("c", "b", "a");
+    long entryBytes = bulkMutation.toProto(REQUEST_CONTEXT).getEntries(0).getSerializedSize() + 6;
+    ParallelBulkMutateRowsCallable callable =
+        new ParallelBulkMutateRowsCallable(inner, entryBytes, 2);
+
+    ApiFuture<MutateRowsAttemptResult> future = callable.futureCall(bulkMutation, null);
+    future.cancel(true);
+
+    assertThat(inner.futures.get(0).isCancelled()).isTrue();
+    assertThat(inner.futures.get(1).isCancelled()).isTrue();
+    assertThat(inner.futures).hasSize(2);
+  }
+
+  private static BulkMutation bulkMutation(String... keys) {
+    BulkMutation bulkMutation = BulkMutation.create("fake-table");
+    for (String key : keys) {
+      bulkMutation.add(key, Mutation.create().setCell("cf", "q", 1_000, "value"));
+    }
+    return bulkMutation;
+  }
+
+  private static ApiException error(Status.Code code, boolean retryable) {
+    return ApiExceptionFactory.createException(
+        new RuntimeException("fake error"), GrpcStatusCode.of(code), retryable);
+  }
+
+  private static class FakeCallable extends UnaryCallable<BulkMutation, MutateRowsAttemptResult> {
+    private final List<BulkMutation> requests = new ArrayList<>();
+    private final List<SettableApiFuture<MutateRowsAttemptResult>> futures = new ArrayList<>();
+
+    List<String> keys() {
+      List<String> keys = new ArrayList<>();
+      for (BulkMutation request : requests) {
+        for (MutateRowsRequest.Entry entry : request.toProto(REQUEST_CONTEXT).getEntriesList()) {
+          keys.add(entry.getRowKey().toStringUtf8());
+        }
+      }
+      return keys;
+    }
+
+    @Override
+    public ApiFuture<MutateRowsAttemptResult> futureCall(
+        BulkMutation request, ApiCallContext context) {
+      SettableApiFuture<MutateRowsAttemptResult> future = SettableApiFuture.create();
+      requests.add(request);
+      futures.add(future);
+      return future;
+    }
+  }
+}
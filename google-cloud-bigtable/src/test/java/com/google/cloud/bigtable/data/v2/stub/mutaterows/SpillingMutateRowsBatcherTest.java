@@ -0,0 +1,347 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpillingMutateRowsBatcherTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final BulkMutationSpillStats stats = new BulkMutationSpillStats();
+
+  @Test
+  public void testAddsToTheBatcherUntilItIsFull() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher = create(delegate, 2);
+
+    ApiFuture<Void> first = batcher.add(entry("key1"));
+    ApiFuture<Void> second = batcher.add(entry("key2"));
+    ApiFuture<Void> third = batcher.add(entry("key3"));
+    ApiFuture<Void> fourth = batcher.add(entry("key4"));
+
+    assertThat(delegate.keys()).containsExactly("key1", "key2").inOrder();
+    assertThat(stats.getSpilledBytes()).isGreaterThan(0L);
+    assertThat(stats.getDrainedBytes()).isEqualTo(0L);
+
+    // Completing an entry makes room for the first spilled entry
+    delegate.complete(0);
+    assertThat(first.isDone()).isTrue();
+    assertThat(delegate.keys()).containsExactly("key1", "key2", "key3").inOrder();
+    assertThat(third.isDone()).isFalse();
+
+    delegate.complete(2);
+    assertThat(third.isDone()).isTrue();
+    assertThat(delegate.keys()).containsExactly("key1", "key2", "key3", "key4").inOrder();
+
+    delegate.complete(1);
+    delegate.complete(3);
+    assertThat(second.isDone()).isTrue();
+    assertThat(fourth.isDone()).isTrue();
+    assertThat(stats.getDrainedBytes()).isEqualTo(stats.getSpilledBytes());
+
+    batcher.close();
+    assertThat(delegate.closed).isTrue();
+  }
+
+  @Test
+  public void testKeepsTheOrderWhileSpilling() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    QueueingExecutor executor = new QueueingExecutor();
+    List<Runnable> tasks = executor.tasks;
+    SpillingMutateRowsBatcher batcher =
+        new SpillingMutateRowsBatcher(
+            delegate,
+            MutationSpillLog.open(folder.getRoot().toPath(), "table", 1 << 20),
+            1,
+            Long.MAX_VALUE,
+            executor,
+            stats);
+
+    batcher.add(entry("key1"));
+    batcher.add(entry("key2"));
+    delegate.complete(0);
+    assertThat(tasks).hasSize(1);
+    // The batcher has room, but key3 is spilled because key2 wasn't drained yet
+    batcher.add(entry("key3"));
+    tasks.remove(0).run();
+    assertThat(delegate.keys()).containsExactly("key1", "key2").inOrder();
+
+    delegate.complete(1);
+    tasks.remove(0).run();
+    assertThat(delegate.keys()).containsExactly("key1", "key2", "key3").inOrder();
+  }
+
+  @Test
+  public void testPropagatesFailuresOfSpilledEntries() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher = create(delegate, 1);
+
+    batcher.add(entry("key1"));
+    ApiFuture<Void> spilled = batcher.add(entry("key2"));
+    delegate.complete(0);
+    delegate.fail(1, new IllegalStateException("fake error"));
+
+    ExecutionException e = assertThrows(ExecutionException.class, spilled::get);
+    assertThat(e).hasCauseThat().hasMessageThat().isEqualTo("fake error");
+  }
+
+  @Test
+  public void testCompletesSpilledEntriesTheBatcherRejects() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher = create(delegate, 1);
+
+    batcher.add(entry("key1"));
+    ApiFuture<Void> spilled = batcher.add(entry("key2"));
+    delegate.rejectAdds = true;
+    delegate.complete(0);
+
+    ExecutionException e = assertThrows(ExecutionException.class, spilled::get);
+    assertThat(e).hasCauseThat().hasMessageThat().isEqualTo("fake rejection");
+    delegate.rejectAdds = false;
+    batcher.add(entry("key3"));
+    assertThat(delegate.keys()).containsExactly("key1", "key3").inOrder();
+    delegate.complete(1);
+    batcher.close();
+
+    // The rejected entry isn't left in the log
+    FakeBatcher recovering = new FakeBatcher();
+    create(recovering, 1).close();
+    assertThat(recovering.keys()).isEmpty();
+  }
+
+  @Test
+  public void testDrainsOnItsOwnThreads() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher =
+        SpillingMutateRowsBatcher.create(
+            delegate, folder.getRoot().toPath(), "table", 1 << 20, 1L, null, stats);
+
+    batcher.add(entry("key1"));
+    ApiFuture<Void> spilled = batcher.add(entry("key2"));
+    delegate.addBlocker = new CountDownLatch(1);
+    // Completing the entry doesn't wait for the spilled entry, whose add blocks
+    delegate.complete(0);
+    assertThat(spilled.isDone()).isFalse();
+
+    delegate.addBlocker.countDown();
+    batcher.closeAsync().get(1, TimeUnit.MINUTES);
+    assertThat(delegate.keys()).containsExactly("key1", "key2").inOrder();
+    assertThat(delegate.addThreads.get(1)).startsWith("bigtable-spill-table-");
+    assertThat(delegate.closed).isTrue();
+  }
+
+  @Test
+  public void testRecoversSpilledEntries() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    MutationSpillLog log = MutationSpillLog.open(folder.getRoot().toPath(), "table", 1 << 20);
+    SpillingMutateRowsBatcher batcher =
+        new SpillingMutateRowsBatcher(
+            delegate, log, 1, Long.MAX_VALUE, MoreExecutors.newDirectExecutorService(), stats);
+    batcher.add(entry("key1"));
+    batcher.add(entry("key2"));
+    batcher.add(entry("key3"));
+    // The batcher is never drained, as if the process was stopped
+    log.close();
+
+    FakeBatcher recovering = new FakeBatcher();
+    SpillingMutateRowsBatcher recovered = create(recovering, 1);
+    assertThat(recovering.keys()).containsExactly("key2");
+    ApiFuture<Void> added = recovered.add(entry("key4"));
+    recovering.complete(0);
+    recovering.complete(1);
+    recovering.complete(2);
+    assertThat(recovering.keys()).containsExactly("key2", "key3", "key4").inOrder();
+    assertThat(added.isDone()).isTrue();
+
+    recovered.close();
+    FakeBatcher empty = new FakeBatcher();
+    create(empty, 1).close();
+    assertThat(empty.keys()).isEmpty();
+  }
+
+  @Test
+  public void testFallsBackToTheBatcherWhenTheLogIsFull() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher =
+        new SpillingMutateRowsBatcher(
+            delegate,
+            MutationSpillLog.open(folder.getRoot().toPath(), "table", 1, 1),
+            1,
+            Long.MAX_VALUE,
+            MoreExecutors.newDirectExecutorService(),
+            stats);
+
+    batcher.add(entry("key1"));
+    batcher.add(entry("key2"));
+
+    assertThat(delegate.keys()).containsExactly("key1", "key2").inOrder();
+    assertThat(stats.getSpilledBytes()).isEqualTo(0L);
+  }
+
+  @Test
+  public void testRejectsEntriesAfterClose() throws Exception {
+    FakeBatcher delegate = new FakeBatcher();
+    SpillingMutateRowsBatcher batcher = create(delegate, 1);
+    batcher.close();
+
+    assertThrows(IllegalStateException.class, () -> batcher.add(entry("key1")));
+  }
+
+  private SpillingMutateRowsBatcher create(
+      Batcher<RowMutationEntry, Void> delegate, long maxElements) throws IOException {
+    return SpillingMutateRowsBatcher.create(
+        delegate,
+        folder.getRoot().toPath(),
+        "table",
+        1 << 20,
+        maxElements,
+        null,
+        MoreExecutors.newDirectExecutorService(),
+        stats);
+  }
+
+  private static RowMutationEntry entry(String key) {
+    return RowMutationEntry.create(key).setCell("family", "qualifier", "value");
+  }
+
+  private static class FakeBatcher implements Batcher<RowMutationEntry, Void> {
+    private final List<RowMutationEntry> entries = Collections.synchronizedList(new ArrayList<>());
+    private final List<SettableApiFuture<Void>> futures =
+        Collections.synchronizedList(new ArrayList<>());
+    private final List<String> addThreads = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean rejectAdds;
+    @Nullable private volatile CountDownLatch addBlocker;
+    private volatile boolean closed;
+
+    List<String> keys() {
+      List<String> keys = new ArrayList<>();
+      for (RowMutationEntry entry : entries) {
+        keys.add(entry.toProto().getRowKey().toStringUtf8());
+      }
+      return keys;
+    }
+
+    void complete(int index) {
+      futures.get(index).set(null);
+    }
+
+    void fail(int index, Throwable throwable) {
+      futures.get(index).setException(throwable);
+    }
+
+    @Override
+    public ApiFuture<Void> add(RowMutationEntry entry) {
+      if (rejectAdds) {
+        throw new IllegalStateException("fake rejection");
+      }
+      CountDownLatch blocker = addBlocker;
+      if (blocker != null) {
+        Uninterruptibles.awaitUninterruptibly(blocker);
+      }
+      addThreads.add(Thread.currentThread().getName());
+      SettableApiFuture<Void> future = SettableApiFuture.create();
+      entries.add(entry);
+      futures.add(future);
+      return future;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void sendOutstanding() {}
+
+    @Override
+    public void cancelOutstanding() {}
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public void close(Duration timeout) {
+      closed = true;
+    }
+
+    @Override
+    public ApiFuture<Void> closeAsync() {
+      closed = true;
+      return SettableApiFuture.create();
+    }
+  }
+
+  /** Queues the tasks until the test runs them. */
+  private static class QueueingExecutor extends AbstractExecutorService {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private boolean shutdown;
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return isTerminated();
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.mutaterows;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.models.KeyOffset;
+import com.google.cloud.bigtable.data.v2.models.RowMutationEntry;
+import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
+import com.google.cloud.bigtable.data.v2.models.TableId;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TabletAwareMutateRowsBatcherTest {
+  private ScheduledExecutorService executor;
+  private List<FakeBatcher> batchers;
+  private SettableApiFuture<List<KeyOffset>> samples;
+  private TabletAwareMutateRowsBatcher batcher;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadScheduledExecutor();
+    batchers = new ArrayList<>();
+    samples = SettableApiFuture.create();
+    batcher =
+        new TabletAwareMutateRowsBatcher(
+            () -> {
+              FakeBatcher fakeBatcher = new FakeBatcher();
+              batchers.add(fakeBatcher);
+              return fakeBatcher;
+            },
+            new UnaryCallable<SampleRowKeysRequest, List<KeyOffset>>() {
+              @Override
+              public ApiFuture<List<KeyOffset>> futureCall(
+                  SampleRowKeysRequest request, ApiCallContext context) {
+                return samples;
+              }
+            },
+            SampleRowKeysRequest.create(TableId.of("fake-table")),
+            executor,
+            Duration.ofHours(1),
+            16);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void entriesAreBatchedPerKeyRangeTest() {
+    samples.set(ImmutableList.of(sample("c"), sample("f"), sample("")));
+
+    for (String key : ImmutableList.of("a", "c", "d", "f", "b", "z")) {
+      batcher.add(RowMutationEntry.create(key).deleteRow());
+    }
+
+    assertThat(batchers).hasSize(3);
+    assertThat(batchers.get(0).keys()).containsExactly("a", "b").inOrder();
+    assertThat(batchers.get(1).keys()).containsExactly("c", "d").inOrder();
+    assertThat(batchers.get(2).keys()).containsExactly("f", "z").inOrder();
+  }
+
+  @Test
+  public void entriesShareOneBatcherUntilSampledTest() {
+    batcher.add(RowMutationEntry.create("a").deleteRow());
+    batcher.add(RowMutationEntry.create("z").deleteRow());
+
+    assertThat(batchers).hasSize(1);
+    assertThat(batchers.get(0).keys()).containsExactly("a", "z").inOrder();
+  }
+
+  @Test
+  public void failedSamplingKeepsTheCurrentRangesTest() {
+    samples.setException(new RuntimeException("fake error"));
+
+    batcher.add(RowMutationEntry.create("a").deleteRow());
+    batcher.add(RowMutationEntry.create("z").deleteRow());
+
+    assertThat(batchers).hasSize(1);
+  }
+
+  @Test
+  public void removedRangesAreClosedTest() throws Exception {
+    samples.set(ImmutableList.of(sample("c"), sample("f"), sample("")));
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+    FakeBatcher removed = batchers.get(0);
+
+    batcher.updateSplitPoints(ImmutableList.of(key("e")));
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+
+    assertThat(removed.closed).isTrue();
+    assertThat(batchers).hasSize(2);
+    assertThat(batchers.get(1).keys()).containsExactly("d");
+
+    // Flushing waits for the batchers of removed ranges to finish
+    removed.closeFuture.set(null);
+    batcher.flush();
+    assertThat(batchers.get(1).flushed).isTrue();
+  }
+
+  @Test
+  public void rangeRetiredWhileAddingIsClosedAfterTheAddTest() throws Exception {
+    samples.set(ImmutableList.of(sample("c"), sample("f"), sample("")));
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+    FakeBatcher retired = batchers.get(0);
+    // Retire the range from another thread while the add waits for the flow controller, which
+    // must not wait for the add to finish
+    retired.blockedReserve =
+        () -> {
+          try {
+            executor
+                .submit(() -> batcher.updateSplitPoints(ImmutableList.of(key("e"))))
+                .get(10, TimeUnit.SECONDS);
+          } catch (Exception e) {
+            throw new AssertionError(e);
+          }
+          assertThat(retired.closed).isFalse();
+        };
+
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+
+    // The entry was added before the retired batcher was closed, so it is sent
+    assertThat(retired.lostKeys).isEmpty();
+    assertThat(retired.keys()).containsExactly("d", "d");
+    assertThat(retired.closed).isTrue();
+    retired.closeFuture.set(null);
+    batcher.flush();
+
+    retired.blockedReserve = null;
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+    assertThat(batchers).hasSize(2);
+    assertThat(batchers.get(1).keys()).containsExactly("d");
+  }
+
+  @Test
+  public void chooseSplitPointsTest() {
+    List<KeyOffset> keyOffsets =
+        ImmutableList.of(sample("b"), sample("d"), sample("d"), sample("f"), sample(""));
+
+    assertThat(TabletAwareMutateRowsBatcher.chooseSplitPoints(keyOffsets, 16))
+        .containsExactly(key("b"), key("d"), key("f"))
+        .inOrder();
+    assertThat(TabletAwareMutateRowsBatcher.chooseSplitPoints(keyOffsets, 2))
+        .containsExactly(key("d"));
+    assertThat(TabletAwareMutateRowsBatcher.chooseSplitPoints(keyOffsets, 1)).isEmpty();
+  }
+
+  @Test
+  public void closeClosesEveryBatcherTest() throws Exception {
+    samples.set(ImmutableList.of(sample("c"), sample("")));
+    batcher.add(RowMutationEntry.create("a").deleteRow());
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+
+    ApiFuture<Void> closed = batcher.closeAsync();
+
+    assertThat(batchers.get(0).closed).isTrue();
+    assertThat(batchers.get(1).closed).isTrue();
+    assertThat(closed.isDone()).isFalse();
+    batchers.get(0).closeFuture.set(null);
+    batchers.get(1).closeFuture.set(null);
+    assertThat(closed.isDone()).isTrue();
+    assertThat(batcher.closeAsync()).isSameInstanceAs(closed);
+    assertThrows(
+        IllegalStateException.class, () -> batcher.add(RowMutationEntry.create("a").deleteRow()));
+  }
+
+  @Test
+  public void closeReportsTheFailureOfAnyBatcherTest() {
+    samples.set(ImmutableList.of(sample("c"), sample("")));
+    batcher.add(RowMutationEntry.create("a").deleteRow());
+    batcher.add(RowMutationEntry.create("d").deleteRow());
+
+    ApiFuture<Void> closed = batcher.closeAsync();
+    batchers.get(0).closeFuture.setException(new IllegalStateException("fake error"));
+    assertThat(closed.isDone()).isFalse();
+    batchers.get(1).closeFuture.set(null);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, batcher::close);
+    assertThat(e).hasMessageThat().isEqualTo("fake error");
+  }
+
+  private static KeyOffset sample(String key) {
+    return KeyOffset.create(key(key), 0);
+  }
+
+  private static ByteString key(String key) {
+    return ByteString.copyFromUtf8(key);
+  }
+
+  private static class FakeBatcher implements Batcher<RowMutationEntry, Void> {
+    private final List<RowMutationEntry> entries = new ArrayList<>();
+    private final SettableApiFuture<Void> closeFuture = SettableApiFuture.create();
+    private boolean flushed;
+    private volatile boolean closed;
+    private final List<String> lostKeys = new ArrayList<>();
+    // Runs while the add waits for the flow controller
+    @Nullable private volatile Runnable blockedReserve;
+
+    List<String> keys() {
+      List<String> keys = new ArrayList<>();
+      for (RowMutationEntry entry : entries) {
+        keys.add(entry.getKey().toStringUtf8());
+      }
+      return keys;
+    }
+
+    @Override
+    public ApiFuture<Void> add(RowMutationEntry entry) {
+      if (closed) {
+        throw new IllegalStateException("Cannot add elements on a closed batcher");
+      }
+      if (blockedReserve != null) {
+        blockedReserve.run();
+      }
+      if (closed) {
+        // Like BatcherImpl, the batch was already sent, so the entry would never be sent
+        lostKeys.add(entry.getKey().toStringUtf8());
+        return SettableApiFuture.create();
+      }
+      entries.add(entry);
+      return SettableApiFuture.create();
+    }
+
+    @Override
+    public void flush() {
+      flushed = true;
+    }
+
+    @Override
+    public void sendOutstanding() {}
+
+    @Override
+    public void cancelOutstanding() {}
+
+    @Override
+    public void close() {
+      closeAsync();
+    }
+
+    @Override
+    public void close(Duration timeout) {
+      closeAsync();
+    }
+
+    @Override
+    public ApiFuture<Void> closeAsync() {
+      closed = true;
+      return closeFuture;
+    }
+  }
+}
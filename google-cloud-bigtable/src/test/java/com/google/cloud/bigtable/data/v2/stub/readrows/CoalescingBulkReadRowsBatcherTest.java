@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.readrows;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.batching.Batcher;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CoalescingBulkReadRowsBatcherTest {
+  private static final ByteString ROW_KEY = ByteString.copyFromUtf8("row-key");
+  private static final Row ROW = Row.create(ROW_KEY, ImmutableList.of());
+
+  private FakeBatcher delegate;
+  private BulkReadRowsCoalescingStats stats;
+  private CoalescingBulkReadRowsBatcher batcher;
+
+  @Before
+  public void setUp() {
+    delegate = new FakeBatcher();
+    stats = new BulkReadRowsCoalescingStats();
+    batcher = new CoalescingBulkReadRowsBatcher(delegate, stats);
+  }
+
+  @Test
+  public void pendingReadIsSharedTest() throws Exception {
+    ApiFuture<Row> first = batcher.add(ROW_KEY);
+    ApiFuture<Row> second = batcher.add(ROW_KEY);
+    batcher.add(ByteString.copyFromUtf8("other-row-key"));
+
+    assertThat(delegate.rowKeys).hasSize(2);
+    assertThat(stats.getSentCount()).isEqualTo(2);
+    assertThat(stats.getCoalescedCount()).isEqualTo(1);
+
+    delegate.results.get(0).set(ROW);
+    assertThat(first.get()).isSameInstanceAs(ROW);
+    assertThat(second.get()).isSameInstanceAs(ROW);
+  }
+
+  @Test
+  public void completedReadIsNotSharedTest() {
+    batcher.add(ROW_KEY);
+    delegate.results.get(0).set(ROW);
+
+    batcher.add(ROW_KEY);
+
+    assertThat(delegate.rowKeys).containsExactly(ROW_KEY, ROW_KEY);
+    assertThat(stats.getCoalescedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void failureIsSharedTest() {
+    ApiFuture<Row> first = batcher.add(ROW_KEY);
+    ApiFuture<Row> second = batcher.add(ROW_KEY);
+
+    RuntimeException error = new RuntimeException("fake error");
+    delegate.results.get(0).setException(error);
+
+    assertThat(assertThrows(ExecutionException.class, first::get))
+        .hasCauseThat()
+        .isSameInstanceAs(error);
+    assertThat(assertThrows(ExecutionException.class, second::get))
+        .hasCauseThat()
+        .isSameInstanceAs(error);
+
+    // A failed read is retried by the next add
+    batcher.add(ROW_KEY);
+    assertThat(delegate.rowKeys).hasSize(2);
+  }
+
+  @Test
+  public void cancellingOneCallerDoesNotAffectOthersTest() throws Exception {
+    ApiFuture<Row> first = batcher.add(ROW_KEY);
+    ApiFuture<Row> second = batcher.add(ROW_KEY);
+
+    first.cancel(true);
+    delegate.results.get(0).set(ROW);
+
+    assertThat(delegate.results.get(0).isCancelled()).isFalse();
+    assertThat(second.get()).isSameInstanceAs(ROW);
+  }
+
+  @Test
+  public void closedBatcherTest() {
+    delegate.closed = true;
+
+    assertThrows(IllegalStateException.class, () -> batcher.add(ROW_KEY));
+    assertThrows(IllegalStateException.class, () -> batcher.add(ROW_KEY));
+    assertThat(stats.getCoalescedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void closedBatcherDoesNotSharePendingReadsTest() {
+    batcher.add(ROW_KEY);
+    batcher.closeAsync();
+
+    // The read of the key is still pending
+    assertThrows(IllegalStateException.class, () -> batcher.add(ROW_KEY));
+    assertThat(stats.getCoalescedCount()).isEqualTo(0);
+  }
+
+  private static class FakeBatcher implements Batcher<ByteString, Row> {
+    private final List<ByteString> rowKeys = new ArrayList<>();
+    private final List<SettableApiFuture<Row>> results = new ArrayList<>();
+    private boolean closed;
+
+    @Override
+    public ApiFuture<Row> add(ByteString rowKey) {
+      if (closed) {
+        throw new IllegalStateException("Cannot add elements on a closed batcher");
+      }
+      SettableApiFuture<Row> result = SettableApiFuture.create();
+      rowKeys.add(rowKey);
+      results.add(result);
+      return result;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void sendOutstanding() {}
+
+    @Override
+    public void cancelOutstanding() {}
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public void close(Duration timeout) {
+      closed = true;
+    }
+
+    @Override
+    public ApiFuture<Void> closeAsync() {
+      closed = true;
+      return SettableApiFuture.create();
+    }
+  }
+}
@@ -123,6 +123,22 @@ public class ReadRowsBatchingDescriptorTest {
                 ByteString.copyFromUtf8("row-key-1"), ByteString.copyFromUtf8("row-key-2")));
   }
 
+  @Test
+  public void requestBuilderWithDuplicateKeysTest() {
+    BatchingRequestBuilder<ByteString, Query> requestBuilder =
+        underTest.newRequestBuilder(Query.create("table-Id"));
+    requestBuilder.add(ByteString.copyFromUtf8("row-key-1"));
+    requestBuilder.add(ByteString.copyFromUtf8("row-key-2"));
+    requestBuilder.add(ByteString.copyFromUtf8("row-key-1"));
+
+    ReadRowsRequest readRowsRequest =
+        requestBuilder.build().toProto(RequestContext.create("project", "instance", "appProfile"));
+    assertThat(readRowsRequest.getRows().getRowKeysList())
+        .isEqualTo(
+            ImmutableList.of(
+                ByteString.copyFromUtf8("row-key-1"), ByteString.copyFromUtf8("row-key-2")));
+  }
+
   private List<BatchEntry<ByteString, Row>> createBatchEntries(String... rowKeys) {
     ImmutableList.Builder<BatchEntry<ByteString, Row>> builder = ImmutableList.builder();
 
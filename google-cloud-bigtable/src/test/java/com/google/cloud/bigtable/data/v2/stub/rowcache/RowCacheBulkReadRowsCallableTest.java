@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.core.FakeApiClock;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.BulkMutation;
+import com.google.cloud.bigtable.data.v2.models.Mutation;
+import com.google.cloud.bigtable.data.v2.models.Query;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowCell;
+import com.google.cloud.bigtable.data.v2.stub.RowCacheSettings;
+import com.google.cloud.bigtable.data.v2.stub.mutaterows.MutateRowsAttemptResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RowCacheBulkReadRowsCallableTest {
+  private static final RequestContext REQUEST_CONTEXT =
+      RequestContext.create("my-project", "my-instance", "my-app-profile");
+
+  private RowCache cache;
+  private FakeBulkReadRowsCallable inner;
+  private RowCacheBulkReadRowsCallable callable;
+
+  @Before
+  public void setUp() {
+    cache =
+        new RowCache(RowCacheSettings.newBuilder().setEnabled(true).build(), new FakeApiClock(0));
+    inner = new FakeBulkReadRowsCallable(ImmutableSet.of("a", "b", "c"));
+    callable = new RowCacheBulkReadRowsCallable(inner, cache, REQUEST_CONTEXT);
+  }
+
+  @Test
+  public void onlyMissedKeysAreReadTest() {
+    List<Row> rows = callable.call(Query.create("my-table").rowKey("a").rowKey("x"));
+    assertThat(keys(rows)).containsExactly("a");
+    assertThat(inner.requestedKeys).containsExactly(ImmutableList.of("a", "x"));
+
+    rows = callable.call(Query.create("my-table").rowKey("a").rowKey("b").rowKey("x"));
+    assertThat(keys(rows)).containsExactly("a", "b");
+    assertThat(inner.requestedKeys.get(1)).containsExactly("b");
+
+    assertThat(cache.getHitCount()).isEqualTo(2);
+    assertThat(cache.getMissCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void fullyCachedBatchIsNotSentTest() {
+    callable.call(Query.create("my-table").rowKey("a").rowKey("b"));
+    List<Row> rows = callable.call(Query.create("my-table").rowKey("b").rowKey("a"));
+
+    assertThat(keys(rows)).containsExactly("a", "b");
+    assertThat(inner.requestedKeys).hasSize(1);
+  }
+
+  @Test
+  public void limitedQueriesBypassTheCacheTest() {
+    callable.call(Query.create("my-table").rowKey("a").rowKey("b").limit(1));
+    callable.call(Query.create("my-table").rowKey("a").rowKey("b").limit(1));
+
+    assertThat(inner.requestedKeys).hasSize(2);
+    assertThat(cache.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void bulkMutationInvalidatesItsRowsTest() {
+    callable.call(Query.create("my-table").rowKey("a").rowKey("b"));
+
+    UnaryCallable<BulkMutation, MutateRowsAttemptResult> bulkMutateRows =
+        RowCacheInvalidatingCallable.forBulkMutateRows(
+            new UnaryCallable<BulkMutation, MutateRowsAttemptResult>() {
+              @Override
+              public ApiFuture<MutateRowsAttemptResult> futureCall(
+                  BulkMutation request, ApiCallContext context) {
+                return ApiFutures.immediateFuture(MutateRowsAttemptResult.success());
+              }
+            },
+            cache,
+            REQUEST_CONTEXT);
+    bulkMutateRows.call(BulkMutation.create("my-table").add("b", Mutation.create().deleteRow()));
+
+    callable.call(Query.create("my-table").rowKey("a").rowKey("b"));
+    assertThat(inner.requestedKeys.get(1)).containsExactly("b");
+  }
+
+  private static List<String> keys(List<Row> rows) {
+    List<String> keys = new ArrayList<>();
+    for (Row row : rows) {
+      keys.add(row.getKey().toStringUtf8());
+    }
+    return keys;
+  }
+
+  /** Returns the requested rows that exist, in an arbitrary order. */
+  private static class FakeBulkReadRowsCallable extends UnaryCallable<Query, List<Row>> {
+    private final Set<String> existingKeys;
+    private final List<List<String>> requestedKeys = new ArrayList<>();
+
+    FakeBulkReadRowsCallable(Set<String> existingKeys) {
+      this.existingKeys = existingKeys;
+    }
+
+    @Override
+    public ApiFuture<List<Row>> futureCall(Query query, ApiCallContext context) {
+      List<String> keys = new ArrayList<>();
+      List<Row> rows = new ArrayList<>();
+      for (ByteString key : query.toProto(REQUEST_CONTEXT).getRows().getRowKeysList()) {
+        keys.add(key.toStringUtf8());
+        if (existingKeys.contains(key.toStringUtf8())) {
+          rows.add(
+              0,
+              Row.create(
+                  key,
+                  ImmutableList.of(
+                      RowCell.create(
+                          "cf",
+                          ByteString.copyFromUtf8("q"),
+                          1000,
+                          ImmutableList.<String>of(),
+                          ByteString.copyFromUtf8("value")))));
+        }
+      }
+      requestedKeys.add(keys);
+      return ApiFutures.immediateFuture(rows);
+    }
+  }
+}
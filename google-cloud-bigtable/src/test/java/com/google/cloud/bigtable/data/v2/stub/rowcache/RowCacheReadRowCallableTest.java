@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.core.FakeApiClock;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.models.Filters;
+import com.google.cloud.bigtable.data.v2.models.Query;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowCell;
+import com.google.cloud.bigtable.data.v2.models.RowMutation;
+import com.google.cloud.bigtable.data.v2.stub.RowCacheSettings;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RowCacheReadRowCallableTest {
+  private static final RequestContext REQUEST_CONTEXT =
+      RequestContext.create("my-project", "my-instance", "my-app-profile");
+
+  private RowCache cache;
+  private FakeReadRowCallable inner;
+  private RowCacheReadRowCallable callable;
+
+  @Before
+  public void setUp() {
+    cache =
+        new RowCache(RowCacheSettings.newBuilder().setEnabled(true).build(), new FakeApiClock(0));
+    inner = new FakeReadRowCallable();
+    callable = new RowCacheReadRowCallable(inner, cache, REQUEST_CONTEXT);
+  }
+
+  @Test
+  public void secondReadIsServedFromCacheTest() throws Exception {
+    Row row = row("my-key");
+    inner.nextRow = row;
+
+    assertThat(callable.call(Query.create("my-table").rowKey("my-key"))).isSameInstanceAs(row);
+    assertThat(callable.call(Query.create("my-table").rowKey("my-key"))).isSameInstanceAs(row);
+
+    assertThat(inner.queries).hasSize(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void missingRowIsCachedTest() {
+    inner.nextRow = null;
+
+    assertThat(callable.call(Query.create("my-table").rowKey("my-key"))).isNull();
+    assertThat(callable.call(Query.create("my-table").rowKey("my-key"))).isNull();
+
+    assertThat(inner.queries).hasSize(1);
+  }
+
+  @Test
+  public void differentFiltersAreCachedSeparatelyTest() {
+    inner.nextRow = row("my-key");
+
+    callable.call(Query.create("my-table").rowKey("my-key"));
+    callable.call(
+        Query.create("my-table")
+            .rowKey("my-key")
+            .filter(Filters.FILTERS.limit().cellsPerColumn(1)));
+
+    assertThat(inner.queries).hasSize(2);
+  }
+
+  @Test
+  public void scansBypassTheCacheTest() {
+    inner.nextRow = row("my-key");
+
+    callable.call(Query.create("my-table").prefix("my"));
+    callable.call(Query.create("my-table").prefix("my"));
+
+    assertThat(inner.queries).hasSize(2);
+    assertThat(cache.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void failedReadIsNotCachedTest() {
+    SettableApiFuture<Row> failure = SettableApiFuture.create();
+    failure.setException(new RuntimeException("fake error"));
+    inner.nextFuture = failure;
+
+    ApiFuture<Row> result = callable.futureCall(Query.create("my-table").rowKey("my-key"));
+    assertThat(result.isDone()).isTrue();
+
+    inner.nextRow = row("my-key");
+    callable.call(Query.create("my-table").rowKey("my-key"));
+    assertThat(inner.queries).hasSize(2);
+  }
+
+  @Test
+  public void writeInvalidatesTheRowTest() {
+    Row oldRow = row("my-key");
+    inner.nextRow = oldRow;
+    callable.call(Query.create("my-table").rowKey("my-key"));
+
+    UnaryCallable<RowMutation, Void> mutateRow =
+        RowCacheInvalidatingCallable.forMutateRow(
+            new UnaryCallable<RowMutation, Void>() {
+              @Override
+              public ApiFuture<Void> futureCall(RowMutation request, ApiCallContext context) {
+                SettableApiFuture<Void> future = SettableApiFuture.create();
+                future.set(null);
+                return future;
+              }
+            },
+            cache,
+            REQUEST_CONTEXT);
+    mutateRow.call(RowMutation.create("my-table", "my-key").deleteRow());
+
+    Row newRow = row("my-key");
+    inner.nextRow = newRow;
+    assertThat(callable.call(Query.create("my-table").rowKey("my-key"))).isSameInstanceAs(newRow);
+    assertThat(inner.queries).hasSize(2);
+  }
+
+  private static Row row(String key) {
+    return Row.create(
+        ByteString.copyFromUtf8(key),
+        ImmutableList.of(
+            RowCell.create(
+                "cf",
+                ByteString.copyFromUtf8("q"),
+                1000,
+                ImmutableList.<String>of(),
+                ByteString.copyFromUtf8("value"))));
+  }
+
+  private static class FakeReadRowCallable extends UnaryCallable<Query, Row> {
+    private final List<Query> queries = new ArrayList<>();
+    private Row nextRow;
+    private ApiFuture<Row> nextFuture;
+
+    @Override
+    public ApiFuture<Row> futureCall(Query query, ApiCallContext context) {
+      queries.add(query);
+      if (nextFuture != null) {
+        ApiFuture<Row> future = nextFuture;
+        nextFuture = null;
+        return future;
+      }
+      SettableApiFuture<Row> future = SettableApiFuture.create();
+      future.set(nextRow);
+      return future;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.rowcache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.gax.core.FakeApiClock;
+import com.google.bigtable.v2.ReadRowsRequest;
+import com.google.bigtable.v2.RowFilter;
+import com.google.bigtable.v2.RowSet;
+import com.google.cloud.bigtable.data.v2.models.Row;
+import com.google.cloud.bigtable.data.v2.models.RowCell;
+import com.google.cloud.bigtable.data.v2.stub.RowCacheSettings;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RowCacheTest {
+  private static final String TABLE_NAME = "projects/my-project/instances/my-instance/tables/table";
+  private static final String AUTHORIZED_VIEW_NAME = TABLE_NAME + "/authorizedViews/view";
+
+  private FakeApiClock clock;
+  private RowCache cache;
+
+  @Before
+  public void setUp() {
+    clock = new FakeApiClock(0);
+    cache = newCache(1024 * 1024);
+  }
+
+  @Test
+  public void hitAndMissTest() {
+    RowCacheKey key = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    assertThat(cache.getIfPresent(key)).isNull();
+
+    Row row = row("row", 10);
+    cache.put(key, row, cache.readToken(key));
+
+    assertThat(cache.getIfPresent(key).getRow()).isSameInstanceAs(row);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void missingRowIsCachedTest() {
+    RowCacheKey key = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    cache.put(key, null, cache.readToken(key));
+
+    RowCache.Entry entry = cache.getIfPresent(key);
+    assertThat(entry).isNotNull();
+    assertThat(entry.getRow()).isNull();
+  }
+
+  @Test
+  public void keyIncludesFilterAndResourceTest() {
+    RowFilter filter = RowFilter.newBuilder().setCellsPerColumnLimitFilter(1).build();
+    RowCacheKey unfiltered = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    cache.put(unfiltered, row("row", 10), cache.readToken(unfiltered));
+
+    assertThat(cache.getIfPresent(key(TABLE_NAME, "row", filter))).isNull();
+    assertThat(cache.getIfPresent(key(AUTHORIZED_VIEW_NAME, "row", RowFilter.getDefaultInstance())))
+        .isNull();
+    assertThat(cache.getIfPresent(key(TABLE_NAME, "row", RowFilter.getDefaultInstance())))
+        .isNotNull();
+  }
+
+  @Test
+  public void invalidateRemovesAllReadsOfTheRowTest() {
+    RowFilter filter = RowFilter.newBuilder().setCellsPerColumnLimitFilter(1).build();
+    RowCacheKey tableKey = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    RowCacheKey filteredKey = key(TABLE_NAME, "row", filter);
+    RowCacheKey viewKey = key(AUTHORIZED_VIEW_NAME, "row", RowFilter.getDefaultInstance());
+    RowCacheKey otherKey = key(TABLE_NAME, "other-row", RowFilter.getDefaultInstance());
+    for (RowCacheKey key : ImmutableList.of(tableKey, filteredKey, viewKey, otherKey)) {
+      cache.put(key, row("row", 10), cache.readToken(key));
+    }
+
+    // A write through the authorized view invalidates the reads through the table
+    cache.invalidate(RowId.create("", AUTHORIZED_VIEW_NAME, ByteString.copyFromUtf8("row")));
+
+    assertThat(cache.getIfPresent(tableKey)).isNull();
+    assertThat(cache.getIfPresent(filteredKey)).isNull();
+    assertThat(cache.getIfPresent(viewKey)).isNull();
+    assertThat(cache.getIfPresent(otherKey)).isNotNull();
+  }
+
+  @Test
+  public void staleReadIsNotCachedTest() {
+    RowCacheKey key = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    long token = cache.readToken(key);
+
+    // The row is written while the read is in flight
+    cache.invalidate(key.getRowId());
+    cache.put(key, row("row", 10), token);
+
+    assertThat(cache.getIfPresent(key)).isNull();
+  }
+
+  @Test
+  public void expirationTest() {
+    RowCacheKey key = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    cache.put(key, row("row", 10), cache.readToken(key));
+
+    clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(59));
+    assertThat(cache.getIfPresent(key)).isNotNull();
+
+    clock.incrementNanoTime(TimeUnit.SECONDS.toNanos(1));
+    assertThat(cache.getIfPresent(key)).isNull();
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+    assertThat(cache.getWeightBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void sizeIsBoundedTest() {
+    for (int i = 0; i < 10_000; i++) {
+      RowCacheKey key = key(TABLE_NAME, "row-" + i, RowFilter.getDefaultInstance());
+      cache.put(key, row("row-" + i, 1000), cache.readToken(key));
+    }
+
+    assertThat(cache.getWeightBytes()).isAtMost(1024 * 1024);
+    assertThat(cache.getEvictionCount()).isGreaterThan(0);
+  }
+
+  @Test
+  public void oversizedRowIsNotCachedTest() {
+    RowCacheKey key = key(TABLE_NAME, "row", RowFilter.getDefaultInstance());
+    cache.put(key, row("row", 2 * 1024 * 1024), cache.readToken(key));
+
+    assertThat(cache.getIfPresent(key)).isNull();
+    assertThat(cache.getWeightBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void frequentlyReadRowsSurviveScansTest() {
+    // Space for about 100 rows
+    cache = newCache(100 * 1200);
+
+    RowCacheKey hotKey = key(TABLE_NAME, "hot-row", RowFilter.getDefaultInstance());
+    for (int i = 0; i < 10; i++) {
+      if (cache.getIfPresent(hotKey) == null) {
+        cache.put(hotKey, row("hot-row", 1000), cache.readToken(hotKey));
+      }
+    }
+
+    // Read many rows once, which would flush the hot row out of an LRU cache
+    for (int i = 0; i < 1000; i++) {
+      RowCacheKey key = key(TABLE_NAME, "cold-row-" + i, RowFilter.getDefaultInstance());
+      if (cache.getIfPresent(key) == null) {
+        cache.put(key, row("cold-row-" + i, 1000), cache.readToken(key));
+      }
+    }
+
+    assertThat(cache.getIfPresent(hotKey)).isNotNull();
+  }
+
+  private RowCache newCache(long maxWeightBytes) {
+    return new RowCache(
+        RowCacheSettings.newBuilder()
+            .setEnabled(true)
+            .setMaxWeightBytes(maxWeightBytes)
+            .setExpireAfterWrite(Duration.ofMinutes(1))
+            .build(),
+        clock);
+  }
+
+  private static RowCacheKey key(String resourceName, String rowKey, RowFilter filter) {
+    ReadRowsRequest.Builder request =
+        ReadRowsRequest.newBuilder()
+            .setRows(RowSet.newBuilder().addRowKeys(ByteString.copyFromUtf8(rowKey)))
+            .setFilter(filter);
+    if (resourceName.contains("/authorizedViews/")) {
+      request.setAuthorizedViewName(resourceName);
+    } else {
+      request.setTableName(resourceName);
+    }
+    return RowCacheKey.forPointRead(request.build());
+  }
+
+  private static Row row(String key, int valueSize) {
+    return Row.create(
+        ByteString.copyFromUtf8(key),
+        ImmutableList.of(
+            RowCell.create(
+                "cf",
+                ByteString.copyFromUtf8("q"),
+                1000,
+                ImmutableList.<String>of(),
+                ByteString.copyFrom(new byte[valueSize]))));
+  }
+}
@@ -25,6 +25,7 @@ import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringV
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.gax.retrying.RetrySettings;
 import com.google.api.gax.rpc.DeadlineExceededException;
 import com.google.bigtable.v2.BigtableGrpc;
@@ -38,8 +39,10 @@ import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
 import com.google.cloud.bigtable.data.v2.internal.SqlRow;
 import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStub;
 import com.google.cloud.bigtable.gaxx.testing.FakeStreamingApi.ServerStreamingStashCallable;
+import com.google.cloud.bigtable.gaxx.testing.MockStreamingApi.MockResponseObserver;
 import io.grpc.Context;
 import io.grpc.Deadline;
 import io.grpc.Server;
@@ -136,6 +139,25 @@ public class ExecuteQueryCallableTest {
     assertThat(fakeService.deadlineMillisRemaining).isLessThan(1800000L);
   }
 
+  @Test
+  public void testAsyncCallDeliversRowsOnDemand() throws Exception {
+    MockResponseObserver<SqlRow> observer = new MockResponseObserver<>(false);
+    ApiFuture<ResultSetMetadata> metadataFuture =
+        stub.executeQueryCallable().call(PREPARED_STATEMENT.bind().build(), observer);
+
+    observer.getController().request(1);
+    assertThat(metadataFuture.get(10, TimeUnit.SECONDS).getColumns().get(0).name())
+        .isEqualTo("foo");
+    assertThat(observer.popNextResponse().getString("foo")).isEqualTo("foo");
+    // The second row isn't delivered until it is requested
+    assertThat(observer.popNextResponse()).isNull();
+    assertThat(observer.isDone()).isFalse();
+
+    observer.getController().request(1);
+    assertThat(observer.popNextResponse().getString("foo")).isEqualTo("bar");
+    assertThat(observer.getFinalError()).isNull();
+  }
+
   @Test
   public void testExecuteQueryRequestsRespectDeadline() throws IOException {
     BigtableDataSettings.Builder overrideSettings =
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.sql;
+
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.columnMetadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.metadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.preparedStatement;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringType;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringValue;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StreamController;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.bigtable.v2.ExecuteQueryRequest;
+import com.google.bigtable.v2.Value;
+import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
+import com.google.cloud.bigtable.data.v2.internal.ProtoSqlRow;
+import com.google.cloud.bigtable.data.v2.internal.RequestContext;
+import com.google.cloud.bigtable.data.v2.internal.SqlRow;
+import com.google.cloud.bigtable.data.v2.models.KeyOffset;
+import com.google.cloud.bigtable.data.v2.models.SampleRowKeysRequest;
+import com.google.cloud.bigtable.data.v2.models.TableId;
+import com.google.cloud.bigtable.data.v2.models.sql.BoundStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.PartitionedQuery;
+import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.SqlType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PartitionedExecuteQueryCallableTest {
+  private static final RequestContext REQUEST_CONTEXT =
+      RequestContext.create("fake-project", "fake-instance", "fake-profile");
+  private static final com.google.bigtable.v2.ResultSetMetadata METADATA =
+      metadata(columnMetadata("_key", stringType()));
+  private static final PreparedStatement PREPARED_STATEMENT =
+      preparedStatement(
+          METADATA,
+          ImmutableMap.<String, SqlType<?>>of("start", SqlType.bytes(), "end", SqlType.bytes()));
+  private static final List<String> TABLE_KEYS =
+      ImmutableList.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+
+  private FakeScanCallable inner;
+  private List<KeyOffset> samples;
+  private PartitionedExecuteQueryCallable callable;
+
+  @Before
+  public void setUp() {
+    inner = new FakeScanCallable();
+    samples = ImmutableList.of(sample("c"), sample("f"), sample("h"), sample(""));
+    callable =
+        new PartitionedExecuteQueryCallable(
+            new ExecuteQueryCallable(inner),
+            new UnaryCallable<SampleRowKeysRequest, List<KeyOffset>>() {
+              @Override
+              public ApiFuture<List<KeyOffset>> futureCall(
+                  SampleRowKeysRequest request, ApiCallContext context) {
+                return ApiFutures.immediateFuture(samples);
+              }
+            });
+  }
+
+  @Test
+  public void chooseSplitPointsTest() {
+    List<KeyOffset> keyOffsets =
+        ImmutableList.of(sample("b"), sample("d"), sample("f"), sample("h"), sample(""));
+
+    assertThat(PartitionedExecuteQueryCallable.chooseSplitPoints(keyOffsets, null, null, 16))
+        .containsExactly(key("b"), key("d"), key("f"), key("h"))
+        .inOrder();
+    assertThat(
+            PartitionedExecuteQueryCallable.chooseSplitPoints(
+                keyOffsets, ByteString.EMPTY, key("h"), 16))
+        .containsExactly(key("b"), key("d"), key("f"))
+        .inOrder();
+    assertThat(
+            PartitionedExecuteQueryCallable.chooseSplitPoints(keyOffsets, key("b"), key("g"), 16))
+        .containsExactly(key("d"), key("f"))
+        .inOrder();
+    assertThat(PartitionedExecuteQueryCallable.chooseSplitPoints(keyOffsets, null, null, 3))
+        .containsExactly(key("d"), key("f"))
+        .inOrder();
+    assertThat(PartitionedExecuteQueryCallable.chooseSplitPoints(keyOffsets, null, null, 1))
+        .isEmpty();
+  }
+
+  @Test
+  public void partitionKeepsTemplateBoundsTest() {
+    BoundStatement statement =
+        PREPARED_STATEMENT.bind().setBytesParam("start", null).setBytesParam("end", null).build();
+    PartitionedQuery query =
+        PartitionedQuery.create(TableId.of("fake-table"), statement, "start", "end");
+
+    List<BoundStatement> partitions =
+        PartitionedExecuteQueryCallable.partition(query, ImmutableList.of(sample("m"), sample("")));
+
+    assertThat(partitions).hasSize(2);
+    assertThat(partitions.get(0).getBytesParam("start")).isNull();
+    assertThat(partitions.get(0).getBytesParam("end")).isEqualTo(key("m"));
+    assertThat(partitions.get(1).getBytesParam("start")).isEqualTo(key("m"));
+    assertThat(partitions.get(1).getBytesParam("end")).isNull();
+  }
+
+  @Test
+  public void createRejectsNonBytesParamsTest() {
+    PreparedStatement preparedStatement =
+        preparedStatement(
+            METADATA,
+            ImmutableMap.<String, SqlType<?>>of("start", SqlType.bytes(), "end", SqlType.string()));
+    BoundStatement statement =
+        preparedStatement
+            .bind()
+            .setBytesParam("start", ByteString.EMPTY)
+            .setStringParam("end", "z")
+            .build();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PartitionedQuery.create(TableId.of("fake-table"), statement, "start", "end"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PartitionedQuery.create(TableId.of("fake-table"), statement, "start", "missing"));
+  }
+
+  @Test
+  public void unorderedReturnsEveryRowTest() {
+    inner.emitImmediately = true;
+
+    SqlServerStream stream = callable.call(query().parallelism(2));
+
+    assertThat(keysOf(stream)).containsExactlyElementsIn(TABLE_KEYS);
+    assertThat(inner.requests).hasSize(4);
+    assertThat(stream.metadataFuture().isDone()).isTrue();
+  }
+
+  @Test
+  public void orderedReturnsRowsInKeyOrderTest() {
+    SqlServerStream stream = callable.call(query().parallelism(4).ordered(true));
+    Iterator<SqlRow> rows = stream.rows().iterator();
+
+    // Finish the partitions out of order, the rows must still come back in key order
+    assertThat(inner.streams).hasSize(4);
+    for (int i = inner.streams.size() - 1; i >= 0; i--) {
+      inner.streams.get(i).emitAll();
+    }
+
+    List<String> keys = new ArrayList<>();
+    while (rows.hasNext()) {
+      keys.add(rows.next().getString(0));
+    }
+    assertThat(keys).containsExactlyElementsIn(TABLE_KEYS).inOrder();
+  }
+
+  @Test
+  public void parallelismLimitsConcurrentPartitionsTest() {
+    SqlServerStream stream = callable.call(query().parallelism(2));
+    Iterator<SqlRow> rows = stream.rows().iterator();
+
+    assertThat(inner.streams).hasSize(2);
+
+    inner.streams.get(0).emitAll();
+    assertThat(inner.streams).hasSize(3);
+
+    inner.emitImmediately = true;
+    inner.streams.get(1).emitAll();
+    inner.streams.get(2).emitAll();
+    List<String> keys = new ArrayList<>();
+    while (rows.hasNext()) {
+      keys.add(rows.next().getString(0));
+    }
+    assertThat(keys).containsExactlyElementsIn(TABLE_KEYS);
+    assertThat(inner.streams).hasSize(4);
+  }
+
+  @Test
+  public void partitionErrorCancelsOtherPartitionsTest() {
+    SqlServerStream stream = callable.call(query().parallelism(4));
+    Iterator<SqlRow> rows = stream.rows().iterator();
+
+    inner.streams.get(1).fail(new IllegalStateException("fake error"));
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, rows::hasNext);
+    assertThat(e).hasMessageThat().isEqualTo("fake error");
+    assertThat(inner.streams.get(0).cancelled).isTrue();
+    assertThat(inner.streams.get(2).cancelled).isTrue();
+    assertThat(inner.streams.get(3).cancelled).isTrue();
+  }
+
+  @Test
+  public void userCancelCancelsPartitionsTest() {
+    SqlServerStream stream = callable.call(query().parallelism(2));
+
+    stream.rows().cancel();
+
+    assertThat(inner.streams).hasSize(2);
+    assertThat(inner.streams.get(0).cancelled).isTrue();
+    assertThat(inner.streams.get(1).cancelled).isTrue();
+  }
+
+  @Test
+  public void partitionStartErrorFailsStreamTest() {
+    inner.startError = new IllegalStateException("fake start error");
+
+    SqlServerStream stream = callable.call(query().parallelism(2));
+
+    IllegalStateException e =
+        assertThrows(IllegalStateException.class, () -> stream.rows().iterator().hasNext());
+    assertThat(e).hasMessageThat().isEqualTo("fake start error");
+    // The stream stops starting partitions after the first one fails
+    assertThat(inner.contexts).hasSize(1);
+  }
+
+  @Test
+  public void callContextPropagatedToPartitionsTest() {
+    inner.emitImmediately = true;
+    List<ApiCallContext> sampleContexts = new ArrayList<>();
+    callable =
+        new PartitionedExecuteQueryCallable(
+            new ExecuteQueryCallable(inner),
+            new UnaryCallable<SampleRowKeysRequest, List<KeyOffset>>() {
+              @Override
+              public ApiFuture<List<KeyOffset>> futureCall(
+                  SampleRowKeysRequest request, ApiCallContext context) {
+                sampleContexts.add(context);
+                return ApiFutures.immediateFuture(samples);
+              }
+            });
+    ApiCallContext context =
+        GrpcCallContext.createDefault().withTimeoutDuration(Duration.ofSeconds(7));
+
+    SqlServerStream stream = callable.call(query().parallelism(2), context);
+
+    assertThat(keysOf(stream)).containsExactlyElementsIn(TABLE_KEYS);
+    assertThat(sampleContexts).containsExactly(context);
+    assertThat(inner.contexts).hasSize(4);
+    for (ApiCallContext partitionContext : inner.contexts) {
+      assertThat(partitionContext).isSameInstanceAs(context);
+    }
+  }
+
+  private static PartitionedQuery query() {
+    BoundStatement statement =
+        PREPARED_STATEMENT
+            .bind()
+            .setBytesParam("start", ByteString.EMPTY)
+            .setBytesParam("end", null)
+            .build();
+    return PartitionedQuery.create(TableId.of("fake-table"), statement, "start", "end");
+  }
+
+  private static List<String> keysOf(SqlServerStream stream) {
+    List<String> keys = new ArrayList<>();
+    for (SqlRow row : stream.rows()) {
+      keys.add(row.getString(0));
+    }
+    return keys;
+  }
+
+  private static KeyOffset sample(String key) {
+    return KeyOffset.create(key(key), 0);
+  }
+
+  private static ByteString key(String key) {
+    return ByteString.copyFromUtf8(key);
+  }
+
+  /** Scans the rows of {@link #TABLE_KEYS} in the key range of every request. */
+  private static class FakeScanCallable
+      extends ServerStreamingCallable<ExecuteQueryCallContext, SqlRow> {
+    private final List<ExecuteQueryRequest> requests = new ArrayList<>();
+    private final List<FakeStream> streams = new ArrayList<>();
+    private final List<ApiCallContext> contexts = new ArrayList<>();
+    private boolean emitImmediately;
+    @Nullable private RuntimeException startError;
+
+    @Override
+    public void call(
+        ExecuteQueryCallContext callContext,
+        ResponseObserver<SqlRow> responseObserver,
+        ApiCallContext apiCallContext) {
+      contexts.add(apiCallContext);
+      if (startError != null) {
+        throw startError;
+      }
+      ExecuteQueryRequest request;
+      try {
+        request = callContext.buildRequestWithDeadline(REQUEST_CONTEXT, null);
+      } catch (Exception e) {
+        throw new AssertionError(e);
+      }
+      requests.add(request);
+      callContext.finalizeMetadata();
+
+      Value start = request.getParamsOrThrow("start");
+      Value end = request.getParamsOrThrow("end");
+      List<SqlRow> rows = new ArrayList<>();
+      for (String key : TABLE_KEYS) {
+        if (start.hasBytesValue() && key.compareTo(start.getBytesValue().toStringUtf8()) < 0) {
+          continue;
+        }
+        if (end.hasBytesValue() && key.compareTo(end.getBytesValue().toStringUtf8()) >= 0) {
+          continue;
+        }
+        rows.add(
+            ProtoSqlRow.create(
+                ProtoResultSetMetadata.fromProto(METADATA),
+                Collections.singletonList(stringValue(key))));
+      }
+
+      FakeStream stream = new FakeStream(responseObserver, rows);
+      streams.add(stream);
+      responseObserver.onStart(stream);
+      if (emitImmediately) {
+        stream.emitAll();
+      }
+    }
+  }
+
+  /** Emits its rows as they are requested, once the test allows it to. */
+  private static class FakeStream implements StreamController {
+    private final ResponseObserver<SqlRow> observer;
+    private final Iterator<SqlRow> rows;
+    private boolean released;
+    private boolean emitting;
+    private boolean done;
+    private boolean cancelled;
+    private int requested;
+
+    FakeStream(ResponseObserver<SqlRow> observer, List<SqlRow> rows) {
+      this.observer = observer;
+      this.rows = rows.iterator();
+    }
+
+    void emitAll() {
+      released = true;
+      drain();
+    }
+
+    void fail(Throwable throwable) {
+      done = true;
+      observer.onError(throwable);
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {}
+
+    @Override
+    public void request(int count) {
+      requested += count;
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      if (!done) {
+        done = true;
+        observer.onError(new RuntimeException("cancelled"));
+      }
+    }
+
+    private void drain() {
+      if (!released || emitting) {
+        return;
+      }
+      emitting = true;
+      while (!done && requested > 0 && rows.hasNext()) {
+        requested--;
+        observer.onResponse(rows.next());
+      }
+      if (!done && !rows.hasNext()) {
+        done = true;
+        observer.onComplete();
+      }
+      emitting = false;
+    }
+  }
+}
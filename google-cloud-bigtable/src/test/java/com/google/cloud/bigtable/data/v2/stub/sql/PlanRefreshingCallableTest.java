@@ -47,6 +47,7 @@ import com.google.cloud.bigtable.data.v2.internal.PreparedStatementImpl.Prepared
 import com.google.cloud.bigtable.data.v2.internal.ProtoResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.internal.RequestContext;
 import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatement;
+import com.google.cloud.bigtable.data.v2.models.sql.PreparedStatementRefreshTimeoutException;
 import com.google.cloud.bigtable.data.v2.models.sql.ResultSetMetadata;
 import com.google.cloud.bigtable.data.v2.stub.EnhancedBigtableStubSettings;
 import com.google.cloud.bigtable.data.v2.stub.sql.PlanRefreshingCallable.PlanRefreshingObserver;
@@ -66,6 +67,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -86,6 +88,7 @@ public class PlanRefreshingCallableTest {
   PlanRefreshingObserver observer;
   RetrySettings retrySettings;
   ApiClock clock;
+  ScheduledExecutorService executor;
 
   @Before
   public void setUp() {
@@ -100,6 +103,12 @@ public class PlanRefreshingCallableTest {
     callContext = ExecuteQueryCallContext.create(preparedStatement.bind().build(), metadataFuture);
     outerObserver = new MockResponseObserver<>(true);
     observer = new PlanRefreshingObserver(outerObserver, callContext);
+    executor = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
   }
 
   @Test
@@ -168,7 +177,8 @@ public class PlanRefreshingCallableTest {
     ServerStreamingStashCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
         new ServerStreamingStashCallable<>(Collections.singletonList(DATA));
     RequestContext requestContext = RequestContext.create("project", "instance", "profile");
-    PlanRefreshingCallable callable = new PlanRefreshingCallable(innerCallable, requestContext);
+    PlanRefreshingCallable callable =
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
     MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
     SettableApiFuture<ResultSetMetadata> metadataFuture = SettableApiFuture.create();
     PreparedStatement preparedStatement =
@@ -193,7 +203,7 @@ public class PlanRefreshingCallableTest {
     MockServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
         new MockServerStreamingCallable<>();
     PlanRefreshingCallable planRefreshingCallable =
-        new PlanRefreshingCallable(innerCallable, requestContext);
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
     MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
     ExecuteQueryCallContext callContext =
         ExecuteQueryCallContext.create(new FakePreparedStatement().bind().build(), metadataFuture);
@@ -216,7 +226,7 @@ public class PlanRefreshingCallableTest {
     MockServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
         new MockServerStreamingCallable<>();
     PlanRefreshingCallable planRefreshingCallable =
-        new PlanRefreshingCallable(innerCallable, requestContext);
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
     MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
     ExecuteQueryCallContext callContext =
         ExecuteQueryCallContext.create(new FakePreparedStatement().bind().build(), metadataFuture);
@@ -248,7 +258,8 @@ public class PlanRefreshingCallableTest {
     MockServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
         new MockServerStreamingCallable<>();
     RequestContext requestContext = RequestContext.create("project", "instance", "profile");
-    PlanRefreshingCallable callable = new PlanRefreshingCallable(innerCallable, requestContext);
+    PlanRefreshingCallable callable =
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
     MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
     SettableApiFuture<ResultSetMetadata> metadataFuture = SettableApiFuture.create();
     SettableApiFuture<PrepareResponse> prepareFuture = SettableApiFuture.create();
@@ -290,6 +301,69 @@ public class PlanRefreshingCallableTest {
     assertThat(executeDeadline.isBefore(paddedDeadlineAtStartOfCall)).isTrue();
   }
 
+  @Test
+  public void callable_doesNotBlockWaitingForPlanRefresh() {
+    MockServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
+        new MockServerStreamingCallable<>();
+    RequestContext requestContext = RequestContext.create("project", "instance", "profile");
+    PlanRefreshingCallable callable =
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
+    MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
+    SettableApiFuture<PrepareResponse> prepareFuture = SettableApiFuture.create();
+    PreparedStatement preparedStatement =
+        new FakePreparedStatement().withUpdatedPlans(PreparedQueryData.create(prepareFuture), null);
+    ExecuteQueryCallContext callContext =
+        ExecuteQueryCallContext.create(preparedStatement.bind().build(), metadataFuture);
+
+    // Returns while the plan is still being refreshed
+    callable.call(
+        callContext,
+        outerObserver,
+        GrpcCallContext.createDefault().withTimeoutDuration(Duration.ofMinutes(1)));
+    assertThat(innerCallable.popLastCall()).isNull();
+
+    prepareFuture.set(
+        PrepareResponse.fromProto(
+            prepareResponse(
+                ByteString.copyFromUtf8("refreshedPlan"),
+                metadata(columnMetadata("strCol", stringType())))));
+    MockServerStreamingCall<ExecuteQueryRequest, ExecuteQueryResponse> call =
+        innerCallable.popLastCall();
+    assertThat(call.getRequest().getPreparedQuery())
+        .isEqualTo(ByteString.copyFromUtf8("refreshedPlan"));
+    assertThat(outerObserver.getController()).isEqualTo(call.getController());
+  }
+
+  @Test
+  public void callable_timesOutWaitingForPlanRefresh() {
+    MockServerStreamingCallable<ExecuteQueryRequest, ExecuteQueryResponse> innerCallable =
+        new MockServerStreamingCallable<>();
+    RequestContext requestContext = RequestContext.create("project", "instance", "profile");
+    PlanRefreshingCallable callable =
+        new PlanRefreshingCallable(innerCallable, requestContext, executor);
+    MockResponseObserver<ExecuteQueryResponse> outerObserver = new MockResponseObserver<>(true);
+    SettableApiFuture<PrepareResponse> prepareFuture = SettableApiFuture.create();
+    PreparedStatement preparedStatement =
+        new FakePreparedStatement().withUpdatedPlans(PreparedQueryData.create(prepareFuture), null);
+    ExecuteQueryCallContext callContext =
+        ExecuteQueryCallContext.create(preparedStatement.bind().build(), metadataFuture);
+
+    callable.call(
+        callContext,
+        outerObserver,
+        GrpcCallContext.createDefault().withTimeoutDuration(Duration.ofMillis(10)));
+
+    assertThat(outerObserver.getFinalError())
+        .isInstanceOf(PreparedStatementRefreshTimeoutException.class);
+    // A plan that resolves after the timeout doesn't start the attempt
+    prepareFuture.set(
+        PrepareResponse.fromProto(
+            prepareResponse(
+                ByteString.copyFromUtf8("refreshedPlan"),
+                metadata(columnMetadata("strCol", stringType())))));
+    assertThat(innerCallable.popLastCall()).isNull();
+  }
+
   @Test
   public void testGetDeadlineWithAttemptTimeout() {
     GrpcCallContext callContext =
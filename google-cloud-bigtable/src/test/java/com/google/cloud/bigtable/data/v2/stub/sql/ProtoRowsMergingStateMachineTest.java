@@ -36,6 +36,7 @@ import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringV
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.structType;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.structValue;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.tokenOnlyResultSet;
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
@@ -199,6 +200,34 @@ public final class ProtoRowsMergingStateMachineTest {
           .populateQueueYields(ProtoSqlRow.create(metadata, ImmutableList.of(mapVal)));
     }
 
+    @Test
+    public void stateMachine_validatesChecksumOfChunksWithMultipleBuffers() {
+      ResultSetMetadata metadata =
+          ProtoResultSetMetadata.fromProto(metadata(columnMetadata("a", bytesType())));
+      ProtoRowsMergingStateMachine stateMachine = new ProtoRowsMergingStateMachine(() -> metadata);
+      // Larger than the parse buffer, so the batch is read as a stream
+      Value value = bytesValue(Strings.repeat("value", 20_000));
+      ByteString batchData = ProtoRows.newBuilder().addValues(value).build().toByteString();
+      // Large substrings are concatenated without copying, so each chunk is backed by two buffers
+      ByteString chunk1 = batchData.substring(0, 1000).concat(batchData.substring(1000, 2000));
+      ByteString chunk2 = batchData.substring(2000, 3000).concat(batchData.substring(3000));
+      assertThat(chunk1.asReadOnlyByteBufferList()).hasSize(2);
+
+      stateMachine.addPartialResultSet(
+          PartialResultSet.newBuilder()
+              .setProtoRowsBatch(ProtoRowsBatch.newBuilder().setBatchData(chunk1))
+              .build());
+      stateMachine.addPartialResultSet(
+          PartialResultSet.newBuilder()
+              .setResumeToken(ByteString.copyFromUtf8("token"))
+              .setProtoRowsBatch(ProtoRowsBatch.newBuilder().setBatchData(chunk2))
+              .setBatchChecksum(checksum(batchData))
+              .build());
+
+      assertThat(stateMachine)
+          .populateQueueYields(ProtoSqlRow.create(metadata, ImmutableList.of(value)));
+    }
+
     @Test
     public void stateMachine_reconstructsRowWithMultipleColumns() {
       ResultSetMetadata metadata =
@@ -21,6 +21,7 @@ import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.arrayVa
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesType;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesValue;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.columnMetadata;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.int64Value;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapElement;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapType;
 import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.mapValue;
@@ -135,6 +136,48 @@ public class SqlRowMergerTest {
         () -> merger.push(partialResultSetWithToken(stringValue("test"))));
   }
 
+  @Test
+  public void pop_createsRowsLazily() {
+    com.google.bigtable.v2.ResultSetMetadata metadataProto =
+        metadata(columnMetadata("str", stringType()));
+    ResultSetMetadata metadata = ProtoResultSetMetadata.fromProto(metadataProto);
+    SqlRowMerger merger = new SqlRowMerger(toSupplier(metadataProto));
+    // The second row has a value of the wrong type. It only fails once that row is created.
+    merger.push(partialResultSetWithToken(stringValue("a"), int64Value(1), stringValue("c")));
+
+    assertThat(merger.pop())
+        .isEqualTo(ProtoSqlRow.create(metadata, ImmutableList.of(stringValue("a"))));
+    assertThrows(IllegalStateException.class, merger::pop);
+  }
+
+  @Test
+  public void pop_rowsStayValidAfterValuesAreRecycled() {
+    com.google.bigtable.v2.ResultSetMetadata metadataProto =
+        metadata(columnMetadata("str", stringType()), columnMetadata("bytes", bytesType()));
+    ResultSetMetadata metadata = ProtoResultSetMetadata.fromProto(metadataProto);
+    SqlRowMerger merger = new SqlRowMerger(toSupplier(metadataProto));
+
+    partialResultSets(3, stringValue("a"), bytesValue("b"), stringValue("c"), bytesValue("d"))
+        .forEach(merger::push);
+    ProtoSqlRow first = (ProtoSqlRow) merger.pop();
+    ProtoSqlRow second = (ProtoSqlRow) merger.pop();
+    // The values of the next batch reuse the slots of the rows that were popped
+    partialResultSets(2, false, ByteString.copyFromUtf8("token"), stringValue("e"), bytesValue("f"))
+        .forEach(merger::push);
+    ProtoSqlRow third = (ProtoSqlRow) merger.pop();
+
+    assertThat(first)
+        .isEqualTo(
+            ProtoSqlRow.create(metadata, ImmutableList.of(stringValue("a"), bytesValue("b"))));
+    assertThat(second)
+        .isEqualTo(
+            ProtoSqlRow.create(metadata, ImmutableList.of(stringValue("c"), bytesValue("d"))));
+    assertThat(third)
+        .isEqualTo(
+            ProtoSqlRow.create(metadata, ImmutableList.of(stringValue("e"), bytesValue("f"))));
+    assertThat(merger).hasPartialFrame(false);
+  }
+
   @Test
   public void hasFullFrame_trueWithFullRow() {
     com.google.bigtable.v2.ResultSetMetadata metadataProto =
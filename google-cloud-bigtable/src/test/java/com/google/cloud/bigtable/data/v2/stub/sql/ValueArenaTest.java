@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigtable.data.v2.stub.sql;
+
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.bytesValue;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.int64Value;
+import static com.google.cloud.bigtable.data.v2.stub.sql.SqlProtoFactory.stringValue;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.bigtable.v2.ProtoRows;
+import com.google.bigtable.v2.Value;
+import com.google.common.base.Strings;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ValueArenaTest {
+
+  @Test
+  public void decodeSingleChunkTest() throws Exception {
+    ValueArena arena = new ValueArena();
+
+    arena.decode(batch(stringValue("a"), int64Value(1)), true);
+
+    assertThat(valuesOf(arena)).containsExactly(stringValue("a"), int64Value(1)).inOrder();
+  }
+
+  @Test
+  public void decodeSeveralChunksTest() throws Exception {
+    ValueArena arena = new ValueArena();
+    ByteString batch = batch(bytesValue("first"), bytesValue("second"), bytesValue("third"));
+    ByteString chunked =
+        batch.substring(0, 5).concat(batch.substring(5, 11)).concat(batch.substring(11));
+
+    arena.decode(chunked, false);
+    // Values of earlier batches must not change when later batches are decoded
+    arena.decode(batch(bytesValue("XXXXX"), bytesValue("YYYYYY")).concat(ByteString.EMPTY), false);
+
+    assertThat(valuesOf(arena))
+        .containsExactly(
+            bytesValue("first"),
+            bytesValue("second"),
+            bytesValue("third"),
+            bytesValue("XXXXX"),
+            bytesValue("YYYYYY"))
+        .inOrder();
+  }
+
+  @Test
+  public void decodeLargeSeveralChunksTest() throws Exception {
+    ValueArena arena = new ValueArena();
+    Value[] values = new Value[8];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = bytesValue(Strings.repeat(String.valueOf(i), 20 * 1024));
+    }
+    ByteString batch = batch(values);
+    ByteString chunked = ByteString.EMPTY;
+    for (int offset = 0; offset < batch.size(); offset += 7000) {
+      chunked = chunked.concat(batch.substring(offset, Math.min(offset + 7000, batch.size())));
+    }
+
+    arena.decode(chunked, false);
+
+    assertThat(valuesOf(arena)).containsExactlyElementsIn(Arrays.asList(values)).inOrder();
+  }
+
+  @Test
+  public void decodeGrowsTheArenaTest() throws Exception {
+    ValueArena arena = new ValueArena();
+    Value[] values = new Value[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = int64Value(i);
+    }
+
+    arena.decode(batch(values), true);
+
+    assertThat(valuesOf(arena)).containsExactlyElementsIn(Arrays.asList(values)).inOrder();
+  }
+
+  @Test
+  public void truncateDropsTheLastValuesTest() throws Exception {
+    ValueArena arena = new ValueArena();
+    arena.decode(batch(stringValue("a"), stringValue("b"), stringValue("c")), true);
+
+    arena.truncate(1);
+
+    assertThat(valuesOf(arena)).containsExactly(stringValue("a"));
+    assertThrows(IndexOutOfBoundsException.class, () -> arena.truncate(2));
+  }
+
+  @Test
+  public void releaseMovesTheRemainingValuesTest() throws Exception {
+    ValueArena arena = new ValueArena();
+    arena.decode(batch(stringValue("a"), stringValue("b"), stringValue("c")), true);
+
+    arena.release(2);
+
+    assertThat(valuesOf(arena)).containsExactly(stringValue("c"));
+    arena.release(1);
+    assertThat(arena.size()).isEqualTo(0);
+  }
+
+  private static ByteString batch(Value... values) {
+    return ProtoRows.newBuilder().addAllValues(Arrays.asList(values)).build().toByteString();
+  }
+
+  private static List<Value> valuesOf(ValueArena arena) {
+    List<Value> values = new ArrayList<>();
+    for (int i = 0; i < arena.size(); i++) {
+      values.add(arena.get(i));
+    }
+    return values;
+  }
+}
@@ -31,8 +31,11 @@ import io.grpc.Status;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -248,4 +251,200 @@ public class BigtableChannelPoolTest {
     startCall(unaryMethodDescriptor);
     assertThat(entry.isAltsChannel()).isFalse();
   }
+
+  @Test
+  public void testLatencyIsOnlyTrackedForPeakEwma() throws IOException {
+    BigtableChannelPool.Entry entry = getSingleEntry();
+    startCall(unaryMethodDescriptor).onClose(Status.OK, new Metadata());
+    assertThat(entry.getLatencyCost(System.nanoTime())).isEqualTo(0);
+
+    channelPool =
+        new BigtableChannelPool(
+            BigtableChannelPoolSettings.staticallySized(1).toBuilder()
+                .setLoadBalancingStrategy(
+                    BigtableChannelPoolSettings.LoadBalancingStrategy.POWER_OF_TWO_PEAK_EWMA)
+                .build(),
+            mockChannelFactory,
+            mockChannelPrimer,
+            executorService);
+    entry = getSingleEntry();
+    ClientCall.Listener<String> listener = startCall(unaryMethodDescriptor);
+    sleepAtLeastOneMilli();
+    listener.onClose(Status.OK, new Metadata());
+
+    assertThat(entry.getLatencyCost(System.nanoTime()))
+        .isAtLeast((double) TimeUnit.MILLISECONDS.toNanos(1) / 2);
+  }
+
+  @Test
+  public void testPeakEwmaRecordsStreamingLatencyOnFirstMessage() throws IOException {
+    channelPool =
+        new BigtableChannelPool(
+            BigtableChannelPoolSettings.staticallySized(1).toBuilder()
+                .setLoadBalancingStrategy(
+                    BigtableChannelPoolSettings.LoadBalancingStrategy.POWER_OF_TWO_PEAK_EWMA)
+                .build(),
+            mockChannelFactory,
+            mockChannelPrimer,
+            executorService);
+    BigtableChannelPool.Entry entry = getSingleEntry();
+    ClientCall.Listener<String> listener = startCall(streamingMethodDescriptor);
+    listener.onMessage("first");
+    double cost = entry.getLatencyCost(System.nanoTime());
+
+    // Later messages and the close of the stream don't count towards its latency
+    sleepAtLeastOneMilli();
+    listener.onMessage("second");
+    listener.onClose(Status.OK, new Metadata());
+
+    assertThat(entry.getLatencyCost(System.nanoTime())).isAtMost(cost);
+  }
+
+  @Test
+  public void testPeakEwmaAvoidsChannelThatFailsFast() {
+    BigtableChannelPool.Entry healthy = new BigtableChannelPool.Entry(mockChannel);
+    BigtableChannelPool.Entry failing = new BigtableChannelPool.Entry(mockChannel);
+    BigtableChannelPool.Entry[] entries = {healthy, failing};
+    healthy.recordLatency(TimeUnit.MILLISECONDS.toNanos(5), System.nanoTime());
+
+    // Errors that don't come from the channel aren't recorded
+    startTrackedCall(failing).onClose(Status.NOT_FOUND, new Metadata());
+    assertThat(failing.getLatencyCost(System.nanoTime())).isEqualTo(0);
+
+    startTrackedCall(failing).onClose(Status.UNAVAILABLE, new Metadata());
+
+    assertThat(failing.getLatencyCost(System.nanoTime()))
+        .isGreaterThan(healthy.getLatencyCost(System.nanoTime()));
+    assertThat(BigtableChannelPool.pickLowerLatencyCost(entries, 0, 1, System.nanoTime()))
+        .isEqualTo(0);
+    assertThat(BigtableChannelPool.pickLowerLatencyCost(entries, 1, 0, System.nanoTime()))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void testPeakEwmaLatency() {
+    BigtableChannelPool.Entry entry = new BigtableChannelPool.Entry(mockChannel);
+    long now = 0;
+    long decay = BigtableChannelPool.LATENCY_DECAY_NANOS;
+
+    // A slower sample replaces the average right away
+    entry.recordLatency(10, now);
+    entry.recordLatency(100, now);
+    assertThat(entry.getLatencyCost(now)).isEqualTo(100);
+
+    // A faster sample is averaged in by the time since the previous sample
+    now += decay;
+    entry.recordLatency(0, now);
+    assertThat(entry.getLatencyCost(now)).isWithin(0.001).of(100 / Math.E);
+
+    // The average decays while there are no samples, and is weighted by the outstanding RPCs
+    entry.retain(false);
+    assertThat(entry.getLatencyCost(now + decay)).isWithin(0.001).of(2 * 100 / Math.E / Math.E);
+  }
+
+  /**
+   * Simulates a pool of channels where one channel is 10 times slower than the others, and checks
+   * that the peak EWMA strategy sends few RPCs to it, while round robin would send it a quarter of
+   * them.
+   */
+  @Test
+  public void testPeakEwmaAvoidsSlowChannelSimulation() {
+    long fastLatency = TimeUnit.MILLISECONDS.toNanos(5);
+    long slowLatency = TimeUnit.MILLISECONDS.toNanos(50);
+    long interArrival = TimeUnit.MILLISECONDS.toNanos(1);
+    int rpcCount = 20_000;
+
+    BigtableChannelPool.Entry[] entries = {
+      new BigtableChannelPool.Entry(mockChannel),
+      new BigtableChannelPool.Entry(mockChannel),
+      new BigtableChannelPool.Entry(mockChannel),
+      new BigtableChannelPool.Entry(mockChannel)
+    };
+    int slowIndex = 2;
+    int[] picks = new int[entries.length];
+    long totalLatency = 0;
+
+    Random random = new Random(0);
+    // Completions ordered by time: {completion time, entry index, latency}
+    PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+
+    for (int i = 0; i < rpcCount; i++) {
+      long now = i * interArrival;
+      while (!completions.isEmpty() && completions.peek()[0] <= now) {
+        long[] completion = completions.poll();
+        BigtableChannelPool.Entry entry = entries[(int) completion[1]];
+        entry.release(false);
+        entry.recordLatency(completion[2], completion[0]);
+      }
+
+      int choice1 = random.nextInt(entries.length);
+      int choice2 = random.nextInt(entries.length);
+      if (choice1 == choice2) {
+        choice2 = random.nextInt(entries.length);
+      }
+      int index = BigtableChannelPool.pickLowerLatencyCost(entries, choice1, choice2, now);
+      assertThat(entries[index].retain(false)).isTrue();
+      picks[index]++;
+
+      long latency = index == slowIndex ? slowLatency : fastLatency;
+      totalLatency += latency;
+      completions.add(new long[] {now + latency, index, latency});
+    }
+
+    assertThat(picks[slowIndex]).isLessThan(rpcCount / 20);
+    // Round robin would average (3 * 5ms + 50ms) / 4 = 16.25ms
+    assertThat(totalLatency / rpcCount).isLessThan(TimeUnit.MILLISECONDS.toNanos(8));
+  }
+
+  @Test
+  public void testLeastInFlightPicksIdleChannel() throws IOException {
+    channelPool =
+        new BigtableChannelPool(
+            BigtableChannelPoolSettings.staticallySized(3).toBuilder()
+                .setLoadBalancingStrategy(
+                    BigtableChannelPoolSettings.LoadBalancingStrategy.LEAST_IN_FLIGHT)
+                .build(),
+            mockChannelFactory,
+            mockChannelPrimer,
+            executorService);
+    for (int i = 0; i < 6; i++) {
+      startCall(unaryMethodDescriptor);
+    }
+
+    // Every channel has 2 calls, close both calls of one of them
+    BigtableChannelPool.Entry idleEntry = channelPool.entries.get().get(1);
+    idleEntry.release(false);
+    idleEntry.release(false);
+    startCall(unaryMethodDescriptor);
+
+    assertThat(idleEntry.totalOutstandingRpcs()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRefreshedEntriesArePicked() {
+    BigtableChannelPool.Entry oldEntry = getSingleEntry();
+    channelPool.refresh();
+    BigtableChannelPool.Entry newEntry = getSingleEntry();
+    assertThat(newEntry).isNotSameInstanceAs(oldEntry);
+
+    startCall(unaryMethodDescriptor);
+
+    assertThat(oldEntry.totalOutstandingRpcs()).isEqualTo(0);
+    assertThat(newEntry.totalOutstandingRpcs()).isEqualTo(1);
+  }
+
+  private ClientCall.Listener<String> startTrackedCall(BigtableChannelPool.Entry entry) {
+    assertThat(entry.retain(false)).isTrue();
+    ClientCall<String, String> call =
+        new BigtableChannelPool.ReleasingClientCall<>(mockClientCall, entry, false, true);
+    call.start(new ClientCall.Listener<String>() {}, new Metadata());
+    return listenerCaptor.getValue();
+  }
+
+  private static void sleepAtLeastOneMilli() {
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1)) {
+      Thread.yield();
+    }
+  }
 }